@@ -1,8 +1,11 @@
 package com.documenthub.rules.engine;
 
+import com.documenthub.placeholder.PlaceholderTemplate;
 import com.documenthub.rules.evaluator.RuleEvaluator;
 import com.documenthub.rules.model.ExtractionRule;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.jayway.jsonpath.JsonPath;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,12 +14,11 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Custom rule engine that orchestrates data extraction and rule evaluation.
@@ -31,7 +33,13 @@ public class CustomRuleEngine {
     private final RuleEvaluator ruleEvaluator;
     private final ObjectMapper objectMapper;
 
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([^}]+)\\}");
+    /**
+     * Compiled placeholder templates by source string (data source URLs and header values).
+     * Bounded, since the strings come from rule definitions and change with them.
+     */
+    private final Cache<String, PlaceholderTemplate> templates = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build();
 
     /**
      * Evaluate a custom rule defined in JSON format.
@@ -134,7 +142,7 @@ public class CustomRuleEngine {
 
             return webClient
                     .method(org.springframework.http.HttpMethod.valueOf(dataSource.getEndpoint().getMethod()))
-                    .uri(url)
+                    .uri(URI.create(url))
                     .headers(headers -> {
                         if (dataSource.getEndpoint().getHeaders() != null) {
                             dataSource.getEndpoint().getHeaders().forEach((key, value) -> {
@@ -195,10 +203,10 @@ public class CustomRuleEngine {
     }
 
     /**
-     * Resolve URL with placeholders.
+     * Resolve URL with placeholders, URL-encoding the inserted values.
      */
     private String resolveUrl(String url, Map<String, Object> context) {
-        return resolvePlaceholders(url, context);
+        return logMissing(template(url).renderUrl(context));
     }
 
     /**
@@ -208,23 +216,17 @@ public class CustomRuleEngine {
         if (template == null) {
             return null;
         }
+        return logMissing(template(template).render(context));
+    }
 
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
-        StringBuffer result = new StringBuffer();
-
-        while (matcher.find()) {
-            String placeholder = matcher.group(1);
-            Object value = context.get(placeholder);
-            if (value != null) {
-                matcher.appendReplacement(result, String.valueOf(value));
-            } else {
-                log.warn("Placeholder {} not found in context", placeholder);
-                matcher.appendReplacement(result, matcher.group(0));
-            }
-        }
-        matcher.appendTail(result);
+    private PlaceholderTemplate template(String template) {
+        return templates.get(template, PlaceholderTemplate::compile);
+    }
 
-        return result.toString();
+    private String logMissing(PlaceholderTemplate.Rendered rendered) {
+        rendered.getMissing().forEach(placeholder ->
+                log.warn("Placeholder {} not found in context", placeholder));
+        return rendered.getValue();
     }
 
     /**
@@ -14,9 +14,8 @@ import java.util.concurrent.TimeUnit;
  * Configures Caffeine cache for caching:
  * - Rule engine configuration
  * - Data sources
- * - Eligibility rules
  *
- * Cache is invalidated when database configuration changes.
+ * Eligibility rules are not cached here: RuleSetManager reloads them when they change.
  */
 @Configuration
 public class CacheConfig {
@@ -32,10 +31,13 @@ public class CacheConfig {
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(
                 "ruleEngineConfiguration",
-                "dataSources",
-                "eligibilityRules"
+                "dataSources"
         );
 
+        // @Cacheable methods return Mono: async mode caches the emitted value,
+        // not the Mono (which would re-run the query on every subscription)
+        cacheManager.setAsyncCacheMode(true);
+
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(500)
                 .expireAfterWrite(10, TimeUnit.MINUTES)
@@ -0,0 +1,75 @@
+package com.example.eligibility.controller;
+
+import com.example.eligibility.model.RuleSetStatus;
+import com.example.eligibility.service.RuleSetManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rule Set Controller
+ *
+ * REST API for the rule set rollout.
+ *
+ * Endpoints:
+ * - GET /api/v1/rule-set - Active rule set and shadow evaluation of the candidate
+ * - POST /api/v1/rule-set/promote - Make the candidate rule set active
+ * - POST /api/v1/rule-set/reject - Discard the candidate rule set
+ */
+@RestController
+@RequestMapping("/api/v1/rule-set")
+public class RuleSetController {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleSetController.class);
+
+    private final RuleSetManager ruleSetManager;
+
+    public RuleSetController(RuleSetManager ruleSetManager) {
+        this.ruleSetManager = ruleSetManager;
+    }
+
+    /**
+     * Get rule set status
+     *
+     * @return Mono of RuleSetStatus
+     */
+    @GetMapping
+    public Mono<ResponseEntity<RuleSetStatus>> status() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(ruleSetManager.getStatus()));
+    }
+
+    /**
+     * Promote the candidate rule set
+     *
+     * @return Mono of RuleSetStatus, 409 if there is no candidate
+     */
+    @PostMapping("/promote")
+    public Mono<ResponseEntity<RuleSetStatus>> promote() {
+        return Mono.fromSupplier(() -> {
+            if (!ruleSetManager.promote()) {
+                log.warn("Promote requested without a candidate rule set");
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.ok(ruleSetManager.getStatus());
+        });
+    }
+
+    /**
+     * Reject the candidate rule set
+     *
+     * @return Mono of RuleSetStatus, 409 if there is no candidate
+     */
+    @PostMapping("/reject")
+    public Mono<ResponseEntity<RuleSetStatus>> reject() {
+        return Mono.fromSupplier(() -> {
+            if (!ruleSetManager.reject()) {
+                log.warn("Reject requested without a candidate rule set");
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.ok(ruleSetManager.getStatus());
+        });
+    }
+}
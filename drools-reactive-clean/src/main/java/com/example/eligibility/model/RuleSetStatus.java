@@ -0,0 +1,86 @@
+package com.example.eligibility.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rule Set Status
+ *
+ * Rule sets known to RuleSetManager:
+ * - The active rule set, which answers requests
+ * - The candidate rule set under shadow evaluation, if any
+ */
+public class RuleSetStatus {
+
+    private String rollout;
+    private RuleSetVersion activeVersion;
+    private int activeRuleCount;
+    private LocalDateTime activatedAt;
+    private ShadowReport candidate;
+
+    public RuleSetStatus() {
+    }
+
+    public RuleSetStatus(
+            String rollout,
+            RuleSetVersion activeVersion,
+            int activeRuleCount,
+            LocalDateTime activatedAt,
+            ShadowReport candidate
+    ) {
+        this.rollout = rollout;
+        this.activeVersion = activeVersion;
+        this.activeRuleCount = activeRuleCount;
+        this.activatedAt = activatedAt;
+        this.candidate = candidate;
+    }
+
+    public String getRollout() {
+        return rollout;
+    }
+
+    public void setRollout(String rollout) {
+        this.rollout = rollout;
+    }
+
+    public RuleSetVersion getActiveVersion() {
+        return activeVersion;
+    }
+
+    public void setActiveVersion(RuleSetVersion activeVersion) {
+        this.activeVersion = activeVersion;
+    }
+
+    public int getActiveRuleCount() {
+        return activeRuleCount;
+    }
+
+    public void setActiveRuleCount(int activeRuleCount) {
+        this.activeRuleCount = activeRuleCount;
+    }
+
+    public LocalDateTime getActivatedAt() {
+        return activatedAt;
+    }
+
+    public void setActivatedAt(LocalDateTime activatedAt) {
+        this.activatedAt = activatedAt;
+    }
+
+    public ShadowReport getCandidate() {
+        return candidate;
+    }
+
+    public void setCandidate(ShadowReport candidate) {
+        this.candidate = candidate;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleSetStatus{" +
+                "rollout='" + rollout + '\'' +
+                ", activeVersion=" + activeVersion +
+                ", activeRuleCount=" + activeRuleCount +
+                ", candidate=" + candidate +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.eligibility.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Rule Set Version
+ *
+ * Fingerprint of the eligibility_rules table, used to tell whether the
+ * compiled rule set is still current.
+ *
+ * - Inserts and deletes change ruleCount or maxId
+ * - Updates change lastUpdated (set by the update_eligibility_rules_updated_at trigger)
+ */
+public class RuleSetVersion {
+
+    private long ruleCount;
+    private Long maxId;
+    private LocalDateTime lastUpdated;
+
+    public RuleSetVersion() {
+    }
+
+    public RuleSetVersion(long ruleCount, Long maxId, LocalDateTime lastUpdated) {
+        this.ruleCount = ruleCount;
+        this.maxId = maxId;
+        this.lastUpdated = lastUpdated;
+    }
+
+    public long getRuleCount() {
+        return ruleCount;
+    }
+
+    public void setRuleCount(long ruleCount) {
+        this.ruleCount = ruleCount;
+    }
+
+    public Long getMaxId() {
+        return maxId;
+    }
+
+    public void setMaxId(Long maxId) {
+        this.maxId = maxId;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RuleSetVersion)) {
+            return false;
+        }
+        RuleSetVersion that = (RuleSetVersion) o;
+        return ruleCount == that.ruleCount
+                && Objects.equals(maxId, that.maxId)
+                && Objects.equals(lastUpdated, that.lastUpdated);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ruleCount, maxId, lastUpdated);
+    }
+
+    @Override
+    public String toString() {
+        return "RuleSetVersion{" +
+                "ruleCount=" + ruleCount +
+                ", maxId=" + maxId +
+                ", lastUpdated=" + lastUpdated +
+                '}';
+    }
+}
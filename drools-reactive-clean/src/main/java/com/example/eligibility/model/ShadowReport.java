@@ -0,0 +1,142 @@
+package com.example.eligibility.model;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Shadow Report
+ *
+ * Comparison of a candidate rule set with the active one, from shadow
+ * evaluations of live requests (see RuleSetManager).
+ *
+ * - Results: how many evaluations returned different documents, and the
+ *   difference for the last of them
+ * - Latency: average evaluation time of each rule set
+ */
+public class ShadowReport {
+
+    private RuleSetVersion candidateVersion;
+    private int candidateRuleCount;
+    private LocalDateTime startedAt;
+    private long evaluations;
+    private long mismatches;
+    private double activeAvgMicros;
+    private double candidateAvgMicros;
+    private Set<String> lastMismatchActiveOnly;
+    private Set<String> lastMismatchCandidateOnly;
+
+    public ShadowReport() {
+    }
+
+    public ShadowReport(
+            RuleSetVersion candidateVersion,
+            int candidateRuleCount,
+            LocalDateTime startedAt,
+            long evaluations,
+            long mismatches,
+            double activeAvgMicros,
+            double candidateAvgMicros,
+            Set<String> lastMismatchActiveOnly,
+            Set<String> lastMismatchCandidateOnly
+    ) {
+        this.candidateVersion = candidateVersion;
+        this.candidateRuleCount = candidateRuleCount;
+        this.startedAt = startedAt;
+        this.evaluations = evaluations;
+        this.mismatches = mismatches;
+        this.activeAvgMicros = activeAvgMicros;
+        this.candidateAvgMicros = candidateAvgMicros;
+        this.lastMismatchActiveOnly = lastMismatchActiveOnly;
+        this.lastMismatchCandidateOnly = lastMismatchCandidateOnly;
+    }
+
+    public RuleSetVersion getCandidateVersion() {
+        return candidateVersion;
+    }
+
+    public void setCandidateVersion(RuleSetVersion candidateVersion) {
+        this.candidateVersion = candidateVersion;
+    }
+
+    public int getCandidateRuleCount() {
+        return candidateRuleCount;
+    }
+
+    public void setCandidateRuleCount(int candidateRuleCount) {
+        this.candidateRuleCount = candidateRuleCount;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public void setEvaluations(long evaluations) {
+        this.evaluations = evaluations;
+    }
+
+    public long getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(long mismatches) {
+        this.mismatches = mismatches;
+    }
+
+    /**
+     * @return Fraction of shadow evaluations whose documents differ (0 without evaluations)
+     */
+    public double getMismatchRate() {
+        return evaluations == 0 ? 0 : (double) mismatches / evaluations;
+    }
+
+    public double getActiveAvgMicros() {
+        return activeAvgMicros;
+    }
+
+    public void setActiveAvgMicros(double activeAvgMicros) {
+        this.activeAvgMicros = activeAvgMicros;
+    }
+
+    public double getCandidateAvgMicros() {
+        return candidateAvgMicros;
+    }
+
+    public void setCandidateAvgMicros(double candidateAvgMicros) {
+        this.candidateAvgMicros = candidateAvgMicros;
+    }
+
+    public Set<String> getLastMismatchActiveOnly() {
+        return lastMismatchActiveOnly;
+    }
+
+    public void setLastMismatchActiveOnly(Set<String> lastMismatchActiveOnly) {
+        this.lastMismatchActiveOnly = lastMismatchActiveOnly;
+    }
+
+    public Set<String> getLastMismatchCandidateOnly() {
+        return lastMismatchCandidateOnly;
+    }
+
+    public void setLastMismatchCandidateOnly(Set<String> lastMismatchCandidateOnly) {
+        this.lastMismatchCandidateOnly = lastMismatchCandidateOnly;
+    }
+
+    @Override
+    public String toString() {
+        return "ShadowReport{" +
+                "candidateVersion=" + candidateVersion +
+                ", evaluations=" + evaluations +
+                ", mismatches=" + mismatches +
+                ", activeAvgMicros=" + activeAvgMicros +
+                ", candidateAvgMicros=" + candidateAvgMicros +
+                '}';
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.eligibility.repository;
 
 import com.example.eligibility.entity.EligibilityRuleEntity;
+import com.example.eligibility.model.RuleSetVersion;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Eligibility Rule Repository
@@ -29,4 +32,14 @@ public interface EligibilityRuleRepository extends ReactiveCrudRepository<Eligib
      * @return Flux of rules for the document
      */
     Flux<EligibilityRuleEntity> findByDocumentIdAndEnabledTrue(String documentId);
+
+    /**
+     * Fingerprint of the rules table
+     * Changes whenever a rule is inserted, updated or deleted
+     *
+     * @return Mono of the current rule set version
+     */
+    @Query("SELECT COUNT(*) AS rule_count, MAX(id) AS max_id, MAX(updated_at) AS last_updated "
+            + "FROM eligibility_rules")
+    Mono<RuleSetVersion> findRuleSetVersion();
 }
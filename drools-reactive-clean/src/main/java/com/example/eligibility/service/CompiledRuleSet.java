@@ -0,0 +1,144 @@
+package com.example.eligibility.service;
+
+import com.example.eligibility.entity.EligibilityRuleEntity;
+import com.example.eligibility.model.DataContext;
+import com.example.eligibility.model.RuleSetVersion;
+import com.example.ruleindex.RuleIndex;
+import com.example.ruleindex.RuleNode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiled Rule Set
+ *
+ * Immutable, precompiled form of the enabled eligibility rules.
+ *
+ * Compilation:
+ * 1. Each rule's conditions JSON is parsed once
+ * 2. Each expression becomes a RuleNode condition (eligibility-rule-index)
+ * 3. The rules are indexed in a RuleIndex: EQUALS / IN conditions by value, numeric
+ *    conditions by bound, with conditions shared between rules
+ *
+ * Evaluation only evaluates the rules the index selects as candidates for the data context.
+ *
+ * Evaluation results match RuleEvaluatorService's per-rule interpretation:
+ * - Missing fields never match
+ * - EQUALS / IN compare string forms
+ * - Numeric comparisons use BigDecimal; non-numeric values never match
+ * - Rules whose conditions cannot be parsed never match
+ */
+public final class CompiledRuleSet {
+
+    private static final Logger log = LoggerFactory.getLogger(CompiledRuleSet.class);
+
+    private final RuleSetVersion version;
+    private final RuleIndex<String> index;
+
+    private CompiledRuleSet(RuleSetVersion version, RuleIndex<String> index) {
+        this.version = version;
+        this.index = index;
+    }
+
+    /**
+     * Compile rules
+     *
+     * @param version Version of the rules table the rules were loaded at
+     * @param rules Enabled rules
+     * @param objectMapper Mapper for the conditions JSON
+     * @return Compiled rule set
+     */
+    public static CompiledRuleSet compile(
+            RuleSetVersion version,
+            List<EligibilityRuleEntity> rules,
+            ObjectMapper objectMapper
+    ) {
+        RuleIndex.Builder<String> builder = RuleIndex.builder();
+        for (EligibilityRuleEntity rule : rules) {
+            RuleNode conditions = compileRule(rule, objectMapper);
+            if (conditions != null) {
+                builder.add(rule.getDocumentId(), conditions);
+            }
+        }
+        RuleIndex<String> index = builder.build();
+
+        log.info("Compiled eligibility rules: {}", index);
+
+        return new CompiledRuleSet(version, index);
+    }
+
+    /**
+     * Evaluate the rules against fetched data
+     *
+     * @param dataContext Data fetched from external APIs
+     * @return Set of eligible document IDs
+     */
+    public Set<String> evaluate(DataContext dataContext) {
+        return new HashSet<>(index.match(dataContext::getField));
+    }
+
+    public RuleSetVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Number of compiled rules
+     */
+    public int size() {
+        return index.size();
+    }
+
+    // ============================================
+    // Compilation
+    // ============================================
+
+    private static RuleNode compileRule(EligibilityRuleEntity rule, ObjectMapper objectMapper) {
+        try {
+            JsonNode conditions = objectMapper.readTree(rule.getConditions().asString());
+
+            boolean all = conditions.path("type").asText("ALL").equals("ALL");
+            JsonNode expressions = conditions.path("expressions");
+            if (!expressions.isArray()) {
+                log.warn("Rule {} has no expressions, it never matches", rule.getRuleId());
+                return null;
+            }
+
+            List<RuleNode> compiled = new ArrayList<>();
+            for (JsonNode expr : expressions) {
+                compiled.add(compileExpression(expr));
+            }
+            return all ? RuleNode.all(compiled) : RuleNode.any(compiled);
+
+        } catch (Exception e) {
+            log.error("Error compiling rule {}: {}", rule.getRuleId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static RuleNode compileExpression(JsonNode expr) {
+        JsonNode valueNode = expr.path("value");
+
+        // IN lists compare the text of each item; other operators the text of the value
+        Object value;
+        if (valueNode.isArray()) {
+            List<String> values = new ArrayList<>();
+            valueNode.forEach(item -> values.add(item.asText()));
+            value = values;
+        } else {
+            value = valueNode.asText();
+        }
+
+        return RuleNode.condition(
+                expr.path("source").asText(),
+                expr.path("field").asText(),
+                expr.path("operator").asText(),
+                value
+        );
+    }
+}
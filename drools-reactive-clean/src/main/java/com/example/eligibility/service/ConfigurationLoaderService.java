@@ -65,12 +65,12 @@ public class ConfigurationLoaderService {
     /**
      * Load all enabled eligibility rules from database
      *
-     * Results are cached for performance.
+     * Not cached: RuleSetManager loads the rules only when the table changes,
+     * and a cached list would hide the change for the cache TTL.
      * Rules are ordered by priority (higher priority first).
      *
      * @return Mono of list of eligibility rule entities
      */
-    @Cacheable("eligibilityRules")
     public Mono<List<EligibilityRuleEntity>> loadEligibilityRules() {
         log.debug("Loading eligibility rules from database");
 
@@ -5,15 +5,12 @@ import com.example.eligibility.model.EligibilityRequest;
 import com.example.eligibility.model.EligibilityResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Eligibility Service (Main Orchestrator)
@@ -26,8 +23,9 @@ import java.util.Set;
  * 3. Evaluate rules (RuleEvaluatorService)
  * 4. Return eligible documents
  *
- * This service is fully reactive except for the rule evaluation step,
- * which is offloaded to a separate thread pool.
+ * This service is fully reactive. Rule sets are compiled on the drools
+ * scheduler when rules change (RuleSetManager); evaluating a compiled
+ * rule set does not block.
  */
 @Service
 public class EligibilityService {
@@ -36,16 +34,13 @@ public class EligibilityService {
 
     private final DataFetcherService dataFetcher;
     private final RuleEvaluatorService ruleEvaluator;
-    private final Scheduler droolsScheduler;
 
     public EligibilityService(
             DataFetcherService dataFetcher,
-            RuleEvaluatorService ruleEvaluator,
-            @Qualifier("droolsScheduler") Scheduler droolsScheduler
+            RuleEvaluatorService ruleEvaluator
     ) {
         this.dataFetcher = dataFetcher;
         this.ruleEvaluator = ruleEvaluator;
-        this.droolsScheduler = droolsScheduler;
     }
 
     /**
@@ -67,10 +62,9 @@ public class EligibilityService {
 
         // Step 1: Fetch data from external APIs (reactive)
         return dataFetcher.fetchAllData(parameters)
-                // Step 2: Evaluate rules (blocking, so offload to drools scheduler)
+                // Step 2: Evaluate rules (reactive)
                 .flatMap(dataContext ->
-                        Mono.fromCallable(() -> ruleEvaluator.evaluateRules(dataContext))
-                                .subscribeOn(droolsScheduler)
+                        ruleEvaluator.evaluateRules(dataContext)
                                 .timeout(Duration.ofMillis(500))
                 )
                 // Step 3: Build response
@@ -0,0 +1,344 @@
+package com.example.eligibility.service;
+
+import com.example.eligibility.model.DataContext;
+import com.example.eligibility.model.RuleSetStatus;
+import com.example.eligibility.model.RuleSetVersion;
+import com.example.eligibility.model.ShadowReport;
+import com.example.eligibility.repository.EligibilityRuleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rule Set Manager
+ *
+ * Keeps the compiled rule set in step with the eligibility_rules table, off the request path.
+ *
+ * Flow:
+ * 1. Every refresh interval, read the table's version (one aggregate query, see
+ *    EligibilityRuleRepository#findRuleSetVersion)
+ * 2. New version: load the enabled rules and compile them on the drools scheduler
+ * 3. Roll the new rule set out:
+ *    - IMMEDIATE: swap it in as the active rule set
+ *    - SHADOW: keep it as candidate; sampled requests also evaluate it on the drools
+ *      scheduler, comparing documents and latency with the active rule set, until it
+ *      is promoted or rejected (RuleSetController)
+ *
+ * Requests evaluate the rule set that was active when they started: compiled rule sets are
+ * immutable, so a swap never affects in-flight evaluations.
+ *
+ * A failed refresh keeps the current rule set; the next refresh retries. Until a first
+ * rule set is active, requests wait for it at most the initial load timeout, and fail at
+ * once while the last refresh failed.
+ */
+@Service
+public class RuleSetManager {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleSetManager.class);
+
+    /**
+     * How new rule sets become active
+     */
+    public enum Rollout {
+        IMMEDIATE,
+        SHADOW
+    }
+
+    private final EligibilityRuleRepository ruleRepository;
+    private final ConfigurationLoaderService configLoader;
+    private final ObjectMapper objectMapper;
+    private final Scheduler droolsScheduler;
+    private final Duration refreshInterval;
+    private final Rollout rollout;
+    private final double shadowSampleRate;
+    private final Duration initialLoadTimeout;
+
+    private final AtomicReference<CompiledRuleSet> active = new AtomicReference<>();
+    private final AtomicReference<Shadow> candidate = new AtomicReference<>();
+    private final Sinks.One<CompiledRuleSet> firstRuleSet = Sinks.one();
+
+    private volatile LocalDateTime activatedAt;
+    private volatile RuleSetVersion rejectedVersion;
+    private volatile Throwable lastRefreshError;
+    private Disposable watcher;
+
+    public RuleSetManager(
+            EligibilityRuleRepository ruleRepository,
+            ConfigurationLoaderService configLoader,
+            ObjectMapper objectMapper,
+            @Qualifier("droolsScheduler") Scheduler droolsScheduler,
+            @Value("${drools.rule-set.refresh-interval-ms:10000}") long refreshIntervalMs,
+            @Value("${drools.rule-set.rollout:IMMEDIATE}") Rollout rollout,
+            @Value("${drools.rule-set.shadow-sample-rate:1.0}") double shadowSampleRate,
+            @Value("${drools.rule-set.initial-load-timeout-ms:30000}") long initialLoadTimeoutMs
+    ) {
+        this.ruleRepository = ruleRepository;
+        this.configLoader = configLoader;
+        this.objectMapper = objectMapper;
+        this.droolsScheduler = droolsScheduler;
+        this.refreshInterval = Duration.ofMillis(refreshIntervalMs);
+        this.rollout = rollout;
+        this.shadowSampleRate = shadowSampleRate;
+        this.initialLoadTimeout = Duration.ofMillis(initialLoadTimeoutMs);
+    }
+
+    /**
+     * Start watching the rules table (the first refresh loads the initial rule set)
+     */
+    @PostConstruct
+    public void start() {
+        log.info("Watching eligibility rules every {}ms, rollout {}", refreshInterval.toMillis(), rollout);
+
+        watcher = Flux.interval(Duration.ZERO, refreshInterval, droolsScheduler)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(error -> {
+                            log.error("Error refreshing rule set: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watcher != null) {
+            watcher.dispose();
+        }
+    }
+
+    /**
+     * Get the active rule set
+     *
+     * Before the first rule set is compiled, waits for it, up to the initial load timeout.
+     * Fails at once if no rule set is active because the last refresh failed.
+     *
+     * @return Mono of the active compiled rule set
+     */
+    public Mono<CompiledRuleSet> getRuleSet() {
+        return Mono.defer(() -> {
+            CompiledRuleSet ruleSet = active.get();
+            if (ruleSet != null) {
+                return Mono.just(ruleSet);
+            }
+            Throwable error = lastRefreshError;
+            if (error != null) {
+                return Mono.error(new IllegalStateException("No rule set loaded: " + error.getMessage(), error));
+            }
+            return firstRuleSet.asMono()
+                    .timeout(initialLoadTimeout, Mono.error(() -> new IllegalStateException(
+                            "No rule set loaded within " + initialLoadTimeout.toMillis() + "ms")));
+        });
+    }
+
+    /**
+     * Shadow-evaluate the candidate rule set, if any, for a request
+     *
+     * Runs on the drools scheduler; the request does not wait for it.
+     *
+     * @param dataContext Data the active rule set was evaluated with
+     * @param activeResult Documents of the active rule set
+     * @param activeNanos Evaluation time of the active rule set
+     */
+    public void shadowEvaluate(DataContext dataContext, Set<String> activeResult, long activeNanos) {
+        Shadow shadow = candidate.get();
+        if (shadow == null || ThreadLocalRandom.current().nextDouble() >= shadowSampleRate) {
+            return;
+        }
+
+        Mono.fromRunnable(() -> shadow.evaluate(dataContext, activeResult, activeNanos))
+                .subscribeOn(droolsScheduler)
+                .subscribe(null, error -> log.warn("Shadow evaluation failed: {}", error.getMessage()));
+    }
+
+    /**
+     * Check the rules table and compile and roll out a new version
+     *
+     * @return Mono completing when the refresh is done
+     */
+    public Mono<Void> refresh() {
+        return ruleRepository.findRuleSetVersion()
+                .defaultIfEmpty(new RuleSetVersion())
+                .flatMap(version -> {
+                    CompiledRuleSet current = active.get();
+                    if (current != null && current.getVersion().equals(version)) {
+                        discardCandidate("rules are back at the active version");
+                        return Mono.empty();
+                    }
+                    Shadow shadow = candidate.get();
+                    if (shadow != null && shadow.ruleSet.getVersion().equals(version)
+                            || version.equals(rejectedVersion)) {
+                        return Mono.empty();
+                    }
+                    return compile(version);
+                })
+                .doOnNext(this::rollOut)
+                .then()
+                .doOnSuccess(done -> lastRefreshError = null)
+                .doOnError(error -> lastRefreshError = error);
+    }
+
+    /**
+     * Make the candidate rule set the active one
+     *
+     * @return false if there is no candidate
+     */
+    public boolean promote() {
+        Shadow shadow = candidate.getAndSet(null);
+        if (shadow == null) {
+            return false;
+        }
+
+        log.info("Promoting candidate rule set after shadow evaluation: {}", shadow.report());
+        activate(shadow.ruleSet);
+        return true;
+    }
+
+    /**
+     * Discard the candidate rule set; its version is not compiled again
+     *
+     * @return false if there is no candidate
+     */
+    public boolean reject() {
+        Shadow shadow = candidate.getAndSet(null);
+        if (shadow == null) {
+            return false;
+        }
+
+        rejectedVersion = shadow.ruleSet.getVersion();
+        log.info("Rejected candidate rule set after shadow evaluation: {}", shadow.report());
+        return true;
+    }
+
+    /**
+     * @return Active and candidate rule sets
+     */
+    public RuleSetStatus getStatus() {
+        CompiledRuleSet ruleSet = active.get();
+        Shadow shadow = candidate.get();
+
+        return new RuleSetStatus(
+                rollout.name(),
+                ruleSet != null ? ruleSet.getVersion() : null,
+                ruleSet != null ? ruleSet.size() : 0,
+                activatedAt,
+                shadow != null ? shadow.report() : null
+        );
+    }
+
+    /**
+     * Load and compile the enabled rules
+     *
+     * @param version Version of the rules table
+     * @return Mono of the compiled rule set
+     */
+    private Mono<CompiledRuleSet> compile(RuleSetVersion version) {
+        log.info("Rules changed ({}), compiling rule set", version);
+
+        return configLoader.loadEligibilityRules()
+                .publishOn(droolsScheduler)
+                .map(rules -> CompiledRuleSet.compile(version, rules, objectMapper));
+    }
+
+    private void rollOut(CompiledRuleSet ruleSet) {
+        if (rollout == Rollout.SHADOW && active.get() != null) {
+            Shadow previous = candidate.getAndSet(new Shadow(ruleSet));
+            if (previous != null) {
+                log.info("Replaced candidate rule set: {}", previous.report());
+            }
+            log.info("Shadow evaluating rule set {} ({} rules)", ruleSet.getVersion(), ruleSet.size());
+            return;
+        }
+
+        activate(ruleSet);
+    }
+
+    private void activate(CompiledRuleSet ruleSet) {
+        CompiledRuleSet previous = active.getAndSet(ruleSet);
+        activatedAt = LocalDateTime.now();
+        firstRuleSet.tryEmitValue(ruleSet);
+
+        log.info("Activated rule set {} ({} rules), replacing {}",
+                ruleSet.getVersion(), ruleSet.size(), previous != null ? previous.getVersion() : "none");
+    }
+
+    private void discardCandidate(String reason) {
+        Shadow shadow = candidate.getAndSet(null);
+        if (shadow != null) {
+            log.info("Discarded candidate rule set, {}: {}", reason, shadow.report());
+        }
+    }
+
+    /**
+     * A candidate rule set and its shadow evaluation statistics
+     */
+    private static final class Shadow {
+
+        final CompiledRuleSet ruleSet;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder mismatches = new LongAdder();
+        final LongAdder activeNanos = new LongAdder();
+        final LongAdder candidateNanos = new LongAdder();
+
+        volatile Set<String> lastMismatchActiveOnly;
+        volatile Set<String> lastMismatchCandidateOnly;
+
+        Shadow(CompiledRuleSet ruleSet) {
+            this.ruleSet = ruleSet;
+        }
+
+        void evaluate(DataContext dataContext, Set<String> activeResult, long activeTime) {
+            long startTime = System.nanoTime();
+            Set<String> candidateResult = ruleSet.evaluate(dataContext);
+            candidateNanos.add(System.nanoTime() - startTime);
+            activeNanos.add(activeTime);
+            evaluations.increment();
+
+            if (!candidateResult.equals(activeResult)) {
+                mismatches.increment();
+
+                Set<String> activeOnly = new HashSet<>(activeResult);
+                activeOnly.removeAll(candidateResult);
+                Set<String> candidateOnly = new HashSet<>(candidateResult);
+                candidateOnly.removeAll(activeResult);
+                lastMismatchActiveOnly = activeOnly;
+                lastMismatchCandidateOnly = candidateOnly;
+
+                log.debug("Shadow mismatch: active only {}, candidate only {}", activeOnly, candidateOnly);
+            }
+        }
+
+        ShadowReport report() {
+            long count = evaluations.sum();
+            return new ShadowReport(
+                    ruleSet.getVersion(),
+                    ruleSet.size(),
+                    startedAt,
+                    count,
+                    mismatches.sum(),
+                    count == 0 ? 0 : activeNanos.sum() / 1000.0 / count,
+                    count == 0 ? 0 : candidateNanos.sum() / 1000.0 / count,
+                    lastMismatchActiveOnly,
+                    lastMismatchCandidateOnly
+            );
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.eligibility.service;
+
+import com.example.eligibility.entity.EligibilityRuleEntity;
+import com.example.eligibility.model.DataContext;
+import com.example.eligibility.model.RuleSetStatus;
+import com.example.eligibility.model.RuleSetVersion;
+import com.example.eligibility.repository.EligibilityRuleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.codec.Json;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RuleSetManager
+ */
+@DisplayName("RuleSetManager Tests")
+class RuleSetManagerTest {
+
+    private static final String AGREEMENTS = "cardholder_agreements_api";
+
+    private static final RuleSetVersion V1 = new RuleSetVersion(1, 1L, null);
+    private static final RuleSetVersion V2 = new RuleSetVersion(1, 2L, null);
+    private static final RuleSetVersion V3 = new RuleSetVersion(1, 3L, null);
+
+    private EligibilityRuleRepository ruleRepository;
+    private ConfigurationLoaderService configLoader;
+
+    @BeforeEach
+    void setUp() {
+        ruleRepository = mock(EligibilityRuleRepository.class);
+        configLoader = mock(ConfigurationLoaderService.class);
+    }
+
+    @Nested
+    @DisplayName("Immediate Rollout")
+    class ImmediateRolloutTests {
+
+        @Test
+        @DisplayName("Should activate the first rule set and swap in new versions")
+        void shouldSwapRuleSet_whenVersionChanges() {
+            // Given
+            RuleSetManager manager = manager(RuleSetManager.Rollout.IMMEDIATE);
+            loadRules(V1, rule("DOC-GOLD", "TNC_GOLD"));
+            manager.refresh().block();
+            CompiledRuleSet first = manager.getRuleSet().block();
+
+            // When
+            loadRules(V2, rule("DOC-SILVER", "TNC_GOLD"));
+            manager.refresh().block();
+
+            // Then - the rule set taken before the swap is unchanged
+            CompiledRuleSet second = manager.getRuleSet().block();
+            assertEquals(V2, second.getVersion());
+            assertEquals(Set.of("DOC-SILVER"), second.evaluate(gold()));
+            assertEquals(Set.of("DOC-GOLD"), first.evaluate(gold()));
+        }
+
+        @Test
+        @DisplayName("Should not recompile when the version is unchanged")
+        void shouldNotRecompile_whenVersionUnchanged() {
+            // Given
+            RuleSetManager manager = manager(RuleSetManager.Rollout.IMMEDIATE);
+            loadRules(V1, rule("DOC-GOLD", "TNC_GOLD"));
+
+            // When
+            manager.refresh().block();
+            manager.refresh().block();
+
+            // Then
+            verify(configLoader, times(1)).loadEligibilityRules();
+        }
+    }
+
+    @Nested
+    @DisplayName("Shadow Rollout")
+    class ShadowRolloutTests {
+
+        @Test
+        @DisplayName("Should keep a new version as candidate and compare it on requests")
+        void shouldShadowEvaluateCandidate() {
+            // Given
+            RuleSetManager manager = shadowManagerWithCandidate();
+            CompiledRuleSet active = manager.getRuleSet().block();
+
+            // When
+            manager.shadowEvaluate(gold(), active.evaluate(gold()), 1000);
+
+            // Then
+            RuleSetStatus status = manager.getStatus();
+            assertEquals(V1, status.getActiveVersion());
+            assertEquals(V2, status.getCandidate().getCandidateVersion());
+            assertEquals(1, status.getCandidate().getEvaluations());
+            assertEquals(1, status.getCandidate().getMismatches());
+            assertEquals(Set.of("DOC-GOLD"), status.getCandidate().getLastMismatchActiveOnly());
+            assertEquals(Set.of("DOC-SILVER"), status.getCandidate().getLastMismatchCandidateOnly());
+        }
+
+        @Test
+        @DisplayName("Should activate the candidate when promoted")
+        void shouldActivateCandidate_whenPromoted() {
+            // Given
+            RuleSetManager manager = shadowManagerWithCandidate();
+
+            // When
+            boolean promoted = manager.promote();
+
+            // Then
+            assertTrue(promoted);
+            assertEquals(V2, manager.getRuleSet().block().getVersion());
+            assertNull(manager.getStatus().getCandidate());
+            assertFalse(manager.promote());
+        }
+
+        @Test
+        @DisplayName("Should not compile a rejected version again")
+        void shouldNotRecompile_whenRejected() {
+            // Given
+            RuleSetManager manager = shadowManagerWithCandidate();
+
+            // When
+            boolean rejected = manager.reject();
+            manager.refresh().block();
+
+            // Then
+            assertTrue(rejected);
+            assertNull(manager.getStatus().getCandidate());
+            assertEquals(V1, manager.getRuleSet().block().getVersion());
+            verify(configLoader, times(2)).loadEligibilityRules();
+            assertFalse(manager.reject());
+        }
+
+        @Test
+        @DisplayName("Should compile a newer version after a rejection")
+        void shouldCompileNewerVersion_afterRejection() {
+            // Given
+            RuleSetManager manager = shadowManagerWithCandidate();
+            manager.reject();
+
+            // When
+            loadRules(V3, rule("DOC-PLATINUM", "TNC_GOLD"));
+            manager.refresh().block();
+
+            // Then
+            assertEquals(V3, manager.getStatus().getCandidate().getCandidateVersion());
+        }
+
+        @Test
+        @DisplayName("Should discard the candidate when the rules are back at the active version")
+        void shouldDiscardCandidate_whenRulesRevert() {
+            // Given
+            RuleSetManager manager = shadowManagerWithCandidate();
+
+            // When
+            when(ruleRepository.findRuleSetVersion()).thenReturn(Mono.just(V1));
+            manager.refresh().block();
+
+            // Then
+            assertNull(manager.getStatus().getCandidate());
+            assertEquals(V1, manager.getRuleSet().block().getVersion());
+        }
+
+        /**
+         * Shadow manager with V1 (DOC-GOLD) active and V2 (DOC-SILVER) as candidate
+         */
+        private RuleSetManager shadowManagerWithCandidate() {
+            RuleSetManager manager = manager(RuleSetManager.Rollout.SHADOW);
+            loadRules(V1, rule("DOC-GOLD", "TNC_GOLD"));
+            manager.refresh().block();
+            loadRules(V2, rule("DOC-SILVER", "TNC_GOLD"));
+            manager.refresh().block();
+            return manager;
+        }
+    }
+
+    @Nested
+    @DisplayName("Initial Load")
+    class InitialLoadTests {
+
+        @Test
+        @DisplayName("Should wait for the first rule set")
+        void shouldWaitForFirstRuleSet() {
+            // Given
+            RuleSetManager manager = manager(RuleSetManager.Rollout.IMMEDIATE);
+            loadRules(V1, rule("DOC-GOLD", "TNC_GOLD"));
+
+            // When / Then
+            StepVerifier.create(manager.getRuleSet())
+                    .then(() -> manager.refresh().block())
+                    .assertNext(ruleSet -> assertEquals(V1, ruleSet.getVersion()))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should fail at once when the first load failed")
+        void shouldFail_whenFirstLoadFailed() {
+            // Given
+            RuleSetManager manager = manager(RuleSetManager.Rollout.IMMEDIATE);
+            when(ruleRepository.findRuleSetVersion()).thenReturn(Mono.error(new RuntimeException("DB down")));
+
+            // When
+            StepVerifier.create(manager.refresh()).verifyError();
+
+            // Then
+            StepVerifier.create(manager.getRuleSet())
+                    .expectErrorMatches(error -> error instanceof IllegalStateException
+                            && error.getMessage().contains("DB down"))
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        @Test
+        @DisplayName("Should fail after the initial load timeout when no rule set is loaded")
+        void shouldFail_whenInitialLoadTimesOut() {
+            // Given
+            RuleSetManager manager = manager(RuleSetManager.Rollout.IMMEDIATE);
+
+            // When / Then
+            StepVerifier.withVirtualTime(manager::getRuleSet)
+                    .expectSubscription()
+                    .expectNoEvent(Duration.ofMillis(999))
+                    .thenAwait(Duration.ofMillis(1))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+        }
+    }
+
+    // Helper methods
+    private RuleSetManager manager(RuleSetManager.Rollout rollout) {
+        return new RuleSetManager(ruleRepository, configLoader, new ObjectMapper(),
+                Schedulers.immediate(), 10000, rollout, 1.0, 1000);
+    }
+
+    private void loadRules(RuleSetVersion version, EligibilityRuleEntity... rules) {
+        when(ruleRepository.findRuleSetVersion()).thenReturn(Mono.just(version));
+        when(configLoader.loadEligibilityRules()).thenReturn(Mono.just(List.of(rules)));
+    }
+
+    private EligibilityRuleEntity rule(String documentId, String tncCode) {
+        EligibilityRuleEntity rule = new EligibilityRuleEntity();
+        rule.setRuleId("RULE-" + documentId);
+        rule.setDocumentId(documentId);
+        rule.setConditions(Json.of("{\"type\":\"ALL\",\"expressions\":[{\"source\":\"" + AGREEMENTS
+                + "\",\"field\":\"tncCode\",\"operator\":\"EQUALS\",\"value\":\"" + tncCode + "\"}]}"));
+        return rule;
+    }
+
+    private DataContext gold() {
+        DataContext dataContext = new DataContext();
+        dataContext.addSourceData(AGREEMENTS, Map.of("tncCode", "TNC_GOLD"));
+        return dataContext;
+    }
+}
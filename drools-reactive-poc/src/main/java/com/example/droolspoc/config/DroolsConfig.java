@@ -1,17 +1,15 @@
 package com.example.droolspoc.config;
 
-import org.kie.api.KieServices;
-import org.kie.api.builder.KieBuilder;
-import org.kie.api.builder.KieFileSystem;
-import org.kie.api.builder.Message;
-import org.kie.api.runtime.KieContainer;
+import org.drools.modelcompiler.CanonicalKieModule;
+import org.drools.modelcompiler.CanonicalKieModuleModel;
+import org.drools.modelcompiler.KieBaseBuilder;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSessionsPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
@@ -19,8 +17,9 @@ import reactor.core.scheduler.Schedulers;
  * Drools Configuration for Reactive Integration
  *
  * Sets up:
- * 1. KieContainer - Compiles and holds DRL rules
- * 2. Scheduler - Dedicated thread pool for Drools execution
+ * 1. KieBase - Holds the rules, precompiled to the executable model
+ * 2. KieSessionsPool - Reusable sessions for rule execution
+ * 3. Scheduler - Dedicated thread pool for Drools execution
  *
  * The Scheduler ensures Drools blocking operations don't block the reactive event loop.
  */
@@ -58,71 +57,55 @@ public class DroolsConfig {
     }
 
     /**
-     * Create KieContainer that compiles and holds all DRL rules.
+     * Create KieBase from the precompiled executable rule model.
      *
-     * Rules loaded from classpath:rules/*.drl at startup.
-     * Compilation happens once, execution many times (fast).
+     * The DRL in classpath:rules/*.drl is compiled at build time by RuleModelGenerator
+     * (mvn process-classes), so startup only loads the generated classes: no DRL parsing
+     * or Java compilation.
      */
     @Bean
-    public KieContainer kieContainer() {
-        log.info("Initializing Drools KieContainer...");
+    public KieBase kieBase() {
+        log.info("Loading precompiled Drools rule model...");
 
-        KieServices kieServices = KieServices.Factory.get();
-        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        long startTime = System.currentTimeMillis();
 
+        CanonicalKieModuleModel ruleModel;
         try {
-            // Load all .drl files from classpath:rules/
-            PathMatchingResourcePatternResolver resolver =
-                new PathMatchingResourcePatternResolver();
-            Resource[] resources = resolver.getResources("classpath:rules/*.drl");
-
-            if (resources.length == 0) {
-                throw new RuntimeException(
-                    "No DRL rule files found in classpath:rules/. " +
-                    "Add at least one .drl file to src/main/resources/rules/"
-                );
-            }
-
-            log.info("Loading {} DRL rule file(s)", resources.length);
-
-            // Add each DRL file to Kie file system
-            for (Resource resource : resources) {
-                String filename = resource.getFilename();
-                log.info("  - Loading rule file: {}", filename);
-
-                kieFileSystem.write(
-                    "src/main/resources/rules/" + filename,
-                    kieServices.getResources()
-                        .newInputStreamResource(resource.getInputStream())
-                );
-            }
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load Drools rule files", e);
+            ruleModel = (CanonicalKieModuleModel) Class
+                .forName(CanonicalKieModule.PROJECT_MODEL_CLASS, true, DroolsConfig.class.getClassLoader())
+                .getDeclaredConstructor()
+                .newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(
+                "Precompiled Drools rule model not found. " +
+                "Run the Maven build (mvn process-classes) to compile src/main/resources/rules/*.drl", e);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to load precompiled Drools rule model", e);
         }
 
-        // Build rules
-        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
-        kieBuilder.buildAll();
+        KieBase kieBase = KieBaseBuilder.createKieBaseFromModel(ruleModel.getModels());
 
-        // Check for compilation errors
-        if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
-            throw new RuntimeException(
-                "Failed to compile Drools rules:\n" +
-                kieBuilder.getResults().toString()
-            );
-        }
+        int ruleCount = kieBase.getKiePackages().stream()
+            .mapToInt(kiePackage -> kiePackage.getRules().size())
+            .sum();
+        log.info("Drools rules loaded in {}ms: {} rules",
+            System.currentTimeMillis() - startTime, ruleCount);
 
-        // Log warnings
-        if (kieBuilder.getResults().hasMessages(Message.Level.WARNING)) {
-            log.warn("Drools rule compilation warnings:\n{}",
-                kieBuilder.getResults().toString());
-        }
+        return kieBase;
+    }
 
-        log.info("Drools rules compiled successfully");
+    /**
+     * Create pool of reusable KieSessions.
+     *
+     * Creating a KieSession per request allocates its working memory and agenda every time.
+     * Pooled sessions are reset and returned to the pool by dispose() instead.
+     *
+     * Sized to the Drools thread pool: each thread uses one session at a time.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public KieSessionsPool kieSessionsPool(KieBase kieBase) {
+        log.info("Creating KieSession pool with {} sessions", threadPoolSize);
 
-        return kieServices.newKieContainer(
-            kieServices.getRepository().getDefaultReleaseId()
-        );
+        return kieBase.newKieSessionsPool(threadPoolSize);
     }
 }
@@ -0,0 +1,138 @@
+package com.example.droolspoc.config;
+
+import ch.qos.logback.classic.Level;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.model.codegen.ExecutableModelProject;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Rule Model Generator - Compiles DRL rules into the Drools executable model
+ *
+ * The executable model is the DRL translated to plain Java (lambdas for constraints and
+ * consequences) and compiled to bytecode. Loading it skips DRL parsing, expression analysis
+ * and Java compilation at startup: DroolsConfig builds the KieBase from the generated
+ * org.drools.project.model.ProjectModel class.
+ *
+ * Runs at build time (exec-maven-plugin, process-classes phase):
+ * 1. Reads classpath:rules/*.drl from the compiled classes
+ * 2. Builds them with ExecutableModelProject
+ * 3. Writes the generated classes to the directory given as first argument (target/classes)
+ *
+ * Needs drools-model-codegen, which is a provided dependency excluded from the application
+ * jar, and so is this class.
+ */
+public final class RuleModelGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleModelGenerator.class);
+
+    private static final String RULES_PATTERN = "classpath:rules/*.drl";
+
+    private RuleModelGenerator() {
+    }
+
+    /**
+     * Build step entry point
+     *
+     * @param args Output directory of the generated classes
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: RuleModelGenerator <output directory>");
+        }
+
+        // Without a logback configuration the build logs at DEBUG, including the generated sources
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        long startTime = System.currentTimeMillis();
+
+        Resource[] rules = new PathMatchingResourcePatternResolver().getResources(RULES_PATTERN);
+        int classCount = writeClasses(compile(rules), Paths.get(args[0]));
+
+        log.info("Generated executable rule model: {} classes from {} DRL file(s) in {}ms",
+            classCount, rules.length, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Compile DRL rules into an executable model KJAR
+     *
+     * @param rules DRL rule files
+     * @return KJAR bytes
+     */
+    public static byte[] compile(Resource[] rules) throws IOException {
+        if (rules.length == 0) {
+            throw new IllegalStateException(
+                "No DRL rule files found in classpath:rules/. " +
+                "Add at least one .drl file to src/main/resources/rules/"
+            );
+        }
+
+        KieServices kieServices = KieServices.Factory.get();
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+
+        for (Resource resource : rules) {
+            log.info("  - Compiling rule file: {}", resource.getFilename());
+            try (InputStream in = resource.getInputStream()) {
+                kieFileSystem.write("src/main/resources/rules/" + resource.getFilename(), in.readAllBytes());
+            }
+        }
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem)
+            .buildAll(ExecutableModelProject.class);
+
+        if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
+            throw new IllegalStateException(
+                "Failed to compile Drools rules:\n" +
+                kieBuilder.getResults().toString()
+            );
+        }
+
+        if (kieBuilder.getResults().hasMessages(Message.Level.WARNING)) {
+            log.warn("Drools rule compilation warnings:\n{}",
+                kieBuilder.getResults().toString());
+        }
+
+        return ((InternalKieModule) kieBuilder.getKieModule()).getBytes();
+    }
+
+    /**
+     * Extract the generated classes of a KJAR
+     *
+     * @return Number of classes written
+     */
+    private static int writeClasses(byte[] kjar, Path outputDirectory) throws IOException {
+        int classCount = 0;
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(kjar))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
+                    continue;
+                }
+
+                Path target = outputDirectory.resolve(entry.getName());
+                Files.createDirectories(target.getParent());
+                Files.copy(zip, target, StandardCopyOption.REPLACE_EXISTING);
+                classCount++;
+            }
+        }
+
+        return classCount;
+    }
+}
@@ -2,6 +2,8 @@ package com.example.droolspoc.service;
 
 import com.example.droolspoc.config.RuleEngineConfiguration;
 import com.example.droolspoc.config.RuleEngineConfiguration.*;
+import com.example.ruleindex.RuleIndex;
+import com.example.ruleindex.RuleNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,7 +11,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -20,6 +21,11 @@ import java.util.stream.Collectors;
  * - Handles nested AND/OR logic
  * - Returns eligible documents
  *
+ * Rules are compiled once into a RuleIndex (eligibility-rule-index), so each
+ * evaluation only evaluates the rules whose indexed conditions match the data,
+ * instead of every configured rule. The index is rebuilt if the configured
+ * rule list is replaced.
+ *
  * NO CODE CHANGES needed to add new rules!
  */
 @Service
@@ -30,6 +36,8 @@ public class ConfigDrivenRuleEvaluator {
     private final RuleEngineConfiguration config;
     private final ObjectMapper objectMapper;
 
+    private volatile CompiledRules compiledRules;
+
     @Autowired
     public ConfigDrivenRuleEvaluator(
         RuleEngineConfiguration config,
@@ -46,33 +54,26 @@ public class ConfigDrivenRuleEvaluator {
      * @return Set of eligible document IDs
      */
     public Set<String> evaluateRules(Map<String, Map<String, Object>> dataContext) {
-        log.info("Evaluating {} rules", config.getRules().size());
+        RuleIndex<RuleConfig> index = getIndex();
+        log.info("Evaluating {} rules", index.size());
 
         long startTime = System.currentTimeMillis();
 
         Set<String> eligibleDocuments = new HashSet<>();
 
-        // Sort rules by priority (highest first)
-        List<RuleConfig> sortedRules = config.getRules().stream()
-            .filter(RuleConfig::getEnabled)
-            .sorted(Comparator.comparing(RuleConfig::getPriority).reversed())
-            .collect(Collectors.toList());
+        List<RuleConfig> firedRules = index.match((source, field) -> {
+            Map<String, Object> sourceData = dataContext.get(source);
+            return sourceData != null ? sourceData.get(field) : null;
+        });
 
-        // Evaluate each rule
-        for (RuleConfig rule : sortedRules) {
-            try {
-                if (evaluateRule(rule, dataContext)) {
-                    log.debug("[RULE FIRED] {}", rule.getName());
+        for (RuleConfig rule : firedRules) {
+            log.debug("[RULE FIRED] {}", rule.getName());
 
-                    // Add eligible documents
-                    if (rule.getActions() != null && rule.getActions().getAddDocuments() != null) {
-                        for (DocumentActionConfig doc : rule.getActions().getAddDocuments()) {
-                            eligibleDocuments.add(doc.getDocumentId());
-                        }
-                    }
+            // Add eligible documents
+            if (rule.getActions() != null && rule.getActions().getAddDocuments() != null) {
+                for (DocumentActionConfig doc : rule.getActions().getAddDocuments()) {
+                    eligibleDocuments.add(doc.getDocumentId());
                 }
-            } catch (Exception e) {
-                log.error("Error evaluating rule {}: {}", rule.getRuleId(), e.getMessage(), e);
             }
         }
 
@@ -84,237 +85,113 @@ public class ConfigDrivenRuleEvaluator {
     }
 
     /**
-     * Evaluate a single rule
+     * Get the rule index for the configured rules, compiling it on first use
      */
-    private boolean evaluateRule(RuleConfig rule, Map<String, Map<String, Object>> dataContext) {
-        if (rule.getConditions() == null) {
-            return false;
+    private RuleIndex<RuleConfig> getIndex() {
+        List<RuleConfig> rules = config.getRules();
+        CompiledRules compiled = compiledRules;
+        if (compiled == null || compiled.rules != rules) {
+            compiled = new CompiledRules(rules, compile(rules));
+            compiledRules = compiled;
         }
-
-        return evaluateConditionGroup(rule.getConditions(), dataContext);
+        return compiled.index;
     }
 
     /**
-     * Evaluate condition group (handles nested AND/OR logic)
+     * Compile enabled rules, highest priority first
      */
-    private boolean evaluateConditionGroup(
-        ConditionGroupConfig group,
-        Map<String, Map<String, Object>> dataContext
-    ) {
-        if (group.getExpressions() == null || group.getExpressions().isEmpty()) {
-            return true;
-        }
-
-        boolean isAllType = "ALL".equalsIgnoreCase(group.getType());
-
-        for (Object expression : group.getExpressions()) {
-            boolean result;
-
-            if (expression instanceof Map) {
-                // Convert Map to ConditionConfig
-                @SuppressWarnings("unchecked")
-                Map<String, Object> exprMap = (Map<String, Object>) expression;
-
-                // Check if it's a nested group (has "type" field)
-                if (exprMap.containsKey("type")) {
-                    ConditionGroupConfig nestedGroup = objectMapper.convertValue(
-                        expression,
-                        ConditionGroupConfig.class
-                    );
-                    result = evaluateConditionGroup(nestedGroup, dataContext);
-                } else {
-                    ConditionConfig condition = objectMapper.convertValue(
-                        expression,
-                        ConditionConfig.class
-                    );
-                    result = evaluateCondition(condition, dataContext);
+    private RuleIndex<RuleConfig> compile(List<RuleConfig> rules) {
+        RuleIndex.Builder<RuleConfig> builder = RuleIndex.builder();
+        if (rules != null) {
+            List<RuleConfig> sortedRules = rules.stream()
+                .filter(rule -> Boolean.TRUE.equals(rule.getEnabled()))
+                .sorted(Comparator.comparing(
+                    (RuleConfig rule) -> rule.getPriority() != null ? rule.getPriority() : 0).reversed())
+                .collect(Collectors.toList());
+
+            for (RuleConfig rule : sortedRules) {
+                try {
+                    if (rule.getConditions() != null) {
+                        builder.add(rule, toNode(rule.getConditions()));
+                    }
+                } catch (Exception e) {
+                    log.error("Error compiling rule {}: {}", rule.getRuleId(), e.getMessage(), e);
                 }
-            } else if (expression instanceof ConditionGroupConfig) {
-                result = evaluateConditionGroup((ConditionGroupConfig) expression, dataContext);
-            } else if (expression instanceof ConditionConfig) {
-                result = evaluateCondition((ConditionConfig) expression, dataContext);
-            } else {
-                log.warn("Unknown expression type: {}", expression.getClass());
-                result = false;
-            }
-
-            // Short-circuit evaluation
-            if (isAllType && !result) {
-                return false;  // ALL (AND): one false → entire group false
-            }
-            if (!isAllType && result) {
-                return true;   // ANY (OR): one true → entire group true
             }
         }
 
-        // If we get here:
-        // - ALL type: all conditions were true
-        // - ANY type: all conditions were false
-        return isAllType;
+        RuleIndex<RuleConfig> index = builder.build();
+        log.info("Compiled rules: {}", index);
+        return index;
     }
 
     /**
-     * Evaluate a single condition
+     * Convert a condition group (handles nested AND/OR logic)
      */
-    private boolean evaluateCondition(
-        ConditionConfig condition,
-        Map<String, Map<String, Object>> dataContext
-    ) {
-        // Get actual value from data context
-        Map<String, Object> sourceData = dataContext.get(condition.getSource());
-        if (sourceData == null) {
-            log.debug("Source {} not found in data context", condition.getSource());
-            return false;
+    private RuleNode toNode(ConditionGroupConfig group) {
+        if (group.getExpressions() == null || group.getExpressions().isEmpty()) {
+            return RuleNode.all();  // Empty group: always true
         }
 
-        Object actualValue = sourceData.get(condition.getField());
-        if (actualValue == null) {
-            log.debug("Field {} not found in source {}", condition.getField(), condition.getSource());
-            return false;
+        List<RuleNode> children = new ArrayList<>();
+        for (Object expression : group.getExpressions()) {
+            children.add(toNode(expression));
         }
 
-        Object expectedValue = condition.getValue();
-        String operator = condition.getOperator();
-
-        // Evaluate based on operator
-        return evaluateOperator(operator, actualValue, expectedValue);
+        // ALL (AND) or ANY (OR)
+        return "ALL".equalsIgnoreCase(group.getType()) ? RuleNode.all(children) : RuleNode.any(children);
     }
 
     /**
-     * Evaluate operator
+     * Convert an expression: a condition or a nested group
      */
-    private boolean evaluateOperator(String operator, Object actualValue, Object expectedValue) {
-        switch (operator.toUpperCase()) {
-            case "EQUALS":
-                return equals(actualValue, expectedValue);
-
-            case "NOT_EQUALS":
-                return !equals(actualValue, expectedValue);
-
-            case "GREATER_THAN":
-                return greaterThan(actualValue, expectedValue);
-
-            case "GREATER_THAN_OR_EQUAL":
-                return greaterThanOrEqual(actualValue, expectedValue);
-
-            case "LESS_THAN":
-                return lessThan(actualValue, expectedValue);
-
-            case "LESS_THAN_OR_EQUAL":
-                return lessThanOrEqual(actualValue, expectedValue);
-
-            case "IN":
-                return in(actualValue, expectedValue);
-
-            case "NOT_IN":
-                return !in(actualValue, expectedValue);
-
-            case "MATCHES":
-                return matches(actualValue, expectedValue);
-
-            case "CONTAINS":
-                return contains(actualValue, expectedValue);
-
-            case "STARTS_WITH":
-                return startsWith(actualValue, expectedValue);
-
-            case "ENDS_WITH":
-                return endsWith(actualValue, expectedValue);
-
-            default:
-                log.warn("Unknown operator: {}", operator);
-                return false;
-        }
-    }
-
-    // ========================================================================
-    // Operator Implementation Methods
-    // ========================================================================
-
-    private boolean equals(Object actual, Object expected) {
-        return Objects.equals(actual.toString(), expected.toString());
-    }
-
-    private boolean greaterThan(Object actual, Object expected) {
-        try {
-            double actualNum = toDouble(actual);
-            double expectedNum = toDouble(expected);
-            return actualNum > expectedNum;
-        } catch (NumberFormatException e) {
-            log.warn("Cannot compare as numbers: {} > {}", actual, expected);
-            return false;
-        }
-    }
-
-    private boolean greaterThanOrEqual(Object actual, Object expected) {
-        try {
-            double actualNum = toDouble(actual);
-            double expectedNum = toDouble(expected);
-            return actualNum >= expectedNum;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-
-    private boolean lessThan(Object actual, Object expected) {
-        try {
-            double actualNum = toDouble(actual);
-            double expectedNum = toDouble(expected);
-            return actualNum < expectedNum;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-
-    private boolean lessThanOrEqual(Object actual, Object expected) {
-        try {
-            double actualNum = toDouble(actual);
-            double expectedNum = toDouble(expected);
-            return actualNum <= expectedNum;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-
-    private boolean in(Object actual, Object expected) {
-        if (expected instanceof List) {
+    private RuleNode toNode(Object expression) {
+        if (expression instanceof Map) {
             @SuppressWarnings("unchecked")
-            List<Object> list = (List<Object>) expected;
-            return list.stream()
-                .anyMatch(item -> Objects.equals(actual.toString(), item.toString()));
-        }
-        return false;
-    }
+            Map<String, Object> exprMap = (Map<String, Object>) expression;
 
-    private boolean matches(Object actual, Object expected) {
-        try {
-            Pattern pattern = Pattern.compile(expected.toString());
-            return pattern.matcher(actual.toString()).matches();
-        } catch (Exception e) {
-            log.warn("Invalid regex pattern: {}", expected);
-            return false;
+            // Check if it's a nested group (has "type" field)
+            if (exprMap.containsKey("type")) {
+                return toNode(objectMapper.convertValue(expression, ConditionGroupConfig.class));
+            }
+            return toNode(objectMapper.convertValue(expression, ConditionConfig.class));
+        } else if (expression instanceof ConditionGroupConfig) {
+            return toNode((ConditionGroupConfig) expression);
+        } else if (expression instanceof ConditionConfig) {
+            return toNode((ConditionConfig) expression);
         }
-    }
 
-    private boolean contains(Object actual, Object expected) {
-        return actual.toString().contains(expected.toString());
+        log.warn("Unknown expression type: {}", expression.getClass());
+        return RuleNode.never();
     }
 
-    private boolean startsWith(Object actual, Object expected) {
-        return actual.toString().startsWith(expected.toString());
-    }
+    /**
+     * Convert a single condition
+     */
+    private RuleNode toNode(ConditionConfig condition) {
+        if (condition.getOperator() == null) {
+            log.warn("Condition without operator: {}.{}", condition.getSource(), condition.getField());
+            return RuleNode.never();
+        }
 
-    private boolean endsWith(Object actual, Object expected) {
-        return actual.toString().endsWith(expected.toString());
+        return RuleNode.condition(
+            condition.getSource(),
+            condition.getField(),
+            condition.getOperator().toUpperCase(),
+            condition.getValue()
+        );
     }
 
     /**
-     * Convert value to double for numeric comparison
+     * Rule index compiled from a rule list
      */
-    private double toDouble(Object value) {
-        if (value instanceof Number) {
-            return ((Number) value).doubleValue();
+    private static final class CompiledRules {
+        final List<RuleConfig> rules;
+        final RuleIndex<RuleConfig> index;
+
+        CompiledRules(List<RuleConfig> rules, RuleIndex<RuleConfig> index) {
+            this.rules = rules;
+            this.index = index;
         }
-        return Double.parseDouble(value.toString());
     }
 }
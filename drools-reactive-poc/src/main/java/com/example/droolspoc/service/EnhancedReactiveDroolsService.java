@@ -1,8 +1,8 @@
 package com.example.droolspoc.service;
 
 import com.example.droolspoc.model.*;
-import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionsPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,7 +44,7 @@ public class EnhancedReactiveDroolsService {
 
     private static final Logger log = LoggerFactory.getLogger(EnhancedReactiveDroolsService.class);
 
-    private final KieContainer kieContainer;
+    private final KieSessionsPool kieSessionsPool;
     private final Scheduler droolsScheduler;
     private final ExternalApiService externalApiService;
 
@@ -53,11 +53,11 @@ public class EnhancedReactiveDroolsService {
 
     @Autowired
     public EnhancedReactiveDroolsService(
-        KieContainer kieContainer,
+        KieSessionsPool kieSessionsPool,
         @Qualifier("droolsScheduler") Scheduler droolsScheduler,
         ExternalApiService externalApiService
     ) {
-        this.kieContainer = kieContainer;
+        this.kieSessionsPool = kieSessionsPool;
         this.droolsScheduler = droolsScheduler;
         this.externalApiService = externalApiService;
     }
@@ -175,7 +175,7 @@ public class EnhancedReactiveDroolsService {
     private Set<String> executeRules(EnhancedAccountFact account, CustomerFact customer) {
         long startTime = System.currentTimeMillis();
 
-        KieSession kieSession = kieContainer.newKieSession();
+        KieSession kieSession = kieSessionsPool.newKieSession();
 
         try {
             log.debug("Executing Drools rules with enhanced facts on thread: {}",
@@ -197,6 +197,7 @@ public class EnhancedReactiveDroolsService {
             return result.getEligibleDocumentIds();
 
         } finally {
+            // Resets the session and returns it to the pool
             kieSession.dispose();
         }
     }
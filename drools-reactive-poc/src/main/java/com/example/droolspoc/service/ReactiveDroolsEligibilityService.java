@@ -3,8 +3,8 @@ package com.example.droolspoc.service;
 import com.example.droolspoc.model.AccountFact;
 import com.example.droolspoc.model.CustomerFact;
 import com.example.droolspoc.model.DocumentEligibilityResult;
-import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionsPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,7 +40,7 @@ public class ReactiveDroolsEligibilityService {
 
     private static final Logger log = LoggerFactory.getLogger(ReactiveDroolsEligibilityService.class);
 
-    private final KieContainer kieContainer;
+    private final KieSessionsPool kieSessionsPool;
     private final Scheduler droolsScheduler;
     private final DataService dataService;
 
@@ -49,11 +49,11 @@ public class ReactiveDroolsEligibilityService {
 
     @Autowired
     public ReactiveDroolsEligibilityService(
-        KieContainer kieContainer,
+        KieSessionsPool kieSessionsPool,
         @Qualifier("droolsScheduler") Scheduler droolsScheduler,
         DataService dataService
     ) {
-        this.kieContainer = kieContainer;
+        this.kieSessionsPool = kieSessionsPool;
         this.droolsScheduler = droolsScheduler;
         this.dataService = dataService;
     }
@@ -115,8 +115,8 @@ public class ReactiveDroolsEligibilityService {
     private Set<String> executeRules(AccountFact account, CustomerFact customer) {
         long startTime = System.currentTimeMillis();
 
-        // Create stateless session (thread-safe, no memory overhead between requests)
-        KieSession kieSession = kieContainer.newKieSession();
+        // Borrow a session from the pool (reset on dispose, no per-request allocation)
+        KieSession kieSession = kieSessionsPool.newKieSession();
 
         try {
             log.debug("Executing Drools rules on thread: {}",
@@ -143,7 +143,7 @@ public class ReactiveDroolsEligibilityService {
             return result.getEligibleDocumentIds();
 
         } finally {
-            // ALWAYS dispose session to free memory
+            // ALWAYS dispose session to reset it and return it to the pool
             kieSession.dispose();
         }
     }
@@ -0,0 +1,176 @@
+package com.example.droolspoc.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.droolspoc.model.AccountFact;
+import com.example.droolspoc.model.CustomerFact;
+import com.example.droolspoc.model.DocumentEligibilityResult;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionsPool;
+import org.kie.api.runtime.StatelessKieSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ways of executing the eligibility rules for one request:
+ * - perRequestSession: new stateful KieSession per request (what the services did before)
+ * - statelessSession: StatelessKieSession
+ * - pooledSession: KieSession from a KieSessionsPool (what the services do now)
+ *
+ * And the startup cost of the rules:
+ * - startupCompileRules: compiling the DRL into the executable model
+ * - startupLoadPrecompiledModel: loading the model precompiled by RuleModelGenerator
+ *
+ * The facts are the DataService sample data (6 documents eligible).
+ *
+ * Not run by the test suite. Needs the classes generated by the build (mvn process-classes).
+ * Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.droolspoc.config.DroolsSessionBenchmark}
+ * or from the IDE through {@link #main}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DroolsSessionBenchmark {
+
+    /**
+     * Quiet output, for every benchmark
+     */
+    @State(Scope.Benchmark)
+    public static class Output {
+
+        @Setup(org.openjdk.jmh.annotations.Level.Trial)
+        public void setUp() {
+            // The test classpath logs at DEBUG and the rules print each firing; measure the engine
+            ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    /**
+     * Loaded rules and facts, for the per-request benchmarks
+     */
+    @State(Scope.Benchmark)
+    public static class Rules {
+
+        private KieBase kieBase;
+        private StatelessKieSession statelessSession;
+        private KieSessionsPool sessionsPool;
+        private AccountFact account;
+        private CustomerFact customer;
+
+        @Setup(org.openjdk.jmh.annotations.Level.Trial)
+        public void setUp(Output output) {
+            kieBase = new DroolsConfig().kieBase();
+            statelessSession = kieBase.newStatelessKieSession();
+            sessionsPool = kieBase.newKieSessionsPool(1);
+
+            account = AccountFact.builder()
+                .accountId("ACC456")
+                .balance(new BigDecimal("15000.00"))
+                .status("ACTIVE")
+                .accountType("CREDIT_CARD")
+                .creditLimit(new BigDecimal("25000.00"))
+                .state("CA")
+                .build();
+            customer = CustomerFact.builder()
+                .customerId("CUST123")
+                .tier("GOLD")
+                .enrollmentDate(LocalDate.of(2020, 1, 15))
+                .creditScore(750)
+                .state("CA")
+                .age(35)
+                .build();
+        }
+
+        @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+        public void tearDown() {
+            sessionsPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Set<String> perRequestSession(Rules rules) {
+        return fire(rules, rules.kieBase.newKieSession());
+    }
+
+    @Benchmark
+    public Set<String> statelessSession(Rules rules) {
+        DocumentEligibilityResult result = new DocumentEligibilityResult();
+        rules.statelessSession.execute(Arrays.asList(rules.account, rules.customer, result));
+        return result.getEligibleDocumentIds();
+    }
+
+    @Benchmark
+    public Set<String> pooledSession(Rules rules) {
+        return fire(rules, rules.sessionsPool.newKieSession());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public byte[] startupCompileRules(Output output) throws IOException {
+        return RuleModelGenerator.compile(
+            new PathMatchingResourcePatternResolver().getResources("classpath:rules/*.drl"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public KieBase startupLoadPrecompiledModel(Output output) {
+        return new DroolsConfig().kieBase();
+    }
+
+    private static Set<String> fire(Rules rules, KieSession kieSession) {
+        try {
+            DocumentEligibilityResult result = new DocumentEligibilityResult();
+            kieSession.insert(rules.account);
+            kieSession.insert(rules.customer);
+            kieSession.insert(result);
+            kieSession.fireAllRules();
+            return result.getEligibleDocumentIds();
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(DroolsSessionBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
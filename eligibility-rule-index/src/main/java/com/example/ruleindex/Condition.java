@@ -0,0 +1,241 @@
+package com.example.ruleindex;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Condition
+ *
+ * A single "source.field OPERATOR value" comparison, with the expected value
+ * pre-processed once:
+ * - EQUALS, NOT_EQUALS, CONTAINS, STARTS_WITH, ENDS_WITH: string form
+ * - IN, NOT_IN: hash set of string forms (empty if the value is not a collection)
+ * - Range operators: BigDecimal
+ * - MATCHES: compiled pattern
+ *
+ * Semantics:
+ * - A missing field never matches
+ * - Equality compares string forms, so 100 (number) equals "100" (string)
+ * - Range operators compare numerically; non-numeric values never match
+ * - A null expected value, non-numeric range bound or invalid pattern never matches
+ *
+ * Conditions are equal when they test the same field the same way, which lets a
+ * RuleIndex share one condition (and its result) between rules.
+ */
+public final class Condition extends RuleNode {
+
+    private static final Logger log = LoggerFactory.getLogger(Condition.class);
+
+    private final String source;
+    private final String field;
+    private final Operator operator;
+    private final boolean valid;
+    private final String text;
+    private final Set<String> values;
+    private final BigDecimal number;
+    private final Pattern pattern;
+
+    Condition(String source, String field, Operator operator, Object value) {
+        this.source = source;
+        this.field = field;
+        this.operator = Objects.requireNonNull(operator, "operator");
+
+        String text = null;
+        Set<String> values = null;
+        BigDecimal number = null;
+        Pattern pattern = null;
+
+        if (value != null) {
+            switch (operator) {
+                case IN:
+                case NOT_IN:
+                    values = new HashSet<>();
+                    if (value instanceof Collection) {
+                        for (Object item : (Collection<?>) value) {
+                            values.add(String.valueOf(item));
+                        }
+                    }
+                    break;
+
+                case GREATER_THAN:
+                case GREATER_THAN_OR_EQUAL:
+                case LESS_THAN:
+                case LESS_THAN_OR_EQUAL:
+                    number = toNumber(value);
+                    if (number == null) {
+                        log.warn("Cannot compare as numbers: {} {} {}", field, operator, value);
+                    }
+                    break;
+
+                case MATCHES:
+                    try {
+                        pattern = Pattern.compile(value.toString());
+                    } catch (PatternSyntaxException e) {
+                        log.warn("Invalid regex pattern: {}", value);
+                    }
+                    break;
+
+                default:
+                    text = value.toString();
+            }
+        }
+
+        this.valid = text != null || values != null || number != null || pattern != null;
+        this.text = text;
+        this.values = values;
+        this.number = number != null ? number.stripTrailingZeros() : null;
+        this.pattern = pattern;
+    }
+
+    @Override
+    public boolean evaluate(DataLookup data) {
+        return test(data.get(source, field));
+    }
+
+    /**
+     * Test a field value
+     *
+     * @param actualValue Field value, null if missing
+     * @return true if the condition matches
+     */
+    public boolean test(Object actualValue) {
+        if (actualValue == null || !valid) {
+            return false;
+        }
+
+        switch (operator) {
+            case EQUALS:
+                return actualValue.toString().equals(text);
+            case NOT_EQUALS:
+                return !actualValue.toString().equals(text);
+            case IN:
+                return values.contains(actualValue.toString());
+            case NOT_IN:
+                return !values.contains(actualValue.toString());
+            case MATCHES:
+                return pattern.matcher(actualValue.toString()).matches();
+            case CONTAINS:
+                return actualValue.toString().contains(text);
+            case STARTS_WITH:
+                return actualValue.toString().startsWith(text);
+            case ENDS_WITH:
+                return actualValue.toString().endsWith(text);
+            default:
+                BigDecimal actual = toNumber(actualValue);
+                return actual != null && testRange(actual.compareTo(number));
+        }
+    }
+
+    /**
+     * Result of a range operator, given actual.compareTo(bound)
+     */
+    private boolean testRange(int comparison) {
+        switch (operator) {
+            case GREATER_THAN:
+                return comparison > 0;
+            case GREATER_THAN_OR_EQUAL:
+                return comparison >= 0;
+            case LESS_THAN:
+                return comparison < 0;
+            default:
+                return comparison <= 0;
+        }
+    }
+
+    /**
+     * Convert a value to a number
+     *
+     * @param value Number or numeric string
+     * @return BigDecimal, or null if the value is not numeric
+     */
+    static BigDecimal toNumber(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return Double.isFinite(d) ? BigDecimal.valueOf(d) : null;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ============================================
+    // Accessors (used by RuleIndex)
+    // ============================================
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    String text() {
+        return text;
+    }
+
+    Set<String> values() {
+        return values;
+    }
+
+    BigDecimal number() {
+        return number;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Condition)) {
+            return false;
+        }
+        Condition that = (Condition) o;
+        return operator == that.operator
+                && valid == that.valid
+                && Objects.equals(source, that.source)
+                && Objects.equals(field, that.field)
+                && Objects.equals(text, that.text)
+                && Objects.equals(values, that.values)
+                && Objects.equals(number, that.number)
+                && Objects.equals(pattern != null ? pattern.pattern() : null,
+                        that.pattern != null ? that.pattern.pattern() : null);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, field, operator, text, values, number,
+                pattern != null ? pattern.pattern() : null);
+    }
+
+    @Override
+    public String toString() {
+        Object value = text != null ? text : values != null ? values : number != null ? number : pattern;
+        return source + "." + field + " " + operator + " " + value;
+    }
+}
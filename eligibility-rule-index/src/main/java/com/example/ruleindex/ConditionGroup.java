@@ -0,0 +1,48 @@
+package com.example.ruleindex;
+
+import java.util.List;
+
+/**
+ * Condition Group
+ *
+ * ALL (AND) or ANY (OR) of child nodes, evaluated with short-circuit:
+ * - ALL: one child false → group false; an empty group is true
+ * - ANY: one child true → group true; an empty group is false
+ */
+public final class ConditionGroup extends RuleNode {
+
+    private final boolean all;
+    private final List<RuleNode> children;
+
+    ConditionGroup(boolean all, List<RuleNode> children) {
+        this.all = all;
+        this.children = List.copyOf(children);
+    }
+
+    @Override
+    public boolean evaluate(DataLookup data) {
+        for (RuleNode child : children) {
+            boolean result = child.evaluate(data);
+            if (all && !result) {
+                return false;
+            }
+            if (!all && result) {
+                return true;
+            }
+        }
+        return all;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public List<RuleNode> getChildren() {
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        return (all ? "ALL" : "ANY") + children;
+    }
+}
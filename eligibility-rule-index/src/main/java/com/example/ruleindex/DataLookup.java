@@ -0,0 +1,23 @@
+package com.example.ruleindex;
+
+/**
+ * Data Lookup
+ *
+ * Access to the data rules are evaluated against, by data source and field.
+ *
+ * Example:
+ * - DataContext::getField (drools-reactive-clean)
+ * - (source, field) -> dataContext.getOrDefault(source, Map.of()).get(field) (drools-reactive-poc)
+ */
+@FunctionalInterface
+public interface DataLookup {
+
+    /**
+     * Get a field value
+     *
+     * @param source Data source ID
+     * @param field Field name
+     * @return Field value, or null if the source or field is missing
+     */
+    Object get(String source, String field);
+}
@@ -0,0 +1,53 @@
+package com.example.ruleindex;
+
+/**
+ * Condition Operator
+ *
+ * Operators supported in rule conditions.
+ *
+ * Indexed operators (see RuleIndex):
+ * - EQUALS, IN: hash index on the expected value(s)
+ * - GREATER_THAN, GREATER_THAN_OR_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL: sorted bound index
+ *
+ * All other operators are evaluated per candidate rule.
+ */
+public enum Operator {
+
+    EQUALS,
+    NOT_EQUALS,
+    GREATER_THAN,
+    GREATER_THAN_OR_EQUAL,
+    LESS_THAN,
+    LESS_THAN_OR_EQUAL,
+    IN,
+    NOT_IN,
+    MATCHES,
+    CONTAINS,
+    STARTS_WITH,
+    ENDS_WITH;
+
+    /**
+     * Parse an operator name
+     *
+     * @param name Operator name, exactly as in the enum
+     * @return Operator, or null if unknown
+     */
+    public static Operator parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true for the numeric range operators
+     */
+    public boolean isRange() {
+        return this == GREATER_THAN || this == GREATER_THAN_OR_EQUAL
+                || this == LESS_THAN || this == LESS_THAN_OR_EQUAL;
+    }
+}
@@ -0,0 +1,523 @@
+package com.example.ruleindex;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Rule Index
+ *
+ * Immutable index over a set of rules, matching them against data without evaluating
+ * every rule. Loosely modelled on the alpha network of a Rete engine.
+ *
+ * Build:
+ * 1. Conditions are shared: equal conditions of different rules become one condition,
+ *    evaluated at most once per match
+ * 2. Per source.field, EQUALS and IN conditions are hash-indexed by expected value, and
+ *    range conditions are kept in sorted maps by bound (one per operator). A rule bounded
+ *    on both sides (e.g. balance &gt; 10000 and balance &lt;= 50000) is the intersection
+ *    of a lower and an upper bound lookup.
+ * 3. Each rule gets an activation set: indexable conditions of which at least one must be
+ *    true for the rule to match. For an ALL group that is the activation set of its most
+ *    selective child (EQUALS on the field with the most distinct values first); for an ANY
+ *    group, the union of its children's. Rules without one (e.g. ANY with a NOT_EQUALS
+ *    child) are always evaluated.
+ *
+ * Only conditions in some activation set are indexed; the others are evaluated when a
+ * candidate rule needs them.
+ *
+ * Match:
+ * 1. For every indexed field, look up the field's value: one hash lookup for EQUALS / IN,
+ *    one sorted-map range per range operator. This yields exactly the true indexed conditions.
+ * 2. Candidate rules = rules activated by a true condition + rules without an activation set
+ * 3. Evaluate the candidates' conditions, reusing indexed and already computed results
+ *
+ * Match cost grows with the number of true conditions and candidate rules, not with the
+ * total number of rules. Results are identical to evaluating each rule's RuleNode.
+ *
+ * Example:
+ * <pre>
+ * RuleIndex&lt;String&gt; index = RuleIndex.&lt;String&gt;builder()
+ *     .add("DOC-TNC-GOLD-2024-BENEFITS",
+ *          RuleNode.condition("cardholder_agreements_api", "cardholderAgreementsTNCCode", "EQUALS", "TNC_GOLD_2024"))
+ *     .build();
+ * List&lt;String&gt; documents = index.match(dataContext::getField);
+ * </pre>
+ *
+ * @param <T> Payload of a rule, returned when it matches
+ */
+public final class RuleIndex<T> {
+
+    private final List<T> payloads;
+    private final Node[] roots;
+    private final int conditionCount;
+    private final boolean[] indexed;
+    private final FieldIndex[] fieldIndexes;
+    private final int[][] rulesByCondition;
+    private final int[] unindexedRules;
+
+    private RuleIndex(
+            List<T> payloads,
+            Node[] roots,
+            int conditionCount,
+            boolean[] indexed,
+            FieldIndex[] fieldIndexes,
+            int[][] rulesByCondition,
+            int[] unindexedRules
+    ) {
+        this.payloads = payloads;
+        this.roots = roots;
+        this.conditionCount = conditionCount;
+        this.indexed = indexed;
+        this.fieldIndexes = fieldIndexes;
+        this.rulesByCondition = rulesByCondition;
+        this.unindexedRules = unindexedRules;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Match rules against data
+     *
+     * @param data Data to evaluate against
+     * @return Payloads of the matching rules, in the order the rules were added
+     */
+    public List<T> match(DataLookup data) {
+        // Alpha: true indexed conditions
+        BitSet trueConditions = new BitSet(conditionCount);
+        for (FieldIndex fieldIndex : fieldIndexes) {
+            Object actualValue = data.get(fieldIndex.source, fieldIndex.field);
+            if (actualValue != null) {
+                fieldIndex.collectTrue(actualValue, trueConditions);
+            }
+        }
+
+        // Candidate rules
+        BitSet candidates = new BitSet(roots.length);
+        for (int c = trueConditions.nextSetBit(0); c >= 0; c = trueConditions.nextSetBit(c + 1)) {
+            for (int rule : rulesByCondition[c]) {
+                candidates.set(rule);
+            }
+        }
+        for (int rule : unindexedRules) {
+            candidates.set(rule);
+        }
+
+        // Evaluate candidates
+        Evaluation evaluation = new Evaluation(data, trueConditions);
+        List<T> matched = new ArrayList<>();
+        for (int rule = candidates.nextSetBit(0); rule >= 0; rule = candidates.nextSetBit(rule + 1)) {
+            if (roots[rule].test(evaluation)) {
+                matched.add(payloads.get(rule));
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @return Number of rules
+     */
+    public int size() {
+        return roots.length;
+    }
+
+    /**
+     * @return Number of distinct conditions across all rules
+     */
+    public int getConditionCount() {
+        return conditionCount;
+    }
+
+    /**
+     * @return Number of rules evaluated on every match
+     */
+    public int getUnindexedCount() {
+        return unindexedRules.length;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleIndex{" +
+                "rules=" + roots.length +
+                ", conditions=" + conditionCount +
+                ", indexedFields=" + fieldIndexes.length +
+                ", unindexedRules=" + unindexedRules.length +
+                '}';
+    }
+
+    // ============================================
+    // Builder
+    // ============================================
+
+    /**
+     * Builds a RuleIndex from rules added in priority order
+     */
+    public static final class Builder<T> {
+
+        private final List<T> payloads = new ArrayList<>();
+        private final List<RuleNode> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a rule
+         *
+         * @param payload Returned by match when the rule matches
+         * @param conditions Conditions of the rule
+         * @return this builder
+         */
+        public Builder<T> add(T payload, RuleNode conditions) {
+            payloads.add(payload);
+            rules.add(Objects.requireNonNull(conditions, "conditions"));
+            return this;
+        }
+
+        public RuleIndex<T> build() {
+            Map<Condition, Integer> conditionIds = new HashMap<>();
+            List<Condition> conditions = new ArrayList<>();
+
+            Node[] roots = new Node[rules.size()];
+            for (int i = 0; i < roots.length; i++) {
+                roots[i] = compile(rules.get(i), conditionIds, conditions);
+            }
+
+            // Indexable conditions, and distinct EQUALS / IN values per field
+            boolean[] indexable = new boolean[conditions.size()];
+            Map<FieldKey, Set<String>> distinctValues = new HashMap<>();
+            for (int id = 0; id < conditions.size(); id++) {
+                Condition condition = conditions.get(id);
+                indexable[id] = isIndexable(condition);
+                if (indexable[id] && !condition.getOperator().isRange()) {
+                    Set<String> values = distinctValues.computeIfAbsent(
+                            new FieldKey(condition.getSource(), condition.getField()), key -> new HashSet<>());
+                    if (condition.getOperator() == Operator.EQUALS) {
+                        values.add(condition.text());
+                    } else {
+                        values.addAll(condition.values());
+                    }
+                }
+            }
+
+            // Activation sets
+            Selectivity selectivity = new Selectivity(conditions, indexable, distinctValues);
+            List<List<Integer>> rulesByCondition = new ArrayList<>();
+            for (int id = 0; id < conditions.size(); id++) {
+                rulesByCondition.add(new ArrayList<>());
+            }
+            List<Integer> unindexedRules = new ArrayList<>();
+            for (int rule = 0; rule < roots.length; rule++) {
+                Activation activation = selectivity.activation(roots[rule]);
+                if (activation == null) {
+                    unindexedRules.add(rule);
+                } else {
+                    for (int id : activation.conditions()) {
+                        rulesByCondition.get(id).add(rule);
+                    }
+                }
+            }
+
+            // Alpha indexes, over the conditions that activate rules
+            boolean[] indexed = new boolean[conditions.size()];
+            Map<FieldKey, FieldIndex> fieldIndexes = new LinkedHashMap<>();
+            for (int id = 0; id < conditions.size(); id++) {
+                if (!rulesByCondition.get(id).isEmpty()) {
+                    Condition condition = conditions.get(id);
+                    indexed[id] = true;
+                    fieldIndexes.computeIfAbsent(
+                            new FieldKey(condition.getSource(), condition.getField()),
+                            key -> new FieldIndex(key.source(), key.field())
+                    ).add(id, condition);
+                }
+            }
+
+            return new RuleIndex<>(
+                    List.copyOf(payloads),
+                    roots,
+                    conditions.size(),
+                    indexed,
+                    fieldIndexes.values().toArray(new FieldIndex[0]),
+                    rulesByCondition.stream().map(Builder::toArray).toArray(int[][]::new),
+                    toArray(unindexedRules)
+            );
+        }
+
+        private static Node compile(RuleNode node, Map<Condition, Integer> conditionIds, List<Condition> conditions) {
+            if (node instanceof Condition) {
+                Condition condition = (Condition) node;
+                int id = conditionIds.computeIfAbsent(condition, c -> {
+                    conditions.add(c);
+                    return conditions.size() - 1;
+                });
+                return new ConditionRef(id, conditions.get(id));
+            }
+
+            ConditionGroup group = (ConditionGroup) node;
+            Node[] children = new Node[group.getChildren().size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = compile(group.getChildren().get(i), conditionIds, conditions);
+            }
+            return new GroupNode(group.isAll(), children);
+        }
+
+        private static boolean isIndexable(Condition condition) {
+            Operator operator = condition.getOperator();
+            return condition.isValid()
+                    && (operator == Operator.EQUALS || operator == Operator.IN || operator.isRange());
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    // ============================================
+    // Alpha index of one field
+    // ============================================
+
+    private record FieldKey(String source, String field) {
+    }
+
+    private static final class FieldIndex {
+
+        final String source;
+        final String field;
+        final Map<String, List<Integer>> byValue = new HashMap<>();
+        final NavigableMap<BigDecimal, List<Integer>> greaterThan = new TreeMap<>();
+        final NavigableMap<BigDecimal, List<Integer>> greaterThanOrEqual = new TreeMap<>();
+        final NavigableMap<BigDecimal, List<Integer>> lessThan = new TreeMap<>();
+        final NavigableMap<BigDecimal, List<Integer>> lessThanOrEqual = new TreeMap<>();
+        boolean hasRanges;
+
+        FieldIndex(String source, String field) {
+            this.source = source;
+            this.field = field;
+        }
+
+        void add(int id, Condition condition) {
+            switch (condition.getOperator()) {
+                case EQUALS:
+                    byValue.computeIfAbsent(condition.text(), v -> new ArrayList<>()).add(id);
+                    break;
+                case IN:
+                    for (String value : condition.values()) {
+                        byValue.computeIfAbsent(value, v -> new ArrayList<>()).add(id);
+                    }
+                    break;
+                case GREATER_THAN:
+                    addBound(greaterThan, condition, id);
+                    break;
+                case GREATER_THAN_OR_EQUAL:
+                    addBound(greaterThanOrEqual, condition, id);
+                    break;
+                case LESS_THAN:
+                    addBound(lessThan, condition, id);
+                    break;
+                case LESS_THAN_OR_EQUAL:
+                    addBound(lessThanOrEqual, condition, id);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Not indexable: " + condition);
+            }
+        }
+
+        private void addBound(NavigableMap<BigDecimal, List<Integer>> bounds, Condition condition, int id) {
+            bounds.computeIfAbsent(condition.number(), b -> new ArrayList<>()).add(id);
+            hasRanges = true;
+        }
+
+        /**
+         * Set the indexed conditions on this field that are true for a value
+         */
+        void collectTrue(Object actualValue, BitSet trueConditions) {
+            List<Integer> equal = byValue.get(actualValue.toString());
+            if (equal != null) {
+                equal.forEach(trueConditions::set);
+            }
+
+            if (hasRanges) {
+                BigDecimal actual = Condition.toNumber(actualValue);
+                if (actual != null) {
+                    // actual > bound, actual >= bound, actual < bound, actual <= bound
+                    collect(greaterThan.headMap(actual, false), trueConditions);
+                    collect(greaterThanOrEqual.headMap(actual, true), trueConditions);
+                    collect(lessThan.tailMap(actual, false), trueConditions);
+                    collect(lessThanOrEqual.tailMap(actual, true), trueConditions);
+                }
+            }
+        }
+
+        private static void collect(Map<BigDecimal, List<Integer>> bounds, BitSet trueConditions) {
+            for (List<Integer> ids : bounds.values()) {
+                ids.forEach(trueConditions::set);
+            }
+        }
+    }
+
+    // ============================================
+    // Activation sets
+    // ============================================
+
+    /**
+     * Indexed conditions of which at least one must be true for a node to be true,
+     * with the estimated fraction of matches activating them
+     */
+    private record Activation(double cost, List<Integer> conditions) {
+    }
+
+    private static final class Selectivity {
+
+        private static final double RANGE_COST = 0.5;
+
+        final List<Condition> conditions;
+        final boolean[] indexable;
+        final Map<FieldKey, Set<String>> distinctValues;
+
+        Selectivity(List<Condition> conditions, boolean[] indexable, Map<FieldKey, Set<String>> distinctValues) {
+            this.conditions = conditions;
+            this.indexable = indexable;
+            this.distinctValues = distinctValues;
+        }
+
+        /**
+         * @return Activation set of a node, or null if it cannot be restricted to indexable conditions
+         */
+        Activation activation(Node node) {
+            if (node instanceof ConditionRef) {
+                int id = ((ConditionRef) node).id;
+                return indexable[id] ? new Activation(cost(conditions.get(id)), List.of(id)) : null;
+            }
+
+            GroupNode group = (GroupNode) node;
+            if (group.all) {
+                Activation best = null;
+                for (Node child : group.children) {
+                    Activation activation = activation(child);
+                    if (activation != null && (best == null || activation.cost() < best.cost())) {
+                        best = activation;
+                    }
+                }
+                return best;
+            }
+
+            double cost = 0;
+            List<Integer> union = new ArrayList<>();
+            for (Node child : group.children) {
+                Activation activation = activation(child);
+                if (activation == null) {
+                    return null;
+                }
+                cost += activation.cost();
+                union.addAll(activation.conditions());
+            }
+            return new Activation(cost, union);
+        }
+
+        /**
+         * Estimated fraction of matches for which an indexable condition is true:
+         * values tested / distinct values tested on the field for EQUALS and IN
+         */
+        private double cost(Condition condition) {
+            if (condition.getOperator().isRange()) {
+                return RANGE_COST;
+            }
+            Set<String> distinct = distinctValues.get(new FieldKey(condition.getSource(), condition.getField()));
+            int tested = condition.getOperator() == Operator.IN ? condition.values().size() : 1;
+            return Math.min(1.0, tested / (double) Math.max(1, distinct.size()));
+        }
+    }
+
+    // ============================================
+    // Compiled rule nodes
+    // ============================================
+
+    /**
+     * Condition results of one match: indexed results from the alpha phase,
+     * other results computed on first use
+     */
+    private final class Evaluation {
+
+        final DataLookup data;
+        final BitSet trueIndexed;
+        BitSet computed;
+        BitSet computedTrue;
+
+        Evaluation(DataLookup data, BitSet trueIndexed) {
+            this.data = data;
+            this.trueIndexed = trueIndexed;
+        }
+
+        boolean result(int id, Condition condition) {
+            if (indexed[id]) {
+                return trueIndexed.get(id);
+            }
+            if (computed == null) {
+                computed = new BitSet();
+                computedTrue = new BitSet();
+            }
+            if (!computed.get(id)) {
+                computed.set(id);
+                if (condition.evaluate(data)) {
+                    computedTrue.set(id);
+                }
+            }
+            return computedTrue.get(id);
+        }
+    }
+
+    private interface Node {
+        boolean test(RuleIndex<?>.Evaluation evaluation);
+    }
+
+    private static final class ConditionRef implements Node {
+
+        final int id;
+        final Condition condition;
+
+        ConditionRef(int id, Condition condition) {
+            this.id = id;
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean test(RuleIndex<?>.Evaluation evaluation) {
+            return evaluation.result(id, condition);
+        }
+    }
+
+    private static final class GroupNode implements Node {
+
+        final boolean all;
+        final Node[] children;
+
+        GroupNode(boolean all, Node[] children) {
+            this.all = all;
+            this.children = children;
+        }
+
+        @Override
+        public boolean test(RuleIndex<?>.Evaluation evaluation) {
+            for (Node child : children) {
+                boolean result = child.test(evaluation);
+                if (all && !result) {
+                    return false;
+                }
+                if (!all && result) {
+                    return true;
+                }
+            }
+            return all;
+        }
+    }
+}
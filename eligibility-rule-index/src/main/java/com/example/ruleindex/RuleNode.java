@@ -0,0 +1,98 @@
+package com.example.ruleindex;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rule Node
+ *
+ * Conditions of a rule: a single condition, or an ALL (AND) / ANY (OR) group of nodes.
+ *
+ * Example:
+ * <pre>
+ * RuleNode.all(
+ *     RuleNode.condition("cardholder_agreements_api", "cardholderAgreementsTNCCode", "EQUALS", "TNC_GOLD_2024"),
+ *     RuleNode.condition("account_service_api", "accountBalance", "GREATER_THAN", 50000))
+ * </pre>
+ *
+ * Nodes can be evaluated directly against data ({@link #evaluate}); a {@link RuleIndex}
+ * evaluates many rules with the same results, without visiting every rule.
+ */
+public abstract class RuleNode {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleNode.class);
+
+    RuleNode() {
+    }
+
+    /**
+     * Create a condition
+     *
+     * @param source Data source ID
+     * @param field Field name
+     * @param operator Operator name (see {@link Operator}); unknown operators never match
+     * @param value Expected value (a collection for IN / NOT_IN)
+     * @return Condition node
+     */
+    public static RuleNode condition(String source, String field, String operator, Object value) {
+        Operator parsed = Operator.parse(operator);
+        if (parsed == null) {
+            log.warn("Unknown operator: {}", operator);
+            return never();
+        }
+        return new Condition(source, field, parsed, value);
+    }
+
+    /**
+     * Create a condition
+     *
+     * @param source Data source ID
+     * @param field Field name
+     * @param operator Operator
+     * @param value Expected value (a collection for IN / NOT_IN)
+     * @return Condition node
+     */
+    public static RuleNode condition(String source, String field, Operator operator, Object value) {
+        return new Condition(source, field, operator, value);
+    }
+
+    /**
+     * ALL group: matches if every child matches (an empty group always matches)
+     */
+    public static RuleNode all(List<RuleNode> children) {
+        return new ConditionGroup(true, children);
+    }
+
+    public static RuleNode all(RuleNode... children) {
+        return all(Arrays.asList(children));
+    }
+
+    /**
+     * ANY group: matches if at least one child matches (an empty group never matches)
+     */
+    public static RuleNode any(List<RuleNode> children) {
+        return new ConditionGroup(false, children);
+    }
+
+    public static RuleNode any(RuleNode... children) {
+        return any(Arrays.asList(children));
+    }
+
+    /**
+     * @return Node that never matches
+     */
+    public static RuleNode never() {
+        return any(List.of());
+    }
+
+    /**
+     * Evaluate this node against data
+     *
+     * @param data Data to evaluate against
+     * @return true if the node matches
+     */
+    public abstract boolean evaluate(DataLookup data);
+}
@@ -0,0 +1,128 @@
+package com.example.ruleindex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: RuleIndex vs evaluating every rule, at 100 / 1k / 10k rules
+ *
+ * Rules are generated in the shape of the eligibility rules of the drools-reactive
+ * projects (one in ten is an ANY rule):
+ * - ALL: TNC code EQUALS, balance GREATER_THAN, product IN
+ * - ALL: customer tier EQUALS, balance interval
+ * - ANY: account status NOT_EQUALS, customer tier EQUALS
+ *
+ * Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.ruleindex.RuleIndexBenchmark}
+ * or from the IDE through {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleIndexBenchmark {
+
+    private static final String AGREEMENTS = "cardholder_agreements_api";
+    private static final String ACCOUNT = "account_service_api";
+    private static final String CUSTOMER = "customer_api";
+    private static final String ARRANGEMENTS = "arrangements_api";
+
+    private static final List<String> TIERS = List.of("STANDARD", "SILVER", "GOLD", "PLATINUM");
+    private static final List<String> PRODUCTS = List.of("CREDIT_CARD", "LOAN", "MORTGAGE", "SAVINGS", "CHECKING");
+
+    @Param({"100", "1000", "10000"})
+    private int ruleCount;
+
+    private List<RuleNode> rules;
+    private RuleIndex<String> index;
+    private DataLookup data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int tncCodes = Math.max(10, ruleCount / 5);
+
+        rules = new ArrayList<>();
+        RuleIndex.Builder<String> builder = RuleIndex.builder();
+        for (int i = 0; i < ruleCount; i++) {
+            RuleNode rule;
+            if (i % 10 == 9) {
+                rule = RuleNode.any(
+                        RuleNode.condition(ACCOUNT, "accountStatus", "NOT_EQUALS", "ACTIVE"),
+                        RuleNode.condition(CUSTOMER, "tier", "EQUALS", TIERS.get(random.nextInt(TIERS.size()))));
+            } else if (i % 2 == 0) {
+                rule = RuleNode.all(
+                        RuleNode.condition(AGREEMENTS, "tncCode", "EQUALS", "TNC_" + random.nextInt(tncCodes)),
+                        RuleNode.condition(ACCOUNT, "accountBalance", "GREATER_THAN", random.nextInt(100_000)),
+                        RuleNode.condition(ARRANGEMENTS, "productCode", "IN",
+                                List.of(PRODUCTS.get(random.nextInt(PRODUCTS.size())),
+                                        PRODUCTS.get(random.nextInt(PRODUCTS.size())))));
+            } else {
+                int lower = random.nextInt(100_000);
+                rule = RuleNode.all(
+                        RuleNode.condition(CUSTOMER, "tier", "EQUALS", TIERS.get(random.nextInt(TIERS.size()))),
+                        RuleNode.condition(ACCOUNT, "accountBalance", "GREATER_THAN_OR_EQUAL", lower),
+                        RuleNode.condition(ACCOUNT, "accountBalance", "LESS_THAN", lower + 5_000));
+            }
+            rules.add(rule);
+            builder.add("DOC-" + i, rule);
+        }
+        index = builder.build();
+
+        Map<String, Map<String, Object>> dataBySource = new HashMap<>();
+        dataBySource.put(AGREEMENTS, Map.of("tncCode", "TNC_7"));
+        dataBySource.put(ACCOUNT, Map.of("accountBalance", 75_000, "accountStatus", "ACTIVE"));
+        dataBySource.put(CUSTOMER, Map.of("tier", "GOLD"));
+        dataBySource.put(ARRANGEMENTS, Map.of("productCode", "CREDIT_CARD"));
+        data = (source, field) -> {
+            Map<String, Object> sourceData = dataBySource.get(source);
+            return sourceData != null ? sourceData.get(field) : null;
+        };
+    }
+
+    @Benchmark
+    public List<String> linear() {
+        List<String> matched = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).evaluate(data)) {
+                matched.add("DOC-" + i);
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public List<String> indexed() {
+        return index.match(data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RuleIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
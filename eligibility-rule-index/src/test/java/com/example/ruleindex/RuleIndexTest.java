@@ -0,0 +1,250 @@
+package com.example.ruleindex;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RuleIndex
+ */
+@DisplayName("RuleIndex Tests")
+class RuleIndexTest {
+
+    private static final String AGREEMENTS = "cardholder_agreements_api";
+    private static final String ACCOUNT = "account_service_api";
+    private static final String CUSTOMER = "customer_api";
+
+    @Nested
+    @DisplayName("Equality Index")
+    class EqualityIndexTests {
+
+        @Test
+        @DisplayName("Should match rules by EQUALS and IN values")
+        void shouldMatchRules_byEqualsAndInValues() {
+            // Given
+            RuleIndex<String> index = RuleIndex.<String>builder()
+                    .add("DOC-GOLD", RuleNode.condition(AGREEMENTS, "tncCode", "EQUALS", "TNC_GOLD_2024"))
+                    .add("DOC-SILVER", RuleNode.condition(AGREEMENTS, "tncCode", "EQUALS", "TNC_SILVER_2024"))
+                    .add("DOC-PREMIUM", RuleNode.condition(AGREEMENTS, "tncCode", "IN",
+                            List.of("TNC_GOLD_2024", "TNC_PLATINUM_2024")))
+                    .build();
+
+            // When
+            List<String> documents = index.match(data(Map.of(AGREEMENTS, Map.of("tncCode", "TNC_GOLD_2024"))));
+
+            // Then
+            assertEquals(List.of("DOC-GOLD", "DOC-PREMIUM"), documents);
+        }
+
+        @Test
+        @DisplayName("Should compare string forms of numbers")
+        void shouldCompareStringForms() {
+            // Given
+            RuleIndex<String> index = RuleIndex.<String>builder()
+                    .add("DOC-1", RuleNode.condition(CUSTOMER, "segmentCode", "EQUALS", "100"))
+                    .build();
+
+            // When / Then
+            assertEquals(List.of("DOC-1"), index.match(data(Map.of(CUSTOMER, Map.of("segmentCode", 100)))));
+        }
+
+        @Test
+        @DisplayName("Should not match when the field is missing")
+        void shouldNotMatch_whenFieldMissing() {
+            // Given
+            RuleIndex<String> index = RuleIndex.<String>builder()
+                    .add("DOC-1", RuleNode.condition(AGREEMENTS, "tncCode", "NOT_EQUALS", "TNC_GOLD_2024"))
+                    .add("DOC-2", RuleNode.condition(AGREEMENTS, "tncCode", "EQUALS", "TNC_GOLD_2024"))
+                    .build();
+
+            // When / Then
+            assertTrue(index.match(data(Map.of())).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Range Index")
+    class RangeIndexTests {
+
+        @Test
+        @DisplayName("Should match range bounds inclusively and exclusively")
+        void shouldMatchRangeBounds() {
+            // Given
+            RuleIndex<String> index = RuleIndex.<String>builder()
+                    .add("GT-50000", RuleNode.condition(ACCOUNT, "balance", "GREATER_THAN", 50000))
+                    .add("GTE-50000", RuleNode.condition(ACCOUNT, "balance", "GREATER_THAN_OR_EQUAL", "50000"))
+                    .add("LT-50000", RuleNode.condition(ACCOUNT, "balance", "LESS_THAN", 50000.0))
+                    .add("LTE-50000", RuleNode.condition(ACCOUNT, "balance", "LESS_THAN_OR_EQUAL", 50000))
+                    .build();
+
+            // When / Then
+            assertEquals(List.of("GTE-50000", "LTE-50000"),
+                    index.match(data(Map.of(ACCOUNT, Map.of("balance", 50000)))));
+            assertEquals(List.of("GT-50000", "GTE-50000"),
+                    index.match(data(Map.of(ACCOUNT, Map.of("balance", "75000.50")))));
+            assertEquals(List.of("LT-50000", "LTE-50000"),
+                    index.match(data(Map.of(ACCOUNT, Map.of("balance", 0.5)))));
+        }
+
+        @Test
+        @DisplayName("Should match a value within both bounds of an interval")
+        void shouldMatchInterval() {
+            // Given
+            RuleIndex<String> index = RuleIndex.<String>builder()
+                    .add("MID-TIER", RuleNode.all(
+                            RuleNode.condition(ACCOUNT, "balance", "GREATER_THAN", 10000),
+                            RuleNode.condition(ACCOUNT, "balance", "LESS_THAN_OR_EQUAL", 50000)))
+                    .build();
+
+            // When / Then
+            assertEquals(List.of("MID-TIER"), index.match(data(Map.of(ACCOUNT, Map.of("balance", 50000)))));
+            assertTrue(index.match(data(Map.of(ACCOUNT, Map.of("balance", 50001)))).isEmpty());
+            assertTrue(index.match(data(Map.of(ACCOUNT, Map.of("balance", 10000)))).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should not match non-numeric values")
+        void shouldNotMatch_nonNumericValues() {
+            // Given
+            RuleIndex<String> index = RuleIndex.<String>builder()
+                    .add("DOC-1", RuleNode.condition(ACCOUNT, "balance", "GREATER_THAN", 0))
+                    .add("DOC-2", RuleNode.condition(ACCOUNT, "balance", "GREATER_THAN", "abc"))
+                    .build();
+
+            // When / Then
+            assertTrue(index.match(data(Map.of(ACCOUNT, Map.of("balance", "n/a")))).isEmpty());
+            assertEquals(List.of("DOC-1"), index.match(data(Map.of(ACCOUNT, Map.of("balance", 1)))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Activation")
+    class ActivationTests {
+
+        @Test
+        @DisplayName("Should share equal conditions between rules")
+        void shouldShareConditions() {
+            // Given
+            RuleNode gold = RuleNode.condition(AGREEMENTS, "tncCode", "EQUALS", "TNC_GOLD_2024");
+            RuleIndex<String> index = RuleIndex.<String>builder()
+                    .add("DOC-1", RuleNode.all(gold, RuleNode.condition(ACCOUNT, "status", "EQUALS", "ACTIVE")))
+                    .add("DOC-2", RuleNode.all(
+                            RuleNode.condition(AGREEMENTS, "tncCode", "EQUALS", "TNC_GOLD_2024"),
+                            RuleNode.condition(ACCOUNT, "status", "NOT_EQUALS", "CLOSED")))
+                    .build();
+
+            // Then
+            assertEquals(3, index.getConditionCount());
+            assertEquals(0, index.getUnindexedCount());
+        }
+
+        @Test
+        @DisplayName("Should always evaluate rules without indexed activation")
+        void shouldEvaluateUnindexedRules() {
+            // Given
+            RuleIndex<String> index = RuleIndex.<String>builder()
+                    .add("DOC-ANY", RuleNode.any(
+                            RuleNode.condition(CUSTOMER, "tier", "EQUALS", "PLATINUM"),
+                            RuleNode.condition(CUSTOMER, "email", "ENDS_WITH", "@example.com")))
+                    .add("DOC-ALWAYS", RuleNode.all())
+                    .add("DOC-NEVER", RuleNode.any())
+                    .add("DOC-UNKNOWN-OPERATOR", RuleNode.condition(CUSTOMER, "tier", "SOUNDS_LIKE", "GOLD"))
+                    .build();
+
+            // When
+            List<String> documents = index.match(data(Map.of(CUSTOMER, Map.of("email", "jane@example.com"))));
+
+            // Then
+            assertEquals(2, index.getUnindexedCount());
+            assertEquals(List.of("DOC-ANY", "DOC-ALWAYS"), documents);
+        }
+
+        @Test
+        @DisplayName("Should match the same rules as evaluating every rule")
+        void shouldMatchSameRules_asLinearEvaluation() {
+            // Given: random rules over a few fields, values and operators
+            Random random = new Random(42);
+            List<RuleNode> rules = new ArrayList<>();
+            RuleIndex.Builder<Integer> builder = RuleIndex.builder();
+            for (int i = 0; i < 500; i++) {
+                RuleNode rule = randomNode(random, 2);
+                rules.add(rule);
+                builder.add(i, rule);
+            }
+            RuleIndex<Integer> index = builder.build();
+
+            for (int i = 0; i < 200; i++) {
+                DataLookup data = data(randomData(random));
+
+                // When
+                List<Integer> expected = new ArrayList<>();
+                for (int rule = 0; rule < rules.size(); rule++) {
+                    if (rules.get(rule).evaluate(data)) {
+                        expected.add(rule);
+                    }
+                }
+
+                // Then
+                assertEquals(expected, index.match(data));
+            }
+        }
+    }
+
+    // Helper methods
+    private static DataLookup data(Map<String, Map<String, Object>> dataBySource) {
+        return (source, field) -> {
+            Map<String, Object> sourceData = dataBySource.get(source);
+            return sourceData != null ? sourceData.get(field) : null;
+        };
+    }
+
+    private static final String[] FIELDS = {"tier", "status", "state", "balance", "score"};
+    private static final String[] OPERATORS = {
+            "EQUALS", "NOT_EQUALS", "IN", "NOT_IN", "GREATER_THAN", "GREATER_THAN_OR_EQUAL",
+            "LESS_THAN", "LESS_THAN_OR_EQUAL", "STARTS_WITH"};
+
+    private static RuleNode randomNode(Random random, int depth) {
+        if (depth == 0 || random.nextInt(3) == 0) {
+            String operator = OPERATORS[random.nextInt(OPERATORS.length)];
+            Object value = operator.endsWith("IN")
+                    ? List.of(randomValue(random), randomValue(random))
+                    : randomValue(random);
+            return RuleNode.condition(CUSTOMER, FIELDS[random.nextInt(FIELDS.length)], operator, value);
+        }
+        List<RuleNode> children = new ArrayList<>();
+        int size = random.nextInt(4);
+        for (int i = 0; i < size; i++) {
+            children.add(randomNode(random, depth - 1));
+        }
+        return random.nextBoolean() ? RuleNode.all(children) : RuleNode.any(children);
+    }
+
+    private static Map<String, Map<String, Object>> randomData(Random random) {
+        Map<String, Object> fields = new HashMap<>();
+        for (String field : FIELDS) {
+            if (random.nextInt(5) > 0) {
+                fields.put(field, randomValue(random));
+            }
+        }
+        return Map.of(CUSTOMER, fields);
+    }
+
+    private static Object randomValue(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return random.nextInt(10);
+            case 1:
+                return String.valueOf(random.nextInt(10));
+            default:
+                return "V" + random.nextInt(5);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.documenthub.config;
+
+import com.documenthub.service.EnquiryTimings;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meter filters keeping the cardinality of application metrics bounded.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Template types come from master_template_definition, so the number of stage
+     * timers per template type is capped.
+     */
+    @Bean
+    public MeterFilter enquiryStageTemplateTypeLimit(
+            @Value("${app.enquiry.timing.max-template-types:100}") int maxTemplateTypes) {
+        return EnquiryTimings.templateTypeLimit(maxTemplateTypes);
+    }
+}
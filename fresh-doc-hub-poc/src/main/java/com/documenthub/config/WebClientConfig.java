@@ -12,6 +12,7 @@ import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
@@ -31,7 +32,12 @@ public class WebClientConfig {
 
     @Bean
     public WebClient webClient() {
-        HttpClient httpClient = HttpClient.create()
+        // Shared by all data sources; DataSourceResilience bounds each one's share
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("extraction-pool")
+            .maxConnections(maxConnections)
+            .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
             .responseTimeout(Duration.ofMillis(readTimeout))
             .doOnConnected(conn ->
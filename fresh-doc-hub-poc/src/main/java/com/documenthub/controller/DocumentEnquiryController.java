@@ -1,10 +1,12 @@
 package com.documenthub.controller;
 
+import com.documenthub.model.DocumentDetailsNode;
 import com.documenthub.model.DocumentListRequest;
 import com.documenthub.model.DocumentRetrievalResponse;
 import com.documenthub.model.ErrorResponse;
 import com.documenthub.model.XRequestorType;
 import com.documenthub.processor.DocumentEnquiryProcessor;
+import com.documenthub.service.EnquiryTimings;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,9 +17,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
@@ -80,16 +84,71 @@ public class DocumentEnquiryController {
         }
 
         // Call processor with requestor type for access control
+        // Stage timings of the enquiry are returned in a Server-Timing header
         String requestorType = xRequestorType != null ? xRequestorType.getValue() : "CUSTOMER";
+        EnquiryTimings timings = new EnquiryTimings();
         return documentEnquiryProcessor.processEnquiry(body, requestorType)
+            .contextWrite(timings::writeTo)
             .map(response -> {
                 log.info("Successfully retrieved {} documents",
                     response.getDocumentList() != null ? response.getDocumentList().size() : 0);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok()
+                    .header(EnquiryTimings.SERVER_TIMING_HEADER, timings.toServerTiming())
+                    .body(response);
             })
             .doOnError(e -> log.error("Error processing document enquiry", e))
             .onErrorResume(e -> Mono.just(
                 ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()
             ));
     }
+
+    @PostMapping(value = "/stream",
+                 produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Stream document list",
+               description = "Streams documents as newline-delimited JSON (or server-sent events) as soon as "
+                   + "each template query completes. Documents are not paginated or sorted.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful Retrieval",
+                     content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                        schema = @Schema(implementation = DocumentDetailsNode.class))),
+        @ApiResponse(responseCode = "400", description = "Bad Request",
+                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error, if the enquiry fails "
+                     + "before the first document; later failures abort the stream",
+                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Flux<DocumentDetailsNode>> streamDocuments(
+        @Parameter(description = "API version", required = true)
+        @RequestHeader(value = "X-version", required = true) Integer xVersion,
+
+        @Parameter(description = "Correlation ID for request tracing", required = true)
+        @RequestHeader(value = "X-correlation-id", required = true) String xCorrelationId,
+
+        @Parameter(description = "ID of the requestor", required = true)
+        @RequestHeader(value = "X-requestor-id", required = true) UUID xRequestorId,
+
+        @Parameter(description = "Type of the requestor", required = true)
+        @RequestHeader(value = "X-requestor-type", required = true) XRequestorType xRequestorType,
+
+        @Parameter(description = "Document list request", required = true)
+        @Valid @RequestBody DocumentListRequest body
+    ) {
+        log.info("Received document enquiry stream request - correlationId: {}, requestorId: {}, requestorType: {}",
+            xCorrelationId, xRequestorId, xRequestorType);
+
+        // Validate request
+        if (body == null || body.getCustomerId() == null) {
+            log.warn("Customer ID is required");
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (body.getAccountId() == null || body.getAccountId().isEmpty()) {
+            log.warn("At least one account ID is required");
+            return ResponseEntity.badRequest().build();
+        }
+
+        String requestorType = xRequestorType != null ? xRequestorType.getValue() : "CUSTOMER";
+        return ResponseEntity.ok(documentEnquiryProcessor.streamEnquiry(body, requestorType)
+            .doOnComplete(() -> log.info("Completed document enquiry stream - correlationId: {}", xCorrelationId)));
+    }
 }
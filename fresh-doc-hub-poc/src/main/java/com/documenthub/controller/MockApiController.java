@@ -37,6 +37,21 @@ public class MockApiController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Batch variant of account details: {"ids": [...]} returns {"results": {id: details}}
+     */
+    @PostMapping("/accounts/details:batch")
+    public ResponseEntity<Map<String, Object>> getAccountDetailsBatch(@RequestBody Map<String, List<String>> request) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String accountId : request.getOrDefault("ids", Collections.emptyList())) {
+            results.put(accountId, getAccountDetails(accountId).getBody());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/accounts/{accountId}")
     public ResponseEntity<Map<String, Object>> getAccount(@PathVariable String accountId) {
         Map<String, Object> response = new HashMap<>();
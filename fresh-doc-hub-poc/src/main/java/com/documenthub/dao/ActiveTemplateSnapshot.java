@@ -0,0 +1,129 @@
+package com.documenthub.dao;
+
+import com.documenthub.dto.MasterTemplateDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, indexed view of all templates with active_flag = true.
+ *
+ * Templates are indexed by line of business and template type. The date window
+ * (start_date/end_date) is checked per lookup since it depends on the request time.
+ * Lookups apply the same filters as the findActiveTemplates* queries of
+ * MasterTemplateRepository, including ENTERPRISE templates for every line of business.
+ */
+final class ActiveTemplateSnapshot {
+
+    static final String ENTERPRISE = "ENTERPRISE";
+
+    private final List<MasterTemplateDto> templates;
+    private final Map<String, List<MasterTemplateDto>> byLineOfBusiness;
+    private final Map<String, List<MasterTemplateDto>> byTemplateType;
+
+    ActiveTemplateSnapshot(List<MasterTemplateDto> templates) {
+        this.templates = List.copyOf(templates);
+        this.byLineOfBusiness = index(this.templates, MasterTemplateDto::getLineOfBusiness);
+        this.byTemplateType = index(this.templates, MasterTemplateDto::getTemplateType);
+    }
+
+    int size() {
+        return templates.size();
+    }
+
+    /**
+     * Active templates of a line of business (including ENTERPRISE) within the date window.
+     */
+    List<MasterTemplateDto> findByLineOfBusiness(String lineOfBusiness, Long currentDate) {
+        return filter(lineOfBusiness, currentDate, t -> true);
+    }
+
+    /**
+     * Active shared templates of a line of business (including ENTERPRISE) within the date window.
+     */
+    List<MasterTemplateDto> findSharedByLineOfBusiness(String lineOfBusiness, Long currentDate) {
+        return filter(lineOfBusiness, currentDate, t -> Boolean.TRUE.equals(t.getSharedDocumentFlag()));
+    }
+
+    /**
+     * Active templates of a line of business restricted to template types.
+     */
+    List<MasterTemplateDto> findByLineOfBusinessAndTypes(
+            String lineOfBusiness, Collection<String> templateTypes, Long currentDate) {
+        Set<String> types = new HashSet<>(templateTypes);
+        return filter(lineOfBusiness, currentDate, t -> types.contains(t.getTemplateType()));
+    }
+
+    /**
+     * Active templates of a line of business with message center and communication type filters.
+     *
+     * @param templateTypes template types to keep, or null for all types
+     * @param messageCenterDocFlag unless FALSE, only message center templates are kept
+     * @param communicationType communication type to keep, or null for all
+     */
+    List<MasterTemplateDto> findWithFilters(
+            String lineOfBusiness,
+            Collection<String> templateTypes,
+            Boolean messageCenterDocFlag,
+            String communicationType,
+            Long currentDate) {
+        Set<String> types = templateTypes != null ? new HashSet<>(templateTypes) : null;
+        return filter(lineOfBusiness, currentDate, t ->
+            (types == null || types.contains(t.getTemplateType()))
+                && (Boolean.FALSE.equals(messageCenterDocFlag) || Boolean.TRUE.equals(t.getMessageCenterDocFlag()))
+                && (communicationType == null || communicationType.equals(t.getCommunicationType())));
+    }
+
+    /**
+     * Highest version of an active template type within the date window, or null.
+     */
+    MasterTemplateDto findLatestByType(String templateType, Long currentDate) {
+        return byTemplateType.getOrDefault(templateType, List.of()).stream()
+            .filter(t -> t.getTemplateVersion() != null)
+            .filter(t -> isWithinDateWindow(t, currentDate))
+            .max(Comparator.comparing(MasterTemplateDto::getTemplateVersion))
+            .orElse(null);
+    }
+
+    private List<MasterTemplateDto> filter(
+            String lineOfBusiness, Long currentDate, Predicate<MasterTemplateDto> predicate) {
+        Stream<MasterTemplateDto> candidates = byLineOfBusiness.getOrDefault(lineOfBusiness, List.of()).stream();
+        if (!ENTERPRISE.equals(lineOfBusiness)) {
+            candidates = Stream.concat(candidates, byLineOfBusiness.getOrDefault(ENTERPRISE, List.of()).stream());
+        }
+        return candidates
+            .filter(t -> isWithinDateWindow(t, currentDate))
+            .filter(predicate)
+            .collect(Collectors.toList());
+    }
+
+    private static boolean isWithinDateWindow(MasterTemplateDto template, Long currentDate) {
+        return (template.getStartDate() == null || template.getStartDate() <= currentDate)
+            && (template.getEndDate() == null || template.getEndDate() >= currentDate);
+    }
+
+    private static Map<String, List<MasterTemplateDto>> index(
+            List<MasterTemplateDto> templates,
+            Function<MasterTemplateDto, String> key) {
+        Map<String, List<MasterTemplateDto>> index = new LinkedHashMap<>();
+        for (MasterTemplateDto template : templates) {
+            String value = key.apply(template);
+            if (value != null) {
+                index.computeIfAbsent(value, k -> new ArrayList<>()).add(template);
+            }
+        }
+        index.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        return Collections.unmodifiableMap(index);
+    }
+}
@@ -0,0 +1,125 @@
+package com.documenthub.dao;
+
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+
+/**
+ * Keeps the active template snapshot of {@link MasterTemplateDao} up to date.
+ *
+ * <p>Listens on a PostgreSQL NOTIFY channel (fed by the master_template_definition
+ * trigger, see V9__master_template_notify.sql) and reloads the snapshot on every
+ * notification. A periodic full reload covers missed notifications, and a reload is
+ * done each time the listener (re)connects. Reloads run one at a time; notifications
+ * arriving during a reload are coalesced into a single follow-up reload.</p>
+ *
+ * <p>The listener holds one connection from the pool while the application runs.
+ * On databases without LISTEN/NOTIFY only the periodic reload is used.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MasterTemplateChangeListener {
+
+    private final ConnectionFactory connectionFactory;
+    private final MasterTemplateDao masterTemplateDao;
+
+    @Value("${app.templates.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.templates.snapshot.notify-channel:master_template_changed}")
+    private String channel;
+
+    @Value("${app.templates.snapshot.refresh-interval-seconds:300}")
+    private long refreshIntervalSeconds;
+
+    private Disposable subscription;
+
+    /**
+     * Load the first snapshot and start listening once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Active template snapshot disabled, templates are queried from the database");
+            return;
+        }
+
+        Duration interval = Duration.ofSeconds(refreshIntervalSeconds);
+        Flux<String> triggers = Flux.merge(
+            changeNotifications(),
+            Flux.interval(interval, interval).map(tick -> "periodic"));
+
+        subscription = triggers
+            .onBackpressureLatest()
+            .concatMap(reason -> masterTemplateDao.refreshActiveTemplates()
+                .doOnSubscribe(s -> log.debug("Reloading active templates: {}", reason))
+                .onErrorResume(e -> {
+                    log.error("Failed to reload active templates: {}", e.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Emit a reload trigger once listening, then one per notification.
+     * Reconnects with backoff if the listening connection fails.
+     */
+    private Flux<String> changeNotifications() {
+        return Flux.usingWhen(
+                connectionFactory.create(),
+                this::listen,
+                Connection::close)
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofMinutes(1))
+                .doBeforeRetry(signal -> log.warn("Template change listener failed, reconnecting: {}",
+                    signal.failure().getMessage())));
+    }
+
+    private Flux<String> listen(Connection connection) {
+        PostgresqlConnection postgres = unwrap(connection);
+        if (postgres == null) {
+            log.warn("LISTEN/NOTIFY not supported by {}, relying on periodic template reload",
+                connection.getClass().getSimpleName());
+            return Flux.just("startup");
+        }
+
+        return postgres.createStatement("LISTEN " + channel)
+            .execute()
+            .flatMap(result -> result.getRowsUpdated())
+            .then(Mono.fromRunnable(() -> log.info("Listening for template changes on channel: {}", channel)))
+            .thenMany(Flux.concat(
+                Mono.just("listen"),
+                postgres.getNotifications().map(notification -> "notify " + notification.getParameter()),
+                Mono.error(new IllegalStateException("Notification stream closed"))));
+    }
+
+    private PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped) {
+            current = ((Wrapped<?>) current).unwrap();
+        }
+        return current instanceof PostgresqlConnection ? (PostgresqlConnection) current : null;
+    }
+}
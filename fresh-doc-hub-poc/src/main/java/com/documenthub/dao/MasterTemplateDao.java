@@ -1,8 +1,10 @@
 package com.documenthub.dao;
 
+import com.documenthub.dto.CompiledTemplate;
 import com.documenthub.dto.MasterTemplateDto;
 import com.documenthub.entity.MasterTemplateDefinitionEntity;
 import com.documenthub.repository.MasterTemplateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.r2dbc.postgresql.codec.Json;
@@ -14,26 +16,42 @@ import reactor.core.publisher.Mono;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Data Access Object for MasterTemplateDefinition operations.
  * Provides a layer of abstraction over the repository with built-in caching.
  * Returns DTOs instead of entities to maintain layer separation.
+ * Each DTO carries its {@link CompiledTemplate}, parsed once per template version.
+ *
+ * Active templates are held in an in-memory {@link ActiveTemplateSnapshot} that answers
+ * the findActive* lookups without a database round-trip. The snapshot is replaced as a
+ * whole by {@link #refreshActiveTemplates()}, triggered by {@link MasterTemplateChangeListener}.
+ * Until the first snapshot is loaded, lookups go to the database.
  */
 @Slf4j
 @Component
 public class MasterTemplateDao {
 
     private final MasterTemplateRepository repository;
+    private final ObjectMapper objectMapper;
     private final Cache<String, MasterTemplateDto> templateCache;
+    private final Cache<CompiledKey, CompiledTemplate> compiledCache;
+    private final AtomicReference<ActiveTemplateSnapshot> activeSnapshot = new AtomicReference<>();
 
-    public MasterTemplateDao(MasterTemplateRepository repository) {
+    public MasterTemplateDao(MasterTemplateRepository repository, ObjectMapper objectMapper) {
         this.repository = repository;
+        this.objectMapper = objectMapper;
         this.templateCache = Caffeine.newBuilder()
             .maximumSize(500)
             .expireAfterWrite(Duration.ofMinutes(15))
             .recordStats()
             .build();
+        this.compiledCache = Caffeine.newBuilder()
+            .maximumSize(500)
+            .build();
     }
 
     /**
@@ -78,8 +96,9 @@ public class MasterTemplateDao {
             String lineOfBusiness,
             Long currentDate) {
         log.debug("Finding active templates by LOB: {}", lineOfBusiness);
-        return repository.findActiveTemplatesByLineOfBusiness(lineOfBusiness, currentDate)
-            .map(this::toDto);
+        return fromSnapshot(
+            snapshot -> snapshot.findByLineOfBusiness(lineOfBusiness, currentDate),
+            () -> repository.findActiveTemplatesByLineOfBusiness(lineOfBusiness, currentDate));
     }
 
     /**
@@ -92,9 +111,11 @@ public class MasterTemplateDao {
             Long currentDate) {
         log.debug("Finding templates with filters: lob={}, msgCenter={}, commType={}",
             lineOfBusiness, messageCenterDocFlag, communicationType);
-        return repository.findActiveTemplatesWithFilters(
-            lineOfBusiness, messageCenterDocFlag, communicationType, currentDate)
-            .map(this::toDto);
+        return fromSnapshot(
+            snapshot -> snapshot.findWithFilters(
+                lineOfBusiness, null, messageCenterDocFlag, communicationType, currentDate),
+            () -> repository.findActiveTemplatesWithFilters(
+                lineOfBusiness, messageCenterDocFlag, communicationType, currentDate));
     }
 
     /**
@@ -105,8 +126,9 @@ public class MasterTemplateDao {
             List<String> templateTypes,
             Long currentDate) {
         log.debug("Finding templates by LOB and types: lob={}, types={}", lineOfBusiness, templateTypes);
-        return repository.findActiveTemplatesByLineOfBusinessAndTypes(lineOfBusiness, templateTypes, currentDate)
-            .map(this::toDto);
+        return fromSnapshot(
+            snapshot -> snapshot.findByLineOfBusinessAndTypes(lineOfBusiness, templateTypes, currentDate),
+            () -> repository.findActiveTemplatesByLineOfBusinessAndTypes(lineOfBusiness, templateTypes, currentDate));
     }
 
     /**
@@ -120,9 +142,11 @@ public class MasterTemplateDao {
             Long currentDate) {
         log.debug("Finding templates with all filters: lob={}, types={}, msgCenter={}, commType={}",
             lineOfBusiness, templateTypes, messageCenterDocFlag, communicationType);
-        return repository.findActiveTemplatesWithAllFilters(
-            lineOfBusiness, templateTypes, messageCenterDocFlag, communicationType, currentDate)
-            .map(this::toDto);
+        return fromSnapshot(
+            snapshot -> snapshot.findWithFilters(
+                lineOfBusiness, templateTypes, messageCenterDocFlag, communicationType, currentDate),
+            () -> repository.findActiveTemplatesWithAllFilters(
+                lineOfBusiness, templateTypes, messageCenterDocFlag, communicationType, currentDate));
     }
 
     /**
@@ -132,8 +156,9 @@ public class MasterTemplateDao {
             String lineOfBusiness,
             Long currentDate) {
         log.debug("Finding shared templates by LOB: {}", lineOfBusiness);
-        return repository.findActiveSharedTemplatesByLineOfBusiness(lineOfBusiness, currentDate)
-            .map(this::toDto);
+        return fromSnapshot(
+            snapshot -> snapshot.findSharedByLineOfBusiness(lineOfBusiness, currentDate),
+            () -> repository.findActiveSharedTemplatesByLineOfBusiness(lineOfBusiness, currentDate));
     }
 
     /**
@@ -149,9 +174,44 @@ public class MasterTemplateDao {
      */
     public Mono<MasterTemplateDto> findLatestActiveTemplateByType(String templateType, Long currentDate) {
         log.debug("Finding latest active template by type: {}", templateType);
+        ActiveTemplateSnapshot snapshot = activeSnapshot.get();
+        if (snapshot != null) {
+            return Mono.justOrEmpty(snapshot.findLatestByType(templateType, currentDate));
+        }
         return repository.findLatestActiveTemplateByType(templateType, currentDate).map(this::toDto);
     }
 
+    /**
+     * Reload all active templates and atomically replace the in-memory snapshot.
+     * Also clears the per-key template cache, since a reload means templates changed.
+     * Callers must not run reloads concurrently, so an older result cannot replace a newer one.
+     *
+     * @return number of active templates in the new snapshot
+     */
+    public Mono<Integer> refreshActiveTemplates() {
+        return repository.findAllActiveTemplates()
+            .map(this::toDto)
+            .collectList()
+            .map(ActiveTemplateSnapshot::new)
+            .doOnNext(snapshot -> {
+                activeSnapshot.set(snapshot);
+                templateCache.invalidateAll();
+                log.info("Active template snapshot loaded: {} templates", snapshot.size());
+            })
+            .map(ActiveTemplateSnapshot::size);
+    }
+
+    private Flux<MasterTemplateDto> fromSnapshot(
+            Function<ActiveTemplateSnapshot, List<MasterTemplateDto>> lookup,
+            Supplier<Flux<MasterTemplateDefinitionEntity>> fallback) {
+        ActiveTemplateSnapshot snapshot = activeSnapshot.get();
+        if (snapshot != null) {
+            return Flux.fromIterable(lookup.apply(snapshot));
+        }
+        log.debug("Active template snapshot not loaded, querying database");
+        return fallback.get().map(this::toDto);
+    }
+
     /**
      * Invalidate cache for a template
      */
@@ -166,6 +226,7 @@ public class MasterTemplateDao {
      */
     public void invalidateAllCache() {
         templateCache.invalidateAll();
+        compiledCache.invalidateAll();
         log.info("Template cache cleared");
     }
 
@@ -191,6 +252,33 @@ public class MasterTemplateDao {
      * Convert entity to DTO
      */
     private MasterTemplateDto toDto(MasterTemplateDefinitionEntity entity) {
+        MasterTemplateDto dto = buildDto(entity);
+        dto.setCompiled(compiledCache.get(CompiledKey.of(dto),
+            key -> CompiledTemplate.compile(dto, objectMapper)));
+        return dto;
+    }
+
+    /**
+     * Key of a compiled template: the template version and the JSON configs it is
+     * compiled from. Rows are edited in place without touching updated_timestamp, so
+     * an edited config must change the key by its contents.
+     */
+    private record CompiledKey(
+            UUID masterTemplateId,
+            Integer templateVersion,
+            String documentMatchingConfig,
+            String eligibilityCriteria,
+            String accessControl,
+            String dataExtractionConfig) {
+
+        static CompiledKey of(MasterTemplateDto dto) {
+            return new CompiledKey(dto.getMasterTemplateId(), dto.getTemplateVersion(),
+                dto.getDocumentMatchingConfig(), dto.getEligibilityCriteria(),
+                dto.getAccessControl(), dto.getDataExtractionConfig());
+        }
+    }
+
+    private MasterTemplateDto buildDto(MasterTemplateDefinitionEntity entity) {
         return MasterTemplateDto.builder()
             .masterTemplateId(entity.getMasterTemplateId())
             .templateVersion(entity.getTemplateVersion())
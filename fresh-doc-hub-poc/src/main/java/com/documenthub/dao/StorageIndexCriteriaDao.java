@@ -1,30 +1,82 @@
 package com.documenthub.dao;
 
+import com.documenthub.dto.DocumentBatchQueryDto;
+import com.documenthub.dto.DocumentCursorDto;
 import com.documenthub.dto.DocumentQueryParamsDto;
+import com.documenthub.dto.MasterTemplateDto;
 import com.documenthub.dto.StorageIndexDto;
 import com.documenthub.entity.StorageIndexEntity;
 import io.r2dbc.postgresql.codec.Json;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
-
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Criteria-based DAO for StorageIndex queries.
  *
  * Uses R2dbcEntityTemplate with Criteria API for dynamic query building.
  * This approach is more flexible than @Query for queries with many optional filters.
+ *
+ * Enquiry queries are projections: they select only the columns an enquiry reads
+ * instead of all storage_index columns, and leave the rest of the returned DTOs null.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class StorageIndexCriteriaDao {
 
+    /**
+     * Keyset pagination order. PostgreSQL sorts NULL dates first for DESC,
+     * which {@link DocumentCursorDto#compare} mirrors.
+     */
+    private static final Sort KEYSET_SORT = Sort.by(
+        Sort.Order.desc("doc_creation_date"),
+        Sort.Order.desc("storage_index_id"));
+
+    /**
+     * Columns an enquiry renders, matches, groups and pages on. Audit, archive and vendor
+     * columns are never read by an enquiry and are not fetched.
+     */
+    private static final List<String> SUMMARY_COLUMNS = List.of(
+        "storage_index_id",
+        "template_type",
+        "template_version",
+        "reference_key",
+        "reference_key_type",
+        "account_key",
+        "storage_document_key",
+        "file_name",
+        "doc_creation_date",
+        "shared_flag",
+        "valid_from",
+        "valid_until",
+        "validity_normalized");
+
+    /**
+     * Summary columns plus the doc_metadata JSONB, needed for validity filtering
+     * and metadata rendering.
+     */
+    private static final List<String> ENQUIRY_COLUMNS = Stream.concat(
+        SUMMARY_COLUMNS.stream(), Stream.of("doc_metadata")).collect(Collectors.toUnmodifiableList());
+
     private final R2dbcEntityTemplate template;
 
     /**
@@ -33,15 +85,12 @@ public class StorageIndexCriteriaDao {
      */
     public Flux<StorageIndexDto> findDocuments(DocumentQueryParamsDto params) {
         Criteria criteria = buildCriteria(params);
-        Query query = Query.query(criteria);
+        Query query = pagedQuery(criteria, params.getCursor(), params.getPageLimit());
 
         log.debug("Executing criteria query for template: {}",
             params.getTemplate().getTemplateType());
 
-        return template.select(StorageIndexEntity.class)
-            .matching(query)
-            .all()
-            .map(this::toDto);
+        return select(query, ENQUIRY_COLUMNS);
     }
 
     /**
@@ -51,18 +100,15 @@ public class StorageIndexCriteriaDao {
         Criteria criteria = Criteria.empty()
             .and(baseCriteria())
             .and(templateCriteria(params))
-            .and(validityPeriodCriteria(params))
+            .and(validityPeriodCriteria())
             .and(postedDateCriteria(params))
             .and("account_key").is(params.getAccountId())
-            .and("shared_flag").is(false);
+            .and("shared_flag").isFalse();
 
         log.debug("Finding account documents: accountId={}, template={}",
             params.getAccountId(), params.getTemplate().getTemplateType());
 
-        return template.select(StorageIndexEntity.class)
-            .matching(Query.query(criteria))
-            .all()
-            .map(this::toDto);
+        return select(pagedQuery(criteria, params.getCursor(), params.getPageLimit()), ENQUIRY_COLUMNS);
     }
 
     /**
@@ -72,17 +118,63 @@ public class StorageIndexCriteriaDao {
         Criteria criteria = Criteria.empty()
             .and(baseCriteria())
             .and(templateCriteria(params))
-            .and(validityPeriodCriteria(params))
+            .and(validityPeriodCriteria())
             .and(postedDateCriteria(params))
-            .and("shared_flag").is(true);
+            .and("shared_flag").isTrue();
 
         log.debug("Finding shared documents: template={}",
             params.getTemplate().getTemplateType());
 
-        return template.select(StorageIndexEntity.class)
-            .matching(Query.query(criteria))
-            .all()
-            .map(this::toDto);
+        return select(pagedQuery(criteria, params.getCursor(), params.getPageLimit()), ENQUIRY_COLUMNS);
+    }
+
+    /**
+     * Find account-specific documents for many accounts and templates in one query.
+     *
+     * Replaces one {@link #findAccountDocuments} round-trip per account+template pair
+     * with a single statement using IN lists on account_key and template_type.
+     * The result is a superset of the requested pairs; callers must redistribute rows
+     * by (account, type, version) and drop pairs that were not requested.
+     */
+    public Flux<StorageIndexDto> findAccountDocumentsBatch(DocumentBatchQueryDto query) {
+        Collection<MasterTemplateDto> templates = query.getDistinctAccountTemplates();
+        if (templates.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Criteria criteria = Criteria.empty()
+            .and(baseCriteria())
+            .and(templatesCriteria(templates))
+            .and(validityPeriodCriteria())
+            .and(postedDateCriteria(query.getPostedFromDate(), query.getPostedToDate()))
+            .and("account_key").in(query.getAccountIds())
+            .and("shared_flag").isFalse();
+
+        log.debug("Finding account documents in batch: accounts={}, templates={}",
+            query.getAccountIds().size(), templates.size());
+
+        return select(pagedQuery(criteria, query.getCursor(), query.getPageLimit()), ENQUIRY_COLUMNS);
+    }
+
+    /**
+     * Find shared documents for many templates in one query.
+     * Shared documents do not depend on the account, so one statement serves every account.
+     */
+    public Flux<StorageIndexDto> findSharedDocumentsBatch(DocumentBatchQueryDto query) {
+        if (query.getSharedTemplates().isEmpty()) {
+            return Flux.empty();
+        }
+
+        Criteria criteria = Criteria.empty()
+            .and(baseCriteria())
+            .and(templatesCriteria(query.getSharedTemplates()))
+            .and(validityPeriodCriteria())
+            .and(postedDateCriteria(query.getPostedFromDate(), query.getPostedToDate()))
+            .and("shared_flag").isTrue();
+
+        log.debug("Finding shared documents in batch: templates={}", query.getSharedTemplates().size());
+
+        return select(pagedQuery(criteria, query.getCursor(), query.getPageLimit()), ENQUIRY_COLUMNS);
     }
 
     /**
@@ -96,7 +188,7 @@ public class StorageIndexCriteriaDao {
         Criteria criteria = Criteria.empty()
             .and(baseCriteria())
             .and(templateCriteria(params))
-            .and(validityPeriodCriteria(params))
+            .and(validityPeriodCriteria())
             .and(postedDateCriteria(params))
             .and("reference_key").is(referenceKey)
             .and("reference_key_type").is(referenceKeyType);
@@ -104,15 +196,15 @@ public class StorageIndexCriteriaDao {
         log.debug("Finding by reference key: key={}, type={}, template={}",
             referenceKey, referenceKeyType, params.getTemplate().getTemplateType());
 
-        return template.select(StorageIndexEntity.class)
-            .matching(Query.query(criteria))
-            .all()
-            .map(this::toDto);
+        return select(pagedQuery(criteria, params.getCursor(), params.getPageLimit()), ENQUIRY_COLUMNS);
     }
 
     /**
      * Find documents by reference key type only (auto-discover mode).
      * Does not filter by specific reference key value.
+     *
+     * Returns summaries without doc_metadata: auto-discover keeps a single document,
+     * so callers load metadata with {@link #findMetadata} for the candidates they check.
      */
     public Flux<StorageIndexDto> findByReferenceKeyType(
             String referenceKeyType,
@@ -121,17 +213,14 @@ public class StorageIndexCriteriaDao {
         Criteria criteria = Criteria.empty()
             .and(baseCriteria())
             .and(templateCriteria(params))
-            .and(validityPeriodCriteria(params))
+            .and(validityPeriodCriteria())
             .and(postedDateCriteria(params))
             .and("reference_key_type").is(referenceKeyType);
 
         log.debug("Finding by reference key type (auto-discover): type={}, template={}",
             referenceKeyType, params.getTemplate().getTemplateType());
 
-        return template.select(StorageIndexEntity.class)
-            .matching(Query.query(criteria))
-            .all()
-            .map(this::toDto);
+        return select(pagedQuery(criteria, params.getCursor(), params.getPageLimit()), SUMMARY_COLUMNS);
     }
 
     /**
@@ -144,15 +233,71 @@ public class StorageIndexCriteriaDao {
         Criteria criteria = Criteria.empty()
             .and(baseCriteria())
             .and(templateCriteria(params))
-            .and(validityPeriodCriteria(params))
+            .and(validityPeriodCriteria())
             .and(postedDateCriteria(params))
             .and("customer_key").is(customerKey);
 
         log.debug("Finding by customer key: customerId={}, template={}",
             customerKey, params.getTemplate().getTemplateType());
 
+        return select(pagedQuery(criteria, params.getCursor(), params.getPageLimit()), ENQUIRY_COLUMNS);
+    }
+
+    /**
+     * Load doc_metadata for documents fetched as summaries.
+     *
+     * @return Map of storage_index_id to metadata JSON; documents without metadata map to null
+     */
+    public Mono<Map<UUID, String>> findMetadata(Collection<UUID> storageIndexIds) {
+        if (storageIndexIds.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+
+        Query query = Query.query(Criteria.where("storage_index_id").in(storageIndexIds))
+            .columns("storage_index_id", "doc_metadata");
+
+        return template.select(StorageIndexEntity.class)
+            .matching(query)
+            .all()
+            .collectMap(StorageIndexEntity::getStorageIndexId, entity -> jsonToString(entity.getDocMetadata()));
+    }
+
+    /**
+     * Find documents whose validity dates are not yet normalized from doc_metadata,
+     * in storage_index_id order after the given id (null for the first batch).
+     */
+    public Flux<StorageIndexDto> findValidityBackfillBatch(UUID afterStorageIndexId, int limit) {
+        Criteria criteria = Criteria.where("validity_normalized").isFalse();
+        if (afterStorageIndexId != null) {
+            criteria = criteria.and("storage_index_id").greaterThan(afterStorageIndexId);
+        }
+
+        Query query = Query.query(criteria)
+            .sort(Sort.by(Sort.Order.asc("storage_index_id")))
+            .limit(limit);
+
+        return select(query, List.of("storage_index_id", "doc_metadata"));
+    }
+
+    /**
+     * Store the normalized validity dates of a document.
+     */
+    public Mono<Integer> updateValidity(StorageIndexDto document) {
+        Query query = Query.query(Criteria.where("storage_index_id").is(document.getStorageIndexId()));
+
+        return template.update(StorageIndexEntity.class)
+            .matching(query)
+            .apply(Update.update("valid_from", document.getValidFrom())
+                .set("valid_until", document.getValidUntil())
+                .set("validity_normalized", document.getValidityNormalized()));
+    }
+
+    /**
+     * Run a query fetching only the given columns.
+     */
+    private Flux<StorageIndexDto> select(Query query, List<String> columns) {
         return template.select(StorageIndexEntity.class)
-            .matching(Query.query(criteria))
+            .matching(query.columns(columns))
             .all()
             .map(this::toDto);
     }
@@ -168,7 +313,7 @@ public class StorageIndexCriteriaDao {
         Criteria criteria = Criteria.empty()
             .and(baseCriteria())
             .and(templateCriteria(params))
-            .and(validityPeriodCriteria(params))
+            .and(validityPeriodCriteria())
             .and(postedDateCriteria(params));
 
         // Add optional filters based on params
@@ -192,7 +337,7 @@ public class StorageIndexCriteriaDao {
      * Only returns accessible documents.
      */
     private Criteria baseCriteria() {
-        return Criteria.where("accessible_flag").is(true);
+        return Criteria.where("accessible_flag").isTrue();
     }
 
     /**
@@ -211,11 +356,36 @@ public class StorageIndexCriteriaDao {
     }
 
     /**
-     * Document validity period criteria (start_date/end_date).
+     * Template type and version criteria for a set of templates.
+     * Version is only narrowed when every template specifies one.
+     */
+    private Criteria templatesCriteria(Collection<MasterTemplateDto> templates) {
+        Set<String> templateTypes = templates.stream()
+            .map(MasterTemplateDto::getTemplateType)
+            .collect(Collectors.toSet());
+        Criteria criteria = Criteria.where("template_type").in(templateTypes);
+
+        boolean allVersioned = templates.stream()
+            .map(MasterTemplateDto::getTemplateVersion)
+            .allMatch(Objects::nonNull);
+        if (allVersioned) {
+            Set<Integer> versions = templates.stream()
+                .map(MasterTemplateDto::getTemplateVersion)
+                .collect(Collectors.toSet());
+            criteria = criteria.and("template_version").in(versions);
+        }
+
+        return criteria;
+    }
+
+    /**
+     * Document validity period criteria (start_date/end_date and the
+     * valid_from/valid_until dates normalized from doc_metadata).
      * Ensures document is currently valid.
      */
-    private Criteria validityPeriodCriteria(DocumentQueryParamsDto params) {
+    private Criteria validityPeriodCriteria() {
         Long currentDate = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
 
         // (start_date IS NULL OR start_date <= currentDate)
         // AND (end_date IS NULL OR end_date >= currentDate)
@@ -225,7 +395,19 @@ public class StorageIndexCriteriaDao {
         Criteria endCriteria = Criteria.where("end_date").isNull()
             .or("end_date").greaterThanOrEquals(currentDate);
 
-        return startCriteria.and(endCriteria);
+        // (valid_from IS NULL OR valid_from <= today)
+        // AND (valid_until IS NULL OR valid_until >= today)
+        Criteria validFromCriteria = Criteria.where("valid_from").isNull()
+            .or("valid_from").lessThanOrEquals(today);
+
+        Criteria validUntilCriteria = Criteria.where("valid_until").isNull()
+            .or("valid_until").greaterThanOrEquals(today);
+
+        return Criteria.empty()
+            .and(startCriteria)
+            .and(endCriteria)
+            .and(validFromCriteria)
+            .and(validUntilCriteria);
     }
 
     /**
@@ -233,53 +415,78 @@ public class StorageIndexCriteriaDao {
      * Filters by when document was created/posted.
      */
     private Criteria postedDateCriteria(DocumentQueryParamsDto params) {
+        return postedDateCriteria(params.getPostedFromDate(), params.getPostedToDate());
+    }
+
+    private Criteria postedDateCriteria(Long postedFromDate, Long postedToDate) {
         Criteria criteria = Criteria.empty();
 
-        if (params.getPostedFromDate() != null) {
+        if (postedFromDate != null) {
             criteria = criteria.and("doc_creation_date")
-                .greaterThanOrEquals(params.getPostedFromDate());
+                .greaterThanOrEquals(postedFromDate);
         }
 
-        if (params.getPostedToDate() != null) {
+        if (postedToDate != null) {
             criteria = criteria.and("doc_creation_date")
-                .lessThanOrEquals(params.getPostedToDate());
+                .lessThanOrEquals(postedToDate);
         }
 
         return criteria;
     }
 
+    /**
+     * Wrap criteria in a query, pushing keyset pagination into SQL when a page limit is set:
+     * rows after the cursor, ORDER BY doc_creation_date DESC, storage_index_id DESC, LIMIT n.
+     */
+    private Query pagedQuery(Criteria criteria, DocumentCursorDto cursor, Integer pageLimit) {
+        if (pageLimit == null) {
+            return Query.query(criteria);
+        }
+        Criteria paged = cursor != null ? criteria.and(keysetCriteria(cursor)) : criteria;
+        return Query.query(paged)
+            .sort(KEYSET_SORT)
+            .limit(pageLimit);
+    }
+
+    /**
+     * Rows strictly after the cursor in keyset order.
+     */
+    private Criteria keysetCriteria(DocumentCursorDto cursor) {
+        if (cursor.getDocCreationDate() == null) {
+            // NULL dates sort first: remaining NULL-dated rows, then every dated row
+            return Criteria.where("doc_creation_date").isNotNull()
+                .or(Criteria.where("doc_creation_date").isNull()
+                    .and("storage_index_id").lessThan(cursor.getStorageIndexId()));
+        }
+
+        return Criteria.where("doc_creation_date").lessThan(cursor.getDocCreationDate())
+            .or(Criteria.where("doc_creation_date").is(cursor.getDocCreationDate())
+                .and("storage_index_id").lessThan(cursor.getStorageIndexId()));
+    }
+
     // ========================================================================
     // Entity <-> DTO Converter
     // ========================================================================
 
+    /**
+     * Copy the projected columns; columns that were not selected stay null.
+     */
     private StorageIndexDto toDto(StorageIndexEntity entity) {
         return StorageIndexDto.builder()
             .storageIndexId(entity.getStorageIndexId())
-            .masterTemplateId(entity.getMasterTemplateId())
             .templateVersion(entity.getTemplateVersion())
             .templateType(entity.getTemplateType())
-            .storageVendor(entity.getStorageVendor())
             .referenceKey(entity.getReferenceKey())
             .referenceKeyType(entity.getReferenceKeyType())
             .accountKey(entity.getAccountKey())
-            .customerKey(entity.getCustomerKey())
             .storageDocumentKey(entity.getStorageDocumentKey())
             .fileName(entity.getFileName())
             .docCreationDate(entity.getDocCreationDate())
-            .accessibleFlag(entity.getAccessibleFlag())
             .docMetadata(jsonToString(entity.getDocMetadata()))
-            .startDate(entity.getStartDate())
-            .endDate(entity.getEndDate())
             .sharedFlag(entity.getSharedFlag())
-            .generationVendorId(entity.getGenerationVendorId())
-            .createdBy(entity.getCreatedBy())
-            .createdTimestamp(entity.getCreatedTimestamp())
-            .updatedBy(entity.getUpdatedBy())
-            .updatedTimestamp(entity.getUpdatedTimestamp())
-            .archiveIndicator(entity.getArchiveIndicator())
-            .archiveTimestamp(entity.getArchiveTimestamp())
-            .versionNumber(entity.getVersionNumber())
-            .recordStatus(entity.getRecordStatus())
+            .validFrom(entity.getValidFrom())
+            .validUntil(entity.getValidUntil())
+            .validityNormalized(entity.getValidityNormalized())
             .build();
     }
 
@@ -297,6 +297,9 @@ public class StorageIndexDao {
             .docMetadata(jsonToString(entity.getDocMetadata()))
             .startDate(entity.getStartDate())
             .endDate(entity.getEndDate())
+            .validFrom(entity.getValidFrom())
+            .validUntil(entity.getValidUntil())
+            .validityNormalized(entity.getValidityNormalized())
             .sharedFlag(entity.getSharedFlag())
             .generationVendorId(entity.getGenerationVendorId())
             .createdBy(entity.getCreatedBy())
@@ -331,6 +334,9 @@ public class StorageIndexDao {
         entity.setDocMetadata(stringToJson(dto.getDocMetadata()));
         entity.setStartDate(dto.getStartDate());
         entity.setEndDate(dto.getEndDate());
+        entity.setValidFrom(dto.getValidFrom());
+        entity.setValidUntil(dto.getValidUntil());
+        entity.setValidityNormalized(dto.getValidityNormalized());
         entity.setSharedFlag(dto.getSharedFlag());
         entity.setGenerationVendorId(dto.getGenerationVendorId());
         entity.setCreatedBy(dto.getCreatedBy());
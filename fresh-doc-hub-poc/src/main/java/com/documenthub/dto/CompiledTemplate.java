@@ -0,0 +1,256 @@
+package com.documenthub.dto;
+
+import com.documenthub.model.EligibilityCriteria;
+import com.documenthub.model.extraction.DataExtractionConfig;
+import com.documenthub.service.ConfigurableDataExtractionService;
+import com.documenthub.service.EligibilityPredicate;
+import com.documenthub.service.extraction.ExtractionPlanBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed form of the JSON columns of a master template definition.
+ *
+ * document_matching_config, access_control, eligibility_criteria and
+ * data_extraction_config are parsed (eligibility_criteria also compiled into an
+ * {@link EligibilityPredicate}) once per template version (see
+ * {@link com.documenthub.dao.MasterTemplateDao}) and reused by every
+ * enquiry, instead of each service parsing the same strings per
+ * account and template.
+ *
+ * A column that fails to parse is recorded as invalid so callers keep
+ * their existing fallback behavior. A data_extraction_config that parses but
+ * cannot be fully planned is logged here, once per template version, with its
+ * problems kept in {@link #getDataExtractionProblems()}.
+ */
+@Slf4j
+@Getter
+@Builder
+public class CompiledTemplate {
+
+    /**
+     * Matching strategy from document_matching_config.matchBy.
+     */
+    public enum MatchBy {
+        /** No document_matching_config, or no matchBy in it: match by shared flag. */
+        NONE,
+        REFERENCE_KEY,
+        CONDITIONAL,
+        /** matchBy present but not recognized. */
+        UNKNOWN,
+        /** document_matching_config could not be parsed. */
+        INVALID
+    }
+
+    /**
+     * Reference key source from document_matching_config.matchMode.
+     */
+    public enum MatchMode {
+        DIRECT,
+        EXTRACTED,
+        AUTO_DISCOVER;
+
+        static MatchMode from(String value) {
+            if ("direct".equals(value)) {
+                return DIRECT;
+            }
+            if ("auto_discover".equals(value)) {
+                return AUTO_DISCOVER;
+            }
+            return EXTRACTED;
+        }
+    }
+
+    private static final CompiledTemplate EMPTY = CompiledTemplate.builder().build();
+
+    @Builder.Default
+    private final MatchBy matchBy = MatchBy.NONE;
+    private final String matchByValue;
+    @Builder.Default
+    private final MatchMode matchMode = MatchMode.EXTRACTED;
+    private final String referenceKeyType;
+    private final String referenceKeyField;
+    private final JsonNode conditions;
+
+    /**
+     * Permitted actions keyed by lower-case role, or null when access_control
+     * is absent or not a valid array (role defaults apply).
+     */
+    private final Map<String, List<String>> roleActions;
+
+    private final EligibilityCriteria eligibilityCriteria;
+    private final boolean eligibilityCriteriaInvalid;
+
+    /**
+     * eligibility_criteria compiled for evaluation per account.
+     */
+    @Builder.Default
+    private final EligibilityPredicate eligibilityPredicate = EligibilityPredicate.ALWAYS;
+
+    private final DataExtractionConfig dataExtractionConfig;
+    private final boolean dataExtractionConfigInvalid;
+
+    /**
+     * Fields of data_extraction_config that can never be extracted, see
+     * {@link ExtractionPlanBuilder#validate}.
+     */
+    @Builder.Default
+    private final List<String> dataExtractionProblems = List.of();
+
+    public boolean isAutoDiscover() {
+        return matchMode == MatchMode.AUTO_DISCOVER;
+    }
+
+    /**
+     * Get the compiled form of a template, compiling and attaching it on first use
+     * when the template did not come through MasterTemplateDao.
+     */
+    public static CompiledTemplate of(MasterTemplateDto template, ObjectMapper objectMapper) {
+        CompiledTemplate compiled = template.getCompiled();
+        if (compiled == null) {
+            compiled = compile(template, objectMapper);
+            template.setCompiled(compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Parse the JSON columns of a template.
+     */
+    public static CompiledTemplate compile(MasterTemplateDto template, ObjectMapper objectMapper) {
+        if (template.getDocumentMatchingConfig() == null
+                && template.getAccessControl() == null
+                && template.getEligibilityCriteria() == null
+                && template.getDataExtractionConfig() == null) {
+            return EMPTY;
+        }
+
+        CompiledTemplateBuilder builder = CompiledTemplate.builder();
+        compileDocumentMatching(template.getDocumentMatchingConfig(), objectMapper, builder);
+        builder.roleActions(compileAccessControl(template.getAccessControl(), objectMapper));
+        compileEligibility(template.getEligibilityCriteria(), objectMapper, builder);
+        compileDataExtraction(template, objectMapper, builder);
+        return builder.build();
+    }
+
+    private static void compileDocumentMatching(
+            String json, ObjectMapper objectMapper, CompiledTemplateBuilder builder) {
+        if (json == null) {
+            return;
+        }
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(json);
+        } catch (Exception e) {
+            log.error("Failed to parse document_matching_config: {}", e.getMessage());
+            builder.matchBy(MatchBy.INVALID);
+            return;
+        }
+        if (node == null) {
+            builder.matchBy(MatchBy.INVALID);
+            return;
+        }
+
+        builder.matchMode(MatchMode.from(node.path("matchMode").asText(null)))
+                .referenceKeyType(node.path("referenceKeyType").asText(null))
+                .referenceKeyField(node.path("referenceKeyField").asText("referenceKey"))
+                .conditions(node.get("conditions"));
+
+        if (!node.has("matchBy")) {
+            return;
+        }
+        String matchBy = node.get("matchBy").asText();
+        builder.matchByValue(matchBy);
+        switch (matchBy) {
+            case "reference_key":
+                builder.matchBy(MatchBy.REFERENCE_KEY);
+                break;
+            case "conditional":
+                builder.matchBy(MatchBy.CONDITIONAL);
+                break;
+            default:
+                builder.matchBy(MatchBy.UNKNOWN);
+        }
+    }
+
+    private static Map<String, List<String>> compileAccessControl(String json, ObjectMapper objectMapper) {
+        if (json == null) {
+            return null;
+        }
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(json);
+        } catch (Exception e) {
+            log.warn("Failed to parse access_control: {}", e.getMessage());
+            return null;
+        }
+        if (node == null || !node.isArray()) {
+            return null;
+        }
+
+        Map<String, List<String>> roleActions = new LinkedHashMap<>();
+        for (JsonNode entry : node) {
+            if (!entry.has("role")) {
+                continue;
+            }
+            List<String> actions = new ArrayList<>();
+            JsonNode actionsNode = entry.get("actions");
+            if (actionsNode != null && actionsNode.isArray()) {
+                actionsNode.forEach(action -> actions.add(action.asText()));
+            }
+            // Roles are matched case-insensitively; the first entry for a role wins
+            roleActions.putIfAbsent(entry.get("role").asText().toLowerCase(),
+                    Collections.unmodifiableList(actions));
+        }
+        return Collections.unmodifiableMap(roleActions);
+    }
+
+    private static void compileEligibility(
+            String json, ObjectMapper objectMapper, CompiledTemplateBuilder builder) {
+        if (json == null) {
+            return;
+        }
+        try {
+            EligibilityCriteria criteria = objectMapper.readValue(json, EligibilityCriteria.class);
+            builder.eligibilityCriteria(criteria)
+                    .eligibilityPredicate(EligibilityPredicate.compile(criteria));
+        } catch (Exception e) {
+            log.error("Failed to parse eligibility_criteria: {}", e.getMessage());
+            builder.eligibilityCriteriaInvalid(true);
+        }
+    }
+
+    private static void compileDataExtraction(
+            MasterTemplateDto template, ObjectMapper objectMapper, CompiledTemplateBuilder builder) {
+        String json = template.getDataExtractionConfig();
+        if (json == null) {
+            return;
+        }
+        DataExtractionConfig config;
+        try {
+            config = objectMapper.readValue(json, DataExtractionConfig.class);
+        } catch (Exception e) {
+            log.error("Failed to parse data_extraction_config: {}", e.getMessage());
+            builder.dataExtractionConfigInvalid(true);
+            return;
+        }
+        builder.dataExtractionConfig(config);
+
+        List<String> problems = ExtractionPlanBuilder.validate(
+                config, ConfigurableDataExtractionService.REQUEST_FIELDS);
+        if (!problems.isEmpty()) {
+            log.warn("data_extraction_config of template {} v{}: {}",
+                    template.getTemplateType(), template.getTemplateVersion(), problems);
+            builder.dataExtractionProblems(problems);
+        }
+    }
+}
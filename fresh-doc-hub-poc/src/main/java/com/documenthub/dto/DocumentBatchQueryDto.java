@@ -0,0 +1,86 @@
+package com.documenthub.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * DTO for batched storage_index query parameters.
+ * Used by DocumentMatchingService to prefetch documents for all account x template pairs of an enquiry.
+ */
+@Data
+@Builder(toBuilder = true)
+public class DocumentBatchQueryDto {
+
+    /**
+     * Standard, non-shared templates each account may access.
+     */
+    @Builder.Default
+    private Map<UUID, List<MasterTemplateDto>> accountTemplates = Collections.emptyMap();
+
+    /**
+     * Standard templates with shared_document_flag = true.
+     */
+    @Builder.Default
+    private List<MasterTemplateDto> sharedTemplates = Collections.emptyList();
+
+    private Long postedFromDate;
+    private Long postedToDate;
+
+    /**
+     * Keyset position to continue after (null for the first page).
+     */
+    private DocumentCursorDto cursor;
+
+    /**
+     * Maximum rows per query in keyset mode; null fetches all rows.
+     */
+    private Integer pageLimit;
+
+    public Set<UUID> getAccountIds() {
+        return accountTemplates.keySet();
+    }
+
+    /**
+     * Distinct non-shared templates across all accounts.
+     */
+    public Collection<MasterTemplateDto> getDistinctAccountTemplates() {
+        return accountTemplates.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Check if a fetched account document belongs to a requested account+template pair.
+     * The batched query uses IN lists, so it can return rows for pairs that were not requested.
+     */
+    public boolean isRequested(StorageIndexDto doc) {
+        return accountTemplates.getOrDefault(doc.getAccountKey(), Collections.emptyList()).stream()
+                .anyMatch(template -> isSameTemplate(template, doc));
+    }
+
+    /**
+     * Check if a fetched shared document belongs to a requested shared template.
+     * The batched query matches IN(types) x IN(versions), so it can return versions of a type
+     * that were only requested for another type.
+     */
+    public boolean isRequestedShared(StorageIndexDto doc) {
+        return sharedTemplates.stream()
+                .anyMatch(template -> isSameTemplate(template, doc));
+    }
+
+    private static boolean isSameTemplate(MasterTemplateDto template, StorageIndexDto doc) {
+        return template.getTemplateType().equals(doc.getTemplateType())
+                && (template.getTemplateVersion() == null
+                    || Objects.equals(template.getTemplateVersion(), doc.getTemplateVersion()));
+    }
+}
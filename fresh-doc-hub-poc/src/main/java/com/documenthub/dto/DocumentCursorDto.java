@@ -0,0 +1,92 @@
+package com.documenthub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * DTO for a keyset pagination position in the document enquiry.
+ *
+ * Documents are ordered newest first by (doc_creation_date DESC, storage_index_id DESC),
+ * which matches PostgreSQL ordering (NULL dates first, uuid compared bytewise).
+ * The cursor points at the last document of a page; the next page starts right after it.
+ */
+@Data
+@AllArgsConstructor
+public class DocumentCursorDto {
+
+    private static final String SEPARATOR = "|";
+
+    private Long docCreationDate;
+    private UUID storageIndexId;
+
+    public static DocumentCursorDto of(StorageIndexDto doc) {
+        return new DocumentCursorDto(doc.getDocCreationDate(), doc.getStorageIndexId());
+    }
+
+    public static DocumentCursorDto of(Long docCreationDate, String documentId) {
+        return new DocumentCursorDto(docCreationDate, UUID.fromString(documentId));
+    }
+
+    /**
+     * Encode as an opaque, URL-safe continuation token.
+     */
+    public String encode() {
+        String raw = (docCreationDate != null ? docCreationDate.toString() : "")
+                + SEPARATOR + storageIndexId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token.
+     *
+     * @return the cursor, or null for an empty token (first page)
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static DocumentCursorDto decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            String date = raw.substring(0, idx);
+            return new DocumentCursorDto(
+                    date.isEmpty() ? null : Long.valueOf(date),
+                    UUID.fromString(raw.substring(idx + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuationToken: " + token, e);
+        }
+    }
+
+    /**
+     * Check if a document sorts after this cursor, i.e. belongs to a following page.
+     */
+    public boolean isBefore(Long otherDate, String otherId) {
+        return compare(docCreationDate, storageIndexId.toString(), otherDate, otherId) < 0;
+    }
+
+    /**
+     * Keyset ordering: negative if document A comes before document B.
+     * NULL dates come first, then newer dates, ties broken by descending id.
+     * Lower-case UUID strings compare the same way PostgreSQL compares uuid values.
+     */
+    public static int compare(Long dateA, String idA, Long dateB, String idB) {
+        if (dateA == null && dateB != null) {
+            return -1;
+        }
+        if (dateA != null && dateB == null) {
+            return 1;
+        }
+        if (dateA != null && !dateA.equals(dateB)) {
+            return dateB.compareTo(dateA);
+        }
+        String a = idA != null ? idA : "";
+        String b = idB != null ? idB : "";
+        return b.compareTo(a);
+    }
+}
@@ -3,6 +3,7 @@ package com.documenthub.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -11,7 +12,7 @@ import java.util.UUID;
  * Used by DocumentMatchingService for querying documents.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class DocumentQueryParamsDto {
     private MasterTemplateDto template;
     private UUID accountId;
@@ -30,4 +31,21 @@ public class DocumentQueryParamsDto {
      * Used when client explicitly provides the reference key type.
      */
     private String requestReferenceKeyType;
+
+    /**
+     * Documents already fetched by a batched enquiry query (see StorageIndexBatchDto).
+     * When set, standard (shared flag) matching uses these instead of querying again.
+     */
+    private List<StorageIndexDto> prefetchedDocuments;
+
+    /**
+     * Keyset position to continue after (null for the first page).
+     */
+    private DocumentCursorDto cursor;
+
+    /**
+     * Maximum rows to return in keyset pagination mode.
+     * When set, ORDER BY / LIMIT and the cursor are pushed into the storage_index query.
+     */
+    private Integer pageLimit;
 }
@@ -3,7 +3,9 @@ package com.documenthub.dto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -63,4 +65,9 @@ public class MasterTemplateDto {
     private String communicationType;
     private String workflow;
     private Boolean singleDocumentFlag;
+
+    // Parsed JSON fields, built once per template version by MasterTemplateDao
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private CompiledTemplate compiled;
 }
@@ -0,0 +1,94 @@
+package com.documenthub.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.Singular;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * DTO holding storage_index rows fetched in one batched query for many
+ * account x template pairs of a single enquiry.
+ *
+ * Rows are grouped by account (or shared) and template type so each
+ * account+template combination can pick up its documents without
+ * issuing its own query.
+ */
+@Data
+@Builder
+public class StorageIndexBatchDto {
+
+    private static final String SHARED_KEY = "SHARED";
+
+    /**
+     * Accounts covered by the account-specific batch query.
+     */
+    @Singular
+    private Set<UUID> accountIds;
+
+    /**
+     * Templates (type:version) covered by the batch query.
+     */
+    @Singular
+    private Set<String> templateKeys;
+
+    /**
+     * Documents grouped by {@link #groupKey(UUID, String)}.
+     */
+    @Singular("group")
+    private Map<String, List<StorageIndexDto>> documentsByGroup;
+
+    /**
+     * Batch that covers nothing; every lookup falls back to a per-template query.
+     */
+    public static StorageIndexBatchDto empty() {
+        return StorageIndexBatchDto.builder().build();
+    }
+
+    /**
+     * Get the prefetched documents for an account+template combination.
+     *
+     * @return the documents (possibly empty), or null when the combination
+     *         was not part of the batch and must be queried individually
+     */
+    public List<StorageIndexDto> documentsFor(UUID accountId, MasterTemplateDto template) {
+        if (!templateKeys.contains(templateKey(template))) {
+            return null;
+        }
+
+        boolean shared = Boolean.TRUE.equals(template.getSharedDocumentFlag());
+        if (!shared && !accountIds.contains(accountId)) {
+            return null;
+        }
+
+        String group = groupKey(shared ? null : accountId, template.getTemplateType());
+        List<StorageIndexDto> docs = documentsByGroup.getOrDefault(group, Collections.emptyList());
+        if (template.getTemplateVersion() == null) {
+            return docs;
+        }
+        return docs.stream()
+                .filter(doc -> Objects.equals(template.getTemplateVersion(), doc.getTemplateVersion()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Key identifying a template within the batch.
+     */
+    public static String templateKey(MasterTemplateDto template) {
+        return template.getTemplateType() + ":" + template.getTemplateVersion();
+    }
+
+    /**
+     * Key grouping documents by account and template type.
+     * A null accountId denotes the shared documents group.
+     */
+    public static String groupKey(UUID accountId, String templateType) {
+        return (accountId != null ? accountId.toString() : SHARED_KEY) + "|" + templateType;
+    }
+}
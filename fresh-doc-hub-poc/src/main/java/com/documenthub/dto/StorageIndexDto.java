@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -37,6 +38,12 @@ public class StorageIndexDto {
 
     private Long startDate;
     private Long endDate;
+
+    // Validity dates normalized from docMetadata (see DocumentValidityService)
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+    private Boolean validityNormalized;
+
     private Boolean sharedFlag;
     private UUID generationVendorId;
     private String createdBy;
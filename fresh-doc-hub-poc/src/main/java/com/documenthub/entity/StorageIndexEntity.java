@@ -9,6 +9,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -72,6 +73,15 @@ public class StorageIndexEntity {
     @Column("end_date")
     private Long endDate;
 
+    @Column("valid_from")
+    private LocalDate validFrom;
+
+    @Column("valid_until")
+    private LocalDate validUntil;
+
+    @Column("validity_normalized")
+    private Boolean validityNormalized;
+
     @Column("shared_flag")
     private Boolean sharedFlag;
 
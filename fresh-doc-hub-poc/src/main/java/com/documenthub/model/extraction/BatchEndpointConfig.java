@@ -0,0 +1,56 @@
+package com.documenthub.model.extraction;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Batch variant of a data source endpoint: one POST for the ids of many calls
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEndpointConfig {
+
+    /**
+     * Batch API URL, placeholders allowed except the batched id
+     * Example: "https://api.example.com/accounts/details:batch"
+     */
+    @JsonProperty("url")
+    private String url;
+
+    /**
+     * Context field the single endpoint is called per value of
+     * Example: "accountId"
+     */
+    @JsonProperty("idField")
+    private String idField;
+
+    /**
+     * Request body property holding the id array (default: "ids")
+     */
+    @JsonProperty("idsProperty")
+    private String idsProperty;
+
+    /**
+     * JSONPath to the object keyed by id in the response, each value being
+     * what the single endpoint returns for that id (default: "$")
+     */
+    @JsonProperty("responseKeyPath")
+    private String responseKeyPath;
+
+    /**
+     * Maximum ids per batch request (default: 50)
+     */
+    @JsonProperty("maxBatchSize")
+    private Integer maxBatchSize;
+
+    /**
+     * Time to collect calls before sending a batch, in milliseconds (default: 10)
+     */
+    @JsonProperty("windowMs")
+    private Integer windowMs;
+}
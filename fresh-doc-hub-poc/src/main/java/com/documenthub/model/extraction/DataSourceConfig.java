@@ -29,6 +29,12 @@ public class DataSourceConfig {
     @JsonProperty("endpoint")
     private EndpointConfig endpoint;
 
+    /**
+     * Batch endpoint used instead of the endpoint to fetch many ids in one call
+     */
+    @JsonProperty("batch")
+    private BatchEndpointConfig batch;
+
     /**
      * Caching configuration
      */
@@ -1,16 +1,22 @@
 package com.documenthub.processor;
 
 import com.documenthub.dao.MasterTemplateDao;
+import com.documenthub.dto.CompiledTemplate;
+import com.documenthub.dto.DocumentBatchQueryDto;
+import com.documenthub.dto.DocumentCursorDto;
 import com.documenthub.dto.DocumentQueryParamsDto;
 import com.documenthub.dto.MasterTemplateDto;
+import com.documenthub.dto.StorageIndexBatchDto;
 import com.documenthub.dto.StorageIndexDto;
 import com.documenthub.model.AccountMetadata;
 import com.documenthub.model.DocumentDetailsNode;
 import com.documenthub.model.DocumentListRequest;
 import com.documenthub.model.DocumentRetrievalResponse;
 import com.documenthub.service.*;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.documenthub.service.EnquiryTimings.Stage;
+import com.documenthub.service.extraction.ExtractionSession;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -44,6 +50,13 @@ import java.util.stream.Collectors;
  * </ol>
  * </p>
  *
+ * <p>When the request carries a continuationToken, keyset pagination is used: each
+ * storage_index query is limited to pageSize + 1 rows after the cursor, and the per-template
+ * results are k-way merged so page 1 does not cost the same as fetching every document.</p>
+ *
+ * <p>Each stage is timed with {@link EnquiryTimings}: a caller may put timings in the
+ * Reactor context to read them back, e.g. for a Server-Timing header.</p>
+ *
  * @see MasterTemplateDao
  * @see AccountMetadataService
  * @see ConfigurableDataExtractionService
@@ -62,6 +75,7 @@ public class DocumentEnquiryProcessor {
     private final DocumentMatchingService documentMatchingService;
     private final DocumentResponseBuilder responseBuilder;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Process document enquiry request (defaults to CUSTOMER requestor).
@@ -98,35 +112,81 @@ public class DocumentEnquiryProcessor {
         logRequestStart(request, requestorType);
         long startTime = System.currentTimeMillis();
 
-        // Step 1: Resolve account IDs
+        // Step 1: Resolve account IDs (request.accountId[] or all accounts of customerId)
+        return withTimings(EnquiryTimings.time(Stage.ACCOUNT_RESOLUTION, resolveAccountIds(request))
+                .flatMap(accountIds -> accountIds.isEmpty()
+                        ? Mono.just(responseBuilder.buildEmptyResponse())
+                        : processRequest(request, requestorType, accountIds, startTime)));
+    }
+
+    /**
+     * Streaming entry point for document enquiry.
+     *
+     * <p><b>What:</b> Runs the same enquiry flow as {@link #processEnquiry(DocumentListRequest, String)}
+     * but emits documents as soon as each account+template query completes.</p>
+     *
+     * <p><b>Why:</b> The paginated response can only be built after every template has been
+     * queried. Streaming lets clients render the first documents immediately and keeps server
+     * memory per request bounded by a single template's documents.</p>
+     *
+     * <p><b>How:</b> Steps 1-5 are unchanged, except that documents are not prefetched in one
+     * batch (each template emits independently) and no pagination is applied (Step 6 is skipped).
+     * Documents are emitted in completion order, not sorted.</p>
+     *
+     * <p>Failures are propagated, not turned into an empty stream: before the first document
+     * the endpoint answers with an error status, like the non-streaming enquiry; later the
+     * stream is aborted instead of completing normally.</p>
+     *
+     * @param request The enquiry request with filters
+     * @param requestorType The type of requestor (CUSTOMER, AGENT, SYSTEM)
+     * @return Flux of documents with HATEOAS links
+     */
+    public Flux<DocumentDetailsNode> streamEnquiry(
+            DocumentListRequest request,
+            String requestorType) {
+
+        logRequestStart(request, requestorType);
+
+        return withTimings(EnquiryTimings.time(Stage.ACCOUNT_RESOLUTION, resolveAccountIds(request))
+                .filter(accountIds -> !accountIds.isEmpty())
+                .flatMapMany(accountIds -> streamRequest(request, requestorType, accountIds))
+                .doOnError(e -> log.error("Document enquiry stream failed: {}", e.getMessage())));
+    }
+
+    /**
+     * Step 1: Resolve account IDs.
+     *
+     * <ol>
+     *   <li>Step 1a: If accountIds provided, use them directly</li>
+     *   <li>Step 1b: If no accountIds but customerId provided, fetch accounts for that customer</li>
+     *   <li>Otherwise, return an empty list</li>
+     * </ol>
+     */
+    private Mono<List<String>> resolveAccountIds(DocumentListRequest request) {
         List<String> accountIds = getAccountIds(request);
 
-        // Step 1a: If accountIds provided, use them directly
         if (!accountIds.isEmpty()) {
-            return processRequest(request, requestorType, accountIds, startTime);
+            return Mono.just(accountIds);
         }
 
-        // Step 1b: If no accountIds but customerId provided, fetch accounts for that customer
         if (request.getCustomerId() != null) {
             log.info("No accountId provided, fetching all accounts for customerId: {}",
                     request.getCustomerId());
             return accountMetadataService.getAccountsByCustomerId(request.getCustomerId())
                     .map(metadata -> metadata.getAccountId().toString())
                     .collectList()
-                    .flatMap(fetchedAccountIds -> {
+                    .doOnNext(fetchedAccountIds -> {
                         if (fetchedAccountIds.isEmpty()) {
                             log.warn("No accounts found for customerId: {}", request.getCustomerId());
-                            return Mono.just(responseBuilder.buildEmptyResponse());
+                        } else {
+                            log.info("Found {} accounts for customerId: {}",
+                                    fetchedAccountIds.size(), request.getCustomerId());
                         }
-                        log.info("Found {} accounts for customerId: {}",
-                                fetchedAccountIds.size(), request.getCustomerId());
-                        return processRequest(request, requestorType, fetchedAccountIds, startTime);
                     });
         }
 
-        // Neither accountId nor customerId provided
         log.warn("No account IDs or customer ID provided");
-        return Mono.just(responseBuilder.buildEmptyResponse());
+        return Mono.just(Collections.emptyList());
     }
 
     private void logRequestStart(DocumentListRequest request, String requestorType) {
@@ -164,16 +224,96 @@ public class DocumentEnquiryProcessor {
             String requestorType,
             List<String> accountIds,
             long startTime) {
-        EnquiryContext context = buildEnquiryContext(request, requestorType, accountIds);
-        return determineLineOfBusiness(request, accountIds.get(0))  // Step 2
-                .flatMap(lob -> queryTemplates(lob, context))  // Step 3
-                .flatMap(templates -> processTemplates(templates, context))  // Step 4
-                .map(documents -> buildFinalResponse(documents, request, startTime))  // Step 6
+        return withExtractionSession(
+                Mono.fromCallable(() -> buildEnquiryContext(request, requestorType, accountIds, false))
+                        .flatMap(context -> determineLineOfBusiness(request, accountIds.get(0))  // Step 2
+                                .flatMap(lob -> queryTemplates(lob, context))  // Step 3
+                                .flatMap(templates -> processTemplates(templates, context))  // Step 4
+                                .flatMap(documents -> EnquiryTimings.time(Stage.PAGINATION, Mono.fromSupplier(
+                                        () -> buildFinalResponse(documents, context, startTime))))))  // Step 6
                 .onErrorResume(e -> Mono.just(responseBuilder.buildErrorResponse(e)));
     }
 
+    /**
+     * Steps 2-5 for the streaming enquiry: emit each template's documents as they complete.
+     */
+    private Flux<DocumentDetailsNode> streamRequest(
+            DocumentListRequest request,
+            String requestorType,
+            List<String> accountIds) {
+        EnquiryContext context = buildEnquiryContext(request, requestorType, accountIds, true);
+        return withExtractionSession(determineLineOfBusiness(request, accountIds.get(0))  // Step 2
+                .flatMap(lob -> queryTemplates(lob, context))  // Step 3
+                .flatMapMany(templates -> streamTemplates(templates, context))  // Step 4
+                .flatMapIterable(documents -> documents));
+    }
+
+    /**
+     * Share identical data extraction API calls across all templates and accounts
+     * of one enquiry, and record how many calls were saved.
+     *
+     * @see ExtractionSession
+     */
+    private <T> Mono<T> withExtractionSession(Mono<T> enquiry) {
+        return Mono.defer(() -> {
+            ExtractionSession session = new ExtractionSession();
+            return enquiry.contextWrite(session::writeTo)
+                    .doFinally(signal -> session.recordStats(meterRegistry));
+        });
+    }
+
+    private <T> Flux<T> withExtractionSession(Flux<T> enquiry) {
+        return Flux.defer(() -> {
+            ExtractionSession session = new ExtractionSession();
+            return enquiry.contextWrite(session::writeTo)
+                    .doFinally(signal -> session.recordStats(meterRegistry));
+        });
+    }
+
+    /**
+     * Time the stages of one enquiry and record them when it ends. Timings already in
+     * the context (put there by the caller) are used, otherwise new ones are created.
+     *
+     * @see EnquiryTimings
+     */
+    private <T> Mono<T> withTimings(Mono<T> enquiry) {
+        return Mono.deferContextual(ctx -> {
+            EnquiryTimings timings = EnquiryTimings.from(ctx).orElseGet(EnquiryTimings::new);
+            return enquiry.contextWrite(timings::writeTo)
+                    .doFinally(signal -> timings.recordTo(meterRegistry));
+        });
+    }
+
+    private <T> Flux<T> withTimings(Flux<T> enquiry) {
+        return Flux.deferContextual(ctx -> {
+            EnquiryTimings timings = EnquiryTimings.from(ctx).orElseGet(EnquiryTimings::new);
+            return enquiry.contextWrite(timings::writeTo)
+                    .doFinally(signal -> timings.recordTo(meterRegistry));
+        });
+    }
+
+    /**
+     * Time a stage of one template, tagged by template type and matching mode.
+     */
+    private <T> Mono<T> timeTemplateStage(Stage stage, MasterTemplateDto template, Mono<T> step) {
+        return EnquiryTimings.time(stage, template.getTemplateType(), matchModeTag(template), step);
+    }
+
+    /**
+     * Matching mode of a template as a bounded tag value: none, conditional, unknown,
+     * invalid, or the matchMode (direct, extracted, auto_discover) for reference_key matching.
+     */
+    private String matchModeTag(MasterTemplateDto template) {
+        CompiledTemplate compiled = CompiledTemplate.of(template, objectMapper);
+        Enum<?> mode = compiled.getMatchBy() == CompiledTemplate.MatchBy.REFERENCE_KEY
+                ? compiled.getMatchMode()
+                : compiled.getMatchBy();
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
     private EnquiryContext buildEnquiryContext(
-            DocumentListRequest request, String requestorType, List<String> accountIds) {
+            DocumentListRequest request, String requestorType, List<String> accountIds, boolean streaming) {
+        boolean keysetPagination = !streaming && request.getContinuationToken() != null;
         return EnquiryContext.builder()
                 .request(request)
                 .requestorType(requestorType)
@@ -183,11 +323,16 @@ public class DocumentEnquiryProcessor {
                 .communicationType(getCommunicationType(request))
                 .postedFromDate(request.getPostedFromDate())
                 .postedToDate(request.getPostedToDate())
+                .streaming(streaming)
+                .keysetPagination(keysetPagination)
+                .cursor(keysetPagination ? DocumentCursorDto.decode(request.getContinuationToken()) : null)
+                .pageSize(responseBuilder.determinePageSize(request.getPageSize()))
                 .build();
     }
 
     private Mono<List<MasterTemplateDto>> queryTemplates(String lob, EnquiryContext ctx) {
-        return queryTemplates(lob, ctx.getTemplateTypes(), ctx.getMessageCenterDocFlag(), ctx.getCommunicationType());
+        return EnquiryTimings.time(Stage.TEMPLATE_QUERY, queryTemplates(
+                lob, ctx.getTemplateTypes(), ctx.getMessageCenterDocFlag(), ctx.getCommunicationType()));
     }
 
     private Boolean getMessageCenterDocFlag(DocumentListRequest request) {
@@ -226,10 +371,11 @@ public class DocumentEnquiryProcessor {
             return Mono.just(request.getLineOfBusiness().getValue());
         }
 
-        return accountMetadataService.getAccountMetadata(UUID.fromString(firstAccountId))
-                .map(meta -> meta.getLineOfBusiness() != null
-                        ? meta.getLineOfBusiness() : "DEFAULT")
-                .defaultIfEmpty("DEFAULT");
+        return EnquiryTimings.time(Stage.LOB_LOOKUP,
+                accountMetadataService.getAccountMetadata(UUID.fromString(firstAccountId))
+                        .map(meta -> meta.getLineOfBusiness() != null
+                                ? meta.getLineOfBusiness() : "DEFAULT")
+                        .defaultIfEmpty("DEFAULT"));
     }
 
     /**
@@ -282,37 +428,118 @@ public class DocumentEnquiryProcessor {
      * check access, extract data, and query documents.</p>
      *
      * <p><b>Why:</b> Each account may have different access to templates (via sharing_scope),
-     * and each template may require different data extraction before querying documents.</p>
+     * and each template may require different data extraction before querying documents.
+     * Issuing one storage_index query per account+template pair does not scale (6 accounts x
+     * 40 templates = 240 round-trips), so standard templates are prefetched in one batch.</p>
      *
      * <p><b>How:</b>
      * <ol>
-     *   <li>For each accountId, process all templates</li>
-     *   <li>For each template: check sharing_scope access, extract data if configured</li>
-     *   <li>Query documents using DocumentMatchingService</li>
-     *   <li>Flatten results from all account+template combinations</li>
+     *   <li>Fetch account metadata for every accountId</li>
+     *   <li>Prefetch documents for all accessible account+template pairs that use standard
+     *       matching in a single batched query</li>
+     *   <li>For each account+template: check sharing_scope access, extract data if configured</li>
+     *   <li>Query documents using DocumentMatchingService (served from the batch when prefetched)</li>
+     *   <li>Collect results from all account+template combinations</li>
      * </ol>
      * </p>
      */
-    private Mono<List<DocumentDetailsNode>> processTemplates(
+    private Mono<List<List<DocumentDetailsNode>>> processTemplates(
             List<MasterTemplateDto> templates,
             EnquiryContext context) {
         if (templates.isEmpty()) {
             return Mono.just(Collections.emptyList());
         }
-        return Flux.fromIterable(context.getAccountIds())
-                .flatMap(accountId -> processAccountTemplates(templates, accountId, context))
-                .collectList()
-                .map(this::flattenDocuments);
+        return streamTemplates(templates, context).collectList();
     }
 
-    private Flux<List<DocumentDetailsNode>> processAccountTemplates(
+    private Flux<List<DocumentDetailsNode>> streamTemplates(
             List<MasterTemplateDto> templates,
-            String accountId,
             EnquiryContext context) {
-        UUID accountUuid = UUID.fromString(accountId);
-        return accountMetadataService.getAccountMetadata(accountUuid)
-                .flatMapMany(metadata -> Flux.fromIterable(templates)
-                        .flatMap(template -> processTemplate(template, accountUuid, metadata, context)));
+        return fetchAccountMetadata(context.getAccountIds())
+                .flatMapMany(accounts -> prefetchStandardDocuments(templates, accounts, context)
+                        .flatMapMany(batch -> Flux.fromIterable(accounts.entrySet())
+                                .flatMap(account -> processAccountTemplates(
+                                        templates, account.getKey(), account.getValue(), context, batch))));
+    }
+
+    private Mono<Map<UUID, AccountMetadata>> fetchAccountMetadata(List<String> accountIds) {
+        return EnquiryTimings.time(Stage.ACCOUNT_RESOLUTION, Flux.fromIterable(accountIds)
+                .map(UUID::fromString)
+                .flatMap(accountUuid -> accountMetadataService.getAccountMetadata(accountUuid)
+                        .map(metadata -> Map.entry(accountUuid, metadata)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new));
+    }
+
+    /**
+     * Step 4 (batch): Prefetch documents for standard templates.
+     *
+     * <p>Only templates without a document_matching_config are batched, since their
+     * query does not depend on data extracted per account. Pairs rejected by
+     * sharing_scope are left out so no rows are fetched for them. In keyset mode,
+     * single_document_flag templates need their latest document overall, so they are
+     * queried individually instead. Streaming enquiries skip the batch so that each
+     * template emits as soon as its own query completes.</p>
+     */
+    private Mono<StorageIndexBatchDto> prefetchStandardDocuments(
+            List<MasterTemplateDto> templates,
+            Map<UUID, AccountMetadata> accounts,
+            EnquiryContext context) {
+
+        if (context.isStreaming()) {
+            return Mono.just(StorageIndexBatchDto.empty());
+        }
+
+        Map<UUID, List<MasterTemplateDto>> accountTemplates = new LinkedHashMap<>();
+        List<MasterTemplateDto> sharedTemplates = new ArrayList<>();
+
+        for (MasterTemplateDto template : templates) {
+            if (template.getDocumentMatchingConfig() != null) {
+                continue;
+            }
+            if (context.isKeysetPagination() && Boolean.TRUE.equals(template.getSingleDocumentFlag())) {
+                continue;
+            }
+            List<UUID> accessibleAccounts = accounts.entrySet().stream()
+                    .filter(account -> canAccessTemplate(template, account.getValue()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            if (accessibleAccounts.isEmpty()) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(template.getSharedDocumentFlag())) {
+                sharedTemplates.add(template);
+            } else {
+                accessibleAccounts.forEach(accountId -> accountTemplates
+                        .computeIfAbsent(accountId, id -> new ArrayList<>())
+                        .add(template));
+            }
+        }
+
+        DocumentBatchQueryDto query = DocumentBatchQueryDto.builder()
+                .accountTemplates(accountTemplates)
+                .sharedTemplates(sharedTemplates)
+                .postedFromDate(context.getPostedFromDate())
+                .postedToDate(context.getPostedToDate())
+                .cursor(context.getCursor())
+                .pageLimit(context.getKeysetPageLimit())
+                .build();
+
+        return EnquiryTimings.time(Stage.STORAGE_QUERY, documentMatchingService.prefetchStandardDocuments(query))
+                .onErrorResume(e -> {
+                    log.error("Batched document query failed, falling back to per-template queries: {}",
+                            e.getMessage());
+                    return Mono.just(StorageIndexBatchDto.empty());
+                });
+    }
+
+    private Flux<List<DocumentDetailsNode>> processAccountTemplates(
+            List<MasterTemplateDto> templates,
+            UUID accountId,
+            AccountMetadata metadata,
+            EnquiryContext context,
+            StorageIndexBatchDto batch) {
+        return Flux.fromIterable(templates)
+                .flatMap(template -> processTemplate(template, accountId, metadata, context, batch));
     }
 
     /**
@@ -328,7 +555,8 @@ public class DocumentEnquiryProcessor {
      * <ol>
      *   <li>Step 4a: Check sharing_scope vs accountType (canAccessTemplate)</li>
      *   <li>Step 4b: Execute data extraction if template has data_extraction_config</li>
-     *   <li>Step 4b.5: Check eligibility for auto_discover templates (if defined)</li>
+     *   <li>Step 4b.5: Check eligibility for auto_discover templates (if defined);
+     *       a partial extraction is not eligible</li>
      *   <li>Step 4c: Query documents via DocumentMatchingService</li>
      *   <li>Step 5: Apply single_document_flag if true</li>
      * </ol>
@@ -338,28 +566,40 @@ public class DocumentEnquiryProcessor {
             MasterTemplateDto template,
             UUID accountId,
             AccountMetadata accountMetadata,
-            EnquiryContext context) {
+            EnquiryContext context,
+            StorageIndexBatchDto batch) {
         // Step 4a: Check sharing_scope access
         if (!canAccessTemplate(template, accountMetadata)) {
             return Mono.just(Collections.emptyList());
         }
         // Steps 4b, 4b.5, 4c, 5: Extract data, check eligibility, query docs, apply single_document_flag
-        return executeDataExtraction(template, context.getRequest())
+        return timeTemplateStage(Stage.EXTRACTION, template,
+                        executeDataExtraction(template, context.getRequest(), accountId))
                 .flatMap(extractedData -> {
                     // Step 4b.5: Check eligibility for auto_discover templates (if defined)
                     if (isAutoDiscoverTemplate(template) && hasEligibilityCriteria(template)) {
-                        boolean eligible = ruleEvaluationService.evaluateEligibility(
-                                template.getEligibilityCriteria(),
-                                accountMetadata,
-                                extractedData
-                        );
-                        if (!eligible) {
-                            log.debug("Account {} not eligible for auto_discover template: {}",
-                                    accountId, template.getTemplateType());
+                        if (ConfigurableDataExtractionService.isPartial(extractedData)) {
+                            // Missing fields must not make an account eligible by default
+                            log.warn("Partial data extraction for template {}, account {} treated as not eligible",
+                                    template.getTemplateType(), accountId);
                             return Mono.just(Collections.<DocumentDetailsNode>emptyList());
                         }
+                        return timeTemplateStage(Stage.ELIGIBILITY, template, Mono.fromSupplier(
+                                        () -> ruleEvaluationService.evaluateEligibility(
+                                                template,
+                                                accountMetadata,
+                                                extractedData
+                                        )))
+                                .flatMap(eligible -> {
+                                    if (!eligible) {
+                                        log.debug("Account {} not eligible for auto_discover template: {}",
+                                                accountId, template.getTemplateType());
+                                        return Mono.just(Collections.<DocumentDetailsNode>emptyList());
+                                    }
+                                    return queryAndConvertDocuments(template, accountId, extractedData, context, batch);
+                                });
                     }
-                    return queryAndConvertDocuments(template, accountId, extractedData, context);
+                    return queryAndConvertDocuments(template, accountId, extractedData, context, batch);
                 })
                 .onErrorResume(e -> handleTemplateError(template, e));
     }
@@ -368,16 +608,7 @@ public class DocumentEnquiryProcessor {
      * Check if template uses auto_discover matchMode.
      */
     private boolean isAutoDiscoverTemplate(MasterTemplateDto template) {
-        if (template.getDocumentMatchingConfig() == null) {
-            return false;
-        }
-        try {
-            JsonNode config = objectMapper.readTree(template.getDocumentMatchingConfig());
-            return "auto_discover".equals(config.path("matchMode").asText());
-        } catch (Exception e) {
-            log.debug("Error parsing document_matching_config: {}", e.getMessage());
-            return false;
-        }
+        return CompiledTemplate.of(template, objectMapper).isAutoDiscover();
     }
 
     /**
@@ -437,7 +668,7 @@ public class DocumentEnquiryProcessor {
      * <p><b>How:</b>
      * <ol>
      *   <li>Check if template has data_extraction_config</li>
-     *   <li>If yes, delegate to ConfigurableDataExtractionService</li>
+     *   <li>If yes, delegate to ConfigurableDataExtractionService for the account being processed</li>
      *   <li>Return extracted fields as Map, or empty map on error</li>
      * </ol>
      * </p>
@@ -446,14 +677,18 @@ public class DocumentEnquiryProcessor {
      */
     private Mono<Map<String, Object>> executeDataExtraction(
             MasterTemplateDto template,
-            DocumentListRequest request) {
+            DocumentListRequest request,
+            UUID accountId) {
 
         if (template.getDataExtractionConfig() == null) {
             return Mono.just(Collections.emptyMap());
         }
 
-        String configJson = template.getDataExtractionConfig();
-        return dataExtractionService.extractData(configJson, request)
+        CompiledTemplate compiled = CompiledTemplate.of(template, objectMapper);
+        if (compiled.isDataExtractionConfigInvalid()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return dataExtractionService.extractData(compiled.getDataExtractionConfig(), request, accountId)
                 .doOnSuccess(data -> log.info("Extracted {} fields", data.size()))
                 .onErrorResume(e -> {
                     log.error("Data extraction failed: {}", e.getMessage());
@@ -474,6 +709,9 @@ public class DocumentEnquiryProcessor {
      * <ol>
      *   <li>Build DocumentQueryParamsDto with template, account, extractedData, and date filters</li>
      *   <li>Include requestReferenceKey/Type for 'direct' matchMode support</li>
+     *   <li>Attach prefetched documents from the enquiry batch, if this pair was batched</li>
+     *   <li>In keyset mode, push the cursor and page limit down unless the template
+     *       keeps only its latest document</li>
      *   <li>Call DocumentMatchingService.queryDocuments()</li>
      *   <li>Step 5: Apply single_document_flag if true (keep only latest)</li>
      *   <li>Convert to DocumentDetailsNode with HATEOAS links via ResponseBuilder</li>
@@ -484,7 +722,8 @@ public class DocumentEnquiryProcessor {
             MasterTemplateDto template,
             UUID accountId,
             Map<String, Object> extractedData,
-            EnquiryContext context) {
+            EnquiryContext context,
+            StorageIndexBatchDto batch) {
         DocumentListRequest request = context.getRequest();
         DocumentQueryParamsDto queryParams = DocumentQueryParamsDto.builder()
                 .template(template)
@@ -494,10 +733,28 @@ public class DocumentEnquiryProcessor {
                 .postedToDate(context.getPostedToDate())
                 .requestReferenceKey(request.getReferenceKey())
                 .requestReferenceKeyType(request.getReferenceKeyType())
+                .prefetchedDocuments(batch.documentsFor(accountId, template))
                 .build();
-        return documentMatchingService.queryDocuments(queryParams)
-                .map(docs -> applySingleDocumentFlag(docs, template))  // Step 5
-                .map(docs -> responseBuilder.convertToNodes(docs, template, context.getRequestorType()));
+        if (canPushDownKeyset(template, context)) {
+            queryParams.setCursor(context.getCursor());
+            queryParams.setPageLimit(context.getKeysetPageLimit());
+        }
+        return timeTemplateStage(Stage.STORAGE_QUERY, template, documentMatchingService.queryDocuments(queryParams))
+                .flatMap(docs -> timeTemplateStage(Stage.NODE_CONVERSION, template, Mono.fromSupplier(
+                        () -> responseBuilder.convertToNodes(
+                                applySingleDocumentFlag(docs, template),  // Step 5
+                                template, context.getRequestorType()))));
+    }
+
+    /**
+     * Keyset cursor/limit can only be pushed into SQL when every matching document is
+     * returned. Templates reduced to their latest document (single_document_flag,
+     * auto_discover) must see all rows; the cursor is applied to them when merging pages.
+     */
+    private boolean canPushDownKeyset(MasterTemplateDto template, EnquiryContext context) {
+        return context.isKeysetPagination()
+                && !Boolean.TRUE.equals(template.getSingleDocumentFlag())
+                && !isAutoDiscoverTemplate(template);
     }
 
     /**
@@ -559,19 +816,30 @@ public class DocumentEnquiryProcessor {
      * <p><b>How:</b>
      * <ol>
      *   <li>Determine pageSize and pageNumber from request (with defaults)</li>
-     *   <li>Paginate the document list</li>
+     *   <li>Keyset mode: k-way merge per-template results after the cursor and emit a
+     *       continuation token; totals are not computed</li>
+     *   <li>Otherwise: flatten and paginate the full document list</li>
      *   <li>Calculate processing time for diagnostics</li>
      *   <li>Build response with documents, pagination info, and HATEOAS links</li>
      * </ol>
      * </p>
      */
     private DocumentRetrievalResponse buildFinalResponse(
-            List<DocumentDetailsNode> allDocuments,
-            DocumentListRequest request,
+            List<List<DocumentDetailsNode>> documentsPerTemplate,
+            EnquiryContext context,
             long startTime) {
 
-        int pageSize = responseBuilder.determinePageSize(request.getPageSize());
-        int pageNumber = responseBuilder.determinePageNumber(request.getPageNumber());
+        int pageSize = context.getPageSize();
+
+        if (context.isKeysetPagination()) {
+            DocumentResponseBuilder.KeysetPage page = responseBuilder.paginateKeyset(
+                    documentsPerTemplate, context.getCursor(), pageSize);
+            long processingTime = System.currentTimeMillis() - startTime;
+            return responseBuilder.buildKeysetResponse(page, pageSize, processingTime);
+        }
+
+        List<DocumentDetailsNode> allDocuments = flattenDocuments(documentsPerTemplate);
+        int pageNumber = responseBuilder.determinePageNumber(context.getRequest().getPageNumber());
         int totalDocuments = allDocuments.size();
 
         List<DocumentDetailsNode> paginatedDocs = responseBuilder.paginate(
@@ -608,5 +876,16 @@ public class DocumentEnquiryProcessor {
         private String communicationType;
         private Long postedFromDate;
         private Long postedToDate;
+        private boolean streaming;
+        private boolean keysetPagination;
+        private DocumentCursorDto cursor;
+        private int pageSize;
+
+        /**
+         * Rows per storage_index query in keyset mode: one extra row detects a next page.
+         */
+        private Integer getKeysetPageLimit() {
+            return keysetPagination ? pageSize + 1 : null;
+        }
     }
 }
@@ -9,6 +9,7 @@ import com.documenthub.integration.ecms.EcmsClient;
 import com.documenthub.integration.ecms.dto.EcmsDocumentResponse;
 import com.documenthub.model.*;
 import com.documenthub.service.DocumentAccessControlService;
+import com.documenthub.service.DocumentValidityService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -62,6 +63,7 @@ public class DocumentManagementProcessor {
     private final StorageIndexDao storageIndexDao;
     private final EcmsClient ecmsClient;
     private final DocumentAccessControlService accessControlService;
+    private final DocumentValidityService validityService;
     private final ObjectMapper objectMapper;
 
     /**
@@ -303,6 +305,7 @@ public class DocumentManagementProcessor {
      *   <li>Create StorageIndexDto with template, request, and ECMS data</li>
      *   <li>Set shared_flag from template.shared_document_flag</li>
      *   <li>Serialize metadata to JSON and attach to DTO</li>
+     *   <li>Normalize valid_from/valid_until from the metadata</li>
      *   <li>Save to database and return storage_index_id</li>
      * </ol>
      * </p>
@@ -310,7 +313,8 @@ public class DocumentManagementProcessor {
     private Mono<InlineResponse200> saveStorageIndex(
             MasterTemplateDto template, DocumentUploadRequest request,
             List<MetadataNode> metadata, EcmsDocumentResponse ecmsResponse) {
-        StorageIndexDto dto = createStorageDto(template, request, ecmsResponse, metadata);
+        StorageIndexDto dto = validityService.normalizeValidity(
+            createStorageDto(template, request, ecmsResponse, metadata));
         return storageIndexDao.save(dto).map(this::buildUploadResponse);
     }
 
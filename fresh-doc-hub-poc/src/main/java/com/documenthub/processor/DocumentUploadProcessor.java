@@ -9,6 +9,7 @@ import com.documenthub.dto.upload.DocumentUploadResponse;
 import com.documenthub.integration.ecms.EcmsClient;
 import com.documenthub.integration.ecms.dto.EcmsDocumentResponse;
 import com.documenthub.service.DocumentAccessControlService;
+import com.documenthub.service.DocumentValidityService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,6 +39,7 @@ public class DocumentUploadProcessor {
     private final StorageIndexDao storageIndexDao;
     private final EcmsClient ecmsClient;
     private final DocumentAccessControlService accessControlService;
+    private final DocumentValidityService validityService;
     private final ObjectMapper objectMapper;
 
     /**
@@ -253,7 +255,8 @@ public class DocumentUploadProcessor {
     }
 
     /**
-     * Create a storage index entry for the uploaded document
+     * Create a storage index entry for the uploaded document,
+     * with valid_from/valid_until normalized from its metadata
      */
     private Mono<StorageIndexDto> createStorageIndexEntry(DocumentUploadRequest request,
                                                               EcmsDocumentResponse ecmsResponse,
@@ -301,6 +304,7 @@ public class DocumentUploadProcessor {
             .versionNumber(1L)
             .recordStatus("ACTIVE")
             .build();
+        validityService.normalizeValidity(dto);
 
         log.debug("Creating storage index entry: id={}, ecmsDocId={}, templateType={}, sharedFlag={}",
             storageIndexId, ecmsResponse.getId(), request.getTemplateType(), sharedFlag);
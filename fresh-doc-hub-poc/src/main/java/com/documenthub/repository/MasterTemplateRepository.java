@@ -25,6 +25,16 @@ public interface MasterTemplateRepository extends R2dbcRepository<MasterTemplate
            "AND (end_date IS NULL OR end_date >= :currentDate)")
     Flux<MasterTemplateDefinitionEntity> findActiveTemplates(Long currentDate);
 
+    /**
+     * Find all active templates regardless of date range.
+     * Used to load the in-memory active template snapshot; the date range
+     * is checked per lookup.
+     */
+    @Query("SELECT * FROM document_hub.master_template_definition " +
+           "WHERE active_flag = true " +
+           "ORDER BY template_type, template_version")
+    Flux<MasterTemplateDefinitionEntity> findAllActiveTemplates();
+
     /**
      * Find templates by type
      */
@@ -7,6 +7,8 @@ import com.documenthub.service.extraction.ExtractionPlan;
 import com.documenthub.service.extraction.ExtractionPlanBuilder;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.r2dbc.postgresql.codec.Json;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +17,9 @@ import reactor.core.publisher.Mono;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -33,8 +37,9 @@ import java.util.UUID;
  * <ol>
  *   <li>Parse the JSON configuration from the database</li>
  *   <li>Create an initial context with data from the request (accountId, customerId, etc.)</li>
- *   <li>Build an execution plan using {@link ExtractionPlanBuilder}</li>
- *   <li>Execute the plan using {@link ApiCallExecutor} (sequential or parallel)</li>
+ *   <li>Build an execution plan using {@link ExtractionPlanBuilder} (cached per
+ *       config and context key set)</li>
+ *   <li>Execute the plan using {@link ApiCallExecutor}</li>
  *   <li>Return a map of extracted field values</li>
  * </ol>
  * </p>
@@ -48,10 +53,26 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ConfigurableDataExtractionService {
 
+    /**
+     * Context keys the initial context can hold, see {@link #createInitialContext}.
+     * Configs are validated against these when a template is loaded.
+     */
+    public static final Set<String> REQUEST_FIELDS = Set.of(
+            "accountId", "customerId", "referenceKey", "referenceKeyType",
+            "correlationId", "auth.token");
+
     private final ObjectMapper objectMapper;
     private final ExtractionPlanBuilder planBuilder;
     private final ApiCallExecutor apiCallExecutor;
 
+    /**
+     * Configs parsed from JSON strings, so the same config instance (and its
+     * cached plans) is reused for every request with that JSON.
+     */
+    private final Cache<String, DataExtractionConfig> parsedConfigs = Caffeine.newBuilder()
+            .maximumSize(500)
+            .build();
+
     /**
      * Extracts required fields based on the data_extraction_config JSON.
      *
@@ -85,9 +106,56 @@ public class ConfigurableDataExtractionService {
             return Mono.just(Collections.emptyMap());
         }
 
+        DataExtractionConfig config;
+        try {
+            config = parseConfig(dataExtractionConfigJson);
+        } catch (Exception e) {
+            log.error("Failed to parse config: {}", e.getMessage());
+            return Mono.error(e);
+        }
+        return extractData(config, request);
+    }
+
+    /**
+     * Extracts required fields based on an already parsed data_extraction_config.
+     *
+     * <p>Used by the enquiry flow with the config parsed once per template version
+     * (see {@link com.documenthub.dto.CompiledTemplate}).</p>
+     *
+     * @param config Parsed data_extraction_config
+     * @param request Original request containing accountId, customerId, etc.
+     * @return Mono containing a map of extracted field names to their values
+     */
+    public Mono<Map<String, Object>> extractData(
+            DataExtractionConfig config,
+            DocumentListRequest request) {
+        return extractData(config, request, null);
+    }
+
+    /**
+     * Extracts required fields for one account of the request.
+     *
+     * <p>The enquiry flow calls this once per account, so each call is built
+     * for the account being processed. Per-account calls then differ and, when
+     * the data source has a batch endpoint, are combined into one batch call.</p>
+     *
+     * @param config Parsed data_extraction_config
+     * @param request Original request containing accountId, customerId, etc.
+     * @param accountId Account being processed, or null to use the request's first account
+     * @return Mono containing a map of extracted field names to their values
+     */
+    public Mono<Map<String, Object>> extractData(
+            DataExtractionConfig config,
+            DocumentListRequest request,
+            UUID accountId) {
+
+        if (config == null) {
+            log.warn("No data extraction config provided");
+            return Mono.just(Collections.emptyMap());
+        }
+
         try {
-            DataExtractionConfig config = parseConfig(dataExtractionConfigJson);
-            Map<String, Object> context = createInitialContext(request);
+            Map<String, Object> context = createInitialContext(request, accountId);
             ExtractionPlan plan = planBuilder.buildPlan(config, context);
 
             if (plan.isEmpty()) {
@@ -97,7 +165,7 @@ public class ConfigurableDataExtractionService {
 
             return executePlan(plan, config, context);
         } catch (Exception e) {
-            log.error("Failed to parse config: {}", e.getMessage());
+            log.error("Failed to build extraction plan: {}", e.getMessage());
             return Mono.error(e);
         }
     }
@@ -123,13 +191,19 @@ public class ConfigurableDataExtractionService {
      * makes the code easier to understand and maintain.</p>
      *
      * <p><b>How:</b> Uses Jackson ObjectMapper to first convert the PostgreSQL Json
-     * type to a JsonNode, then deserializes it into DataExtractionConfig.</p>
+     * type to a JsonNode, then deserializes it into DataExtractionConfig. Parsed
+     * configs are cached by JSON; config problems are logged once, when parsed.</p>
      *
      * @param configJson The raw JSON from the database
      * @return Parsed DataExtractionConfig object
      * @throws Exception If JSON parsing fails
      */
     private DataExtractionConfig parseConfig(String configJson) throws Exception {
+        DataExtractionConfig cached = parsedConfigs.getIfPresent(configJson);
+        if (cached != null) {
+            return cached;
+        }
+
         JsonNode configNode = objectMapper.readTree(configJson);
         DataExtractionConfig config = objectMapper.treeToValue(
                 configNode, DataExtractionConfig.class);
@@ -137,6 +211,12 @@ public class ConfigurableDataExtractionService {
         log.info("Config parsed - fields: {}, sources: {}",
                 getFieldCount(config), getSourceCount(config));
 
+        List<String> problems = ExtractionPlanBuilder.validate(config, REQUEST_FIELDS);
+        if (!problems.isEmpty()) {
+            log.warn("Invalid data extraction config: {}", problems);
+        }
+
+        parsedConfigs.put(configJson, config);
         return config;
     }
 
@@ -176,12 +256,13 @@ public class ConfigurableDataExtractionService {
      * adds system variables (correlationId, auth token).</p>
      *
      * @param request The incoming document list request
+     * @param accountId Account being processed, or null to use the request's first account
      * @return Map of field names to values for use in API calls
      */
-    private Map<String, Object> createInitialContext(DocumentListRequest request) {
+    private Map<String, Object> createInitialContext(DocumentListRequest request, UUID accountId) {
         Map<String, Object> context = new HashMap<>();
 
-        addAccountId(context, request);
+        addAccountId(context, request, accountId);
         addCustomerId(context, request);
         addReferenceKey(context, request);
         addSystemVariables(context);
@@ -191,15 +272,19 @@ public class ConfigurableDataExtractionService {
     }
 
     /**
-     * Adds the first account ID from the request to the context.
+     * Adds the account being processed to the context.
      *
-     * <p><b>Why:</b> APIs typically need a single account ID, so we use the first one.</p>
+     * <p><b>Why:</b> APIs typically need a single account ID. Without an account
+     * being processed, we use the first one from the request.</p>
      *
      * @param context The context map to populate
      * @param request The incoming request
+     * @param accountId Account being processed, or null
      */
-    private void addAccountId(Map<String, Object> context, DocumentListRequest request) {
-        if (request.getAccountId() != null && !request.getAccountId().isEmpty()) {
+    private void addAccountId(Map<String, Object> context, DocumentListRequest request, UUID accountId) {
+        if (accountId != null) {
+            context.put("accountId", accountId.toString());
+        } else if (request.getAccountId() != null && !request.getAccountId().isEmpty()) {
             context.put("accountId", request.getAccountId().get(0));
         }
     }
@@ -252,15 +337,18 @@ public class ConfigurableDataExtractionService {
     }
 
     /**
-     * Executes the extraction plan using the appropriate execution mode.
+     * Executes the extraction plan following the dependencies between its API calls.
      *
      * <p><b>What:</b> Delegates plan execution to ApiCallExecutor.</p>
      *
-     * <p><b>Why:</b> The config can specify parallel or sequential execution.
-     * Parallel is faster but sequential is needed when APIs depend on each other.</p>
+     * <p><b>Why:</b> The plan knows which calls depend on which, so each call can
+     * start as soon as its inputs are available. This is as safe as sequential
+     * execution and as fast as parallel execution for independent calls.</p>
      *
-     * <p><b>How:</b> Checks the executionStrategy.mode in config and calls the
-     * appropriate executor method.</p>
+     * <p><b>How:</b> Runs the plan with {@link ApiCallExecutor#executeDag}. The
+     * executionStrategy.mode of the config ("sequential", "parallel", "auto") no
+     * longer changes the execution, it is only logged. Its timeout and continueOnError
+     * bound the whole plan, see {@link #isPartial}.</p>
      *
      * @param plan The execution plan containing API calls to make
      * @param config The extraction configuration with execution strategy
@@ -272,19 +360,26 @@ public class ConfigurableDataExtractionService {
             DataExtractionConfig config,
             Map<String, Object> context) {
 
-        log.info("Executing {} API call(s)", plan.size());
-
-        String mode = getExecutionMode(config);
-
-        if ("parallel".equalsIgnoreCase(mode)) {
-            return apiCallExecutor.executeParallel(plan, context)
-                    .doOnSuccess(this::logSuccess);
-        }
+        log.info("Executing {} API call(s) in {} level(s), configured mode: {}",
+                plan.size(), plan.getLevelCount(), getExecutionMode(config));
 
-        return apiCallExecutor.executeSequential(plan, context)
+        return apiCallExecutor.executeDag(plan, context, config.getExecutionStrategy())
                 .doOnSuccess(this::logSuccess);
     }
 
+    /**
+     * Whether an extraction stopped before all its API calls completed, because the
+     * executionStrategy timeout passed or a call failed with continueOnError=false.
+     * Fields of the calls that did not complete are missing from the result.
+     *
+     * @param extractedData The result of {@link #extractData}
+     * @return true if the result is partial
+     */
+    public static boolean isPartial(Map<String, Object> extractedData) {
+        return extractedData != null
+                && Boolean.TRUE.equals(extractedData.get(ApiCallExecutor.PARTIAL_RESULT_KEY));
+    }
+
     /**
      * Gets the execution mode from the config.
      *
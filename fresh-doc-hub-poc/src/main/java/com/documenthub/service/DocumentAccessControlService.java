@@ -1,19 +1,19 @@
 package com.documenthub.service;
 
+import com.documenthub.dto.CompiledTemplate;
 import com.documenthub.dto.MasterTemplateDto;
 import com.documenthub.dto.StorageIndexDto;
 import com.documenthub.model.Links;
 import com.documenthub.model.LinksDownload;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for document access control and HATEOAS link generation.
@@ -47,24 +47,25 @@ public class DocumentAccessControlService {
 
     /**
      * Get permitted actions for a requestor type based on template access_control.
+     * Uses the access_control parsed once per template version.
      */
     public List<String> getPermittedActions(
             MasterTemplateDto template,
             String requestorType) {
 
-        if (template.getAccessControl() == null) {
+        Map<String, List<String>> roleActions =
+                CompiledTemplate.of(template, objectMapper).getRoleActions();
+        if (roleActions == null) {
             return getDefaultActions(requestorType);
         }
 
-        try {
-            JsonNode accessControlNode = objectMapper.readTree(template.getAccessControl());
-            String role = mapRequestorTypeToRole(requestorType);
-
-            return extractActionsForRole(accessControlNode, role, requestorType);
-        } catch (Exception e) {
-            log.warn("Failed to parse access_control: {}", e.getMessage());
+        String role = mapRequestorTypeToRole(requestorType);
+        List<String> actions = roleActions.get(role);
+        if (actions == null) {
+            log.debug("Role '{}' not found, using defaults", role);
             return getDefaultActions(requestorType);
         }
+        return actions;
     }
 
     /**
@@ -101,41 +102,6 @@ public class DocumentAccessControlService {
         return download;
     }
 
-    private List<String> extractActionsForRole(
-            JsonNode accessControlNode,
-            String role,
-            String requestorType) {
-
-        if (!accessControlNode.isArray()) {
-            return getDefaultActions(requestorType);
-        }
-
-        for (JsonNode entry : accessControlNode) {
-            String entryRole = entry.has("role")
-                    ? entry.get("role").asText() : null;
-
-            if (role.equalsIgnoreCase(entryRole)) {
-                return extractActions(entry);
-            }
-        }
-
-        log.debug("Role '{}' not found, using defaults", role);
-        return getDefaultActions(requestorType);
-    }
-
-    private List<String> extractActions(JsonNode entry) {
-        List<String> actions = new ArrayList<>();
-        JsonNode actionsNode = entry.get("actions");
-
-        if (actionsNode != null && actionsNode.isArray()) {
-            for (JsonNode action : actionsNode) {
-                actions.add(action.asText());
-            }
-        }
-
-        return actions;
-    }
-
     private String mapRequestorTypeToRole(String requestorType) {
         if (requestorType == null) {
             return "customer";
@@ -2,20 +2,30 @@ package com.documenthub.service;
 
 import com.documenthub.config.ReferenceKeyConfig;
 import com.documenthub.dao.StorageIndexCriteriaDao;
+import com.documenthub.dto.CompiledTemplate;
+import com.documenthub.dto.DocumentBatchQueryDto;
+import com.documenthub.dto.DocumentCursorDto;
 import com.documenthub.dto.DocumentQueryParamsDto;
 import com.documenthub.dto.MasterTemplateDto;
+import com.documenthub.dto.StorageIndexBatchDto;
 import com.documenthub.dto.StorageIndexDto;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 /**
  * Service for document matching logic.
@@ -28,6 +38,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DocumentMatchingService {
 
+    /**
+     * Auto-discover candidates whose metadata is loaded per round-trip.
+     */
+    static final int AUTO_DISCOVER_METADATA_CHUNK = 20;
+
     private final StorageIndexCriteriaDao criteriaDao;
     private final DocumentValidityService validityService;
     private final ReferenceKeyConfig referenceKeyConfig;
@@ -44,6 +59,117 @@ public class DocumentMatchingService {
         return queryStandardDocuments(params);
     }
 
+    /**
+     * Prefetch documents for all account x template pairs of an enquiry in one round-trip.
+     *
+     * <p>Only templates using standard (shared flag) matching are batched; templates with a
+     * document_matching_config depend on per-account extracted data and are queried individually.
+     * Account-specific templates are fetched with one query across all accounts, shared templates
+     * with one query across all templates. In keyset mode each query returns at most
+     * {@code pageLimit} valid rows after the cursor across all requested pairs.</p>
+     */
+    public Mono<StorageIndexBatchDto> prefetchStandardDocuments(DocumentBatchQueryDto query) {
+        if (query.getAccountTemplates().isEmpty() && query.getSharedTemplates().isEmpty()) {
+            return Mono.just(StorageIndexBatchDto.empty());
+        }
+
+        Mono<List<StorageIndexDto>> accountDocs = queryValidPage(
+                query.getCursor(), query.getPageLimit(),
+                (cursor, limit) -> criteriaDao.findAccountDocumentsBatch(
+                        query.toBuilder().cursor(cursor).pageLimit(limit).build()),
+                docs -> validityService.filterByValidity(docs.stream()
+                        .filter(query::isRequested)
+                        .collect(Collectors.toList())));
+        Mono<List<StorageIndexDto>> sharedDocs = queryValidPage(
+                query.getCursor(), query.getPageLimit(),
+                (cursor, limit) -> criteriaDao.findSharedDocumentsBatch(
+                        query.toBuilder().cursor(cursor).pageLimit(limit).build()),
+                docs -> validityService.filterByValidity(docs.stream()
+                        .filter(query::isRequestedShared)
+                        .collect(Collectors.toList())));
+
+        return Mono.zip(accountDocs, sharedDocs)
+                .map(results -> buildBatch(query, results.getT1(), results.getT2()))
+                .doOnNext(batch -> log.info("Batched document query: {} accounts, {} templates",
+                        query.getAccountIds().size(), batch.getTemplateKeys().size()));
+    }
+
+    private StorageIndexBatchDto buildBatch(
+            DocumentBatchQueryDto query,
+            List<StorageIndexDto> accountDocs,
+            List<StorageIndexDto> sharedDocs) {
+
+        StorageIndexBatchDto.StorageIndexBatchDtoBuilder builder = StorageIndexBatchDto.builder()
+                .accountIds(query.getAccountIds());
+        query.getDistinctAccountTemplates()
+                .forEach(t -> builder.templateKey(StorageIndexBatchDto.templateKey(t)));
+        query.getSharedTemplates()
+                .forEach(t -> builder.templateKey(StorageIndexBatchDto.templateKey(t)));
+
+        accountDocs.stream()
+                .collect(Collectors.groupingBy(doc ->
+                        StorageIndexBatchDto.groupKey(doc.getAccountKey(), doc.getTemplateType())))
+                .forEach(builder::group);
+        sharedDocs.stream()
+                .collect(Collectors.groupingBy(doc ->
+                        StorageIndexBatchDto.groupKey(null, doc.getTemplateType())))
+                .forEach(builder::group);
+
+        return builder.build();
+    }
+
+    /**
+     * Run a storage_index query and keep only valid rows.
+     *
+     * <p>Without a page limit all rows are fetched and filtered. In keyset mode the query is
+     * sorted and limited in SQL; when in-memory filtering drops rows from a full page, the
+     * next chunk is fetched from the last raw row so the caller still gets up to
+     * {@code pageLimit} valid rows in keyset order.</p>
+     */
+    private Mono<List<StorageIndexDto>> queryValidPage(
+            DocumentCursorDto cursor,
+            Integer pageLimit,
+            BiFunction<DocumentCursorDto, Integer, Flux<StorageIndexDto>> query,
+            UnaryOperator<List<StorageIndexDto>> filter) {
+
+        if (pageLimit == null) {
+            return query.apply(cursor, null).collectList().flatMap(raw -> filterTimed(raw, filter));
+        }
+
+        return query.apply(cursor, pageLimit).collectList().flatMap(raw -> filterTimed(raw, filter).flatMap(kept -> {
+            if (raw.size() < pageLimit || kept.size() >= pageLimit) {
+                return Mono.just(kept.size() > pageLimit ? kept.subList(0, pageLimit) : kept);
+            }
+            DocumentCursorDto next = DocumentCursorDto.of(raw.get(raw.size() - 1));
+            return queryValidPage(next, pageLimit - kept.size(), query, filter)
+                    .map(rest -> {
+                        List<StorageIndexDto> page = new ArrayList<>(kept);
+                        page.addAll(rest);
+                        return page;
+                    });
+        }));
+    }
+
+    /**
+     * Apply a validity filter, timed as a stage of the enquiry (see {@link EnquiryTimings}).
+     */
+    private Mono<List<StorageIndexDto>> filterTimed(
+            List<StorageIndexDto> docs,
+            UnaryOperator<List<StorageIndexDto>> filter) {
+        return EnquiryTimings.time(EnquiryTimings.Stage.VALIDITY_FILTER, Mono.fromSupplier(() -> filter.apply(docs)));
+    }
+
+    private Mono<List<StorageIndexDto>> queryValidPage(
+            DocumentQueryParamsDto params,
+            Function<DocumentQueryParamsDto, Flux<StorageIndexDto>> query) {
+
+        return queryValidPage(params.getCursor(), params.getPageLimit(),
+                (cursor, limit) -> query.apply(params.getPageLimit() == null
+                        ? params
+                        : params.toBuilder().cursor(cursor).pageLimit(limit).build()),
+                validityService::filterByValidity);
+    }
+
     private void logQueryStart(DocumentQueryParamsDto params) {
         log.info("QUERY DOCUMENTS for template: {}", params.getTemplate().getTemplateType());
         log.info("  extractedData: {}, dates: {}-{}",
@@ -55,34 +181,30 @@ public class DocumentMatchingService {
     }
 
     private Mono<List<StorageIndexDto>> queryByDocumentMatching(DocumentQueryParamsDto params) {
+        CompiledTemplate compiled = CompiledTemplate.of(params.getTemplate(), objectMapper);
         try {
-            JsonNode matchingNode = objectMapper.readTree(params.getTemplate().getDocumentMatchingConfig());
-            if (!matchingNode.has("matchBy")) {
-                log.info("  No matchBy field in document_matching_config");
-                return queryBySharedFlag(params);
-            }
-            return executeMatching(matchingNode.get("matchBy").asText(), matchingNode, params);
+            return executeMatching(compiled, params);
         } catch (Exception e) {
-            log.error("Failed to parse document_matching_config: {}", e.getMessage());
+            log.error("Failed to apply document_matching_config: {}", e.getMessage());
             return Mono.just(Collections.emptyList());
         }
     }
 
     private Mono<List<StorageIndexDto>> executeMatching(
-            String matchBy, JsonNode matchingNode, DocumentQueryParamsDto params) {
-
-        // Get matchMode (default to "extracted" for backward compatibility)
-        String matchMode = matchingNode.has("matchMode")
-                ? matchingNode.get("matchMode").asText()
-                : "extracted";
-
-        switch (matchBy) {
-            case "reference_key":
-                return queryByReferenceKeyWithMode(matchingNode, params, matchMode);
-            case "conditional":
-                return queryByConditional(matchingNode, params);
+            CompiledTemplate compiled, DocumentQueryParamsDto params) {
+
+        switch (compiled.getMatchBy()) {
+            case NONE:
+                log.info("  No matchBy field in document_matching_config");
+                return queryBySharedFlag(params);
+            case REFERENCE_KEY:
+                return queryByReferenceKeyWithMode(compiled, params);
+            case CONDITIONAL:
+                return queryByConditional(compiled, params);
+            case INVALID:
+                return Mono.just(Collections.emptyList());
             default:
-                log.warn("Unknown matchBy: {}", matchBy);
+                log.warn("Unknown matchBy: {}", compiled.getMatchByValue());
                 return Mono.just(Collections.emptyList());
         }
     }
@@ -90,33 +212,37 @@ public class DocumentMatchingService {
     /**
      * Route to appropriate reference key query based on matchMode.
      *
-     * @param matchingNode the document_matching_config JSON node
+     * @param compiled the parsed document_matching_config
      * @param params query parameters
-     * @param matchMode one of: "direct", "extracted", "auto_discover"
      */
     private Mono<List<StorageIndexDto>> queryByReferenceKeyWithMode(
-            JsonNode matchingNode, DocumentQueryParamsDto params, String matchMode) {
+            CompiledTemplate compiled, DocumentQueryParamsDto params) {
 
-        String referenceKeyType = matchingNode.get("referenceKeyType").asText();
+        String referenceKeyType = compiled.getReferenceKeyType();
+        if (referenceKeyType == null) {
+            log.error("referenceKeyType is required for reference_key matching in template '{}'",
+                    params.getTemplate().getTemplateType());
+            return Mono.just(Collections.emptyList());
+        }
 
         Mono<Void> validation = validateReferenceKeyType(referenceKeyType, params.getTemplate());
         if (validation != null) {
             return validation.then(Mono.just(Collections.emptyList()));
         }
 
-        switch (matchMode) {
-            case "direct":
+        switch (compiled.getMatchMode()) {
+            case DIRECT:
                 // Use referenceKey from request
                 return queryByDirectReferenceKey(params, referenceKeyType);
 
-            case "auto_discover":
+            case AUTO_DISCOVER:
                 // Query by type only, filter by validity, return latest
                 return queryByAutoDiscover(params, referenceKeyType);
 
-            case "extracted":
+            case EXTRACTED:
             default:
                 // Current behavior - use referenceKeyField from extractedData
-                return queryByReferenceKey(matchingNode, params);
+                return queryByReferenceKey(compiled, params);
         }
     }
 
@@ -140,6 +266,10 @@ public class DocumentMatchingService {
     /**
      * Auto-discover mode: Query by reference key type only (no specific key).
      * Returns the latest valid document matching the type.
+     *
+     * <p>Candidates are fetched without doc_metadata and checked newest first; metadata is
+     * loaded for {@value #AUTO_DISCOVER_METADATA_CHUNK} candidates at a time until one is
+     * valid, so the JSONB of older documents is usually never read.</p>
      */
     private Mono<List<StorageIndexDto>> queryByAutoDiscover(
             DocumentQueryParamsDto params, String referenceKeyType) {
@@ -147,36 +277,56 @@ public class DocumentMatchingService {
         log.info("AUTO-DISCOVER: type='{}', template='{}'",
                 referenceKeyType, params.getTemplate().getTemplateType());
 
-        return criteriaDao.findByReferenceKeyType(referenceKeyType, params)
+        // The latest document overall is needed, so keyset paging is never pushed down here
+        DocumentQueryParamsDto unpaged = params.toBuilder().cursor(null).pageLimit(null).build();
+        return criteriaDao.findByReferenceKeyType(referenceKeyType, unpaged)
             .collectList()
-            .map(validityService::filterByValidity)
-            .map(this::keepLatestOnly)
+            .map(this::sortNewestFirst)
+            .flatMap(candidates -> findLatestValid(candidates, 0))
             .doOnNext(docs -> log.info("Auto-discover found {} document(s)", docs.size()));
     }
 
     /**
-     * Keep only the latest document (by doc_creation_date) from a list.
-     * Used by auto_discover mode to return a single result.
+     * Sort by doc_creation_date, newest first. The sort is stable, so of documents with
+     * the same date the first returned by the query wins.
      */
-    private List<StorageIndexDto> keepLatestOnly(List<StorageIndexDto> docs) {
-        if (docs.isEmpty()) {
-            return docs;
+    private List<StorageIndexDto> sortNewestFirst(List<StorageIndexDto> docs) {
+        List<StorageIndexDto> sorted = new ArrayList<>(docs);
+        sorted.sort(Comparator.comparing((StorageIndexDto d) ->
+                d.getDocCreationDate() != null ? d.getDocCreationDate() : 0L).reversed());
+        return sorted;
+    }
+
+    /**
+     * Load metadata for the next chunk of candidates and return the first valid one,
+     * moving on to the following chunk when none is valid.
+     */
+    private Mono<List<StorageIndexDto>> findLatestValid(List<StorageIndexDto> candidates, int from) {
+        if (from >= candidates.size()) {
+            return Mono.just(Collections.emptyList());
         }
-        return docs.stream()
-                .max(Comparator.comparing(d ->
-                        d.getDocCreationDate() != null ? d.getDocCreationDate() : 0L))
-                .map(Collections::singletonList)
-                .orElse(Collections.emptyList());
+
+        List<StorageIndexDto> chunk = candidates.subList(from,
+                Math.min(from + AUTO_DISCOVER_METADATA_CHUNK, candidates.size()));
+        return criteriaDao.findMetadata(chunk.stream()
+                        .map(StorageIndexDto::getStorageIndexId)
+                        .collect(Collectors.toList()))
+                .flatMap(metadata -> {
+                    chunk.forEach(doc -> doc.setDocMetadata(metadata.get(doc.getStorageIndexId())));
+                    return filterTimed(chunk, validityService::filterByValidity);
+                })
+                .flatMap(valid -> valid.isEmpty()
+                        ? findLatestValid(candidates, from + chunk.size())
+                        : Mono.just(Collections.singletonList(valid.get(0))));
     }
 
     /**
      * Extracted mode (default): Use referenceKeyField from extractedData.
      */
-    private Mono<List<StorageIndexDto>> queryByReferenceKey(JsonNode matchingNode, DocumentQueryParamsDto params) {
-        String referenceKeyField = matchingNode.has("referenceKeyField")
-                ? matchingNode.get("referenceKeyField").asText()
-                : "referenceKey";
-        String referenceKeyType = matchingNode.get("referenceKeyType").asText();
+    private Mono<List<StorageIndexDto>> queryByReferenceKey(
+            CompiledTemplate compiled, DocumentQueryParamsDto params) {
+        String referenceKeyField = compiled.getReferenceKeyField();
+        String referenceKeyType = compiled.getReferenceKeyType();
 
         Object referenceKeyValue = params.getExtractedData().get(referenceKeyField);
         if (referenceKeyValue == null) {
@@ -199,18 +349,19 @@ public class DocumentMatchingService {
                 "'. Allowed values: " + referenceKeyConfig.getAllowedTypesString()));
     }
 
-    private Mono<List<StorageIndexDto>> queryByConditional(JsonNode matchingNode, DocumentQueryParamsDto params) {
-        if (!matchingNode.has("referenceKeyType")) {
+    private Mono<List<StorageIndexDto>> queryByConditional(
+            CompiledTemplate compiled, DocumentQueryParamsDto params) {
+        if (compiled.getReferenceKeyType() == null) {
             return handleMissingRefKeyType(params.getTemplate());
         }
 
-        String referenceKeyType = matchingNode.get("referenceKeyType").asText();
+        String referenceKeyType = compiled.getReferenceKeyType();
         Mono<Void> validation = validateReferenceKeyType(referenceKeyType, params.getTemplate());
         if (validation != null) {
             return validation.then(Mono.just(Collections.emptyList()));
         }
 
-        JsonNode conditionsNode = matchingNode.get("conditions");
+        JsonNode conditionsNode = compiled.getConditions();
         if (conditionsNode == null || !conditionsNode.isArray()) {
             log.warn("No conditions array found");
             return Mono.just(Collections.emptyList());
@@ -237,9 +388,8 @@ public class DocumentMatchingService {
     private Mono<List<StorageIndexDto>> executeReferenceKeyQuery(
             String referenceKey, String referenceKeyType, DocumentQueryParamsDto params) {
 
-        return criteriaDao.findByReferenceKey(referenceKey, referenceKeyType, params)
-                .collectList()
-                .map(validityService::filterByValidity)
+        return queryValidPage(params,
+                        p -> criteriaDao.findByReferenceKey(referenceKey, referenceKeyType, p))
                 .doOnNext(docs -> log.info("Found {} valid documents", docs.size()));
     }
 
@@ -248,6 +398,10 @@ public class DocumentMatchingService {
     }
 
     private Mono<List<StorageIndexDto>> queryBySharedFlag(DocumentQueryParamsDto params) {
+        if (params.getPrefetchedDocuments() != null) {
+            log.debug("Using {} prefetched documents", params.getPrefetchedDocuments().size());
+            return Mono.just(params.getPrefetchedDocuments());
+        }
         if (Boolean.TRUE.equals(params.getTemplate().getSharedDocumentFlag())) {
             return querySharedDocuments(params);
         }
@@ -255,16 +409,12 @@ public class DocumentMatchingService {
     }
 
     private Mono<List<StorageIndexDto>> querySharedDocuments(DocumentQueryParamsDto params) {
-        return criteriaDao.findSharedDocuments(params)
-                .collectList()
-                .map(validityService::filterByValidity)
+        return queryValidPage(params, criteriaDao::findSharedDocuments)
                 .doOnNext(docs -> log.debug("Found {} shared documents", docs.size()));
     }
 
     private Mono<List<StorageIndexDto>> queryAccountDocuments(DocumentQueryParamsDto params) {
-        return criteriaDao.findAccountDocuments(params)
-                .collectList()
-                .map(validityService::filterByValidity)
+        return queryValidPage(params, criteriaDao::findAccountDocuments)
                 .doOnNext(docs -> log.debug("Found {} account documents", docs.size()));
     }
 
@@ -1,5 +1,6 @@
 package com.documenthub.service;
 
+import com.documenthub.dto.DocumentCursorDto;
 import com.documenthub.dto.MasterTemplateDto;
 import com.documenthub.dto.StorageIndexDto;
 import com.documenthub.model.*;
@@ -13,7 +14,10 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +29,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DocumentResponseBuilder {
 
+    /**
+     * Keyset page order: newest first, ties broken by document id (see DocumentCursorDto).
+     */
+    private static final Comparator<DocumentDetailsNode> KEYSET_ORDER = (a, b) ->
+            DocumentCursorDto.compare(a.getDatePosted(), a.getDocumentId(),
+                    b.getDatePosted(), b.getDocumentId());
+
     private final ObjectMapper objectMapper;
     private final DocumentAccessControlService accessControlService;
 
@@ -105,6 +116,102 @@ public class DocumentResponseBuilder {
         return documents.subList(startIndex, endIndex);
     }
 
+    /**
+     * Build a keyset page from per-template document streams.
+     *
+     * <p>Each source holds at most pageSize + 1 documents after the cursor (the limit is pushed
+     * into SQL), so a k-way merge over the sources yields the global page while only
+     * materializing pageSize + 1 merged entries. Sources that could not be limited in SQL
+     * (single_document_flag, auto_discover) are filtered against the cursor here.</p>
+     *
+     * @return the page and the continuation token for the next page (null on the last page)
+     */
+    public KeysetPage paginateKeyset(
+            List<List<DocumentDetailsNode>> sources,
+            DocumentCursorDto cursor,
+            int pageSize) {
+
+        PriorityQueue<MergeSource> heads = new PriorityQueue<>(
+                Math.max(1, sources.size()), (a, b) -> KEYSET_ORDER.compare(a.head, b.head));
+        for (List<DocumentDetailsNode> source : sources) {
+            List<DocumentDetailsNode> sorted = new ArrayList<>(source);
+            sorted.sort(KEYSET_ORDER);
+            MergeSource merge = new MergeSource(sorted.iterator());
+            if (merge.advance(cursor)) {
+                heads.add(merge);
+            }
+        }
+
+        List<DocumentDetailsNode> page = new ArrayList<>(pageSize);
+        while (!heads.isEmpty() && page.size() <= pageSize) {
+            MergeSource next = heads.poll();
+            page.add(next.head);
+            if (next.advance(cursor)) {
+                heads.add(next);
+            }
+        }
+
+        if (page.size() <= pageSize) {
+            return new KeysetPage(page, null);
+        }
+        List<DocumentDetailsNode> documents = page.subList(0, pageSize);
+        DocumentDetailsNode last = documents.get(pageSize - 1);
+        String token = DocumentCursorDto.of(last.getDatePosted(), last.getDocumentId()).encode();
+        return new KeysetPage(documents, token);
+    }
+
+    /**
+     * Build keyset-paginated response.
+     * Totals are not computed in keyset mode, so no full scan is needed.
+     */
+    public DocumentRetrievalResponse buildKeysetResponse(
+            KeysetPage page,
+            int pageSize,
+            long processingTime) {
+
+        PaginationResponse pagination = new PaginationResponse();
+        pagination.setPageSize(pageSize);
+        pagination.setContinuationToken(page.continuationToken());
+
+        DocumentRetrievalResponse response = new DocumentRetrievalResponse();
+        response.setDocumentList(page.documents());
+        response.setPagination(pagination);
+        response.setLinks(new DocumentRetrievalResponseLinks());
+
+        log.info("Response: {} docs (keyset), more: {}, {}ms",
+                page.documents().size(), page.continuationToken() != null, processingTime);
+
+        return response;
+    }
+
+    /**
+     * A keyset page with the token for the following page.
+     */
+    public record KeysetPage(List<DocumentDetailsNode> documents, String continuationToken) {}
+
+    /**
+     * Iterator over one sorted source, positioned on its next document after the cursor.
+     */
+    private static final class MergeSource {
+        private final Iterator<DocumentDetailsNode> iterator;
+        private DocumentDetailsNode head;
+
+        private MergeSource(Iterator<DocumentDetailsNode> iterator) {
+            this.iterator = iterator;
+        }
+
+        private boolean advance(DocumentCursorDto cursor) {
+            while (iterator.hasNext()) {
+                DocumentDetailsNode node = iterator.next();
+                if (cursor == null || cursor.isBefore(node.getDatePosted(), node.getDocumentId())) {
+                    head = node;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     /**
      * Determine page size with limits.
      */
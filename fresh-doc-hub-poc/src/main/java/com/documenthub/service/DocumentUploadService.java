@@ -36,6 +36,7 @@ public class DocumentUploadService {
     private final StorageIndexDao storageIndexDao;
     private final MasterTemplateDao masterTemplateDao;
     private final DocumentAccessControlService accessControlService;
+    private final DocumentValidityService validityService;
     private final ReferenceKeyConfig referenceKeyConfig;
     private final ObjectMapper objectMapper;
 
@@ -217,7 +218,8 @@ public class DocumentUploadService {
     }
 
     /**
-     * Create a storage index entry for the uploaded document
+     * Create a storage index entry for the uploaded document,
+     * with valid_from/valid_until normalized from its metadata
      */
     private Mono<StorageIndexDto> createStorageIndexEntry(DocumentUploadRequest request,
                                                               EcmsDocumentResponse ecmsResponse,
@@ -266,6 +268,7 @@ public class DocumentUploadService {
             .versionNumber(1L)
             .recordStatus("ACTIVE")
             .build();
+        validityService.normalizeValidity(dto);
 
         log.debug("Creating storage index entry: id={}, ecmsDocId={}, templateType={}, sharedFlag={}",
             storageIndexId, ecmsResponse.getId(), request.getTemplateType(), sharedFlag);
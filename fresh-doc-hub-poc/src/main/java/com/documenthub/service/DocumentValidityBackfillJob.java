@@ -0,0 +1,92 @@
+package com.documenthub.service;
+
+import com.documenthub.dao.StorageIndexCriteriaDao;
+import com.documenthub.dto.StorageIndexDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Normalizes the validity dates of documents stored before valid_from/valid_until existed.
+ *
+ * <p>Uploads fill the columns from doc_metadata (see {@link DocumentValidityService#normalizeValidity}).
+ * Older rows are marked validity_normalized = false by V10__storage_index_validity_columns.sql;
+ * once the application is ready this job walks them in storage_index_id order, batch by
+ * batch, and stores their dates. Until a row is normalized, enquiries check its metadata
+ * in the service instead.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentValidityBackfillJob {
+
+    private final StorageIndexCriteriaDao criteriaDao;
+    private final DocumentValidityService validityService;
+
+    @Value("${app.storage-index.validity-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage-index.validity-backfill.batch-size:500}")
+    private int batchSize;
+
+    private Disposable subscription;
+
+    /**
+     * Start the backfill in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Validity backfill disabled");
+            return;
+        }
+
+        subscription = backfill().subscribe(
+            count -> log.info("Validity backfill normalized {} document(s)", count),
+            e -> log.error("Validity backfill failed: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Normalize all documents not yet normalized.
+     *
+     * @return Mono of the number of documents normalized
+     */
+    public Mono<Long> backfill() {
+        return backfillAfter(null, 0L);
+    }
+
+    private Mono<Long> backfillAfter(UUID afterStorageIndexId, long normalized) {
+        return criteriaDao.findValidityBackfillBatch(afterStorageIndexId, batchSize)
+            .map(validityService::normalizeValidity)
+            .concatMap(doc -> criteriaDao.updateValidity(doc).thenReturn(doc))
+            .collectList()
+            .flatMap(batch -> {
+                long total = normalized + batch.size();
+                if (batch.size() < batchSize) {
+                    return Mono.just(total);
+                }
+                log.debug("Validity backfill: {} document(s) normalized so far", total);
+                return backfillAfter(lastId(batch), total);
+            });
+    }
+
+    private UUID lastId(List<StorageIndexDto> batch) {
+        return batch.get(batch.size() - 1).getStorageIndexId();
+    }
+}
@@ -18,6 +18,10 @@ import java.util.stream.Collectors;
 /**
  * Service for document validity period checking.
  * Filters documents based on valid_from/valid_until dates.
+ *
+ * The dates are normalized into storage_index columns when documents are stored
+ * (see V10__storage_index_validity_columns.sql), so enquiries filter normalized
+ * documents in SQL; only documents not yet normalized have their metadata parsed here.
  */
 @Service
 @Slf4j
@@ -49,8 +53,13 @@ public class DocumentValidityService {
 
     /**
      * Check if a document is currently valid.
+     * Normalized documents are checked on their valid_from/valid_until columns,
+     * others by parsing their metadata.
      */
     public boolean isDocumentValid(StorageIndexDto document, LocalDate today) {
+        if (Boolean.TRUE.equals(document.getValidityNormalized())) {
+            return isWithinValidityPeriod(document, document.getValidFrom(), document.getValidUntil(), today);
+        }
         if (document.getDocMetadata() == null) {
             return true;
         }
@@ -58,7 +67,10 @@ public class DocumentValidityService {
         try {
             JsonNode metadata = objectMapper.readTree(document.getDocMetadata());
 
-            return isWithinValidityPeriod(document, metadata, today);
+            return isWithinValidityPeriod(document,
+                    extractDate(metadata, START_DATE_FIELDS),
+                    extractDate(metadata, END_DATE_FIELDS),
+                    today);
         } catch (Exception e) {
             log.warn("Failed to check validity for document {}: {}",
                     document.getStorageIndexId(), e.getMessage());
@@ -66,18 +78,43 @@ public class DocumentValidityService {
         }
     }
 
+    /**
+     * Fill a document's valid_from/valid_until from its metadata and mark it normalized,
+     * so that storage_index queries can filter it by validity.
+     * Metadata that cannot be parsed leaves the document without validity bounds.
+     */
+    public StorageIndexDto normalizeValidity(StorageIndexDto document) {
+        LocalDate validFrom = null;
+        LocalDate validUntil = null;
+
+        if (document.getDocMetadata() != null) {
+            try {
+                JsonNode metadata = objectMapper.readTree(document.getDocMetadata());
+                validFrom = extractDate(metadata, START_DATE_FIELDS);
+                validUntil = extractDate(metadata, END_DATE_FIELDS);
+            } catch (Exception e) {
+                log.warn("Failed to read validity of document {}: {}",
+                        document.getStorageIndexId(), e.getMessage());
+            }
+        }
+
+        document.setValidFrom(validFrom);
+        document.setValidUntil(validUntil);
+        document.setValidityNormalized(true);
+        return document;
+    }
+
     private boolean isWithinValidityPeriod(
             StorageIndexDto document,
-            JsonNode metadata,
+            LocalDate validFrom,
+            LocalDate validUntil,
             LocalDate today) {
 
-        LocalDate validFrom = extractDate(metadata, START_DATE_FIELDS);
         if (validFrom != null && today.isBefore(validFrom)) {
             logNotYetValid(document, validFrom, today);
             return false;
         }
 
-        LocalDate validUntil = extractDate(metadata, END_DATE_FIELDS);
         if (validUntil != null && today.isAfter(validUntil)) {
             logExpired(document, validUntil, today);
             return false;
@@ -0,0 +1,365 @@
+package com.documenthub.service;
+
+import com.documenthub.model.AccountMetadata;
+import com.documenthub.model.EligibilityCriteria;
+import com.documenthub.model.Rule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Eligibility criteria compiled into a tree of typed predicates.
+ *
+ * <p><b>What:</b> Evaluates the rules of an {@link EligibilityCriteria} against an account
+ * and the request context, with the same results as interpreting the rules one by one.</p>
+ *
+ * <p><b>Why:</b> Eligibility is evaluated for every account and template of an enquiry.
+ * Interpreting the rules resolved each field name through string checks, upper-cased and
+ * switched on the operator, scanned IN lists and parsed both sides of numeric comparisons
+ * on every evaluation.</p>
+ *
+ * <p><b>How:</b> {@link #compile} turns the criteria into AND/OR group nodes over rule
+ * nodes. Each rule node holds a field accessor chosen once from the field name, an
+ * {@link Operator} and a pre-processed expected value: IN/NOT_IN lists become hash sets,
+ * numeric constants are parsed once, and rules that cannot match become constants.
+ * Templates keep their compiled predicate in
+ * {@link com.documenthub.dto.CompiledTemplate}, so evaluation allocates nothing for
+ * fields read from the account or as typed numbers.</p>
+ */
+@Slf4j
+public final class EligibilityPredicate {
+
+    /** No rules: every account is eligible. */
+    public static final EligibilityPredicate ALWAYS = new EligibilityPredicate(new Constant(true, "always"));
+
+    private static final String METADATA_PREFIX = "$metadata.";
+    private static final String REQUEST_PREFIX = "$request.";
+
+    /**
+     * Rule operators.
+     */
+    enum Operator {
+        EQUALS,
+        NOT_EQUALS,
+        IN,
+        NOT_IN,
+        GREATER_THAN,
+        LESS_THAN,
+        GREATER_THAN_OR_EQUAL,
+        LESS_THAN_OR_EQUAL,
+        CONTAINS,
+        STARTS_WITH,
+        ENDS_WITH;
+
+        /**
+         * Operator of a rule, EQUALS when not set, or null when unknown.
+         */
+        static Operator from(String operator) {
+            if (operator == null) {
+                return EQUALS;
+            }
+            try {
+                return valueOf(operator.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private final Node root;
+
+    private EligibilityPredicate(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile eligibility criteria. Criteria without rules compile to {@link #ALWAYS}.
+     */
+    public static EligibilityPredicate compile(EligibilityCriteria criteria) {
+        if (criteria == null || criteria.getRules() == null || criteria.getRules().isEmpty()) {
+            return ALWAYS;
+        }
+        return new EligibilityPredicate(compileGroup(criteria.getOperator(), criteria.getRules()));
+    }
+
+    /**
+     * Check if an account is eligible.
+     *
+     * @param accountMetadata the account metadata to evaluate against
+     * @param requestContext  additional context from the request
+     * @return true if eligible, false otherwise
+     */
+    public boolean test(AccountMetadata accountMetadata, Map<String, Object> requestContext) {
+        return root.test(accountMetadata, requestContext);
+    }
+
+    // ========================================================================
+    // Compilation
+    // ========================================================================
+
+    private static Node compileGroup(String operator, List<Rule> rules) {
+        Node[] children = new Node[rules.size()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = compileRule(rules.get(i));
+        }
+        return new Group("OR".equalsIgnoreCase(operator), children);
+    }
+
+    private static Node compileRule(Rule rule) {
+        Operator operator = Operator.from(rule.getOperator());
+        if (operator == null) {
+            log.warn("Unknown operator: {}", rule.getOperator());
+            return new Constant(false, rule.toString());
+        }
+        ValueTest valueTest = compileValueTest(operator, rule.getValue());
+        if (valueTest == null) {
+            return new Constant(false, rule.toString());
+        }
+        return new RuleNode(rule, compileField(rule.getField()), valueTest);
+    }
+
+    private static FieldAccessor compileField(String field) {
+        if (field == null) {
+            log.warn("Rule without field");
+            return (account, context) -> null;
+        }
+        if (field.startsWith(METADATA_PREFIX)) {
+            return contextValue(field.substring(METADATA_PREFIX.length()));
+        }
+        if (field.startsWith(REQUEST_PREFIX)) {
+            return contextValue(field.substring(REQUEST_PREFIX.length()));
+        }
+
+        switch (field) {
+            case "accountType":
+                return (account, context) -> account.getAccountType();
+            case "region":
+                return (account, context) -> account.getRegion();
+            case "state":
+                return (account, context) -> account.getState();
+            case "customerSegment":
+                return (account, context) -> account.getCustomerSegment();
+            case "lineOfBusiness":
+                return (account, context) -> account.getLineOfBusiness();
+            case "accountId":
+                return (account, context) -> account.getAccountId() != null
+                        ? account.getAccountId().toString() : null;
+            case "customerId":
+                return (account, context) -> account.getCustomerId() != null
+                        ? account.getCustomerId().toString() : null;
+            default:
+                // Fallback: dynamically extracted fields (e.g., zipcode) in the request context
+                return (account, context) -> {
+                    if (context != null && context.containsKey(field)) {
+                        return context.get(field);
+                    }
+                    log.warn("Unknown field: {}", field);
+                    return null;
+                };
+        }
+    }
+
+    private static FieldAccessor contextValue(String key) {
+        return (account, context) -> context != null ? context.get(key) : null;
+    }
+
+    /**
+     * Test of the field value for an operator, or null when the rule can never pass.
+     */
+    private static ValueTest compileValueTest(Operator operator, Object expected) {
+        switch (operator) {
+            case EQUALS:
+                return actual -> actual.equals(expected);
+            case NOT_EQUALS:
+                return actual -> !actual.equals(expected);
+            case IN:
+                if (expected instanceof List) {
+                    Set<Object> values = new HashSet<>((List<?>) expected);
+                    return values::contains;
+                }
+                return null;
+            case NOT_IN:
+                if (expected instanceof List) {
+                    Set<Object> values = new HashSet<>((List<?>) expected);
+                    return actual -> !values.contains(actual);
+                }
+                return actual -> true;
+            case GREATER_THAN:
+            case LESS_THAN:
+            case GREATER_THAN_OR_EQUAL:
+            case LESS_THAN_OR_EQUAL:
+                return compileNumericTest(operator, expected);
+            case CONTAINS:
+            case STARTS_WITH:
+            case ENDS_WITH:
+                return compileStringTest(operator, expected);
+            default:
+                return null;
+        }
+    }
+
+    private static ValueTest compileNumericTest(Operator operator, Object expected) {
+        double expectedNumber;
+        try {
+            expectedNumber = Double.parseDouble(String.valueOf(expected));
+        } catch (NumberFormatException e) {
+            log.warn("Failed to compare as numeric: non-numeric value {}", expected);
+            // Values that do not parse compare as equal
+            boolean equalPasses = operator == Operator.GREATER_THAN_OR_EQUAL
+                    || operator == Operator.LESS_THAN_OR_EQUAL;
+            return actual -> equalPasses;
+        }
+
+        return actual -> {
+            int comparison = compareNumeric(actual, expectedNumber);
+            switch (operator) {
+                case GREATER_THAN:
+                    return comparison > 0;
+                case LESS_THAN:
+                    return comparison < 0;
+                case GREATER_THAN_OR_EQUAL:
+                    return comparison >= 0;
+                default:
+                    return comparison <= 0;
+            }
+        };
+    }
+
+    private static int compareNumeric(Object actual, double expected) {
+        double actualNumber;
+        if (actual instanceof Integer || actual instanceof Long
+                || actual instanceof Short || actual instanceof Byte) {
+            actualNumber = ((Number) actual).longValue();
+        } else if (actual instanceof Double) {
+            actualNumber = (Double) actual;
+        } else {
+            try {
+                actualNumber = Double.parseDouble(actual.toString());
+            } catch (NumberFormatException e) {
+                log.warn("Failed to compare as numeric: {} vs {}", actual, expected);
+                return 0;
+            }
+        }
+        return Double.compare(actualNumber, expected);
+    }
+
+    private static ValueTest compileStringTest(Operator operator, Object expected) {
+        if (expected == null) {
+            log.warn("Rule operator {} without value", operator);
+            return null;
+        }
+        String text = expected.toString();
+        switch (operator) {
+            case CONTAINS:
+                return actual -> actual.toString().contains(text);
+            case STARTS_WITH:
+                return actual -> actual.toString().startsWith(text);
+            default:
+                return actual -> actual.toString().endsWith(text);
+        }
+    }
+
+    // ========================================================================
+    // Nodes
+    // ========================================================================
+
+    private interface Node {
+        boolean test(AccountMetadata accountMetadata, Map<String, Object> requestContext);
+    }
+
+    @FunctionalInterface
+    private interface FieldAccessor {
+        Object get(AccountMetadata accountMetadata, Map<String, Object> requestContext);
+    }
+
+    @FunctionalInterface
+    private interface ValueTest {
+        boolean test(Object actual);
+    }
+
+    /**
+     * AND (all children pass) or OR (at least one child passes) of its children.
+     */
+    private static final class Group implements Node {
+        private final boolean anyOf;
+        private final Node[] children;
+
+        Group(boolean anyOf, Node[] children) {
+            this.anyOf = anyOf;
+            this.children = children;
+        }
+
+        @Override
+        public boolean test(AccountMetadata accountMetadata, Map<String, Object> requestContext) {
+            for (Node child : children) {
+                boolean passed = child.test(accountMetadata, requestContext);
+                if (anyOf && passed) {
+                    log.debug("Rule passed: {}", child);
+                    return true;
+                }
+                if (!anyOf && !passed) {
+                    log.debug("Rule failed: {}", child);
+                    return false;
+                }
+            }
+            return !anyOf;
+        }
+    }
+
+    /**
+     * A rule: the field's value tested by the operator. Missing values never pass.
+     */
+    private static final class RuleNode implements Node {
+        private final Rule rule;
+        private final FieldAccessor field;
+        private final ValueTest valueTest;
+
+        RuleNode(Rule rule, FieldAccessor field, ValueTest valueTest) {
+            this.rule = rule;
+            this.field = field;
+            this.valueTest = valueTest;
+        }
+
+        @Override
+        public boolean test(AccountMetadata accountMetadata, Map<String, Object> requestContext) {
+            Object actual = field.get(accountMetadata, requestContext);
+            if (actual == null) {
+                log.debug("Field '{}' not found in account metadata or request context", rule.getField());
+                return false;
+            }
+            return valueTest.test(actual);
+        }
+
+        @Override
+        public String toString() {
+            return rule.toString();
+        }
+    }
+
+    /**
+     * A rule whose result does not depend on the account.
+     */
+    private static final class Constant implements Node {
+        private final boolean result;
+        private final String description;
+
+        Constant(boolean result, String description) {
+            this.result = result;
+            this.description = description;
+        }
+
+        @Override
+        public boolean test(AccountMetadata accountMetadata, Map<String, Object> requestContext) {
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
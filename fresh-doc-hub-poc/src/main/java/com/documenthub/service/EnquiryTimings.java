@@ -0,0 +1,205 @@
+package com.documenthub.service;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Request-scoped stage timings of one document enquiry.
+ *
+ * <p><b>What:</b> Measures how long each stage of an enquiry takes (account resolution,
+ * LOB lookup, template query, data extraction, eligibility, storage_index query, validity
+ * filter, node conversion, pagination) and publishes them as Micrometer timers and as a
+ * {@code Server-Timing} response header.</p>
+ *
+ * <p><b>Why:</b> The response only carries the total processing time, which does not
+ * show which stage regressed. Per-stage timers in Prometheus, tagged by template type
+ * and matchMode, point at the slow stage and template.</p>
+ *
+ * <p><b>How:</b> Like {@link com.documenthub.service.extraction.ExtractionSession}, the
+ * timings travel in the Reactor {@link Context} of the enquiry. {@link #time} wraps a
+ * stage's Mono and records its duration when it terminates; without timings in the
+ * context the stage runs unmeasured. At the end of the enquiry {@link #recordTo} records
+ * every sample to the {@value #TIMER_NAME} timer. Stages of different templates overlap,
+ * so the stage totals in the header can add up to more than the response time.</p>
+ */
+@Slf4j
+public class EnquiryTimings {
+
+    public static final String TIMER_NAME = "documenthub.enquiry.stage";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final Class<EnquiryTimings> CONTEXT_KEY = EnquiryTimings.class;
+    private static final String NONE = "none";
+    private static final String OTHER = "other";
+
+    /**
+     * Stages of an enquiry, named as in the timer tag and the Server-Timing header.
+     */
+    public enum Stage {
+        ACCOUNT_RESOLUTION("account_resolution"),
+        LOB_LOOKUP("lob_lookup"),
+        TEMPLATE_QUERY("template_query"),
+        EXTRACTION("extraction"),
+        ELIGIBILITY("eligibility"),
+        /** storage_index queries, including their validity filtering. */
+        STORAGE_QUERY("storage_query"),
+        VALIDITY_FILTER("validity_filter"),
+        NODE_CONVERSION("node_conversion"),
+        PAGINATION("pagination");
+
+        private final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private final Queue<Sample> samples = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    /**
+     * Add these timings to a Reactor context.
+     */
+    public Context writeTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * Get the timings of the current enquiry, if any.
+     */
+    public static Optional<EnquiryTimings> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    /**
+     * Time an enquiry-level stage.
+     */
+    public static <T> Mono<T> time(Stage stage, Mono<T> step) {
+        return time(stage, null, null, step);
+    }
+
+    /**
+     * Time a stage of one template.
+     *
+     * @param stage The stage
+     * @param templateType Template type tag, or null for enquiry-level stages
+     * @param matchMode Matching mode tag of the template, or null
+     * @param step The stage's work, measured from subscription to termination
+     * @return The step, measured when the enquiry has timings
+     */
+    public static <T> Mono<T> time(Stage stage, String templateType, String matchMode, Mono<T> step) {
+        return Mono.deferContextual(ctx -> from(ctx)
+                .map(timings -> timings.measure(stage, templateType, matchMode, step))
+                .orElse(step));
+    }
+
+    private <T> Mono<T> measure(Stage stage, String templateType, String matchMode, Mono<T> step) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return step.doFinally(signal -> samples.add(new Sample(stage,
+                    templateType != null ? templateType : NONE,
+                    matchMode != null ? matchMode : NONE,
+                    System.nanoTime() - start)));
+        });
+    }
+
+    /**
+     * Server-Timing header value with the total duration and count of each stage, e.g.
+     * {@code lob_lookup;dur=1.2;desc="1x", extraction;dur=84.0;desc="6x"}.
+     */
+    public String toServerTiming() {
+        Map<Stage, long[]> totals = new EnumMap<>(Stage.class);
+        for (Sample sample : samples) {
+            long[] total = totals.computeIfAbsent(sample.stage, stage -> new long[2]);
+            total[0] += sample.nanos;
+            total[1]++;
+        }
+        return totals.entrySet().stream()
+                .map(entry -> String.format(Locale.ROOT, "%s;dur=%.1f;desc=\"%dx\"",
+                        entry.getKey().getMetricName(), entry.getValue()[0] / 1e6, entry.getValue()[1]))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Record all samples to the stage timer, once per enquiry.
+     */
+    public void recordTo(MeterRegistry meterRegistry) {
+        if (!recorded.compareAndSet(false, true)) {
+            return;
+        }
+        for (Sample sample : samples) {
+            Timer.builder(TIMER_NAME)
+                    .description("Duration of document enquiry stages")
+                    .tag("stage", sample.stage.getMetricName())
+                    .tag("templateType", sample.templateType)
+                    .tag("matchMode", sample.matchMode)
+                    .serviceLevelObjectives(Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+                            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+                            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500),
+                            Duration.ofSeconds(5))
+                    .register(meterRegistry)
+                    .record(sample.nanos, TimeUnit.NANOSECONDS);
+        }
+        log.debug("Enquiry stage timings: {}", toServerTiming());
+    }
+
+    /**
+     * Meter filter keeping the templateType tag of the stage timer to at most
+     * maxTemplateTypes values; further template types are tagged "other".
+     */
+    public static MeterFilter templateTypeLimit(int maxTemplateTypes) {
+        Set<String> templateTypes = ConcurrentHashMap.newKeySet();
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                String templateType = id.getTag("templateType");
+                if (!id.getName().startsWith(TIMER_NAME) || templateType == null || NONE.equals(templateType)
+                        || templateTypes.contains(templateType)) {
+                    return id;
+                }
+                if (templateTypes.size() < maxTemplateTypes && templateTypes.add(templateType)) {
+                    return id;
+                }
+                return id.replaceTags(Tags.of(id.getTagsAsIterable()).and("templateType", OTHER));
+            }
+        };
+    }
+
+    private static class Sample {
+        private final Stage stage;
+        private final String templateType;
+        private final String matchMode;
+        private final long nanos;
+
+        Sample(Stage stage, String templateType, String matchMode, long nanos) {
+            this.stage = stage;
+            this.templateType = templateType;
+            this.matchMode = matchMode;
+            this.nanos = nanos;
+        }
+    }
+}
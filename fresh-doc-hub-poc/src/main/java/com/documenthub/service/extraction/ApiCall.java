@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a single API call within an extraction plan.
@@ -84,4 +85,30 @@ public class ApiCall {
      * @see FieldSourceConfig
      */
     private final Map<String, FieldSourceConfig> fieldSources;
+
+    /**
+     * APIs of the plan whose output this API needs.
+     *
+     * <p><b>What:</b> The apiIds providing fields used in this API's required
+     * inputs, URL, headers or body. Empty when the API only needs request values.</p>
+     *
+     * <p><b>Why:</b> The executor starts this API as soon as these APIs have
+     * completed, independently of unrelated calls in the plan.</p>
+     */
+    private final Set<String> dependsOn;
+
+    /**
+     * Dependency level (wave) of this API within the plan.
+     *
+     * <p><b>What:</b> 0 for APIs without dependencies, otherwise one more than
+     * the highest level among {@link #dependsOn}.</p>
+     *
+     * <p><b>Why:</b> APIs of the same level are independent of each other. The
+     * number of levels is the number of round trips the plan needs.</p>
+     */
+    private final int level;
+
+    public ApiCall(String apiId, DataSourceConfig dataSource, Map<String, FieldSourceConfig> fieldSources) {
+        this(apiId, dataSource, fieldSources, Set.of(), 0);
+    }
 }
@@ -0,0 +1,238 @@
+package com.documenthub.service.extraction;
+
+import com.documenthub.model.extraction.BatchEndpointConfig;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Collects the per-id API calls of one enquiry into batch requests.
+ *
+ * <p><b>What:</b> Calls to a data source with a {@code batch} endpoint register their id
+ * and wait. After a short window, or once the batch is full, one request is sent for all
+ * collected ids and each caller receives the part of the response for its id.</p>
+ *
+ * <p><b>Why:</b> For customers with many accounts, account-level templates call the
+ * same per-account API once per account. A batch endpoint answers them all in one
+ * round trip.</p>
+ *
+ * <p><b>How:</b> Pending batches are keyed by resolved batch URL. Each id gets a
+ * {@link Sinks.One} completed when the batch response arrives, with the value found at
+ * {@code responseKeyPath} under that id re-serialized as JSON, so fields are extracted
+ * with the same paths as for the single endpoint. An id missing from the response fails
+ * its call, which then falls back to defaults like a failed single call, and so does
+ * an empty response. Once every caller of a batch has cancelled, for example at the plan
+ * deadline, the batch is dropped, or its request cancelled if already sent. Batches only
+ * collect calls of one enquiry (see {@link ExtractionSession}), since the request
+ * headers are taken from the first call.</p>
+ */
+@Slf4j
+class ApiCallBatcher {
+
+    static final int DEFAULT_MAX_BATCH_SIZE = 50;
+    static final int DEFAULT_WINDOW_MS = 10;
+    private static final String DEFAULT_IDS_PROPERTY = "ids";
+    private static final String DEFAULT_RESPONSE_KEY_PATH = "$";
+
+    private final Map<String, PendingBatch> pending = new HashMap<>();
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private final AtomicInteger batchedIds = new AtomicInteger();
+
+    /**
+     * Get the single-endpoint response for an id, fetched in a batch.
+     *
+     * @param batchKey Resolved batch URL; ids with the same key share batch requests
+     * @param config Batch configuration of the data source
+     * @param id Value of the batched id field
+     * @param exchange Sends the batch request with the given JSON body, returning the response body
+     * @return Mono of the response for the id
+     */
+    Mono<String> fetch(
+            String batchKey,
+            BatchEndpointConfig config,
+            String id,
+            Function<String, Mono<String>> exchange) {
+
+        return Mono.defer(() -> {
+            PendingBatch full = null;
+            PendingBatch joined;
+            Sinks.One<String> result;
+            synchronized (pending) {
+                PendingBatch batch = pending.get(batchKey);
+                if (batch == null) {
+                    batch = new PendingBatch(config, exchange);
+                    pending.put(batchKey, batch);
+                    PendingBatch scheduled = batch;
+                    Mono.delay(Duration.ofMillis(windowMs(config)))
+                            .subscribe(tick -> flush(batchKey, scheduled));
+                }
+                result = batch.add(id);
+                batch.waiting++;
+                joined = batch;
+                if (batch.size() >= maxBatchSize(config)) {
+                    pending.remove(batchKey);
+                    full = batch;
+                }
+            }
+            if (full != null) {
+                send(batchKey, full);
+            }
+            return result.asMono().doFinally(signal -> leave(batchKey, joined, signal));
+        });
+    }
+
+    int getBatchRequests() {
+        return batchRequests.get();
+    }
+
+    int getBatchedIds() {
+        return batchedIds.get();
+    }
+
+    /**
+     * Sends a batch at the end of its window, unless it was already sent when full.
+     */
+    private void flush(String batchKey, PendingBatch batch) {
+        synchronized (pending) {
+            if (!pending.remove(batchKey, batch)) {
+                return;
+            }
+        }
+        send(batchKey, batch);
+    }
+
+    private void send(String batchKey, PendingBatch batch) {
+        List<String> ids;
+        synchronized (pending) {
+            if (batch.cancelled) {
+                return;
+            }
+            ids = new ArrayList<>(batch.results.keySet());
+        }
+        batchRequests.incrementAndGet();
+        batchedIds.addAndGet(ids.size());
+        log.debug("Sending batch of {} ids to {}", ids.size(), batchKey);
+
+        String requestBody = jsonProvider().toJson(Map.of(idsProperty(batch.config), ids));
+        Disposable connection = batch.exchange.apply(requestBody).subscribe(
+                responseBody -> scatter(batchKey, batch, responseBody),
+                e -> batch.results.values().forEach(result -> result.tryEmitError(e)),
+                // Ids already completed by scatter ignore this
+                () -> batch.results.values().forEach(result -> result.tryEmitError(
+                        new NoSuchElementException("Empty batch response of " + batchKey))));
+
+        synchronized (pending) {
+            if (!batch.cancelled) {
+                batch.connection = connection;
+                return;
+            }
+        }
+        connection.dispose();
+    }
+
+    /**
+     * Drops a batch, or cancels its request, once every caller waiting for it has cancelled.
+     */
+    private void leave(String batchKey, PendingBatch batch, SignalType signal) {
+        Disposable connection;
+        synchronized (pending) {
+            if (--batch.waiting > 0 || signal != SignalType.CANCEL) {
+                return;
+            }
+            batch.cancelled = true;
+            pending.remove(batchKey, batch);
+            connection = batch.connection;
+        }
+        if (connection != null) {
+            log.debug("Cancelling batch request to {}: no caller left", batchKey);
+            connection.dispose();
+        }
+    }
+
+    /**
+     * Completes each id of the batch with its part of the response.
+     */
+    private void scatter(String batchKey, PendingBatch batch, String responseBody) {
+        Object items;
+        try {
+            items = JsonPath.parse(responseBody).read(responseKeyPath(batch.config));
+        } catch (RuntimeException e) {
+            batch.results.values().forEach(result -> result.tryEmitError(e));
+            return;
+        }
+        Map<?, ?> byId = items instanceof Map ? (Map<?, ?>) items : Map.of();
+
+        batch.results.forEach((id, result) -> {
+            Object item = byId.get(id);
+            if (item == null) {
+                result.tryEmitError(new NoSuchElementException(
+                        "No result for id " + id + " in batch response of " + batchKey));
+            } else {
+                result.tryEmitValue(jsonProvider().toJson(item));
+            }
+        });
+    }
+
+    private static JsonProvider jsonProvider() {
+        return Configuration.defaultConfiguration().jsonProvider();
+    }
+
+    private static int maxBatchSize(BatchEndpointConfig config) {
+        return config.getMaxBatchSize() != null ? config.getMaxBatchSize() : DEFAULT_MAX_BATCH_SIZE;
+    }
+
+    private static int windowMs(BatchEndpointConfig config) {
+        return config.getWindowMs() != null ? config.getWindowMs() : DEFAULT_WINDOW_MS;
+    }
+
+    private static String idsProperty(BatchEndpointConfig config) {
+        return config.getIdsProperty() != null ? config.getIdsProperty() : DEFAULT_IDS_PROPERTY;
+    }
+
+    private static String responseKeyPath(BatchEndpointConfig config) {
+        return config.getResponseKeyPath() != null ? config.getResponseKeyPath() : DEFAULT_RESPONSE_KEY_PATH;
+    }
+
+    /**
+     * Ids collected for one batch request, in arrival order.
+     * Ids and state are guarded by the pending map.
+     */
+    private static class PendingBatch {
+        private final BatchEndpointConfig config;
+        private final Function<String, Mono<String>> exchange;
+        private final Map<String, Sinks.One<String>> results = new LinkedHashMap<>();
+
+        /** Callers waiting for a result of this batch. */
+        private int waiting;
+        private boolean cancelled;
+        private Disposable connection;
+
+        PendingBatch(BatchEndpointConfig config, Function<String, Mono<String>> exchange) {
+            this.config = config;
+            this.exchange = exchange;
+        }
+
+        Sinks.One<String> add(String id) {
+            return results.computeIfAbsent(id, key -> Sinks.one());
+        }
+
+        int size() {
+            return results.size();
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.documenthub.service.extraction;
 
+import com.documenthub.model.extraction.BatchEndpointConfig;
+import com.documenthub.model.extraction.CacheConfig;
 import com.documenthub.model.extraction.EndpointConfig;
+import com.documenthub.model.extraction.ExecutionStrategy;
+import com.documenthub.placeholder.PlaceholderTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Executes API calls defined in an extraction plan.
@@ -25,15 +39,9 @@ import java.util.regex.Pattern;
  * follows the Single Responsibility Principle. This class focuses solely on
  * making HTTP requests reliably with proper error handling.</p>
  *
- * <p><b>How:</b> Uses Spring WebClient for non-blocking HTTP calls. Supports both
- * sequential and parallel execution modes:
- * <ul>
- *   <li><b>Sequential:</b> Each API call waits for the previous one to complete.
- *       Use when later calls depend on data from earlier calls.</li>
- *   <li><b>Parallel:</b> All API calls execute concurrently.
- *       Use when calls are independent for better performance.</li>
- * </ul>
- * </p>
+ * <p><b>How:</b> Uses Spring WebClient for non-blocking HTTP calls. Each API call
+ * starts as soon as the calls providing its inputs complete (see {@link #executeDag}),
+ * so independent calls run concurrently and dependent calls run in order.</p>
  *
  * @see ExtractionPlan
  * @see FieldExtractor
@@ -45,12 +53,30 @@ public class ApiCallExecutor {
 
     private final WebClient webClient;
     private final FieldExtractor fieldExtractor;
+    private final ApiResponseCache responseCache;
+    private final InFlightApiCalls inFlightCalls;
+    private final DataSourceResilience resilience;
 
     /**
-     * Pattern for matching placeholders like ${fieldName} in URLs and request bodies.
-     * These placeholders are replaced with actual values from the context map.
+     * Extract fields while the response streams in, for API calls that allow it.
+     * See {@link FieldExtractor#supportsStreaming(ApiCall)}.
      */
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([^}]+)\\}");
+    @Value("${app.extraction.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
+    /**
+     * Context entry set to {@code true} when a plan stopped before all its calls
+     * completed: the plan deadline passed, or a call failed with continueOnError=false.
+     */
+    public static final String PARTIAL_RESULT_KEY = "extraction.partial";
+
+    /**
+     * Compiled placeholder templates by source string (URLs, headers, bodies, cache keys).
+     * Endpoint strings come from a bounded set of data source configs.
+     */
+    private final Cache<String, PlaceholderTemplate> templates = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build();
 
     /**
      * Default timeout for API calls in milliseconds.
@@ -59,103 +85,135 @@ public class ApiCallExecutor {
     private static final int DEFAULT_TIMEOUT_MS = 5000;
 
     /**
-     * Executes all API calls in the plan sequentially.
-     *
-     * <p><b>What:</b> Processes API calls one at a time, waiting for each to complete
-     * before starting the next.</p>
-     *
-     * <p><b>Why:</b> Sequential execution is needed when API calls have dependencies.
-     * For example, if API-B needs a value extracted from API-A's response.</p>
+     * Executes the API calls of the plan following their dependencies.
      *
-     * <p><b>How:</b> Uses Flux.concatMap to ensure ordering. After each call completes,
-     * the extracted data is added to the context, making it available for subsequent calls.</p>
+     * <p>Same as {@link #executeDag(ExtractionPlan, Map, ExecutionStrategy)} without an
+     * execution strategy: no plan deadline, and failed calls fall back to defaults.</p>
      *
-     * @param plan The extraction plan containing the ordered list of API calls
-     * @param context The context map with initial values and placeholder data
+     * @param plan The extraction plan with dependencies between calls
+     * @param context The context map with initial values
      * @return Mono containing the updated context with all extracted fields
      */
-    public Mono<Map<String, Object>> executeSequential(
+    public Mono<Map<String, Object>> executeDag(
             ExtractionPlan plan,
             Map<String, Object> context) {
-
-        log.info("Execution mode: SEQUENTIAL");
-
-        return Flux.fromIterable(plan.getApiCalls())
-                .concatMap(apiCall -> executeApiCall(apiCall, context))
-                .then(Mono.just(context));
+        return executeDag(plan, context, null);
     }
 
     /**
-     * Executes all API calls in the plan in parallel.
-     *
-     * <p><b>What:</b> Initiates all API calls simultaneously without waiting.</p>
-     *
-     * <p><b>Why:</b> Parallel execution is faster when API calls are independent.
-     * If we need data from 3 different APIs that don't depend on each other,
-     * parallel execution reduces total time from sum(timeouts) to max(timeouts).</p>
-     *
-     * <p><b>How:</b> Uses Flux.flatMap which subscribes to all inner publishers
-     * immediately. Results are collected and merged into the context map.</p>
-     *
-     * @param plan The extraction plan containing the API calls
+     * Executes the API calls of the plan following their dependencies.
+     *
+     * <p><b>What:</b> Starts every API call as soon as the calls it depends on have
+     * completed. Calls without dependencies start immediately.</p>
+     *
+     * <p><b>Why:</b> Sequential execution adds up all latencies, and parallel execution
+     * ignores dependencies. With per-call readiness a plan costs one round trip per
+     * dependency level: a three-hop chain with two independent calls at each hop takes
+     * three round trips, not six.</p>
+     *
+     * <p><b>How:</b> Walks the plan in order (dependencies always come first) and builds
+     * one cached Mono per call that waits for its dependencies' Monos, then calls the API
+     * and merges the extracted data into the context. There are no level barriers: a
+     * call does not wait for unrelated calls of the previous level. The context is
+     * synchronized since concurrent calls update it.</p>
+     *
+     * <p>The execution strategy bounds the plan:
+     * <ul>
+     *   <li><b>timeout:</b> a deadline for the whole plan. Calls still running at the
+     *       deadline are cancelled.</li>
+     *   <li><b>continueOnError=false:</b> the first failed call cancels all other calls,
+     *       instead of falling back to default values.</li>
+     * </ul>
+     * In both cases the context extracted so far is returned, with
+     * {@link #PARTIAL_RESULT_KEY} set.</p>
+     *
+     * @param plan The extraction plan with dependencies between calls
      * @param context The context map with initial values
+     * @param strategy The executionStrategy of the config, or null
      * @return Mono containing the updated context with all extracted fields
      */
-    public Mono<Map<String, Object>> executeParallel(
+    public Mono<Map<String, Object>> executeDag(
             ExtractionPlan plan,
-            Map<String, Object> context) {
-
-        log.info("Execution mode: PARALLEL ({} calls)", plan.size());
+            Map<String, Object> context,
+            ExecutionStrategy strategy) {
+
+        boolean continueOnError = strategy == null || !Boolean.FALSE.equals(strategy.getContinueOnError());
+        Integer timeout = strategy != null ? strategy.getTimeout() : null;
+
+        return Mono.defer(() -> {
+            log.info("Execution mode: DAG ({} calls, {} levels, timeout {}, continueOnError {})",
+                    plan.size(), plan.getLevelCount(), timeout, continueOnError);
+
+            ExtractionDeadline deadline = timeout != null ? ExtractionDeadline.in(timeout) : ExtractionDeadline.NONE;
+            Sinks.One<Boolean> abort = Sinks.one();
+            Map<String, Object> sharedContext = Collections.synchronizedMap(context);
+            Map<String, Mono<Map<String, Object>>> calls = new HashMap<>();
+
+            for (ApiCall apiCall : plan.getApiCalls()) {
+                List<Mono<Map<String, Object>>> dependencies = apiCall.getDependsOn().stream()
+                        .map(calls::get)
+                        .collect(Collectors.toList());
+
+                Mono<Map<String, Object>> call = Mono.when(dependencies)
+                        .then(Mono.defer(() -> callBeforeDeadline(apiCall, sharedContext, deadline)));
+                if (continueOnError) {
+                    // A call cut off by the plan deadline stops the plan rather than using defaults
+                    call = call.onErrorResume(e -> !deadline.isExpired(), e -> handleApiError(apiCall, e));
+                }
+                calls.put(apiCall.getApiId(), call
+                        .doOnSuccess(sharedContext::putAll)
+                        .takeUntilOther(abort.asMono())
+                        .cache());
+            }
 
-        return Flux.fromIterable(plan.getApiCalls())
-                .flatMap(apiCall -> callApiSafe(apiCall, context))
-                .reduce(context, (acc, data) -> {
-                    acc.putAll(data);
-                    return acc;
-                });
+            Mono<Void> all = Mono.when(calls.values());
+            if (deadline.isBounded()) {
+                all = all.timeout(Duration.ofMillis(deadline.remainingMillis()));
+            }
+            return all
+                    .thenReturn(context)
+                    .onErrorResume(e -> {
+                        abort.tryEmitValue(Boolean.TRUE);
+                        log.warn("Extraction stopped early, returning partial result: {}", e.toString());
+                        return Mono.just(partialResult(sharedContext));
+                    });
+        });
     }
 
     /**
-     * Executes a single API call and updates the context with extracted data.
+     * Calls an API unless the plan deadline has already passed, and stops waiting for it
+     * at the deadline.
      *
-     * <p><b>What:</b> Wrapper that calls the API and merges results into context.</p>
-     *
-     * <p><b>Why:</b> In sequential mode, we need to update the shared context
-     * after each call so subsequent calls can use the extracted values.</p>
-     *
-     * @param apiCall The API call to execute
-     * @param context The context map to update
-     * @return Mono containing the extracted data
+     * <p><b>Why:</b> The deadline belongs to this enquiry only. It is applied to this
+     * subscriber, outside the shared exchange: other enquiries joining the same call keep
+     * waiting for it, and the data source's circuit and latency are not affected. Once
+     * no one waits anymore the exchange is cancelled (see {@link SharedCall}).</p>
      */
-    private Mono<Map<String, Object>> executeApiCall(
+    private Mono<Map<String, Object>> callBeforeDeadline(
             ApiCall apiCall,
-            Map<String, Object> context) {
+            Map<String, Object> context,
+            ExtractionDeadline deadline) {
 
-        return callApiSafe(apiCall, context)
-                .doOnSuccess(data -> context.putAll(data));
+        if (deadline.isExpired()) {
+            return Mono.error(new TimeoutException("Plan deadline passed before calling " + apiCall.getApiId()));
+        }
+        Mono<Map<String, Object>> call = callApi(apiCall, context);
+        if (deadline.isBounded()) {
+            call = call.timeout(Duration.ofMillis(deadline.remainingMillis()));
+        }
+        return call;
     }
 
     /**
-     * Calls an API with error handling that returns defaults on failure.
-     *
-     * <p><b>What:</b> Wraps the API call with error recovery.</p>
-     *
-     * <p><b>Why:</b> API failures shouldn't break the entire extraction process.
-     * If an API is down, we use configured default values and continue.</p>
-     *
-     * <p><b>How:</b> Uses onErrorResume to catch any exception and return
-     * default values instead of propagating the error.</p>
-     *
-     * @param apiCall The API call to execute
-     * @param context The context map for placeholder resolution
-     * @return Mono containing extracted data or defaults on error
+     * Copy of the context extracted so far, marked as partial.
      */
-    private Mono<Map<String, Object>> callApiSafe(
-            ApiCall apiCall,
-            Map<String, Object> context) {
-
-        return callApi(apiCall, context)
-                .onErrorResume(e -> handleApiError(apiCall, e));
+    private Map<String, Object> partialResult(Map<String, Object> sharedContext) {
+        Map<String, Object> result;
+        synchronized (sharedContext) {
+            result = new HashMap<>(sharedContext);
+        }
+        result.put(PARTIAL_RESULT_KEY, Boolean.TRUE);
+        return result;
     }
 
     /**
@@ -171,10 +229,20 @@ public class ApiCallExecutor {
      *   <li>Resolves placeholders in the URL using context values</li>
      *   <li>Checks for unresolved placeholders (indicates missing data)</li>
      *   <li>Builds the request with headers and optional body</li>
-     *   <li>Executes with configured timeout</li>
+     *   <li>Serves the response from {@link ApiResponseCache} when the data source
+     *       enables caching, otherwise executes it, joining an identical call already
+     *       in flight ({@link InFlightApiCalls})</li>
+     *   <li>Runs the exchange within the bulkhead, circuit breaker, retries and
+     *       timeout of the data source ({@link DataSourceResilience})</li>
+     *   <li>Sends the exchange as part of a batch request when the data source has a
+     *       batch endpoint ({@link #exchange})</li>
+     *   <li>Shares the response with identical calls of the same enquiry
+     *       ({@link ExtractionSession})</li>
      *   <li>Passes response to FieldExtractor for data extraction</li>
      * </ol>
-     * </p>
+     * Calls whose fields all use simple paths, and whose data source is not cached,
+     * extract fields while the response streams in instead
+     * ({@link #callApiStreaming}).</p>
      *
      * @param apiCall The API call configuration
      * @param context The context map for placeholder resolution
@@ -185,20 +253,201 @@ public class ApiCallExecutor {
             Map<String, Object> context) {
 
         EndpointConfig endpoint = apiCall.getDataSource().getEndpoint();
-        String url = resolvePlaceholders(endpoint.getUrl(), context);
+        PlaceholderTemplate.Rendered resolvedUrl = template(endpoint.getUrl()).renderUrl(context);
 
-        if (hasUnresolvedPlaceholders(url)) {
-            log.warn("Unresolved placeholders in URL: {}", url);
+        if (!resolvedUrl.isComplete()) {
+            log.warn("Unresolved placeholders {} in URL: {}", resolvedUrl.getMissing(), endpoint.getUrl());
             return Mono.just(Collections.emptyMap());
         }
 
-        log.info("Calling {} {}", endpoint.getMethod(), url);
+        String url = resolvedUrl.getValue();
+        String body = needsBody(endpoint) ? resolvePlaceholders(endpoint.getBody(), context) : null;
+        String requestKey = requestKey(endpoint, url, body);
+
+        if (useStreaming(apiCall)) {
+            return callApiStreaming(apiCall, url, body, context, requestKey);
+        }
+
+        Supplier<Mono<String>> exchange = withCache(apiCall, context, () -> inFlightCalls.execute(requestKey,
+                () -> resilience.execute(apiCall, getTimeout(endpoint),
+                        () -> exchange(apiCall, url, body, context))));
+
+        return shareInSession(requestKey, exchange)
+                .map(responseBody -> fieldExtractor.extractFields(responseBody, apiCall));
+    }
+
+    /**
+     * Sends the request of an API call, alone or as part of a batch request.
+     *
+     * <p><b>What:</b> Returns the response body of the single endpoint. When the data
+     * source declares a {@code batch} endpoint and the call's id field is in the context,
+     * the id is sent with the ids of other calls of the enquiry in one batch request,
+     * and the response part for the id is returned instead.</p>
+     *
+     * <p><b>Why:</b> Account-level templates call per-account APIs once per account.
+     * Batching collapses these calls into one upstream request.</p>
+     *
+     * <p><b>How:</b> Batches are collected by the {@link ApiCallBatcher} of the enquiry's
+     * {@link ExtractionSession}. Without a session, or when the batch URL cannot be
+     * resolved, the single endpoint is called.</p>
+     *
+     * @param apiCall The API call configuration
+     * @param url The resolved single-endpoint URL
+     * @param body The resolved request body, or null
+     * @param context The context map for placeholder resolution
+     * @return Mono of the response body
+     */
+    private Mono<String> exchange(
+            ApiCall apiCall,
+            String url,
+            String body,
+            Map<String, Object> context) {
+
+        EndpointConfig endpoint = apiCall.getDataSource().getEndpoint();
+        Mono<String> single = Mono.defer(() -> {
+            log.info("Calling {} {}", endpoint.getMethod(), url);
+            return buildRequest(endpoint, url, body, context)
+                    .retrieve()
+                    .bodyToMono(String.class);
+        });
+
+        BatchEndpointConfig batch = apiCall.getDataSource().getBatch();
+        Object id = batch != null && batch.getIdField() != null ? context.get(batch.getIdField()) : null;
+        if (id == null) {
+            return single;
+        }
+        PlaceholderTemplate.Rendered batchUrl = template(batch.getUrl()).renderUrl(context);
+        if (!batchUrl.isComplete()) {
+            log.warn("Unresolved placeholders {} in batch URL, calling single endpoint: {}",
+                    batchUrl.getMissing(), batch.getUrl());
+            return single;
+        }
+
+        return Mono.deferContextual(ctx -> ExtractionSession.from(ctx)
+                .map(session -> session.getBatcher().fetch(batchUrl.getValue(), batch, id.toString(),
+                        requestBody -> {
+                            log.info("Calling POST {} (batch)", batchUrl.getValue());
+                            return buildBatchRequest(endpoint, batchUrl.getValue(), requestBody, context)
+                                    .retrieve()
+                                    .bodyToMono(String.class);
+                        }))
+                .orElse(single));
+    }
+
+    /**
+     * Makes the HTTP call and extracts fields while the response streams in.
+     *
+     * <p><b>What:</b> Streaming variant of {@link #callApi}: the response body is never
+     * aggregated into a String.</p>
+     *
+     * <p><b>Why:</b> Upstream responses can be large while only a few fields are used.
+     * Streaming avoids allocating and retaining the whole body, and stops reading once
+     * all fields have been found.</p>
+     *
+     * <p><b>How:</b> Hands the body buffers to {@link FieldExtractor#extractFields(Flux, ApiCall)}.
+     * Since there is no raw body to share, the extracted fields are shared instead, with
+     * the extraction paths added to the request key. Identical calls extracting
+     * different fields are therefore not shared.</p>
+     *
+     * @param apiCall The API call configuration
+     * @param url The resolved URL
+     * @param body The resolved request body, or null
+     * @param context The context map for header placeholder resolution
+     * @param requestKey Key of the request (method, URL, body)
+     * @return Mono containing the extracted fields
+     */
+    private Mono<Map<String, Object>> callApiStreaming(
+            ApiCall apiCall,
+            String url,
+            String body,
+            Map<String, Object> context,
+            String requestKey) {
+
+        EndpointConfig endpoint = apiCall.getDataSource().getEndpoint();
+        String streamKey = "stream " + requestKey + "\n" + fieldExtractor.extractionPaths(apiCall);
+
+        Supplier<Mono<Map<String, Object>>> exchange = () -> inFlightCalls.execute(streamKey,
+                () -> resilience.execute(apiCall, getTimeout(endpoint), () -> {
+                    log.info("Calling {} {} (streaming extraction)", endpoint.getMethod(), url);
+                    return fieldExtractor.extractFields(
+                                    buildRequest(endpoint, url, body, context)
+                                            .retrieve()
+                                            .bodyToFlux(DataBuffer.class),
+                                    apiCall)
+                            .map(Collections::unmodifiableMap);
+                }));
+
+        return shareInSession(streamKey, exchange);
+    }
+
+    /**
+     * Checks if an API call extracts its fields while the response streams in.
+     *
+     * <p><b>Why:</b> The response cache stores raw bodies, so cached data sources keep
+     * buffering, as do batched data sources whose response is split by id. Fields with filter or wildcard paths need the whole document.</p>
+     *
+     * @param apiCall The API call configuration
+     * @return true if the streaming variant should be used
+     */
+    private boolean useStreaming(ApiCall apiCall) {
+        return streamingEnabled
+                && !ApiResponseCache.isEnabled(apiCall.getDataSource().getCache())
+                && apiCall.getDataSource().getBatch() == null
+                && fieldExtractor.supportsStreaming(apiCall);
+    }
+
+    /**
+     * Shares a call with identical calls of the same enquiry, if the enquiry has an
+     * {@link ExtractionSession}.
+     *
+     * @param requestKey Key identifying identical calls
+     * @param exchange Supplier of the call
+     * @return Mono of the (possibly shared) result
+     */
+    private <T> Mono<T> shareInSession(String requestKey, Supplier<Mono<T>> exchange) {
+        return Mono.deferContextual(ctx -> ExtractionSession.from(ctx)
+                .map(session -> session.share(requestKey, exchange))
+                .orElseGet(exchange));
+    }
+
+    /**
+     * Routes an API call through the response cache when its data source enables caching.
+     *
+     * <p><b>Why:</b> The cache key comes from {@code cache.keyPattern}, resolved against
+     * the context. A key with unresolved placeholders would mix up responses of
+     * different accounts, so such calls bypass the cache.</p>
+     *
+     * @param apiCall The API call configuration
+     * @param context The context map for key placeholder resolution
+     * @param exchange Supplier of the HTTP call
+     * @return Supplier of the cached or direct call
+     */
+    private Supplier<Mono<String>> withCache(
+            ApiCall apiCall,
+            Map<String, Object> context,
+            Supplier<Mono<String>> exchange) {
+
+        CacheConfig cacheConfig = apiCall.getDataSource().getCache();
+        if (!ApiResponseCache.isEnabled(cacheConfig) || cacheConfig.getKeyPattern() == null) {
+            return exchange;
+        }
+
+        PlaceholderTemplate.Rendered cacheKey = template(cacheConfig.getKeyPattern()).render(context);
+        if (!cacheKey.isComplete()) {
+            log.warn("Unresolved placeholders {} in cache key, not caching: {}",
+                    cacheKey.getMissing(), cacheConfig.getKeyPattern());
+            return exchange;
+        }
+
+        return () -> responseCache.get(apiCall.getApiId(), cacheConfig, cacheKey.getValue(), exchange);
+    }
 
-        return buildRequest(endpoint, url, context)
-                .retrieve()
-                .bodyToMono(String.class)
-                .timeout(Duration.ofMillis(getTimeout(endpoint)))
-                .map(body -> fieldExtractor.extractFields(body, apiCall));
+    /**
+     * Key identifying identical requests: method, resolved URL and resolved body.
+     * Headers are not part of the key since they carry per-call values such as correlationId.
+     */
+    private String requestKey(EndpointConfig endpoint, String url, String body) {
+        return endpoint.getMethod() + " " + url + (body != null ? "\n" + body : "");
     }
 
     /**
@@ -213,22 +462,49 @@ public class ApiCallExecutor {
      * headers and body if configured.</p>
      *
      * @param endpoint The endpoint configuration
-     * @param url The resolved URL (with placeholders filled in)
-     * @param context The context map for header/body placeholder resolution
+     * @param url The resolved URL (with placeholders filled in and values encoded)
+     * @param body The resolved request body, or null if none is sent
+     * @param context The context map for header placeholder resolution
      * @return A configured WebClient request spec
      */
     private WebClient.RequestHeadersSpec<?> buildRequest(
             EndpointConfig endpoint,
             String url,
+            String body,
             Map<String, Object> context) {
 
         WebClient.RequestBodySpec request = webClient
                 .method(HttpMethod.valueOf(endpoint.getMethod()))
-                .uri(url);
+                .uri(URI.create(url));
+
+        addHeaders(request, endpoint, context);
+
+        return addBody(request, body);
+    }
+
+    /**
+     * Builds a batch POST request with the headers of the single endpoint.
+     *
+     * @param endpoint The single endpoint configuration, for headers
+     * @param url The resolved batch URL
+     * @param body The JSON body with the batched ids
+     * @param context The context map for header placeholder resolution
+     * @return A configured WebClient request spec
+     */
+    private WebClient.RequestHeadersSpec<?> buildBatchRequest(
+            EndpointConfig endpoint,
+            String url,
+            String body,
+            Map<String, Object> context) {
+
+        WebClient.RequestBodySpec request = webClient
+                .post()
+                .uri(URI.create(url))
+                .contentType(MediaType.APPLICATION_JSON);
 
         addHeaders(request, endpoint, context);
 
-        return addBody(request, endpoint, context);
+        return addBody(request, body);
     }
 
     /**
@@ -267,26 +543,21 @@ public class ApiCallExecutor {
      * <p><b>What:</b> Attaches a body to the request if needed.</p>
      *
      * <p><b>Why:</b> POST and PUT requests typically require a request body.
-     * The body template may contain placeholders that need resolution.</p>
-     *
-     * <p><b>How:</b> Checks if the method requires a body, resolves placeholders
-     * in the body template, and attaches it to the request.</p>
+     * The body is resolved from its template before the request is built, since
+     * it is also part of the key used to share identical calls.</p>
      *
      * @param request The WebClient request to add body to
-     * @param endpoint The endpoint configuration containing the body template
-     * @param context The context map for placeholder resolution
+     * @param body The resolved body, or null if no body is needed
      * @return The request with body added (or unchanged if no body needed)
      */
     private WebClient.RequestHeadersSpec<?> addBody(
             WebClient.RequestBodySpec request,
-            EndpointConfig endpoint,
-            Map<String, Object> context) {
+            String body) {
 
-        if (!needsBody(endpoint)) {
+        if (body == null) {
             return request;
         }
 
-        String body = resolvePlaceholders(endpoint.getBody(), context);
         return request.bodyValue(body);
     }
 
@@ -317,14 +588,19 @@ public class ApiCallExecutor {
      * to fail the entire document retrieval. Default values allow graceful degradation.</p>
      *
      * <p><b>How:</b> Logs the error and delegates to FieldExtractor to get
-     * configured default values for the fields this API was supposed to provide.</p>
+     * configured default values for the fields this API was supposed to provide.
+     * Calls rejected by an open circuit or a full bulkhead end up here too.</p>
      *
      * @param apiCall The failed API call
      * @param e The exception that occurred
      * @return Mono containing default values for the API's fields
      */
     private Mono<Map<String, Object>> handleApiError(ApiCall apiCall, Throwable e) {
-        log.error("API call failed for {}: {}", apiCall.getApiId(), e.getMessage());
+        if (e instanceof DataSourceResilience.RejectedCallException) {
+            log.warn("API call skipped, using defaults: {}", e.getMessage());
+        } else {
+            log.error("API call failed for {}: {}", apiCall.getApiId(), e.getMessage());
+        }
         Map<String, Object> defaults = fieldExtractor.getDefaultValues(apiCall);
         return Mono.just(defaults);
     }
@@ -332,21 +608,13 @@ public class ApiCallExecutor {
     /**
      * Resolves placeholders in a template string using context values.
      *
-     * <p><b>What:</b> Replaces ${fieldName} patterns with actual values.</p>
+     * <p><b>What:</b> Replaces ${fieldName} patterns with actual values. Placeholders
+     * without a value are left as they are.</p>
      *
-     * <p><b>Why:</b> URLs and request bodies often contain placeholders like
+     * <p><b>Why:</b> Request bodies and header values often contain placeholders like
      * ${accountId} that need to be replaced with actual request values.</p>
      *
-     * <p><b>How:</b> Uses regex to find all ${...} patterns and replaces them
-     * with corresponding values from the context map.</p>
-     *
-     * <p><b>Example:</b>
-     * <pre>
-     * Template: "/api/accounts/${accountId}/details"
-     * Context: {accountId: "12345"}
-     * Result: "/api/accounts/12345/details"
-     * </pre>
-     * </p>
+     * <p><b>How:</b> Renders the compiled {@link PlaceholderTemplate} for the string.</p>
      *
      * @param template The string containing placeholders
      * @param context The map of values to substitute
@@ -356,41 +624,22 @@ public class ApiCallExecutor {
         if (template == null) {
             return null;
         }
-
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
-        StringBuffer result = new StringBuffer();
-
-        while (matcher.find()) {
-            String key = matcher.group(1);
-            Object value = context.get(key);
-
-            if (value != null) {
-                matcher.appendReplacement(result, value.toString());
-            }
-        }
-
-        matcher.appendTail(result);
-        return result.toString();
+        return template(template).render(context).getValue();
     }
 
     /**
-     * Checks if a URL still contains unresolved placeholders.
-     *
-     * <p><b>Why:</b> If placeholders remain after resolution, it means required
-     * data is missing. Making an API call with unresolved placeholders would fail.</p>
-     *
-     * @param url The URL to check
-     * @return true if unresolved placeholders exist
+     * Gets the compiled template for a string, compiling it on first use.
      */
-    private boolean hasUnresolvedPlaceholders(String url) {
-        return url != null && url.contains("${");
+    private PlaceholderTemplate template(String template) {
+        return templates.get(template, PlaceholderTemplate::compile);
     }
 
     /**
      * Gets the timeout for an API call.
      *
      * <p><b>Why:</b> Different APIs may need different timeouts. Slow APIs get
-     * longer timeouts, fast APIs get shorter ones for fail-fast behavior.</p>
+     * longer timeouts, fast APIs get shorter ones for fail-fast behavior. This is the
+     * upper bound; {@link DataSourceResilience} lowers it to fit the observed latency.</p>
      *
      * @param endpoint The endpoint configuration
      * @return Timeout in milliseconds
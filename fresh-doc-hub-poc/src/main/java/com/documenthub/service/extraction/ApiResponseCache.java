@@ -0,0 +1,208 @@
+package com.documenthub.service.extraction;
+
+import com.documenthub.model.extraction.CacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Caches API responses of data sources that enable {@link CacheConfig}.
+ *
+ * <p><b>What:</b> One bounded Caffeine cache per data source, holding raw response
+ * bodies keyed by the resolved {@code cache.keyPattern}. Each entry is fresh for the
+ * {@code cache.ttlSeconds} of its data source.</p>
+ *
+ * <p><b>Why:</b> Reference data such as disclosures or pricing changes rarely but is
+ * read by every enquiry. Caching it across enquiries removes most upstream calls.</p>
+ *
+ * <p><b>How:</b> Stale-while-revalidate: once an entry is older than its TTL it is
+ * still served for a grace period while a single background call refreshes it, so an
+ * expiring hot key does not send every concurrent enquiry to the upstream API at
+ * once. Entries past the grace period are evicted and the next call is a plain miss.
+ * Failed calls are never cached. Hit/miss/eviction stats of each cache are exposed
+ * through Micrometer as {@code documenthub.extraction.cache.*} tagged by data source.</p>
+ *
+ * @see ApiCallExecutor
+ */
+@Slf4j
+@Component
+public class ApiResponseCache {
+
+    private static final String METRIC_PREFIX = "documenthub.extraction.cache";
+
+    private final MeterRegistry meterRegistry;
+    private final Ticker ticker;
+    private final long maximumSize;
+    private final long defaultTtlNanos;
+    private final long staleWhileRevalidateNanos;
+    private final Map<String, Cache<String, CachedResponse>> caches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ApiResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.extraction.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.extraction.cache.default-ttl-seconds:300}") long defaultTtlSeconds,
+            @Value("${app.extraction.cache.stale-while-revalidate-seconds:30}") long staleWhileRevalidateSeconds) {
+        this(meterRegistry, Ticker.systemTicker(), maximumSize, defaultTtlSeconds, staleWhileRevalidateSeconds);
+    }
+
+    ApiResponseCache(
+            MeterRegistry meterRegistry,
+            Ticker ticker,
+            long maximumSize,
+            long defaultTtlSeconds,
+            long staleWhileRevalidateSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.ticker = ticker;
+        this.maximumSize = maximumSize;
+        this.defaultTtlNanos = Duration.ofSeconds(defaultTtlSeconds).toNanos();
+        this.staleWhileRevalidateNanos = Duration.ofSeconds(staleWhileRevalidateSeconds).toNanos();
+    }
+
+    /**
+     * Whether responses of a data source are cached.
+     */
+    public static boolean isEnabled(CacheConfig config) {
+        return config != null && Boolean.TRUE.equals(config.getEnabled());
+    }
+
+    /**
+     * Get a response from the cache, calling the API on a miss.
+     *
+     * @param dataSourceId Data source the response belongs to
+     * @param config Cache configuration of the data source
+     * @param key Resolved cache key
+     * @param call Supplier of the API call
+     * @return Mono of the response body
+     */
+    public Mono<String> get(String dataSourceId, CacheConfig config, String key, Supplier<Mono<String>> call) {
+        Cache<String, CachedResponse> cache = cacheFor(dataSourceId);
+        long ttlNanos = ttlNanos(config);
+
+        return Mono.defer(() -> {
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached == null) {
+                log.debug("Extraction cache miss: {} {}", dataSourceId, key);
+                return call.get().doOnNext(body -> cache.put(key, new CachedResponse(body, ticker.read(), ttlNanos)));
+            }
+            if (!cached.isFresh(ticker.read()) && cached.startRevalidation()) {
+                revalidate(dataSourceId, cache, key, cached, call, ttlNanos);
+            }
+            return Mono.just(cached.getBody());
+        });
+    }
+
+    /**
+     * Refresh a stale entry in the background; the stale body is served meanwhile.
+     */
+    private void revalidate(
+            String dataSourceId,
+            Cache<String, CachedResponse> cache,
+            String key,
+            CachedResponse stale,
+            Supplier<Mono<String>> call,
+            long ttlNanos) {
+
+        log.debug("Extraction cache revalidating stale entry: {} {}", dataSourceId, key);
+        meterRegistry.counter(METRIC_PREFIX + ".revalidations", "dataSource", dataSourceId).increment();
+        call.get().subscribe(
+            body -> cache.put(key, new CachedResponse(body, ticker.read(), ttlNanos)),
+            e -> {
+                log.warn("Extraction cache revalidation failed for {}: {}", dataSourceId, e.getMessage());
+                stale.revalidationFailed();
+            });
+    }
+
+    private Cache<String, CachedResponse> cacheFor(String dataSourceId) {
+        return caches.computeIfAbsent(dataSourceId, id -> {
+            Cache<String, CachedResponse> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new StaleWhileRevalidateExpiry())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, METRIC_PREFIX, "dataSource", id);
+            return cache;
+        });
+    }
+
+    private long ttlNanos(CacheConfig config) {
+        Integer ttlSeconds = config.getTtlSeconds();
+        return ttlSeconds != null && ttlSeconds > 0 ? Duration.ofSeconds(ttlSeconds).toNanos() : defaultTtlNanos;
+    }
+
+    /**
+     * Keeps each entry for its own TTL plus the stale-while-revalidate grace period.
+     */
+    private class StaleWhileRevalidateExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.getTtlNanos() + staleWhileRevalidateNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.getTtlNanos() + staleWhileRevalidateNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * A cached response body with the time it was fetched.
+     */
+    private static final class CachedResponse {
+
+        private final String body;
+        private final long fetchedAt;
+        private final long ttlNanos;
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        CachedResponse(String body, long fetchedAt, long ttlNanos) {
+            this.body = body;
+            this.fetchedAt = fetchedAt;
+            this.ttlNanos = ttlNanos;
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        long getTtlNanos() {
+            return ttlNanos;
+        }
+
+        boolean isFresh(long now) {
+            return now - fetchedAt < ttlNanos;
+        }
+
+        /**
+         * @return true for the one caller that should refresh this entry
+         */
+        boolean startRevalidation() {
+            return revalidating.compareAndSet(false, true);
+        }
+
+        void revalidationFailed() {
+            revalidating.set(false);
+        }
+    }
+}
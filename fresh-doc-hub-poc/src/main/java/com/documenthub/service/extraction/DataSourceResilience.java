@@ -0,0 +1,382 @@
+package com.documenthub.service.extraction;
+
+import com.documenthub.model.extraction.RetryConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead, circuit breaker, retries and adaptive timeout per data source.
+ *
+ * <p><b>What:</b> Every HTTP exchange of an extraction call runs through the state of
+ * its data source (apiId):
+ * <ul>
+ *   <li><b>Bulkhead:</b> at most maxConcurrentCalls exchanges at a time; further calls
+ *       are rejected at once instead of queueing for a connection.</li>
+ *   <li><b>Circuit breaker:</b> opens when the failure rate of the last calls reaches the
+ *       threshold, rejects calls while open, then lets one trial call through.</li>
+ *   <li><b>Retries:</b> up to {@code retry.maxAttempts} retries, starting after
+ *       {@code retry.delayMs} with jittered exponential backoff, for timeouts,
+ *       connection errors, 5xx and 429.</li>
+ *   <li><b>Adaptive timeout:</b> a multiple of the p99 latency observed over the last
+ *       {@link #LATENCY_WINDOW}, between a floor and the endpoint timeout. Timed out calls
+ *       count at their timeout, so the timeout grows back when the upstream slows down.
+ *       Without enough recent calls the endpoint timeout is used.</li>
+ * </ul>
+ * Rejected calls fail with {@link RejectedCallException}, which ApiCallExecutor turns
+ * into the default values of the fields, like any failed call.</p>
+ *
+ * <p><b>Why:</b> All data sources share one connection pool. Without isolation one
+ * slow upstream holds connections until its timeout and stalls every enquiry.</p>
+ *
+ * <p><b>How:</b> State is kept per apiId and published as metrics tagged with
+ * dataSource: {@code documenthub.extraction.latency} (with p99),
+ * {@code .timeout}, {@code .bulkhead.active}, {@code .circuit.state}
+ * (0 closed, 1 open, 2 half-open), {@code .rejected} (by reason) and {@code .retries}.
+ * Settings are in {@link ExtractionResilienceConfig}.</p>
+ *
+ * @see ApiCallExecutor
+ */
+@Slf4j
+@Component
+public class DataSourceResilience {
+
+    private static final String METRIC_PREFIX = "documenthub.extraction";
+
+    /** Delay before the first retry when the retry config has no delayMs. */
+    private static final long DEFAULT_RETRY_DELAY_MS = 100;
+
+    /** The p99 latency is read from the timer at most this often. */
+    private static final long TIMEOUT_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Period the p99 latency is computed over, rotated in {@link #LATENCY_WINDOW_BUCKETS} steps. */
+    static final Duration LATENCY_WINDOW = Duration.ofMinutes(2);
+    static final int LATENCY_WINDOW_BUCKETS = 3;
+    private static final long LATENCY_BUCKET_NANOS = LATENCY_WINDOW.toNanos() / LATENCY_WINDOW_BUCKETS;
+
+    private final MeterRegistry meterRegistry;
+    private final ExtractionResilienceConfig config;
+    private final LongSupplier nanoTime;
+    private final Map<String, DataSourceState> states = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DataSourceResilience(MeterRegistry meterRegistry, ExtractionResilienceConfig config) {
+        this(meterRegistry, config, System::nanoTime);
+    }
+
+    DataSourceResilience(MeterRegistry meterRegistry, ExtractionResilienceConfig config, LongSupplier nanoTime) {
+        this.meterRegistry = meterRegistry;
+        this.config = config;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Run the exchange of an API call with the protections of its data source.
+     *
+     * @param apiCall The API call; its apiId identifies the data source
+     * @param configuredTimeoutMs Timeout of the endpoint, the upper bound of the adaptive timeout
+     * @param exchange Supplier of one attempt of the HTTP exchange
+     * @return Mono of the response, or an error if rejected or failed after retries
+     */
+    public <T> Mono<T> execute(ApiCall apiCall, long configuredTimeoutMs, Supplier<Mono<T>> exchange) {
+        DataSourceState state = states.computeIfAbsent(apiCall.getApiId(), DataSourceState::new);
+        Mono<T> attempt = Mono.defer(() -> state.attempt(exchange, configuredTimeoutMs));
+
+        RetryConfig retry = apiCall.getDataSource().getRetry();
+        if (retry == null || retry.getMaxAttempts() == null || retry.getMaxAttempts() <= 0) {
+            return attempt;
+        }
+
+        // maxAttempts counts retries, see DATA_EXTRACTION_CONFIG_SCHEMA.md
+        long delayMs = retry.getDelayMs() != null ? retry.getDelayMs() : DEFAULT_RETRY_DELAY_MS;
+        return attempt.retryWhen(Retry.backoff(retry.getMaxAttempts(), Duration.ofMillis(delayMs))
+                .jitter(0.5)
+                .filter(DataSourceResilience::isFailure)
+                .doBeforeRetry(signal -> {
+                    state.retries.increment();
+                    log.warn("Retrying {}, attempt {}: {}", apiCall.getApiId(),
+                            signal.totalRetries() + 2, signal.failure().getMessage());
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    /**
+     * Whether an error means the upstream is unhealthy: it counts against the circuit
+     * and is retried. 4xx responses other than 429 are the caller's problem.
+     */
+    static boolean isFailure(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) e).getRawStatusCode();
+            return status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    /**
+     * Current timeout of a data source in milliseconds, or -1 if it was never called.
+     */
+    long currentTimeoutMs(String apiId) {
+        DataSourceState state = states.get(apiId);
+        return state != null ? state.timeoutMs : -1;
+    }
+
+    /**
+     * Call rejected without reaching the upstream, because the bulkhead is full or the
+     * circuit is open.
+     */
+    public static class RejectedCallException extends RuntimeException {
+
+        public RejectedCallException(String message) {
+            super(message);
+        }
+    }
+
+    private enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Bulkhead, circuit and latency of one data source.
+     */
+    private final class DataSourceState {
+
+        private final String apiId;
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer latency;
+        private final Counter retries;
+        private final Counter bulkheadRejections;
+        private final Counter circuitRejections;
+
+        /** Outcomes of the last calls, true for failures; guarded by this. */
+        private final boolean[] window;
+        private int windowPosition;
+        private int windowCount;
+        private int windowFailures;
+        private volatile CircuitState circuit = CircuitState.CLOSED;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        private volatile long timeoutMs;
+        private volatile long p99Ms = -1;
+        private volatile long p99ReadAt;
+
+        /** Latency samples per rotation of the p99 window, by bucket epoch; guarded by itself. */
+        private final long[] sampleCounts = new long[LATENCY_WINDOW_BUCKETS];
+        private final long[] sampleEpochs = new long[LATENCY_WINDOW_BUCKETS];
+
+        DataSourceState(String apiId) {
+            this.apiId = apiId;
+            this.window = new boolean[Math.max(1, config.getCircuitWindowSize())];
+            this.p99ReadAt = nanoTime.getAsLong() - TIMEOUT_REFRESH_NANOS;
+
+            this.latency = Timer.builder(METRIC_PREFIX + ".latency")
+                    .tag("dataSource", apiId)
+                    .publishPercentiles(0.99)
+                    .distributionStatisticExpiry(LATENCY_WINDOW)
+                    .distributionStatisticBufferLength(LATENCY_WINDOW_BUCKETS)
+                    .register(meterRegistry);
+            this.retries = meterRegistry.counter(METRIC_PREFIX + ".retries", "dataSource", apiId);
+            this.bulkheadRejections = meterRegistry.counter(
+                    METRIC_PREFIX + ".rejected", "dataSource", apiId, "reason", "bulkhead");
+            this.circuitRejections = meterRegistry.counter(
+                    METRIC_PREFIX + ".rejected", "dataSource", apiId, "reason", "circuit_open");
+            Gauge.builder(METRIC_PREFIX + ".bulkhead.active", active, AtomicInteger::get)
+                    .tag("dataSource", apiId)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".circuit.state", this, state -> state.circuit.ordinal())
+                    .tag("dataSource", apiId)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".timeout", this, state -> state.timeoutMs)
+                    .tag("dataSource", apiId)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        <T> Mono<T> attempt(Supplier<Mono<T>> exchange, long configuredTimeoutMs) {
+            if (active.incrementAndGet() > config.getMaxConcurrentCalls()) {
+                active.decrementAndGet();
+                bulkheadRejections.increment();
+                return Mono.error(new RejectedCallException("Bulkhead full for " + apiId));
+            }
+            if (!tryAcquirePermission()) {
+                active.decrementAndGet();
+                circuitRejections.increment();
+                return Mono.error(new RejectedCallException("Circuit open for " + apiId));
+            }
+
+            long timeout = timeoutMs(configuredTimeoutMs);
+            long start = nanoTime.getAsLong();
+            return exchange.get()
+                    .timeout(Duration.ofMillis(timeout))
+                    .doOnSuccess(response -> {
+                        recordLatency(nanoTime.getAsLong() - start);
+                        onResult(false);
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof WebClientResponseException) {
+                            recordLatency(nanoTime.getAsLong() - start);
+                        } else if (e instanceof TimeoutException) {
+                            // The upstream took at least this long
+                            recordLatency(TimeUnit.MILLISECONDS.toNanos(timeout));
+                        }
+                        onResult(isFailure(e));
+                    })
+                    .doFinally(signal -> {
+                        active.decrementAndGet();
+                        if (signal == SignalType.CANCEL) {
+                            onCancel();
+                        }
+                    });
+        }
+
+        private long timeoutMs(long configuredTimeoutMs) {
+            long now = nanoTime.getAsLong();
+            if (now - p99ReadAt >= TIMEOUT_REFRESH_NANOS) {
+                p99ReadAt = now;
+                p99Ms = observedP99Ms();
+            }
+
+            long timeout = configuredTimeoutMs;
+            if (p99Ms >= 0) {
+                long adaptive = Math.max(config.getTimeoutFloorMs(),
+                        Math.round(p99Ms * config.getTimeoutP99Multiplier()));
+                timeout = Math.min(configuredTimeoutMs, adaptive);
+            }
+            timeoutMs = timeout;
+            return timeout;
+        }
+
+        /**
+         * p99 latency of the current window in milliseconds, or -1 if the window has too
+         * few samples. The lifetime count of the timer would keep trusting a p99 of 0 once
+         * an idle window has emptied the percentile.
+         */
+        private long observedP99Ms() {
+            if (recentSamples() < config.getTimeoutMinimumSamples()) {
+                return -1;
+            }
+            ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+            long p99 = percentiles.length > 0 ? (long) Math.ceil(percentiles[0].value(TimeUnit.MILLISECONDS)) : -1;
+            return p99 > 0 ? p99 : -1;
+        }
+
+        private void recordLatency(long nanos) {
+            latency.record(nanos, TimeUnit.NANOSECONDS);
+
+            long epoch = nanoTime.getAsLong() / LATENCY_BUCKET_NANOS;
+            int bucket = (int) Math.floorMod(epoch, (long) LATENCY_WINDOW_BUCKETS);
+            synchronized (sampleCounts) {
+                if (sampleEpochs[bucket] != epoch) {
+                    sampleEpochs[bucket] = epoch;
+                    sampleCounts[bucket] = 0;
+                }
+                sampleCounts[bucket]++;
+            }
+        }
+
+        /**
+         * Samples recorded in the last {@link #LATENCY_WINDOW_BUCKETS} rotations, which the
+         * timer's percentile window still holds.
+         */
+        private long recentSamples() {
+            long epoch = nanoTime.getAsLong() / LATENCY_BUCKET_NANOS;
+            long samples = 0;
+            synchronized (sampleCounts) {
+                for (int i = 0; i < LATENCY_WINDOW_BUCKETS; i++) {
+                    if (epoch - sampleEpochs[i] < LATENCY_WINDOW_BUCKETS) {
+                        samples += sampleCounts[i];
+                    }
+                }
+            }
+            return samples;
+        }
+
+        private synchronized boolean tryAcquirePermission() {
+            if (circuit == CircuitState.CLOSED) {
+                return true;
+            }
+            if (circuit == CircuitState.OPEN) {
+                if (nanoTime.getAsLong() - openedAt < TimeUnit.SECONDS.toNanos(config.getCircuitOpenSeconds())) {
+                    return false;
+                }
+                circuit = CircuitState.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        private synchronized void onResult(boolean failure) {
+            if (circuit == CircuitState.HALF_OPEN) {
+                trialInFlight = false;
+                if (failure) {
+                    open();
+                } else {
+                    close();
+                }
+                return;
+            }
+            if (circuit == CircuitState.OPEN) {
+                // Completion of a call started before the circuit opened
+                return;
+            }
+
+            if (windowCount == window.length) {
+                windowFailures -= window[windowPosition] ? 1 : 0;
+            } else {
+                windowCount++;
+            }
+            window[windowPosition] = failure;
+            windowFailures += failure ? 1 : 0;
+            windowPosition = (windowPosition + 1) % window.length;
+
+            if (windowCount >= config.getCircuitMinimumCalls()
+                    && windowFailures * 100 >= config.getCircuitFailureRatePercent() * windowCount) {
+                open();
+            }
+        }
+
+        private synchronized void onCancel() {
+            if (circuit == CircuitState.HALF_OPEN) {
+                trialInFlight = false;
+            }
+        }
+
+        private void open() {
+            log.warn("Circuit opened for {}: {} of the last {} calls failed", apiId, windowFailures, windowCount);
+            circuit = CircuitState.OPEN;
+            openedAt = nanoTime.getAsLong();
+        }
+
+        private void close() {
+            log.info("Circuit closed for {}", apiId);
+            circuit = CircuitState.CLOSED;
+            windowPosition = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.documenthub.service.extraction;
+
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a whole extraction plan must be done.
+ *
+ * <p>Built from {@code executionStrategy.timeout} when a plan starts. Each call waits at
+ * most the remaining budget, so a plan of sequential calls cannot exceed it. Call timeouts
+ * of the data sources are left alone: the deadline of one enquiry says nothing about
+ * the upstream. Time is read from the parallel scheduler, the one Reactor's timeout
+ * operator uses.</p>
+ */
+final class ExtractionDeadline {
+
+    /** No plan deadline: calls only use their endpoint timeouts. */
+    static final ExtractionDeadline NONE = new ExtractionDeadline(Long.MAX_VALUE);
+
+    private final long deadlineMillis;
+
+    private ExtractionDeadline(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Deadline in timeoutMs from now.
+     */
+    static ExtractionDeadline in(long timeoutMs) {
+        return new ExtractionDeadline(now() + timeoutMs);
+    }
+
+    boolean isBounded() {
+        return this != NONE;
+    }
+
+    /**
+     * Milliseconds left, 0 once the deadline has passed.
+     */
+    long remainingMillis() {
+        if (!isBounded()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadlineMillis - now());
+    }
+
+    boolean isExpired() {
+        return remainingMillis() == 0;
+    }
+
+    private static long now() {
+        return Schedulers.parallel().now(TimeUnit.MILLISECONDS);
+    }
+}
@@ -2,11 +2,12 @@ package com.documenthub.service.extraction;
 
 import com.documenthub.model.extraction.DataSourceConfig;
 import com.documenthub.model.extraction.FieldSourceConfig;
-import lombok.Getter;
-
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents an ordered execution plan for data extraction.
@@ -21,13 +22,18 @@ import java.util.Map;
  *
  * <p><b>How:</b> Built by {@link ExtractionPlanBuilder} which analyzes
  * field dependencies and determines the correct order. The plan is then
- * executed by {@link ApiCallExecutor} which handles the actual HTTP calls.</p>
+ * executed by {@link ApiCallExecutor} which handles the actual HTTP calls.
+ * Each call records the calls it depends on and its dependency level, so
+ * independent calls can run concurrently.</p>
+ *
+ * <p>Plans returned by {@link ExtractionPlanBuilder#buildPlan} are cached and shared
+ * by concurrent enquiries; they are read-only once built.</p>
  *
  * <p><b>Example Usage:</b>
  * <pre>
  * ExtractionPlan plan = planBuilder.buildPlan(config, context);
  * if (!plan.isEmpty()) {
- *     return apiCallExecutor.executeSequential(plan, context);
+ *     return apiCallExecutor.executeDag(plan, context);
  * }
  * </pre>
  * </p>
@@ -36,7 +42,6 @@ import java.util.Map;
  * @see ApiCallExecutor
  * @see ApiCall
  */
-@Getter
 public class ExtractionPlan {
 
     /**
@@ -45,6 +50,15 @@ public class ExtractionPlan {
      */
     private final List<ApiCall> apiCalls = new ArrayList<>();
 
+    /**
+     * Returns the API calls of the plan, in a valid execution order.
+     *
+     * @return Read-only view of the API calls
+     */
+    public List<ApiCall> getApiCalls() {
+        return Collections.unmodifiableList(apiCalls);
+    }
+
     /**
      * Adds an API call to the execution plan.
      *
@@ -68,6 +82,60 @@ public class ExtractionPlan {
         apiCalls.add(new ApiCall(apiId, dataSource, fieldSources));
     }
 
+    /**
+     * Adds an API call that needs the output of other calls in the plan.
+     *
+     * <p><b>What:</b> Creates and adds an ApiCall with its dependencies and
+     * dependency level.</p>
+     *
+     * <p><b>Why:</b> Knowing which calls an API waits for lets the executor run
+     * every call as soon as its inputs are available.</p>
+     *
+     * <p><b>How:</b> Dependencies must already be in the plan, so the list stays in
+     * a valid execution order. The level is one more than the highest dependency level.</p>
+     *
+     * @param apiId Unique identifier for the API (e.g., "product-api")
+     * @param dataSource Configuration for the API endpoint
+     * @param fieldSources Map of field names to their extraction configurations
+     * @param dependsOn apiIds of calls in the plan that provide this API's inputs
+     */
+    public void addApiCall(
+            String apiId,
+            DataSourceConfig dataSource,
+            Map<String, FieldSourceConfig> fieldSources,
+            Set<String> dependsOn) {
+
+        Map<String, Integer> levels = new HashMap<>();
+        apiCalls.forEach(call -> levels.put(call.getApiId(), call.getLevel()));
+
+        int level = 0;
+        for (String dependency : dependsOn) {
+            Integer dependencyLevel = levels.get(dependency);
+            if (dependencyLevel == null) {
+                throw new IllegalArgumentException(
+                        "API '" + apiId + "' depends on '" + dependency + "' which is not in the plan");
+            }
+            level = Math.max(level, dependencyLevel + 1);
+        }
+
+        apiCalls.add(new ApiCall(apiId, dataSource, fieldSources, Set.copyOf(dependsOn), level));
+    }
+
+    /**
+     * Returns the number of dependency levels (waves) of the plan.
+     *
+     * <p><b>Why:</b> This is the number of sequential round trips needed when
+     * independent calls run concurrently, useful for logging.</p>
+     *
+     * @return Highest call level plus one, or 0 for an empty plan
+     */
+    public int getLevelCount() {
+        return apiCalls.stream()
+                .mapToInt(ApiCall::getLevel)
+                .max()
+                .orElse(-1) + 1;
+    }
+
     /**
      * Checks if the plan has any API calls.
      *
@@ -3,13 +3,21 @@ package com.documenthub.service.extraction;
 import com.documenthub.model.extraction.DataExtractionConfig;
 import com.documenthub.model.extraction.DataSourceConfig;
 import com.documenthub.model.extraction.FieldSourceConfig;
+import com.documenthub.placeholder.PlaceholderTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Builds extraction plans that determine which APIs to call and in what order.
@@ -34,7 +42,13 @@ import java.util.Set;
  *   <li>Mark the API's output fields as available</li>
  *   <li>Repeat until all fields are covered or no progress can be made</li>
  * </ol>
- * </p>
+ * Each API records which earlier APIs provide its inputs, so the executor can
+ * run independent APIs concurrently.</p>
+ *
+ * <p>A plan only depends on the config and on which keys the context holds, so
+ * plans are cached per config instance and context key set. Configs are parsed
+ * once per template version, and {@link #validate} reports configs that can never
+ * be fully planned when the template is loaded.</p>
  *
  * <p><b>Example:</b>
  * <pre>
@@ -48,8 +62,9 @@ import java.util.Set;
  * Context: { accountId: "123" }
  *
  * Result Plan:
- *   1. Call account-api (has accountId) -> provides disclosureCode
+ *   1. Call account-api (has accountId) -> provides disclosureCode (level 0)
  *   2. Call product-api (now has disclosureCode) -> provides productName
+ *      (level 1, depends on account-api)
  * </pre>
  * </p>
  *
@@ -67,6 +82,14 @@ public class ExtractionPlanBuilder {
      */
     private static final int MAX_ITERATIONS = 10;
 
+    /**
+     * Plans built so far, by config instance (weak, identity) and context key set.
+     */
+    private final Cache<DataExtractionConfig, Map<Set<String>, ExtractionPlan>> plans = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(1000)
+            .build();
+
     /**
      * Builds an execution plan for data extraction.
      *
@@ -75,8 +98,10 @@ public class ExtractionPlanBuilder {
      * <p><b>Why:</b> Before executing API calls, we need to determine which
      * APIs to call and in what order to satisfy field dependencies.</p>
      *
-     * <p><b>How:</b> Iteratively processes fields, adding APIs to the plan
-     * when their required inputs are available, until all fields are covered.</p>
+     * <p><b>How:</b> Returns the cached plan for this config and the keys of the
+     * context. Otherwise iteratively processes fields, adding APIs to the plan
+     * when their required inputs are available, until all fields are covered.
+     * The returned plan is shared and must not be modified.</p>
      *
      * @param config The data extraction configuration from the template
      * @param availableContext Initial context with values from the request
@@ -86,27 +111,64 @@ public class ExtractionPlanBuilder {
             DataExtractionConfig config,
             Map<String, Object> availableContext) {
 
+        return plans.get(config, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(Set.copyOf(availableContext.keySet()), contextKeys -> {
+                    List<String> problems = new ArrayList<>();
+                    ExtractionPlan plan = plan(config, contextKeys, problems);
+                    log.debug("Planned {} API call(s) in {} level(s) for context {}, problems: {}",
+                            plan.size(), plan.getLevelCount(), new TreeSet<>(contextKeys), problems);
+                    return plan;
+                });
+    }
+
+    /**
+     * Checks that every field of a config can be planned.
+     *
+     * <p><b>What:</b> Lists the fields that could never be extracted.</p>
+     *
+     * <p><b>Why:</b> Missing source configs, undefined data sources, circular
+     * dependencies and inputs nobody provides are config errors. They should be
+     * reported once when the template is loaded, not on every enquiry.</p>
+     *
+     * <p><b>How:</b> Plans the config with every request field available.</p>
+     *
+     * @param config The data extraction configuration from the template
+     * @param requestFields Context keys the request can provide
+     * @return One message per problem; empty if the config is valid
+     */
+    public static List<String> validate(DataExtractionConfig config, Set<String> requestFields) {
+        if (config.getFieldsToExtract() == null || config.getFieldSources() == null) {
+            return List.of("fieldsToExtract and fieldSources are required");
+        }
+        List<String> problems = new ArrayList<>();
+        plan(config, requestFields, problems);
+        return Collections.unmodifiableList(problems);
+    }
+
+    private static ExtractionPlan plan(
+            DataExtractionConfig config,
+            Set<String> contextKeys,
+            List<String> problems) {
+
         ExtractionPlan plan = new ExtractionPlan();
         Set<String> fieldsToExtract = new HashSet<>(config.getFieldsToExtract());
-        Set<String> availableFields = new HashSet<>(availableContext.keySet());
+        Set<String> availableFields = new HashSet<>(contextKeys);
         Set<String> processedApis = new HashSet<>();
-
-        log.debug("Planning extraction for fields: {}", fieldsToExtract);
+        Map<String, String> providerByField = new HashMap<>();
 
         int iterations = 0;
         while (!fieldsToExtract.isEmpty() && iterations < MAX_ITERATIONS) {
             iterations++;
             boolean progressMade = processIteration(
                     config, plan, fieldsToExtract,
-                    availableFields, processedApis);
+                    availableFields, processedApis, providerByField, problems);
 
             if (!progressMade) {
-                log.warn("Cannot make progress. Remaining: {}", fieldsToExtract);
                 break;
             }
         }
 
-        logUnextractedFields(fieldsToExtract);
+        addUnextractedFields(config, fieldsToExtract, availableFields, problems);
         return plan;
     }
 
@@ -127,14 +189,18 @@ public class ExtractionPlanBuilder {
      * @param fieldsToExtract Set of fields still needing extraction
      * @param availableFields Set of fields currently available
      * @param processedApis Set of APIs already added to the plan
+     * @param providerByField API in the plan providing each field not in the request
+     * @param problems List to add config problems to
      * @return true if any progress was made (fields were processed)
      */
-    private boolean processIteration(
+    private static boolean processIteration(
             DataExtractionConfig config,
             ExtractionPlan plan,
             Set<String> fieldsToExtract,
             Set<String> availableFields,
-            Set<String> processedApis) {
+            Set<String> processedApis,
+            Map<String, String> providerByField,
+            List<String> problems) {
 
         boolean progressMade = false;
 
@@ -142,7 +208,7 @@ public class ExtractionPlanBuilder {
             FieldSourceConfig fieldSource = config.getFieldSources().get(fieldName);
 
             if (fieldSource == null) {
-                log.warn("No source config for field: {}", fieldName);
+                problems.add("No source config for field '" + fieldName + "'");
                 fieldsToExtract.remove(fieldName);
                 continue;
             }
@@ -150,7 +216,7 @@ public class ExtractionPlanBuilder {
             if (hasRequiredInputs(fieldSource, availableFields)) {
                 progressMade = tryAddApiCall(
                         config, plan, fieldSource, fieldName,
-                        availableFields, processedApis, fieldsToExtract);
+                        availableFields, processedApis, providerByField, fieldsToExtract, problems);
             }
         }
 
@@ -166,7 +232,8 @@ public class ExtractionPlanBuilder {
      * to call each API once, even if it provides multiple fields.</p>
      *
      * <p><b>How:</b> Checks if the API is already in the plan. If not, adds it
-     * and marks all its output fields as available for subsequent iterations.</p>
+     * with the APIs providing its inputs, and marks all its output fields as
+     * available for subsequent iterations.</p>
      *
      * @param config The extraction configuration
      * @param plan The plan being built
@@ -174,17 +241,21 @@ public class ExtractionPlanBuilder {
      * @param fieldName Name of the field being processed
      * @param availableFields Set to update with newly available fields
      * @param processedApis Set to track APIs already in the plan
+     * @param providerByField Map to update with the fields this API provides first
      * @param fieldsToExtract Set to remove processed fields from
+     * @param problems List to add config problems to
      * @return true (always makes progress by removing the field)
      */
-    private boolean tryAddApiCall(
+    private static boolean tryAddApiCall(
             DataExtractionConfig config,
             ExtractionPlan plan,
             FieldSourceConfig fieldSource,
             String fieldName,
             Set<String> availableFields,
             Set<String> processedApis,
-            Set<String> fieldsToExtract) {
+            Map<String, String> providerByField,
+            Set<String> fieldsToExtract,
+            List<String> problems) {
 
         String apiId = fieldSource.getSourceApi();
 
@@ -192,11 +263,18 @@ public class ExtractionPlanBuilder {
             DataSourceConfig dataSource = config.getDataSources().get(apiId);
 
             if (dataSource != null) {
-                plan.addApiCall(apiId, dataSource, config.getFieldSources());
+                Set<String> dependsOn = findDependencies(config, apiId, dataSource, providerByField);
+                plan.addApiCall(apiId, dataSource, config.getFieldSources(), dependsOn);
                 processedApis.add(apiId);
-                availableFields.addAll(dataSource.getProvidesFields());
+                for (String provided : dataSource.getProvidesFields()) {
+                    if (availableFields.add(provided)) {
+                        providerByField.put(provided, apiId);
+                    }
+                }
 
-                log.debug("Added API '{}' to plan", apiId);
+                log.debug("Added API '{}' to plan, depends on {}", apiId, dependsOn);
+            } else {
+                problems.add("Data source '" + apiId + "' of field '" + fieldName + "' is not defined");
             }
         }
 
@@ -204,6 +282,62 @@ public class ExtractionPlanBuilder {
         return true;
     }
 
+    /**
+     * Finds the APIs already in the plan that provide the inputs of an API.
+     *
+     * <p><b>What:</b> Collects the providers of every value the API reads.</p>
+     *
+     * <p><b>Why:</b> An API may only start once these providers have completed.
+     * Values from the request are available from the start and add no dependency.</p>
+     *
+     * <p><b>How:</b> Inputs are the requiredInputs of all fields sourced from this
+     * API, plus the ${...} placeholders in its URL, headers and body, since those
+     * are resolved from the context when the call is made.</p>
+     *
+     * @param config The extraction configuration
+     * @param apiId The API being added
+     * @param dataSource The API's data source configuration
+     * @param providerByField API in the plan providing each field not in the request
+     * @return apiIds the API depends on
+     */
+    private static Set<String> findDependencies(
+            DataExtractionConfig config,
+            String apiId,
+            DataSourceConfig dataSource,
+            Map<String, String> providerByField) {
+
+        Set<String> inputs = new HashSet<>();
+        config.getFieldSources().values().stream()
+                .filter(source -> apiId.equals(source.getSourceApi()))
+                .filter(source -> source.getRequiredInputs() != null)
+                .forEach(source -> inputs.addAll(source.getRequiredInputs()));
+
+        if (dataSource.getEndpoint() != null) {
+            addPlaceholders(dataSource.getEndpoint().getUrl(), inputs);
+            addPlaceholders(dataSource.getEndpoint().getBody(), inputs);
+            if (dataSource.getEndpoint().getHeaders() != null) {
+                dataSource.getEndpoint().getHeaders().values()
+                        .forEach(value -> addPlaceholders(value, inputs));
+            }
+        }
+
+        Set<String> dependsOn = new HashSet<>();
+        for (String input : inputs) {
+            String provider = providerByField.get(input);
+            if (provider != null && !provider.equals(apiId)) {
+                dependsOn.add(provider);
+            }
+        }
+        return dependsOn;
+    }
+
+    private static void addPlaceholders(String template, Set<String> inputs) {
+        if (template == null) {
+            return;
+        }
+        inputs.addAll(PlaceholderTemplate.compile(template).getVariables());
+    }
+
     /**
      * Checks if all required inputs for a field are available.
      *
@@ -219,7 +353,7 @@ public class ExtractionPlanBuilder {
      * @param availableFields Set of currently available field names
      * @return true if all required inputs are available (or no inputs needed)
      */
-    private boolean hasRequiredInputs(
+    private static boolean hasRequiredInputs(
             FieldSourceConfig fieldSource,
             Set<String> availableFields) {
 
@@ -235,23 +369,37 @@ public class ExtractionPlanBuilder {
     }
 
     /**
-     * Logs a warning for fields that couldn't be planned for extraction.
+     * Reports fields that couldn't be planned for extraction.
      *
-     * <p><b>What:</b> Reports fields that remain after planning completes.</p>
+     * <p><b>What:</b> Adds a problem for each field that remains after planning.</p>
      *
      * <p><b>Why:</b> Remaining fields indicate configuration issues:
      * <ul>
-     *   <li>Missing data source definitions</li>
      *   <li>Circular dependencies between APIs</li>
      *   <li>Required inputs that are never provided</li>
      * </ul>
-     * Logging helps diagnose these configuration problems.</p>
+     * or, for a plan of one enquiry, request values that were not sent.</p>
      *
+     * @param config The extraction configuration
      * @param fieldsToExtract Set of fields that couldn't be planned
+     * @param availableFields Set of fields available at the end of planning
+     * @param problems List to add the problems to
      */
-    private void logUnextractedFields(Set<String> fieldsToExtract) {
-        if (!fieldsToExtract.isEmpty()) {
-            log.warn("Could not plan extraction for: {}", fieldsToExtract);
+    private static void addUnextractedFields(
+            DataExtractionConfig config,
+            Set<String> fieldsToExtract,
+            Set<String> availableFields,
+            List<String> problems) {
+
+        for (String fieldName : new TreeSet<>(fieldsToExtract)) {
+            List<String> missing = new ArrayList<>(config.getFieldSources().get(fieldName).getRequiredInputs());
+            missing.removeAll(availableFields);
+            if (missing.isEmpty()) {
+                problems.add("Field '" + fieldName + "' is more than " + MAX_ITERATIONS + " API calls deep");
+            } else {
+                problems.add("Inputs " + missing + " of field '" + fieldName
+                        + "' are never available (circular dependency or no provider)");
+            }
         }
     }
 }
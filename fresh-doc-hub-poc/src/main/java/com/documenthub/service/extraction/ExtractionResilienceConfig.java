@@ -0,0 +1,40 @@
+package com.documenthub.service.extraction;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the per-data-source bulkheads, circuit breakers and
+ * adaptive timeouts of extraction calls (see {@link DataSourceResilience}).
+ * Retries are configured per data source with {@code retry} in data_extraction_config.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.extraction.resilience")
+public class ExtractionResilienceConfig {
+
+    /** Concurrent calls allowed per data source; further calls are rejected. */
+    private int maxConcurrentCalls = 50;
+
+    /** Number of most recent calls the failure rate is computed over. */
+    private int circuitWindowSize = 20;
+
+    /** Calls needed in the window before the circuit may open. */
+    private int circuitMinimumCalls = 10;
+
+    /** Failure rate, in percent of the window, that opens the circuit. */
+    private int circuitFailureRatePercent = 50;
+
+    /** Time the circuit stays open before one trial call is let through. */
+    private int circuitOpenSeconds = 30;
+
+    /** Adaptive timeout as a multiple of the observed p99 latency, capped by the endpoint timeout. */
+    private double timeoutP99Multiplier = 2.0;
+
+    /** Lowest adaptive timeout. */
+    private int timeoutFloorMs = 100;
+
+    /** Calls to observe before the timeout adapts; until then the endpoint timeout is used. */
+    private int timeoutMinimumSamples = 20;
+}
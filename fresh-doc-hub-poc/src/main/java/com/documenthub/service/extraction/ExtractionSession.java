@@ -0,0 +1,108 @@
+package com.documenthub.service.extraction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Request-scoped memo of API responses shared by all data extractions of one enquiry.
+ *
+ * <p><b>What:</b> Holds one response {@link Mono} per distinct (method, URL, body) so
+ * that every template and account of an enquiry needing the same API response
+ * shares a single HTTP call.</p>
+ *
+ * <p><b>Why:</b> Templates are extracted independently, so when many templates read
+ * fields from the same account API, the same request would otherwise be sent once
+ * per template and account.</p>
+ *
+ * <p><b>How:</b> The session travels in the Reactor {@link Context} of the enquiry
+ * (see {@link #writeTo(Context)}). {@link ApiCallExecutor} looks it up and shares the
+ * raw response body via {@link SharedCall}; each template still extracts its own fields
+ * from it. A call that every template gave up on before it completed is cancelled.
+ * Without a session in the context, every call goes to the API.</p>
+ *
+ * <p>The session also collects per-id calls of data sources with a batch endpoint into
+ * batch requests ({@link ApiCallBatcher}).</p>
+ */
+@Slf4j
+public class ExtractionSession {
+
+    private static final Class<ExtractionSession> CONTEXT_KEY = ExtractionSession.class;
+
+    private final Map<String, Mono<?>> responses = new ConcurrentHashMap<>();
+    private final AtomicInteger requestedCalls = new AtomicInteger();
+    private final ApiCallBatcher batcher = new ApiCallBatcher();
+
+    /**
+     * Add this session to a Reactor context.
+     */
+    public Context writeTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * Get the session of the current enquiry, if any.
+     */
+    public static Optional<ExtractionSession> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    /**
+     * Get the shared response for a request key, starting the call on first use.
+     *
+     * @param requestKey Resolved method, URL and body of the call; keys must not be
+     *                   reused for results of a different type
+     * @param call Supplier of the HTTP call, used only for the first request of this key
+     * @return Mono of the response, shared by all callers with the same key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> share(String requestKey, Supplier<Mono<T>> call) {
+        requestedCalls.incrementAndGet();
+        return (Mono<T>) responses.computeIfAbsent(requestKey, key -> new SharedCall<>(call.get()).asMono());
+    }
+
+    /**
+     * Batcher for the per-id calls of this enquiry.
+     */
+    ApiCallBatcher getBatcher() {
+        return batcher;
+    }
+
+    public int getRequestedCalls() {
+        return requestedCalls.get();
+    }
+
+    public int getExecutedCalls() {
+        return responses.size();
+    }
+
+    /**
+     * Record how many calls were saved by sharing responses.
+     * Nothing is recorded for enquiries without API calls.
+     */
+    public void recordStats(MeterRegistry meterRegistry) {
+        int requested = getRequestedCalls();
+        if (requested == 0) {
+            return;
+        }
+        int executed = getExecutedCalls();
+        meterRegistry.counter("documenthub.extraction.calls", "result", "executed").increment(executed);
+        meterRegistry.counter("documenthub.extraction.calls", "result", "deduplicated")
+                .increment(requested - executed);
+        meterRegistry.summary("documenthub.extraction.dedupe.ratio")
+                .record((double) (requested - executed) / requested);
+        if (batcher.getBatchRequests() > 0) {
+            meterRegistry.counter("documenthub.extraction.batch.requests").increment(batcher.getBatchRequests());
+            meterRegistry.counter("documenthub.extraction.batch.ids").increment(batcher.getBatchedIds());
+        }
+        log.debug("Extraction session: {} API calls requested, {} executed", requested, executed);
+    }
+}
@@ -1,13 +1,22 @@
 package com.documenthub.service.extraction;
 
 import com.documenthub.model.extraction.FieldSourceConfig;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Extracts fields from API responses using JSONPath expressions.
@@ -19,10 +28,12 @@ import java.util.Map;
  * way to extract specific values without hardcoding the JSON structure. JSONPath
  * provides a query language for JSON similar to XPath for XML.</p>
  *
- * <p><b>How:</b> For each field defined in the API's configuration:
+ * <p><b>How:</b> The response body is parsed once per API call. Then, for each
+ * field defined in the API's configuration:
  * <ol>
  *   <li>Looks up the JSONPath expression from FieldSourceConfig</li>
- *   <li>Executes the JSONPath query against the response body</li>
+ *   <li>Executes the compiled JSONPath query against the parsed document
+ *       (each expression is compiled once and reused)</li>
  *   <li>Handles special cases (single-element arrays, nulls)</li>
  *   <li>Falls back to default values when extraction fails</li>
  * </ol>
@@ -43,6 +54,14 @@ import java.util.Map;
 @Slf4j
 public class FieldExtractor {
 
+    /**
+     * Compiled JSONPath expressions keyed by extraction path.
+     * Paths come from data_extraction_config, so the set is small and stable.
+     */
+    private final Map<String, JsonPath> compiledPaths = new ConcurrentHashMap<>();
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     /**
      * Extracts fields from an API response body.
      *
@@ -51,8 +70,9 @@ public class FieldExtractor {
      * <p><b>Why:</b> After an API call succeeds, we need to extract the specific
      * field values that this API provides (as defined in data_extraction_config).</p>
      *
-     * <p><b>How:</b> Iterates through all fields the API provides, attempts to
-     * extract each using its configured JSONPath, and tracks statistics for logging.</p>
+     * <p><b>How:</b> Parses the response body once (on the first field that needs it),
+     * then iterates through all fields the API provides, extracts each from the parsed
+     * document using its configured JSONPath, and tracks statistics for logging.</p>
      *
      * @param responseBody The raw JSON response from the API
      * @param apiCall The API call configuration containing field mappings
@@ -61,15 +81,119 @@ public class FieldExtractor {
     public Map<String, Object> extractFields(String responseBody, ApiCall apiCall) {
         Map<String, Object> extracted = new HashMap<>();
         ExtractionStats stats = new ExtractionStats();
+        ParsedResponse response = new ParsedResponse(responseBody);
 
         for (String fieldName : apiCall.getDataSource().getProvidesFields()) {
-            extractField(responseBody, apiCall, fieldName, extracted, stats);
+            extractField(response, apiCall, fieldName, extracted, stats);
         }
 
         logStats(stats);
         return extracted;
     }
 
+    /**
+     * Checks if the fields of an API call can be extracted while streaming the response.
+     *
+     * <p><b>What:</b> True when every configured extraction path of the API's fields is a
+     * simple definite path such as {@code $.account.status} or {@code $.content[0].domainId}.</p>
+     *
+     * <p><b>Why:</b> Filters, wildcards and deep scans need the whole document, so those
+     * fields are extracted from the buffered body instead.</p>
+     *
+     * @param apiCall The API call configuration
+     * @return true if {@link #extractFields(Flux, ApiCall)} can be used
+     */
+    public boolean supportsStreaming(ApiCall apiCall) {
+        Map<String, String> paths = extractionPaths(apiCall);
+        return !paths.isEmpty() && paths.values().stream().allMatch(StreamingJsonMatcher::isSimplePath);
+    }
+
+    /**
+     * Extracts fields from an API response while it is being received.
+     *
+     * <p><b>What:</b> Same result as {@link #extractFields(String, ApiCall)}, without
+     * aggregating the response body into a String.</p>
+     *
+     * <p><b>Why:</b> Large responses with a few extracted fields otherwise allocate and
+     * retain the whole body (decoded to UTF-16) for every call.</p>
+     *
+     * <p><b>How:</b> Feeds each buffer into Jackson's non-blocking parser through a
+     * {@link StreamingJsonMatcher}, releasing the buffer right after. Once every path
+     * has been found, reading stops and the rest of the response is cancelled.
+     * Only valid when {@link #supportsStreaming(ApiCall)} is true.</p>
+     *
+     * @param body The response body buffers
+     * @param apiCall The API call configuration containing field mappings
+     * @return Mono of the map of field names to extracted values; errors if the body is not valid JSON
+     */
+    public Mono<Map<String, Object>> extractFields(Flux<DataBuffer> body, ApiCall apiCall) {
+        Map<String, String> paths = extractionPaths(apiCall);
+
+        return Mono.defer(() -> {
+            StreamingJsonMatcher matcher;
+            try {
+                matcher = new StreamingJsonMatcher(JSON_FACTORY, paths.values());
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+
+            return body.<Void>handle((buffer, sink) -> {
+                        try {
+                            byte[] chunk = new byte[buffer.readableByteCount()];
+                            buffer.read(chunk);
+                            if (matcher.feed(chunk)) {
+                                sink.complete();
+                            }
+                        } catch (IOException e) {
+                            sink.error(e);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(() -> matcher.finish(paths.values())))
+                    .map(values -> toExtractedFields(apiCall, paths, values));
+        });
+    }
+
+    /**
+     * Applies defaults and statistics to the values found while streaming.
+     */
+    private Map<String, Object> toExtractedFields(
+            ApiCall apiCall,
+            Map<String, String> paths,
+            Map<String, Object> values) {
+
+        Map<String, Object> extracted = new HashMap<>();
+        ExtractionStats stats = new ExtractionStats();
+
+        paths.forEach((fieldName, path) -> handleExtractedValue(
+                fieldName,
+                unwrapSingleElementArray(values.get(path)),
+                apiCall.getFieldSources().get(fieldName),
+                extracted,
+                stats));
+
+        logStats(stats);
+        return extracted;
+    }
+
+    /**
+     * Gets the extraction paths of the fields an API provides.
+     *
+     * @param apiCall The API call configuration
+     * @return Map of field names to JSONPath expressions, for fields with extraction config
+     */
+    Map<String, String> extractionPaths(ApiCall apiCall) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (String fieldName : apiCall.getDataSource().getProvidesFields()) {
+            FieldSourceConfig fieldSource = apiCall.getFieldSources().get(fieldName);
+            if (hasExtractionConfig(fieldSource)) {
+                paths.put(fieldName, fieldSource.getExtractionPath());
+            }
+        }
+        return paths;
+    }
+
     /**
      * Gets default values for all fields when an API call fails.
      *
@@ -115,14 +239,14 @@ public class FieldExtractor {
      * </ol>
      * </p>
      *
-     * @param responseBody The JSON response body
+     * @param response The JSON response, parsed on first use
      * @param apiCall The API call configuration
      * @param fieldName The name of the field to extract
      * @param extracted The map to store extracted values
      * @param stats Statistics tracker for logging
      */
     private void extractField(
-            String responseBody,
+            ParsedResponse response,
             ApiCall apiCall,
             String fieldName,
             Map<String, Object> extracted,
@@ -136,7 +260,7 @@ public class FieldExtractor {
         }
 
         try {
-            Object value = extractValue(responseBody, fieldSource);
+            Object value = extractValue(response, fieldSource);
             handleExtractedValue(fieldName, value, fieldSource, extracted, stats);
         } catch (Exception e) {
             handleExtractionError(fieldName, fieldSource, extracted, stats, e);
@@ -151,18 +275,32 @@ public class FieldExtractor {
      * <p><b>Why:</b> JSONPath queries can return various types (objects, arrays,
      * primitives). We need to normalize the result for consistent handling.</p>
      *
-     * <p><b>How:</b> Uses the JsonPath library to execute the query, then
+     * <p><b>How:</b> Reads the compiled JsonPath from the parsed document, then
      * unwraps single-element arrays for convenience.</p>
      *
-     * @param responseBody The JSON response to query
+     * @param response The parsed JSON response to query
      * @param fieldSource The field configuration with extraction path
      * @return The extracted value (may be null)
      */
-    private Object extractValue(String responseBody, FieldSourceConfig fieldSource) {
-        Object value = JsonPath.read(responseBody, fieldSource.getExtractionPath());
+    private Object extractValue(ParsedResponse response, FieldSourceConfig fieldSource) {
+        JsonPath path = compile(fieldSource.getExtractionPath());
+        Object value = response.document().read(path);
         return unwrapSingleElementArray(value);
     }
 
+    /**
+     * Gets the compiled form of a JSONPath expression.
+     *
+     * <p><b>Why:</b> Compiling an expression tokenizes and validates it. The same
+     * paths are used for every response, so they are compiled only once.</p>
+     *
+     * @param extractionPath The JSONPath expression
+     * @return The compiled JsonPath
+     */
+    private JsonPath compile(String extractionPath) {
+        return compiledPaths.computeIfAbsent(extractionPath, JsonPath::compile);
+    }
+
     /**
      * Unwraps single-element arrays to their contained value.
      *
@@ -300,6 +438,39 @@ public class FieldExtractor {
                 stats.successCount, stats.defaultCount, stats.failedCount);
     }
 
+    /**
+     * Response body that is parsed on first use and then shared by all fields.
+     *
+     * <p><b>Why:</b> Responses can be large with many fields extracted. Parsing the
+     * body once instead of once per field removes most of the extraction cost.
+     * If the body is not valid JSON, every field read fails and falls back to
+     * its default, as before.</p>
+     */
+    private static class ParsedResponse {
+        private final String body;
+        private DocumentContext document;
+        private RuntimeException parseError;
+
+        ParsedResponse(String body) {
+            this.body = body;
+        }
+
+        DocumentContext document() {
+            if (parseError != null) {
+                throw parseError;
+            }
+            if (document == null) {
+                try {
+                    document = JsonPath.parse(body);
+                } catch (RuntimeException e) {
+                    parseError = e;
+                    throw e;
+                }
+            }
+            return document;
+        }
+    }
+
     /**
      * Internal class for tracking extraction statistics.
      *
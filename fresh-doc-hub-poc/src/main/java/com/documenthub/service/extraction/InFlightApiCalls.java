@@ -0,0 +1,77 @@
+package com.documenthub.service.extraction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical API calls across concurrent enquiries.
+ *
+ * <p><b>What:</b> While a call for a (method, URL, body) is outstanding, every other
+ * caller with the same request joins it instead of starting its own WebClient exchange.
+ * The response, or the error, is delivered to all of them.</p>
+ *
+ * <p><b>Why:</b> During traffic spikes many enquiries need the same shared data, such
+ * as pricing or product details, at the same moment. Without coalescing each of them
+ * hits the upstream API.</p>
+ *
+ * <p><b>How:</b> The first caller registers a {@link SharedCall} of the exchange under the
+ * request key and removes it when the exchange terminates or is cancelled, which happens
+ * once every caller has cancelled. Nothing outlives the call, so errors are not cached
+ * and the next caller after completion starts a new exchange. Time-based
+ * caching is done above this layer by {@link ApiResponseCache}.</p>
+ *
+ * @see ApiCallExecutor
+ */
+@Slf4j
+@Component
+public class InFlightApiCalls {
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedCalls;
+
+    public InFlightApiCalls(MeterRegistry meterRegistry) {
+        this.coalescedCalls = meterRegistry.counter("documenthub.extraction.coalesced");
+    }
+
+    /**
+     * Join the outstanding call for a request key, or start it.
+     *
+     * @param requestKey Resolved method, URL and body of the call; keys must not be
+     *                   reused for results of a different type
+     * @param call Supplier of the WebClient exchange
+     * @return Mono of the response
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String requestKey, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<T>> started = new AtomicReference<>();
+            Mono<T> flight = (Mono<T>) inFlight.computeIfAbsent(requestKey, key -> {
+                AtomicReference<Mono<T>> self = new AtomicReference<>();
+                Mono<T> shared = new SharedCall<>(call.get()
+                    .doFinally(signal -> inFlight.remove(key, self.get())))
+                    .asMono();
+                self.set(shared);
+                started.set(shared);
+                return shared;
+            });
+
+            if (started.get() == null) {
+                log.debug("Joining in-flight call: {}", requestKey);
+                coalescedCalls.increment();
+            }
+            return flight;
+        });
+    }
+
+    int size() {
+        return inFlight.size();
+    }
+}
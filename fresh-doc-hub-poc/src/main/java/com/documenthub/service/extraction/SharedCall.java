@@ -0,0 +1,91 @@
+package com.documenthub.service.extraction;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.ContextView;
+
+/**
+ * One API call shared by several subscribers, cancelled when all of them cancel.
+ *
+ * <p><b>What:</b> The first subscriber starts the call; later subscribers join it, and
+ * subscribers after completion get the cached result. If every subscriber cancels
+ * before the call completes, the call itself is cancelled, and the next subscriber
+ * starts it again.</p>
+ *
+ * <p><b>Why:</b> {@code cache()} never cancels its source. A plan deadline or abort
+ * (see {@link ApiCallExecutor#executeDag}) would only detach the enquiry, while the
+ * WebClient exchange kept running and held its bulkhead permit and pooled connection.</p>
+ *
+ * <p><b>How:</b> The call emits into a {@link Sinks.One} that subscribers read from;
+ * subscribers are counted until the result arrives. The call runs with the Reactor
+ * context of the subscriber that started it, like with {@code cache()}.</p>
+ *
+ * @see ExtractionSession
+ * @see InFlightApiCalls
+ */
+final class SharedCall<T> {
+
+    private final Mono<T> call;
+    private final Sinks.One<T> result = Sinks.one();
+
+    /** Guarded by this. */
+    private int subscribers;
+    private Disposable connection;
+    private boolean done;
+
+    SharedCall(Mono<T> call) {
+        this.call = call;
+    }
+
+    /**
+     * Mono of the result; subscribing joins the call, or starts it.
+     */
+    Mono<T> asMono() {
+        return Mono.deferContextual(ctx -> {
+            connect(ctx);
+            return result.asMono().doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    disconnect();
+                }
+            });
+        });
+    }
+
+    private synchronized void connect(ContextView ctx) {
+        if (done) {
+            return;
+        }
+        subscribers++;
+        if (connection == null) {
+            connection = call.contextWrite(ctx).subscribe(
+                    value -> {
+                        complete();
+                        result.tryEmitValue(value);
+                    },
+                    error -> {
+                        complete();
+                        result.tryEmitError(error);
+                    },
+                    () -> {
+                        complete();
+                        result.tryEmitEmpty();
+                    });
+        }
+    }
+
+    private synchronized void disconnect() {
+        if (done) {
+            return;
+        }
+        if (--subscribers == 0 && connection != null) {
+            connection.dispose();
+            connection = null;
+        }
+    }
+
+    private synchronized void complete() {
+        done = true;
+    }
+}
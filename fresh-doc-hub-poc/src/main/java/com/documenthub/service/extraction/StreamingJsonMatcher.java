@@ -0,0 +1,299 @@
+package com.documenthub.service.extraction;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the values of simple JSONPath expressions in a JSON document fed in chunks.
+ *
+ * <p><b>What:</b> Walks the tokens of Jackson's non-blocking parser and keeps only the
+ * values located at the requested paths. Everything else is skipped without being
+ * materialized.</p>
+ *
+ * <p><b>Why:</b> Lets {@link FieldExtractor} extract fields while the response is still
+ * arriving, without aggregating the body into a String, and stop reading once every
+ * path has been found.</p>
+ *
+ * <p><b>How:</b> Tracks the current location as a list of segments (field names and
+ * array indexes). Subtrees that are not on the way to a requested path are skipped by
+ * depth counting. A matched object or array is rebuilt as LinkedHashMap/ArrayList, the
+ * same shapes JsonPath returns; requested paths inside it are read from the rebuilt value.</p>
+ *
+ * <p>Only definite paths made of {@code .field}, {@code ['field']} and {@code [index]}
+ * segments are supported (see {@link #isSimplePath(String)}). Not thread-safe: one
+ * instance per response.</p>
+ */
+final class StreamingJsonMatcher {
+
+    private static final Pattern SIMPLE_PATH =
+            Pattern.compile("\\$(?:\\.[A-Za-z_$][\\w$-]*|\\[\\d+]|\\['[^']*'])*");
+    private static final Pattern SEGMENT =
+            Pattern.compile("\\.([A-Za-z_$][\\w$-]*)|\\[(\\d+)]|\\['([^']*)']");
+
+    private static final Object MISSING = new Object();
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final Set<List<Object>> targets = new HashSet<>();
+    private final Set<List<Object>> prefixes = new HashSet<>();
+    private final Map<List<Object>, Object> found = new HashMap<>();
+
+    /** Segments of the current location: field name (String) or array index (Integer). */
+    private final List<Object> location = new ArrayList<>();
+    private int skipDepth;
+    private ValueBuilder capture;
+    private List<Object> capturePath;
+
+    StreamingJsonMatcher(JsonFactory jsonFactory, Collection<String> paths) throws IOException {
+        this.parser = jsonFactory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        for (String path : paths) {
+            List<Object> segments = parsePath(path);
+            targets.add(segments);
+            for (int i = 0; i < segments.size(); i++) {
+                prefixes.add(segments.subList(0, i));
+            }
+        }
+    }
+
+    /**
+     * Whether a JSONPath expression can be matched while streaming.
+     */
+    static boolean isSimplePath(String path) {
+        return path != null && SIMPLE_PATH.matcher(path).matches();
+    }
+
+    /**
+     * Feed the next chunk of the document.
+     *
+     * @return true once every path has been found; no more input is needed
+     */
+    boolean feed(byte[] chunk) throws IOException {
+        if (isComplete()) {
+            return true;
+        }
+        feeder.feedInput(chunk, 0, chunk.length);
+        return drain();
+    }
+
+    /**
+     * Signal the end of the document and get the values found.
+     *
+     * @return Values by path; paths that were not found are absent
+     */
+    Map<String, Object> finish(Collection<String> paths) throws IOException {
+        if (!isComplete()) {
+            feeder.endOfInput();
+            drain();
+        }
+        parser.close();
+
+        Map<String, Object> values = new HashMap<>();
+        for (String path : paths) {
+            List<Object> segments = parsePath(path);
+            if (found.containsKey(segments)) {
+                values.put(path, found.get(segments));
+            }
+        }
+        return values;
+    }
+
+    private boolean isComplete() {
+        return found.size() == targets.size();
+    }
+
+    private boolean drain() throws IOException {
+        JsonToken token;
+        while (!isComplete() && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+        return isComplete();
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (capture != null) {
+            capture.accept(token, parser);
+            if (capture.isComplete()) {
+                foundCaptured(capturePath, capture.getValue());
+                capture = null;
+            }
+            return;
+        }
+
+        if (skipDepth > 0) {
+            if (token.isStructStart()) {
+                skipDepth++;
+            } else if (token.isStructEnd()) {
+                skipDepth--;
+            }
+            return;
+        }
+
+        if (token == JsonToken.FIELD_NAME) {
+            location.set(location.size() - 1, parser.getCurrentName());
+            return;
+        }
+        if (token.isStructEnd()) {
+            location.remove(location.size() - 1);
+            return;
+        }
+
+        // A value: advance the index when inside an array
+        int last = location.size() - 1;
+        if (last >= 0 && location.get(last) instanceof Integer) {
+            location.set(last, (Integer) location.get(last) + 1);
+        }
+
+        if (targets.contains(location)) {
+            if (token.isStructStart()) {
+                capture = new ValueBuilder();
+                capturePath = new ArrayList<>(location);
+                capture.accept(token, parser);
+            } else {
+                found.put(new ArrayList<>(location), scalar(token, parser));
+            }
+            return;
+        }
+
+        if (token.isStructStart()) {
+            if (prefixes.contains(location)) {
+                location.add(token == JsonToken.START_ARRAY ? Integer.valueOf(-1) : null);
+            } else {
+                skipDepth = 1;
+            }
+        }
+    }
+
+    /**
+     * Record a rebuilt object or array, and the values of requested paths inside it.
+     */
+    private void foundCaptured(List<Object> path, Object value) {
+        found.put(path, value);
+        for (List<Object> target : targets) {
+            if (target.size() > path.size() && target.subList(0, path.size()).equals(path)) {
+                Object nested = value;
+                for (Object segment : target.subList(path.size(), target.size())) {
+                    nested = child(nested, segment);
+                }
+                if (nested != MISSING) {
+                    found.put(target, nested);
+                }
+            }
+        }
+    }
+
+    private static Object child(Object parent, Object segment) {
+        if (segment instanceof Integer && parent instanceof List) {
+            List<?> list = (List<?>) parent;
+            int index = (Integer) segment;
+            return index < list.size() ? list.get(index) : MISSING;
+        }
+        if (segment instanceof String && parent instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) parent;
+            return map.containsKey(segment) ? map.get(segment) : MISSING;
+        }
+        return MISSING;
+    }
+
+    private static List<Object> parsePath(String path) {
+        List<Object> segments = new ArrayList<>();
+        Matcher matcher = SEGMENT.matcher(path);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                segments.add(matcher.group(1));
+            } else if (matcher.group(2) != null) {
+                segments.add(Integer.valueOf(matcher.group(2)));
+            } else {
+                segments.add(matcher.group(3));
+            }
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+    private static Object scalar(JsonToken token, JsonParser parser) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Rebuilds a matched object or array from its tokens.
+     */
+    private static final class ValueBuilder {
+
+        private final Deque<Object> containers = new ArrayDeque<>();
+        private final Deque<String> names = new ArrayDeque<>();
+        private Object value;
+        private boolean complete;
+
+        void accept(JsonToken token, JsonParser parser) throws IOException {
+            switch (token) {
+                case START_OBJECT:
+                    containers.push(new LinkedHashMap<String, Object>());
+                    break;
+                case START_ARRAY:
+                    containers.push(new ArrayList<>());
+                    break;
+                case FIELD_NAME:
+                    names.push(parser.getCurrentName());
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    add(containers.pop());
+                    break;
+                default:
+                    add(scalar(token, parser));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void add(Object item) {
+            if (containers.isEmpty()) {
+                value = item;
+                complete = true;
+                return;
+            }
+            Object parent = containers.peek();
+            if (parent instanceof Map) {
+                ((Map<String, Object>) parent).put(names.pop(), item);
+            } else {
+                ((List<Object>) parent).add(item);
+            }
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+
+        Object getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+-- ====================================================================
+-- Document Hub - Storage Index Validity Columns Migration
+-- ====================================================================
+-- Version: V10
+-- Description: Adds valid_from and valid_until columns to storage_index,
+--              normalized from the validity dates in doc_metadata
+-- Rationale: Enquiries filtered expired documents in the service, parsing
+--            doc_metadata of every fetched row. With normalized columns the
+--            storage_index query filters them, so expired documents are
+--            never fetched.
+-- ====================================================================
+
+-- ====================================================================
+-- Add validity columns
+-- ====================================================================
+-- valid_from / valid_until hold the first date found in doc_metadata under
+-- valid_from, validFrom, effective_date, effectiveDate and valid_until,
+-- validUntil, expiry_date, expiryDate (ISO, MM/dd/yyyy or epoch millis).
+-- NULL means no bound.
+--
+-- validity_normalized tells whether the columns were filled from doc_metadata.
+-- Rows written before this migration are normalized by the validity backfill
+-- job (app.storage-index.validity-backfill.enabled); until then the service
+-- still checks their doc_metadata.
+
+ALTER TABLE document_hub.storage_index
+ADD COLUMN IF NOT EXISTS valid_from DATE;
+
+ALTER TABLE document_hub.storage_index
+ADD COLUMN IF NOT EXISTS valid_until DATE;
+
+ALTER TABLE document_hub.storage_index
+ADD COLUMN IF NOT EXISTS validity_normalized BOOLEAN NOT NULL DEFAULT FALSE;
+
+COMMENT ON COLUMN document_hub.storage_index.valid_from IS
+'First day the document is valid, normalized from doc_metadata. NULL = no start bound.';
+
+COMMENT ON COLUMN document_hub.storage_index.valid_until IS
+'Last day the document is valid, normalized from doc_metadata. NULL = no end bound.';
+
+COMMENT ON COLUMN document_hub.storage_index.validity_normalized IS
+'TRUE once valid_from/valid_until reflect doc_metadata.';
+
+-- Documents without metadata have no validity bounds
+UPDATE document_hub.storage_index
+SET validity_normalized = TRUE
+WHERE doc_metadata IS NULL
+  AND validity_normalized = FALSE;
+
+
+-- ====================================================================
+-- Create indexes
+-- ====================================================================
+-- Most documents have no validity bounds, so only bounded rows are indexed
+
+CREATE INDEX IF NOT EXISTS idx_storage_index_valid_from
+ON document_hub.storage_index(valid_from)
+WHERE valid_from IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_storage_index_valid_until
+ON document_hub.storage_index(valid_until)
+WHERE valid_until IS NOT NULL;
+
+-- Rows left for the backfill job, in keyset order
+CREATE INDEX IF NOT EXISTS idx_storage_index_validity_backfill
+ON document_hub.storage_index(storage_index_id)
+WHERE validity_normalized = FALSE;
+
+
+-- ====================================================================
+-- Verification Queries (run manually to verify migration)
+-- ====================================================================
+-- SELECT COUNT(*),
+--        COUNT(valid_from) as has_valid_from,
+--        COUNT(valid_until) as has_valid_until,
+--        COUNT(*) FILTER (WHERE NOT validity_normalized) as not_normalized
+-- FROM document_hub.storage_index;
+
+
+-- ====================================================================
+-- Migration Complete
+-- ====================================================================
+-- New columns added:
+--   - storage_index.valid_from (DATE, NULL allowed)
+--   - storage_index.valid_until (DATE, NULL allowed)
+--   - storage_index.validity_normalized (BOOLEAN, default FALSE)
+--
+-- Indexes added:
+--   - idx_storage_index_valid_from (partial)
+--   - idx_storage_index_valid_until (partial)
+--   - idx_storage_index_validity_backfill (partial)
+-- ====================================================================
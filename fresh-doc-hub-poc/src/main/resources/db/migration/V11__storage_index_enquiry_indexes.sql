@@ -0,0 +1,90 @@
+-- ====================================================================
+-- Document Hub - Storage Index Enquiry Indexes Migration
+-- ====================================================================
+-- Version: V11
+-- Description: Composite indexes matching the query shapes of
+--              StorageIndexCriteriaDao
+-- Rationale: Enquiry queries filter on a few stable column combinations,
+--            but storage_index only had single-column date indexes and
+--            idx_storage_index_doc_creation_date. Each shape below gets an
+--            index leading with its equality columns. Keyset pages
+--            (ORDER BY doc_creation_date DESC, storage_index_id DESC LIMIT n)
+--            are then read in index order.
+-- Verification: StorageIndexQueryPlanTest runs every DAO query under
+--               EXPLAIN, with its custom and its generic plan, and fails
+--               unless storage_index is read through these indexes.
+-- ====================================================================
+
+-- Every enquiry query filters accessible_flag = true, and account/shared
+-- queries filter shared_flag. Queries bind the flag values, and a cached
+-- generic plan is made without them, so it could not prove a partial index
+-- predicate such as WHERE shared_flag = false. The flags are therefore
+-- index columns, placed before the keyset order columns.
+
+-- ====================================================================
+-- Account documents: account_key + template (+ version) + flags
+-- ====================================================================
+-- findAccountDocuments, findAccountDocumentsBatch (IN lists), findDocuments
+
+CREATE INDEX IF NOT EXISTS idx_storage_index_account_enquiry
+ON document_hub.storage_index(account_key, template_type, template_version,
+                              shared_flag, accessible_flag,
+                              doc_creation_date DESC, storage_index_id DESC);
+
+-- ====================================================================
+-- Shared documents: template (+ version) + flags
+-- ====================================================================
+-- findSharedDocuments, findSharedDocumentsBatch
+
+CREATE INDEX IF NOT EXISTS idx_storage_index_shared_enquiry
+ON document_hub.storage_index(template_type, template_version,
+                              shared_flag, accessible_flag,
+                              doc_creation_date DESC, storage_index_id DESC);
+
+-- ====================================================================
+-- Reference key: reference_key + reference_key_type + template + flag
+-- ====================================================================
+-- findByReferenceKey (extracted, direct and conditional matching)
+
+CREATE INDEX IF NOT EXISTS idx_storage_index_reference_key_enquiry
+ON document_hub.storage_index(reference_key, reference_key_type, template_type, template_version,
+                              accessible_flag);
+
+-- ====================================================================
+-- Reference key type only: auto-discover + flag
+-- ====================================================================
+-- findByReferenceKeyType
+
+CREATE INDEX IF NOT EXISTS idx_storage_index_reference_key_type_enquiry
+ON document_hub.storage_index(reference_key_type, template_type, template_version,
+                              accessible_flag);
+
+-- ====================================================================
+-- Customer documents: customer_key + template + flag
+-- ====================================================================
+-- findByCustomerKey
+
+CREATE INDEX IF NOT EXISTS idx_storage_index_customer_enquiry
+ON document_hub.storage_index(customer_key, template_type, template_version,
+                              accessible_flag);
+
+
+-- ====================================================================
+-- Verification Queries (run manually to verify migration)
+-- ====================================================================
+-- SELECT indexname, indexdef
+-- FROM pg_indexes
+-- WHERE schemaname = 'document_hub'
+-- AND indexname LIKE '%enquiry%';
+
+
+-- ====================================================================
+-- Migration Complete
+-- ====================================================================
+-- Indexes added:
+--   - idx_storage_index_account_enquiry
+--   - idx_storage_index_shared_enquiry
+--   - idx_storage_index_reference_key_enquiry
+--   - idx_storage_index_reference_key_type_enquiry
+--   - idx_storage_index_customer_enquiry
+-- ====================================================================
@@ -0,0 +1,33 @@
+-- ====================================================================
+-- Document Hub - Notify on master_template_definition changes
+-- ====================================================================
+-- Version: V9
+-- Description: Sends a NOTIFY on channel 'master_template_changed' whenever
+--              templates are inserted, updated or deleted, so the service can
+--              reload its in-memory active template snapshot.
+-- ====================================================================
+
+-- ====================================================================
+-- Notification function
+-- ====================================================================
+-- The payload is the operation (INSERT, UPDATE, DELETE, TRUNCATE).
+-- The service reloads all active templates on any notification, so a
+-- statement-level trigger is enough: a bulk update sends one notification.
+-- Notifications are delivered only when the transaction commits.
+
+CREATE OR REPLACE FUNCTION document_hub.notify_master_template_changed()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('master_template_changed', TG_OP);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_master_template_changed
+    ON document_hub.master_template_definition;
+
+CREATE TRIGGER trg_master_template_changed
+AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+ON document_hub.master_template_definition
+FOR EACH STATEMENT
+EXECUTE FUNCTION document_hub.notify_master_template_changed();
@@ -0,0 +1,208 @@
+package com.documenthub.dao;
+
+import com.documenthub.dto.MasterTemplateDto;
+import com.documenthub.entity.MasterTemplateDefinitionEntity;
+import com.documenthub.repository.MasterTemplateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.codec.Json;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MasterTemplateDao.
+ * Tests the in-memory active template snapshot and compiled template caching.
+ */
+@ExtendWith(MockitoExtension.class)
+public class MasterTemplateDaoTest {
+
+    @Mock
+    private MasterTemplateRepository repository;
+
+    private MasterTemplateDao masterTemplateDao;
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @BeforeEach
+    void setUp() {
+        masterTemplateDao = new MasterTemplateDao(repository, new ObjectMapper());
+    }
+
+    @Nested
+    @DisplayName("Active template snapshot Tests")
+    class ActiveTemplateSnapshotTests {
+
+        @Test
+        @DisplayName("Should query the database until the snapshot is loaded")
+        void shouldQueryDatabase_whenSnapshotNotLoaded() {
+            // Given
+            when(repository.findActiveTemplatesWithFilters("CREDIT_CARD", true, null, NOW))
+                .thenReturn(Flux.just(createEntity("STATEMENT", 1, "CREDIT_CARD")));
+
+            // When / Then
+            StepVerifier.create(masterTemplateDao.findActiveTemplatesWithFilters("CREDIT_CARD", true, null, NOW))
+                .assertNext(t -> assertEquals("STATEMENT", t.getTemplateType()))
+                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should answer LOB lookups from the snapshot, including ENTERPRISE templates")
+        void shouldAnswerFromSnapshot_includingEnterprise() {
+            // Given
+            MasterTemplateDefinitionEntity expired = createEntity("OLD_NOTICE", 1, "CREDIT_CARD");
+            expired.setEndDate(NOW - 1);
+            MasterTemplateDefinitionEntity notMessageCenter = createEntity("LETTER", 1, "CREDIT_CARD");
+            notMessageCenter.setMessageCenterDocFlag(false);
+            when(repository.findAllActiveTemplates()).thenReturn(Flux.just(
+                createEntity("STATEMENT", 1, "CREDIT_CARD"),
+                createEntity("PRIVACY_POLICY", 1, "ENTERPRISE"),
+                createEntity("SAVINGS_NOTICE", 1, "DIGITAL_BANK"),
+                expired,
+                notMessageCenter));
+
+            // When
+            StepVerifier.create(masterTemplateDao.refreshActiveTemplates())
+                .expectNext(5)
+                .verifyComplete();
+            List<MasterTemplateDto> result = masterTemplateDao
+                .findActiveTemplatesWithFilters("CREDIT_CARD", true, null, NOW)
+                .collectList().block();
+
+            // Then
+            assertNotNull(result);
+            assertEquals(List.of("STATEMENT", "PRIVACY_POLICY"),
+                result.stream().map(MasterTemplateDto::getTemplateType).toList());
+            verify(repository, never()).findActiveTemplatesWithFilters(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should apply template type and communication type filters from the snapshot")
+        void shouldApplyAllFilters_fromSnapshot() {
+            // Given
+            MasterTemplateDefinitionEntity email = createEntity("STATEMENT", 2, "CREDIT_CARD");
+            email.setCommunicationType("EMAIL");
+            when(repository.findAllActiveTemplates()).thenReturn(Flux.just(
+                createEntity("STATEMENT", 1, "CREDIT_CARD"),
+                email,
+                createEntity("NOTICE", 1, "CREDIT_CARD")));
+            masterTemplateDao.refreshActiveTemplates().block();
+
+            // When / Then
+            StepVerifier.create(masterTemplateDao.findActiveTemplatesWithAllFilters(
+                    "CREDIT_CARD", List.of("STATEMENT"), false, "EMAIL", NOW))
+                .assertNext(t -> assertEquals(2, t.getTemplateVersion()))
+                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should return the highest active version for latest-by-type lookups")
+        void shouldReturnLatestVersion_fromSnapshot() {
+            // Given
+            MasterTemplateDefinitionEntity future = createEntity("STATEMENT", 3, "CREDIT_CARD");
+            future.setStartDate(NOW + 1);
+            when(repository.findAllActiveTemplates()).thenReturn(Flux.just(
+                createEntity("STATEMENT", 1, "CREDIT_CARD"),
+                createEntity("STATEMENT", 2, "CREDIT_CARD"),
+                future));
+            masterTemplateDao.refreshActiveTemplates().block();
+
+            // When / Then
+            StepVerifier.create(masterTemplateDao.findLatestActiveTemplateByType("STATEMENT", NOW))
+                .assertNext(t -> assertEquals(2, t.getTemplateVersion()))
+                .verifyComplete();
+            verify(repository, never()).findLatestActiveTemplateByType(anyString(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should replace the snapshot on refresh")
+        void shouldReplaceSnapshot_onRefresh() {
+            // Given
+            when(repository.findAllActiveTemplates())
+                .thenReturn(Flux.just(createEntity("STATEMENT", 1, "CREDIT_CARD")))
+                .thenReturn(Flux.empty());
+            masterTemplateDao.refreshActiveTemplates().block();
+
+            // When
+            masterTemplateDao.refreshActiveTemplates().block();
+
+            // Then
+            StepVerifier.create(masterTemplateDao.findActiveTemplatesByLineOfBusiness("CREDIT_CARD", NOW))
+                .verifyComplete();
+        }
+    }
+
+    @Nested
+    @DisplayName("Compiled template Tests")
+    class CompiledTemplateTests {
+
+        @Test
+        @DisplayName("Should reuse the compiled template for the same template version")
+        void shouldReuseCompiledTemplate() {
+            // Given
+            MasterTemplateDefinitionEntity entity = createEntity("STATEMENT", 1, "CREDIT_CARD");
+            entity.setAccessControl(Json.of("[{\"role\":\"customer\",\"actions\":[\"View\"]}]"));
+            when(repository.findById(entity.getMasterTemplateId())).thenReturn(Mono.just(entity));
+
+            // When
+            MasterTemplateDto first = masterTemplateDao.findById(entity.getMasterTemplateId()).block();
+            MasterTemplateDto second = masterTemplateDao.findById(entity.getMasterTemplateId()).block();
+
+            // Then
+            assertNotNull(first);
+            assertNotNull(second);
+            assertSame(first.getCompiled(), second.getCompiled());
+            assertEquals(List.of("View"), first.getCompiled().getRoleActions().get("customer"));
+        }
+
+        @Test
+        @DisplayName("Should compile the template again when a config is edited in place")
+        void shouldRecompile_whenConfigEditedInPlace() {
+            // Given - the same row before and after an UPDATE that left updated_timestamp alone
+            MasterTemplateDefinitionEntity original = createEntity("STATEMENT", 1, "CREDIT_CARD");
+            original.setAccessControl(Json.of("[{\"role\":\"customer\",\"actions\":[\"View\"]}]"));
+            MasterTemplateDefinitionEntity edited = createEntity("STATEMENT", 1, "CREDIT_CARD");
+            edited.setMasterTemplateId(original.getMasterTemplateId());
+            edited.setAccessControl(Json.of("[{\"role\":\"customer\",\"actions\":[\"View\",\"Download\"]}]"));
+            when(repository.findAllActiveTemplates())
+                .thenReturn(Flux.just(original))
+                .thenReturn(Flux.just(edited));
+            masterTemplateDao.refreshActiveTemplates().block();
+
+            // When
+            masterTemplateDao.refreshActiveTemplates().block();
+
+            // Then
+            StepVerifier.create(masterTemplateDao.findActiveTemplatesByLineOfBusiness("CREDIT_CARD", NOW))
+                .assertNext(t -> assertEquals(List.of("View", "Download"),
+                    t.getCompiled().getRoleActions().get("customer")))
+                .verifyComplete();
+        }
+    }
+
+    // Helper methods
+    private MasterTemplateDefinitionEntity createEntity(String templateType, int version, String lineOfBusiness) {
+        MasterTemplateDefinitionEntity entity = new MasterTemplateDefinitionEntity();
+        entity.setMasterTemplateId(UUID.randomUUID());
+        entity.setTemplateType(templateType);
+        entity.setTemplateVersion(version);
+        entity.setLineOfBusiness(lineOfBusiness);
+        entity.setActiveFlag(true);
+        entity.setMessageCenterDocFlag(true);
+        entity.setCommunicationType("LETTER");
+        return entity;
+    }
+}
@@ -1,11 +1,24 @@
 package com.documenthub.processor;
 
 import com.documenthub.dao.MasterTemplateDao;
+import com.documenthub.dto.DocumentBatchQueryDto;
+import com.documenthub.dto.DocumentCursorDto;
+import com.documenthub.dto.DocumentQueryParamsDto;
 import com.documenthub.dto.MasterTemplateDto;
+import com.documenthub.dto.StorageIndexBatchDto;
 import com.documenthub.dto.StorageIndexDto;
 import com.documenthub.model.*;
+import com.documenthub.model.extraction.DataExtractionConfig;
 import com.documenthub.service.*;
+import com.documenthub.service.extraction.ApiCallExecutor;
+import com.documenthub.service.extraction.ApiResponseCache;
+import com.documenthub.service.extraction.DataSourceResilience;
+import com.documenthub.service.extraction.ExtractionPlanBuilder;
+import com.documenthub.service.extraction.ExtractionResilienceConfig;
+import com.documenthub.service.extraction.FieldExtractor;
+import com.documenthub.service.extraction.InFlightApiCalls;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,6 +28,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -55,6 +75,7 @@ public class DocumentEnquiryProcessorTest {
     private ObjectMapper objectMapper;
 
     private DocumentEnquiryProcessor documentEnquiryProcessor;
+    private SimpleMeterRegistry meterRegistry;
 
     // Test data
     private static final UUID CUSTOMER_ID = UUID.fromString("cccc0000-0000-0000-0000-000000000001");
@@ -64,6 +85,7 @@ public class DocumentEnquiryProcessorTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
         documentEnquiryProcessor = new DocumentEnquiryProcessor(
                 masterTemplateDao,
                 accountMetadataService,
@@ -71,7 +93,8 @@ public class DocumentEnquiryProcessorTest {
                 dataExtractionService,
                 documentMatchingService,
                 responseBuilder,
-                objectMapper
+                objectMapper,
+                meterRegistry
         );
     }
 
@@ -354,6 +377,352 @@ public class DocumentEnquiryProcessorTest {
         }
     }
 
+    // ========================================================================
+    // Scenario 6: Batched storage_index query
+    // ========================================================================
+    @Nested
+    @DisplayName("Scenario 6: Batched document query")
+    class BatchedDocumentQueryTests {
+
+        @Test
+        @DisplayName("Should prefetch all accounts and standard templates in one batch")
+        void shouldPrefetchAllAccountsInOneBatch() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString(), ACCOUNT_2.toString()));
+
+            setupMocksForSuccessfulQuery();
+
+            // When
+            documentEnquiryProcessor.processEnquiry(request, REQUESTOR_TYPE).block();
+
+            // Then
+            verify(documentMatchingService, times(1)).prefetchStandardDocuments(
+                    argThat((DocumentBatchQueryDto query) -> query.getAccountIds().size() == 2
+                            && query.getAccountIds().contains(ACCOUNT_1)
+                            && query.getAccountIds().contains(ACCOUNT_2)
+                            && query.getDistinctAccountTemplates().size() == 1
+                            && query.getSharedTemplates().isEmpty()
+                            && query.getPageLimit() == null));
+        }
+
+        @Test
+        @DisplayName("Should pass prefetched documents to document matching")
+        void shouldPassPrefetchedDocuments() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString()));
+
+            setupMocksForSuccessfulQuery();
+            StorageIndexDto doc = StorageIndexDto.builder()
+                    .storageIndexId(UUID.randomUUID())
+                    .accountKey(ACCOUNT_1)
+                    .templateType("TEST_TEMPLATE")
+                    .build();
+            StorageIndexBatchDto batch = StorageIndexBatchDto.builder()
+                    .accountId(ACCOUNT_1)
+                    .templateKey(StorageIndexBatchDto.templateKey(createTemplate()))
+                    .group(StorageIndexBatchDto.groupKey(ACCOUNT_1, "TEST_TEMPLATE"), List.of(doc))
+                    .build();
+            when(documentMatchingService.prefetchStandardDocuments(any(DocumentBatchQueryDto.class)))
+                    .thenReturn(Mono.just(batch));
+
+            // When
+            documentEnquiryProcessor.processEnquiry(request, REQUESTOR_TYPE).block();
+
+            // Then
+            verify(documentMatchingService).queryDocuments(argThat((DocumentQueryParamsDto params) ->
+                    params.getPrefetchedDocuments() != null
+                            && params.getPrefetchedDocuments().size() == 1));
+        }
+
+        @Test
+        @DisplayName("Should not batch templates with document_matching_config")
+        void shouldNotBatchDocumentMatchingTemplates() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString()));
+
+            setupMocksForSuccessfulQuery();
+            MasterTemplateDto template = createTemplate();
+            template.setDocumentMatchingConfig("{\"matchBy\":\"reference_key\"}");
+            when(masterTemplateDao.findActiveTemplatesWithFilters(anyString(), anyBoolean(), any(), anyLong()))
+                    .thenReturn(Flux.just(template));
+
+            // When
+            documentEnquiryProcessor.processEnquiry(request, REQUESTOR_TYPE).block();
+
+            // Then
+            verify(documentMatchingService).prefetchStandardDocuments(
+                    argThat((DocumentBatchQueryDto query) -> query.getAccountTemplates().isEmpty()
+                            && query.getSharedTemplates().isEmpty()));
+            verify(documentMatchingService).queryDocuments(argThat((DocumentQueryParamsDto params) ->
+                    params.getPrefetchedDocuments() == null));
+        }
+    }
+
+    // ========================================================================
+    // Scenario 7: Keyset pagination
+    // ========================================================================
+    @Nested
+    @DisplayName("Scenario 7: Keyset pagination")
+    class KeysetPaginationTests {
+
+        @Test
+        @DisplayName("Should push cursor and page limit down when continuationToken is present")
+        void shouldPushDownCursorAndLimit() {
+            // Given
+            DocumentCursorDto cursor = new DocumentCursorDto(1000L, UUID.randomUUID());
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString()));
+            request.setContinuationToken(cursor.encode());
+
+            setupMocksForSuccessfulQuery();
+
+            // When
+            documentEnquiryProcessor.processEnquiry(request, REQUESTOR_TYPE).block();
+
+            // Then - pageSize (20) + 1 rows per query to detect a next page
+            verify(documentMatchingService).prefetchStandardDocuments(
+                    argThat((DocumentBatchQueryDto query) -> Integer.valueOf(21).equals(query.getPageLimit())
+                            && cursor.equals(query.getCursor())));
+            verify(documentMatchingService).queryDocuments(argThat((DocumentQueryParamsDto params) ->
+                    Integer.valueOf(21).equals(params.getPageLimit()) && cursor.equals(params.getCursor())));
+            verify(responseBuilder).paginateKeyset(any(), eq(cursor), eq(20));
+            verify(responseBuilder, never()).paginate(any(), anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should not push keyset down for single_document_flag templates")
+        void shouldNotPushDownForSingleDocumentTemplates() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString()));
+            request.setContinuationToken("");
+
+            setupMocksForSuccessfulQuery();
+            MasterTemplateDto template = createTemplate();
+            template.setSingleDocumentFlag(true);
+            when(masterTemplateDao.findActiveTemplatesWithFilters(anyString(), anyBoolean(), any(), anyLong()))
+                    .thenReturn(Flux.just(template));
+
+            // When
+            documentEnquiryProcessor.processEnquiry(request, REQUESTOR_TYPE).block();
+
+            // Then
+            verify(documentMatchingService).prefetchStandardDocuments(
+                    argThat((DocumentBatchQueryDto query) -> query.getAccountTemplates().isEmpty()));
+            verify(documentMatchingService).queryDocuments(argThat((DocumentQueryParamsDto params) ->
+                    params.getPageLimit() == null && params.getCursor() == null));
+        }
+
+        @Test
+        @DisplayName("Should return error response for malformed continuationToken")
+        void shouldReturnErrorResponse_whenTokenMalformed() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString()));
+            request.setContinuationToken("not-a-token");
+
+            setupMocksForSuccessfulQuery();
+            when(responseBuilder.buildErrorResponse(any())).thenReturn(createEmptyResponse());
+
+            // When
+            documentEnquiryProcessor.processEnquiry(request, REQUESTOR_TYPE).block();
+
+            // Then
+            verify(responseBuilder).buildErrorResponse(any(IllegalArgumentException.class));
+            verify(masterTemplateDao, never()).findActiveTemplatesWithFilters(any(), any(), any(), any());
+        }
+    }
+
+    // ========================================================================
+    // Scenario 8: Streaming enquiry
+    // ========================================================================
+    @Nested
+    @DisplayName("Scenario 8: Streaming enquiry")
+    class StreamingEnquiryTests {
+
+        @Test
+        @DisplayName("Should emit documents of each account+template without building a page")
+        void shouldEmitDocumentsWithoutPagination() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString(), ACCOUNT_2.toString()));
+            request.setContinuationToken("ignored-in-stream-mode");
+
+            setupMocksForSuccessfulQuery();
+            DocumentDetailsNode node = new DocumentDetailsNode();
+            node.setDocumentId(UUID.randomUUID().toString());
+            when(responseBuilder.convertToNodes(any(), any(), anyString()))
+                    .thenReturn(List.of(node));
+
+            // When
+            Flux<DocumentDetailsNode> result = documentEnquiryProcessor.streamEnquiry(request, REQUESTOR_TYPE);
+
+            // Then
+            StepVerifier.create(result)
+                    .expectNext(node, node)
+                    .verifyComplete();
+            verify(documentMatchingService, never()).prefetchStandardDocuments(any());
+            verify(documentMatchingService, times(2)).queryDocuments(argThat((DocumentQueryParamsDto params) ->
+                    params.getPageLimit() == null && params.getPrefetchedDocuments() == null));
+            verify(responseBuilder, never()).paginate(any(), anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should complete empty when no accounts can be resolved")
+        void shouldCompleteEmpty_whenNoAccounts() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setCustomerId(CUSTOMER_ID);
+            when(accountMetadataService.getAccountsByCustomerId(CUSTOMER_ID)).thenReturn(Flux.empty());
+
+            // When / Then
+            StepVerifier.create(documentEnquiryProcessor.streamEnquiry(request, REQUESTOR_TYPE))
+                    .verifyComplete();
+            verify(masterTemplateDao, never()).findActiveTemplatesWithFilters(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should propagate failures instead of completing empty")
+        void shouldPropagateError_whenEnquiryFails() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setCustomerId(CUSTOMER_ID);
+            when(accountMetadataService.getAccountsByCustomerId(CUSTOMER_ID))
+                    .thenReturn(Flux.error(new IllegalStateException("account lookup failed")));
+
+            // When / Then
+            StepVerifier.create(documentEnquiryProcessor.streamEnquiry(request, REQUESTOR_TYPE))
+                    .verifyErrorMessage("account lookup failed");
+        }
+    }
+
+    // ========================================================================
+    // Scenario 9: Stage timings
+    // ========================================================================
+    @Nested
+    @DisplayName("Scenario 9: Stage timings")
+    class StageTimingTests {
+
+        @Test
+        @DisplayName("Should time each stage into the caller's timings and the stage timer")
+        void shouldRecordStageTimings() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString()));
+            request.setCustomerId(CUSTOMER_ID);
+            setupMocksForSuccessfulQuery();
+            EnquiryTimings timings = new EnquiryTimings();
+
+            // When
+            StepVerifier.create(documentEnquiryProcessor.processEnquiry(request, REQUESTOR_TYPE)
+                            .contextWrite(timings::writeTo))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            // Then
+            String serverTiming = timings.toServerTiming();
+            for (String stage : List.of("account_resolution", "lob_lookup", "template_query",
+                    "extraction", "storage_query", "node_conversion", "pagination")) {
+                assertTrue(serverTiming.contains(stage + ";dur="), serverTiming);
+            }
+            assertEquals(1, meterRegistry.find(EnquiryTimings.TIMER_NAME)
+                    .tags("stage", "extraction", "templateType", "TEST_TEMPLATE", "matchMode", "none")
+                    .timer().count());
+        }
+    }
+
+    // ========================================================================
+    // Scenario 10: Batched data extraction
+    // ========================================================================
+    @Nested
+    @DisplayName("Scenario 10: Batched data extraction")
+    class BatchedExtractionTests {
+
+        private final List<String> requests = new ArrayList<>();
+        private DocumentEnquiryProcessor batchingProcessor;
+
+        @BeforeEach
+        void setUp() {
+            WebClient webClient = WebClient.builder()
+                    .exchangeFunction(request -> {
+                        MockClientHttpRequest sent = new MockClientHttpRequest(request.method(), request.url());
+                        return request.writeTo(sent, ExchangeStrategies.withDefaults())
+                                .then(Mono.defer(sent::getBodyAsString))
+                                .defaultIfEmpty("")
+                                .map(body -> {
+                                    requests.add(request.method() + " " + request.url() + " " + body);
+                                    return ClientResponse.create(HttpStatus.OK)
+                                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                            .body("{\"results\":{"
+                                                    + "\"" + ACCOUNT_1 + "\":{\"account\":{\"status\":\"ACTIVE\"}},"
+                                                    + "\"" + ACCOUNT_2 + "\":{\"account\":{\"status\":\"CLOSED\"}}}}")
+                                            .build();
+                                });
+                    })
+                    .build();
+            ApiCallExecutor apiCallExecutor = new ApiCallExecutor(webClient, new FieldExtractor(),
+                    new ApiResponseCache(meterRegistry, 100, 300, 30),
+                    new InFlightApiCalls(meterRegistry),
+                    new DataSourceResilience(meterRegistry, new ExtractionResilienceConfig()));
+            ObjectMapper realObjectMapper = new ObjectMapper();
+            ConfigurableDataExtractionService extractionService = new ConfigurableDataExtractionService(
+                    realObjectMapper, new ExtractionPlanBuilder(), apiCallExecutor);
+            batchingProcessor = new DocumentEnquiryProcessor(
+                    masterTemplateDao,
+                    accountMetadataService,
+                    ruleEvaluationService,
+                    extractionService,
+                    documentMatchingService,
+                    responseBuilder,
+                    realObjectMapper,
+                    meterRegistry
+            );
+        }
+
+        @Test
+        @DisplayName("Should send one batch request with the ids of all accounts")
+        void shouldBatchExtraction_acrossAccounts() {
+            // Given
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(List.of(ACCOUNT_1.toString(), ACCOUNT_2.toString()));
+            request.setCustomerId(CUSTOMER_ID);
+            setupMocksForSuccessfulQuery();
+            MasterTemplateDto template = createTemplate();
+            template.setDataExtractionConfig(batchedExtractionConfig());
+            when(masterTemplateDao.findActiveTemplatesWithFilters(anyString(), anyBoolean(), any(), anyLong()))
+                    .thenReturn(Flux.just(template));
+
+            // When
+            StepVerifier.create(batchingProcessor.processEnquiry(request, REQUESTOR_TYPE))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            // Then
+            assertEquals(1, requests.size(), requests.toString());
+            String batchRequest = requests.get(0);
+            assertTrue(batchRequest.startsWith("POST /accounts/details:batch "), batchRequest);
+            assertTrue(batchRequest.contains(ACCOUNT_1.toString()), batchRequest);
+            assertTrue(batchRequest.contains(ACCOUNT_2.toString()), batchRequest);
+        }
+
+        /**
+         * Batch sent once it holds both accounts, so the test does not depend on the window
+         */
+        private String batchedExtractionConfig() {
+            return "{\"fieldsToExtract\":[\"status\"],"
+                    + "\"fieldSources\":{\"status\":{\"sourceApi\":\"account-api\","
+                    + "\"extractionPath\":\"$.account.status\",\"requiredInputs\":[\"accountId\"]}},"
+                    + "\"dataSources\":{\"account-api\":{"
+                    + "\"endpoint\":{\"url\":\"/accounts/${accountId}\",\"method\":\"GET\"},"
+                    + "\"batch\":{\"url\":\"/accounts/details:batch\",\"idField\":\"accountId\","
+                    + "\"responseKeyPath\":\"$.results\",\"maxBatchSize\":2,\"windowMs\":5000},"
+                    + "\"providesFields\":[\"status\"]}}}";
+        }
+    }
+
     // ========================================================================
     // Helper Methods
     // ========================================================================
@@ -370,10 +739,12 @@ public class DocumentEnquiryProcessorTest {
                 .thenReturn(Flux.just(template));
 
         // Data extraction
-        when(dataExtractionService.extractData(any(String.class), any(DocumentListRequest.class)))
+        when(dataExtractionService.extractData(any(DataExtractionConfig.class), any(DocumentListRequest.class), any()))
                 .thenReturn(Mono.just(Collections.emptyMap()));
 
         // Document matching
+        when(documentMatchingService.prefetchStandardDocuments(any(DocumentBatchQueryDto.class)))
+                .thenReturn(Mono.just(StorageIndexBatchDto.empty()));
         when(documentMatchingService.queryDocuments(any(com.documenthub.dto.DocumentQueryParamsDto.class)))
                 .thenReturn(Mono.just(Collections.emptyList()));
 
@@ -387,6 +758,10 @@ public class DocumentEnquiryProcessorTest {
                 .thenReturn(Collections.emptyList());
         when(responseBuilder.buildResponse(any(), anyInt(), anyInt(), anyInt(), anyLong()))
                 .thenReturn(response);
+        when(responseBuilder.paginateKeyset(any(), any(), anyInt()))
+                .thenReturn(new DocumentResponseBuilder.KeysetPage(Collections.emptyList(), null));
+        when(responseBuilder.buildKeysetResponse(any(), anyInt(), anyLong()))
+                .thenReturn(response);
     }
 
     private AccountMetadata createAccountMetadata(UUID accountId, UUID customerId) {
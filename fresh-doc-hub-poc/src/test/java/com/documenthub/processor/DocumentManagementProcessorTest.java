@@ -9,6 +9,7 @@ import com.documenthub.integration.ecms.EcmsClient;
 import com.documenthub.integration.ecms.dto.EcmsDocumentResponse;
 import com.documenthub.model.InlineResponse200;
 import com.documenthub.service.DocumentAccessControlService;
+import com.documenthub.service.DocumentValidityService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -61,7 +62,7 @@ public class DocumentManagementProcessorTest {
         objectMapper = new ObjectMapper();
         processor = new DocumentManagementProcessor(
             masterTemplateDao, storageIndexDao, ecmsClient,
-            accessControlService, objectMapper);
+            accessControlService, new DocumentValidityService(objectMapper), objectMapper);
     }
 
     @Nested
@@ -123,6 +123,29 @@ public class ConfigurableDataExtractionServiceTest {
                     .verifyComplete();
         }
 
+        @Test
+        @DisplayName("Should populate the account being processed")
+        void shouldPopulateProcessedAccountId() {
+            // Given
+            DataExtractionConfig config = new DataExtractionConfig();
+            UUID accountId = UUID.randomUUID();
+            DocumentListRequest request = new DocumentListRequest();
+            request.setAccountId(Arrays.asList("acc-123", accountId.toString()));
+
+            ExtractionPlan emptyPlan = mock(ExtractionPlan.class);
+            when(emptyPlan.isEmpty()).thenReturn(true);
+            when(planBuilder.buildPlan(any(), any())).thenReturn(emptyPlan);
+
+            // When
+            Mono<Map<String, Object>> result = extractionService.extractData(config, request, accountId);
+
+            // Then
+            StepVerifier.create(result)
+                    .expectNextMatches(context ->
+                            accountId.toString().equals(context.get("accountId")))
+                    .verifyComplete();
+        }
+
         @Test
         @DisplayName("Should populate customerId from request")
         void shouldPopulateCustomerId() {
@@ -223,8 +246,8 @@ public class ConfigurableDataExtractionServiceTest {
     class ExecutionTests {
 
         @Test
-        @DisplayName("Should execute plan sequentially by default")
-        void shouldExecuteSequentially_byDefault() {
+        @DisplayName("Should execute plan by dependencies by default")
+        void shouldExecuteDag_byDefault() {
             // Given - fieldsToExtract is List<String>, dataSources is Map
             String configJson = "{\"fieldsToExtract\":[\"creditScore\"],\"dataSources\":{}}";
             DocumentListRequest request = new DocumentListRequest();
@@ -236,7 +259,7 @@ public class ConfigurableDataExtractionServiceTest {
 
             Map<String, Object> extractedData = new HashMap<>();
             extractedData.put("creditScore", 750);
-            when(apiCallExecutor.executeSequential(any(), any()))
+            when(apiCallExecutor.executeDag(any(), any(), any()))
                     .thenReturn(Mono.just(extractedData));
 
             // When
@@ -248,13 +271,12 @@ public class ConfigurableDataExtractionServiceTest {
                     .expectNextMatches(context -> context.containsKey("creditScore"))
                     .verifyComplete();
 
-            verify(apiCallExecutor).executeSequential(any(), any());
-            verify(apiCallExecutor, never()).executeParallel(any(), any());
+            verify(apiCallExecutor).executeDag(any(), any(), any());
         }
 
         @Test
-        @DisplayName("Should execute plan in parallel when configured")
-        void shouldExecuteInParallel_whenConfigured() {
+        @DisplayName("Should execute plan by dependencies when mode is parallel")
+        void shouldExecuteDag_whenModeIsParallel() {
             // Given
             String configJson = "{\"fieldsToExtract\":[\"creditScore\"]," +
                     "\"dataSources\":{},\"executionStrategy\":{\"mode\":\"parallel\"}}";
@@ -267,7 +289,7 @@ public class ConfigurableDataExtractionServiceTest {
 
             Map<String, Object> extractedData = new HashMap<>();
             extractedData.put("creditScore", 750);
-            when(apiCallExecutor.executeParallel(any(), any()))
+            when(apiCallExecutor.executeDag(any(), any(), any()))
                     .thenReturn(Mono.just(extractedData));
 
             // When
@@ -279,13 +301,12 @@ public class ConfigurableDataExtractionServiceTest {
                     .expectNextMatches(context -> context.containsKey("creditScore"))
                     .verifyComplete();
 
-            verify(apiCallExecutor).executeParallel(any(), any());
-            verify(apiCallExecutor, never()).executeSequential(any(), any());
+            verify(apiCallExecutor).executeDag(any(), any(), any());
         }
 
         @Test
-        @DisplayName("Should execute sequentially when mode is sequential")
-        void shouldExecuteSequentially_whenModeIsSequential() {
+        @DisplayName("Should execute plan by dependencies when mode is sequential")
+        void shouldExecuteDag_whenModeIsSequential() {
             // Given
             String configJson = "{\"fieldsToExtract\":[\"creditScore\"]," +
                     "\"dataSources\":{},\"executionStrategy\":{\"mode\":\"sequential\"}}";
@@ -298,7 +319,7 @@ public class ConfigurableDataExtractionServiceTest {
 
             Map<String, Object> extractedData = new HashMap<>();
             extractedData.put("creditScore", 750);
-            when(apiCallExecutor.executeSequential(any(), any()))
+            when(apiCallExecutor.executeDag(any(), any(), any()))
                     .thenReturn(Mono.just(extractedData));
 
             // When
@@ -310,7 +331,7 @@ public class ConfigurableDataExtractionServiceTest {
                     .expectNextMatches(context -> context.containsKey("creditScore"))
                     .verifyComplete();
 
-            verify(apiCallExecutor).executeSequential(any(), any());
+            verify(apiCallExecutor).executeDag(any(), any(), any());
         }
     }
 
@@ -15,6 +15,8 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 public class DocumentAccessControlServiceTest {
 
@@ -202,6 +204,25 @@ public class DocumentAccessControlServiceTest {
             // Then
             assertTrue(actions.isEmpty());
         }
+
+        @Test
+        @DisplayName("Should parse access_control once per template")
+        void shouldParseAccessControlOnce() throws Exception {
+            // Given
+            ObjectMapper spyMapper = spy(new ObjectMapper());
+            DocumentAccessControlService service = new DocumentAccessControlService(spyMapper);
+            MasterTemplateDto template = new MasterTemplateDto();
+            template.setAccessControl("[{\"role\":\"Customer\",\"actions\":[\"View\"]}]");
+
+            // When
+            List<String> first = service.getPermittedActions(template, "CUSTOMER");
+            List<String> second = service.getPermittedActions(template, "CUSTOMER");
+
+            // Then
+            assertEquals(List.of("View"), first);
+            assertEquals(first, second);
+            verify(spyMapper, times(1)).readTree(anyString());
+        }
     }
 
     @Nested
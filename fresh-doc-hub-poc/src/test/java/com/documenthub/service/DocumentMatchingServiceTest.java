@@ -2,8 +2,10 @@ package com.documenthub.service;
 
 import com.documenthub.config.ReferenceKeyConfig;
 import com.documenthub.dao.StorageIndexCriteriaDao;
+import com.documenthub.dto.DocumentBatchQueryDto;
 import com.documenthub.dto.DocumentQueryParamsDto;
 import com.documenthub.dto.MasterTemplateDto;
+import com.documenthub.dto.StorageIndexBatchDto;
 import com.documenthub.dto.StorageIndexDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -497,6 +499,335 @@ public class DocumentMatchingServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("prefetchStandardDocuments Tests - Batched Query")
+    class BatchedQueryTests {
+
+        @Test
+        @DisplayName("Should redistribute batched rows to their account and template")
+        void shouldRedistributeRowsByAccountAndTemplate() {
+            // Given
+            UUID account1 = UUID.randomUUID();
+            UUID account2 = UUID.randomUUID();
+            MasterTemplateDto statement = createTemplate();
+            statement.setTemplateType("Statement");
+            MasterTemplateDto notice = createTemplate();
+            notice.setTemplateType("Notice");
+
+            StorageIndexDto doc1 = createBatchDoc(account1, "Statement", 1);
+            StorageIndexDto doc2 = createBatchDoc(account2, "Statement", 1);
+            StorageIndexDto doc3 = createBatchDoc(account1, "Notice", 1);
+
+            when(criteriaDao.findAccountDocumentsBatch(any()))
+                    .thenReturn(Flux.just(doc1, doc2, doc3));
+            when(criteriaDao.findSharedDocumentsBatch(any()))
+                    .thenReturn(Flux.empty());
+            when(validityService.filterByValidity(any()))
+                    .thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            DocumentBatchQueryDto query = DocumentBatchQueryDto.builder()
+                    .accountTemplates(Map.of(
+                            account1, List.of(statement, notice),
+                            account2, List.of(statement)))
+                    .build();
+            StorageIndexBatchDto batch = documentMatchingService.prefetchStandardDocuments(query).block();
+
+            // Then
+            assertNotNull(batch);
+            assertEquals(List.of(doc1), batch.documentsFor(account1, statement));
+            assertEquals(List.of(doc2), batch.documentsFor(account2, statement));
+            assertEquals(List.of(doc3), batch.documentsFor(account1, notice));
+            assertTrue(batch.documentsFor(account2, notice).isEmpty());
+            verify(criteriaDao, times(1)).findAccountDocumentsBatch(any());
+            verify(criteriaDao, never()).findAccountDocuments(any());
+        }
+
+        @Test
+        @DisplayName("Should share shared-template rows across accounts and filter by version")
+        void shouldShareSharedRowsAndFilterByVersion() {
+            // Given
+            MasterTemplateDto shared = createTemplate();
+            shared.setTemplateType("PrivacyPolicy");
+            shared.setTemplateVersion(2);
+            shared.setSharedDocumentFlag(true);
+
+            StorageIndexDto current = createBatchDoc(null, "PrivacyPolicy", 2);
+            StorageIndexDto old = createBatchDoc(null, "PrivacyPolicy", 1);
+
+            when(criteriaDao.findAccountDocumentsBatch(any()))
+                    .thenReturn(Flux.empty());
+            when(criteriaDao.findSharedDocumentsBatch(any()))
+                    .thenReturn(Flux.just(current, old));
+            when(validityService.filterByValidity(any()))
+                    .thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            DocumentBatchQueryDto query = DocumentBatchQueryDto.builder()
+                    .sharedTemplates(List.of(shared))
+                    .build();
+            StorageIndexBatchDto batch = documentMatchingService.prefetchStandardDocuments(query).block();
+
+            // Then
+            assertNotNull(batch);
+            assertEquals(List.of(current), batch.documentsFor(UUID.randomUUID(), shared));
+        }
+
+        @Test
+        @DisplayName("Should drop batched rows of pairs that were not requested")
+        void shouldDropRowsOfUnrequestedPairs() {
+            // Given - account2 may not access Notice, but the IN-list query returns its rows
+            UUID account1 = UUID.randomUUID();
+            UUID account2 = UUID.randomUUID();
+            MasterTemplateDto statement = createTemplate();
+            statement.setTemplateType("Statement");
+            MasterTemplateDto notice = createTemplate();
+            notice.setTemplateType("Notice");
+
+            StorageIndexDto unrequested = createBatchDoc(account2, "Notice", 1);
+            when(criteriaDao.findAccountDocumentsBatch(any()))
+                    .thenReturn(Flux.just(unrequested));
+            when(criteriaDao.findSharedDocumentsBatch(any()))
+                    .thenReturn(Flux.empty());
+            when(validityService.filterByValidity(any()))
+                    .thenAnswer(inv -> inv.getArgument(0));
+
+            DocumentBatchQueryDto query = DocumentBatchQueryDto.builder()
+                    .accountTemplates(Map.of(
+                            account1, List.of(statement, notice),
+                            account2, List.of(statement)))
+                    .build();
+
+            // When
+            StorageIndexBatchDto batch = documentMatchingService.prefetchStandardDocuments(query).block();
+
+            // Then
+            assertNotNull(batch);
+            assertTrue(batch.getDocumentsByGroup().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should not count unrequested shared versions toward a keyset page")
+        void shouldRefillSharedPage_whenUnrequestedVersionsDropped() {
+            // Given - Notice v2 matches IN(types) x IN(versions) but only Notice v1 was requested
+            MasterTemplateDto notice = createTemplate();
+            notice.setTemplateType("Notice");
+            notice.setTemplateVersion(1);
+            notice.setSharedDocumentFlag(true);
+            MasterTemplateDto policy = createTemplate();
+            policy.setTemplateType("PrivacyPolicy");
+            policy.setTemplateVersion(2);
+            policy.setSharedDocumentFlag(true);
+
+            StorageIndexDto unrequested = createBatchDoc(null, "Notice", 2);
+            unrequested.setDocCreationDate(300L);
+            StorageIndexDto currentPolicy = createBatchDoc(null, "PrivacyPolicy", 2);
+            currentPolicy.setDocCreationDate(200L);
+            StorageIndexDto currentNotice = createBatchDoc(null, "Notice", 1);
+            currentNotice.setDocCreationDate(100L);
+
+            when(criteriaDao.findAccountDocumentsBatch(any()))
+                    .thenReturn(Flux.empty());
+            when(criteriaDao.findSharedDocumentsBatch(argThat(q -> q != null && q.getCursor() == null)))
+                    .thenReturn(Flux.just(unrequested, currentPolicy));
+            when(criteriaDao.findSharedDocumentsBatch(argThat(q -> q != null && q.getCursor() != null)))
+                    .thenReturn(Flux.just(currentNotice));
+            when(validityService.filterByValidity(any()))
+                    .thenAnswer(inv -> inv.getArgument(0));
+
+            DocumentBatchQueryDto query = DocumentBatchQueryDto.builder()
+                    .sharedTemplates(List.of(notice, policy))
+                    .pageLimit(2)
+                    .build();
+
+            // When
+            StorageIndexBatchDto batch = documentMatchingService.prefetchStandardDocuments(query).block();
+
+            // Then - the page is filled from the next chunk instead of ending short
+            assertNotNull(batch);
+            assertEquals(List.of(currentNotice), batch.documentsFor(UUID.randomUUID(), notice));
+            assertEquals(List.of(currentPolicy), batch.documentsFor(UUID.randomUUID(), policy));
+        }
+
+        @Test
+        @DisplayName("Should return null for templates not in the batch")
+        void shouldReturnNull_whenTemplateNotBatched() {
+            MasterTemplateDto template = createTemplate();
+
+            assertNull(StorageIndexBatchDto.empty().documentsFor(UUID.randomUUID(), template));
+        }
+
+        @Test
+        @DisplayName("Should use prefetched documents instead of querying")
+        void shouldUsePrefetchedDocuments() {
+            // Given
+            MasterTemplateDto template = createTemplate();
+            DocumentQueryParamsDto params = buildParams(template, UUID.randomUUID(), null);
+            params.setPrefetchedDocuments(List.of(createStorageEntity()));
+
+            // When
+            Mono<List<StorageIndexDto>> result = documentMatchingService.queryDocuments(params);
+
+            // Then
+            StepVerifier.create(result)
+                    .expectNextMatches(list -> list.size() == 1)
+                    .verifyComplete();
+            verify(criteriaDao, never()).findAccountDocuments(any());
+            verify(criteriaDao, never()).findSharedDocuments(any());
+        }
+
+        private StorageIndexDto createBatchDoc(UUID accountKey, String templateType, int version) {
+            StorageIndexDto doc = createStorageEntity();
+            doc.setAccountKey(accountKey);
+            doc.setTemplateType(templateType);
+            doc.setTemplateVersion(version);
+            return doc;
+        }
+    }
+
+    @Nested
+    @DisplayName("queryDocuments Tests - Keyset Pagination")
+    class KeysetPaginationTests {
+
+        @Test
+        @DisplayName("Should fetch the next chunk when validity filtering under-fills a page")
+        void shouldRefill_whenValidityFilterDropsRows() {
+            // Given - first chunk of 2 rows has one expired document
+            MasterTemplateDto template = createTemplate();
+            StorageIndexDto valid1 = createStorageEntity();
+            valid1.setDocCreationDate(300L);
+            StorageIndexDto expired = createStorageEntity();
+            expired.setDocCreationDate(200L);
+            StorageIndexDto valid2 = createStorageEntity();
+            valid2.setDocCreationDate(100L);
+
+            when(criteriaDao.findAccountDocuments(argThat(p -> p != null && p.getCursor() == null)))
+                    .thenReturn(Flux.just(valid1, expired));
+            when(criteriaDao.findAccountDocuments(argThat(p -> p != null && p.getCursor() != null)))
+                    .thenReturn(Flux.just(valid2));
+            when(validityService.filterByValidity(any()))
+                    .thenAnswer(inv -> {
+                        List<StorageIndexDto> docs = new ArrayList<>(inv.getArgument(0));
+                        docs.remove(expired);
+                        return docs;
+                    });
+
+            DocumentQueryParamsDto params = buildParams(template, UUID.randomUUID(), null);
+            params.setPageLimit(2);
+
+            // When
+            Mono<List<StorageIndexDto>> result = documentMatchingService.queryDocuments(params);
+
+            // Then
+            StepVerifier.create(result)
+                    .expectNext(List.of(valid1, valid2))
+                    .verifyComplete();
+            verify(criteriaDao).findAccountDocuments(argThat(p -> p != null && p.getCursor() != null
+                    && p.getCursor().getDocCreationDate() == 200L && p.getPageLimit() == 1));
+        }
+
+        @Test
+        @DisplayName("Should not refill when the first chunk is not full")
+        void shouldNotRefill_whenChunkNotFull() {
+            // Given
+            MasterTemplateDto template = createTemplate();
+            when(criteriaDao.findAccountDocuments(any()))
+                    .thenReturn(Flux.just(createStorageEntity()));
+            when(validityService.filterByValidity(any()))
+                    .thenReturn(Collections.emptyList());
+
+            DocumentQueryParamsDto params = buildParams(template, UUID.randomUUID(), null);
+            params.setPageLimit(5);
+
+            // When
+            Mono<List<StorageIndexDto>> result = documentMatchingService.queryDocuments(params);
+
+            // Then
+            StepVerifier.create(result)
+                    .expectNextMatches(List::isEmpty)
+                    .verifyComplete();
+            verify(criteriaDao, times(1)).findAccountDocuments(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("queryDocuments Tests - Auto-discover")
+    class AutoDiscoverTests {
+
+        private static final String AUTO_DISCOVER_CONFIG = "{\"matchBy\":\"reference_key\","
+                + "\"matchMode\":\"auto_discover\",\"referenceKeyType\":\"DISCLOSURE\"}";
+
+        @Test
+        @DisplayName("Should load metadata newest first and return the latest valid document")
+        void shouldReturnLatestValidDocument_loadingMetadataLazily() {
+            // Given - the newest document is expired
+            MasterTemplateDto template = createTemplate();
+            template.setDocumentMatchingConfig(AUTO_DISCOVER_CONFIG);
+            StorageIndexDto older = createStorageEntity();
+            older.setDocCreationDate(100L);
+            StorageIndexDto expired = createStorageEntity();
+            expired.setDocCreationDate(300L);
+
+            when(criteriaDao.findByReferenceKeyType(eq("DISCLOSURE"), any()))
+                    .thenReturn(Flux.just(older, expired));
+            when(criteriaDao.findMetadata(any()))
+                    .thenAnswer(inv -> {
+                        Map<UUID, String> metadata = new HashMap<>();
+                        metadata.put(expired.getStorageIndexId(), "{\"valid_until\":\"2000-01-01\"}");
+                        metadata.put(older.getStorageIndexId(), null);
+                        return Mono.just(metadata);
+                    });
+            when(validityService.filterByValidity(any()))
+                    .thenAnswer(inv -> {
+                        List<StorageIndexDto> docs = new ArrayList<>(inv.getArgument(0));
+                        docs.removeIf(doc -> doc.getDocMetadata() != null);
+                        return docs;
+                    });
+
+            // When
+            Mono<List<StorageIndexDto>> result = documentMatchingService.queryDocuments(
+                    buildParams(template, UUID.randomUUID(), new HashMap<>()));
+
+            // Then
+            StepVerifier.create(result)
+                    .expectNext(List.of(older))
+                    .verifyComplete();
+            verify(criteriaDao).findMetadata(List.of(expired.getStorageIndexId(), older.getStorageIndexId()));
+        }
+
+        @Test
+        @DisplayName("Should stop loading metadata once a chunk has a valid document")
+        void shouldStopLoadingMetadata_whenChunkHasValidDocument() {
+            // Given - more candidates than one metadata chunk
+            MasterTemplateDto template = createTemplate();
+            template.setDocumentMatchingConfig(AUTO_DISCOVER_CONFIG);
+            List<StorageIndexDto> candidates = new ArrayList<>();
+            for (int i = 0; i < DocumentMatchingService.AUTO_DISCOVER_METADATA_CHUNK + 5; i++) {
+                StorageIndexDto doc = createStorageEntity();
+                doc.setDocCreationDate((long) i);
+                candidates.add(doc);
+            }
+
+            when(criteriaDao.findByReferenceKeyType(anyString(), any()))
+                    .thenReturn(Flux.fromIterable(candidates));
+            when(criteriaDao.findMetadata(any()))
+                    .thenReturn(Mono.just(Collections.emptyMap()));
+            when(validityService.filterByValidity(any()))
+                    .thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            Mono<List<StorageIndexDto>> result = documentMatchingService.queryDocuments(
+                    buildParams(template, UUID.randomUUID(), new HashMap<>()));
+
+            // Then
+            StepVerifier.create(result)
+                    .expectNext(List.of(candidates.get(candidates.size() - 1)))
+                    .verifyComplete();
+            verify(criteriaDao, times(1)).findMetadata(argThat(ids ->
+                    ids.size() == DocumentMatchingService.AUTO_DISCOVER_METADATA_CHUNK));
+        }
+    }
+
     // Helper methods
     private MasterTemplateDto createTemplate() {
         MasterTemplateDto template = new MasterTemplateDto();
@@ -1,5 +1,6 @@
 package com.documenthub.service;
 
+import com.documenthub.dto.DocumentCursorDto;
 import com.documenthub.dto.MasterTemplateDto;
 import com.documenthub.dto.StorageIndexDto;
 import com.documenthub.model.*;
@@ -260,6 +261,93 @@ public class DocumentResponseBuilderTest {
         }
     }
 
+    @Nested
+    @DisplayName("paginateKeyset Tests")
+    class PaginateKeysetTests {
+
+        @Test
+        @DisplayName("Should k-way merge sources newest first and emit a token")
+        void shouldMergeSourcesNewestFirst() {
+            // Given
+            DocumentDetailsNode a1 = createDatedNode(500L);
+            DocumentDetailsNode a2 = createDatedNode(300L);
+            DocumentDetailsNode b1 = createDatedNode(400L);
+            DocumentDetailsNode b2 = createDatedNode(100L);
+
+            // When
+            DocumentResponseBuilder.KeysetPage page = responseBuilder.paginateKeyset(
+                    List.of(List.of(a1, a2), List.of(b2, b1)), null, 3);
+
+            // Then
+            assertEquals(List.of(a1, b1, a2), page.documents());
+            assertNotNull(page.continuationToken());
+            DocumentCursorDto next = DocumentCursorDto.decode(page.continuationToken());
+            assertEquals(300L, next.getDocCreationDate());
+            assertEquals(a2.getDocumentId(), next.getStorageIndexId().toString());
+        }
+
+        @Test
+        @DisplayName("Should continue after the cursor and omit token on last page")
+        void shouldContinueAfterCursor() {
+            // Given
+            DocumentDetailsNode a1 = createDatedNode(500L);
+            DocumentDetailsNode a2 = createDatedNode(300L);
+            DocumentDetailsNode b1 = createDatedNode(400L);
+            DocumentCursorDto cursor = DocumentCursorDto.of(b1.getDatePosted(), b1.getDocumentId());
+
+            // When - sources not limited in SQL still contain rows before the cursor
+            DocumentResponseBuilder.KeysetPage page = responseBuilder.paginateKeyset(
+                    List.of(List.of(a1, a2), List.of(b1)), cursor, 3);
+
+            // Then
+            assertEquals(List.of(a2), page.documents());
+            assertNull(page.continuationToken());
+        }
+
+        @Test
+        @DisplayName("Should break date ties by document id")
+        void shouldBreakTiesById() {
+            // Given
+            DocumentDetailsNode low = createDatedNode(100L);
+            low.setDocumentId("00000000-0000-0000-0000-000000000001");
+            DocumentDetailsNode high = createDatedNode(100L);
+            high.setDocumentId("f0000000-0000-0000-0000-000000000001");
+
+            // When
+            DocumentResponseBuilder.KeysetPage first = responseBuilder.paginateKeyset(
+                    List.of(List.of(low), List.of(high)), null, 1);
+            DocumentResponseBuilder.KeysetPage second = responseBuilder.paginateKeyset(
+                    List.of(List.of(low), List.of(high)),
+                    DocumentCursorDto.decode(first.continuationToken()), 1);
+
+            // Then
+            assertEquals(List.of(high), first.documents());
+            assertEquals(List.of(low), second.documents());
+            assertNull(second.continuationToken());
+        }
+
+        @Test
+        @DisplayName("Should build keyset response without totals")
+        void shouldBuildKeysetResponseWithoutTotals() {
+            // When
+            DocumentRetrievalResponse response = responseBuilder.buildKeysetResponse(
+                    new DocumentResponseBuilder.KeysetPage(createDocumentNodes(2), "token"), 2, 5L);
+
+            // Then
+            assertEquals(2, response.getDocumentList().size());
+            assertEquals("token", response.getPagination().getContinuationToken());
+            assertNull(response.getPagination().getTotalItems());
+            assertNull(response.getPagination().getTotalPages());
+        }
+
+        private DocumentDetailsNode createDatedNode(long datePosted) {
+            DocumentDetailsNode node = new DocumentDetailsNode();
+            node.setDocumentId(UUID.randomUUID().toString());
+            node.setDatePosted(datePosted);
+            return node;
+        }
+    }
+
     @Nested
     @DisplayName("determinePageSize Tests")
     class DeterminePageSizeTests {
@@ -25,6 +25,7 @@ import org.springframework.http.codec.multipart.FilePart;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.LocalDate;
 import java.util.Map;
 import java.util.UUID;
 
@@ -81,6 +82,7 @@ public class DocumentUploadServiceTest {
             storageIndexDao,
             masterTemplateDao,
             accessControlService,
+            new DocumentValidityService(objectMapper),
             referenceKeyConfig,
             objectMapper
         );
@@ -466,6 +468,40 @@ public class DocumentUploadServiceTest {
             verify(storageIndexDao).save(captor.capture());
             assertNotNull(captor.getValue().getDocMetadata());
         }
+
+        @Test
+        @DisplayName("Should normalize validity dates from metadata")
+        void shouldNormalizeValidityFromMetadata() {
+            // Given
+            MasterTemplateDto template = createTemplate(false);
+            DocumentUploadRequest request = DocumentUploadRequest.builder()
+                .templateType(TEMPLATE_TYPE)
+                .templateVersion(TEMPLATE_VERSION)
+                .fileName(FILE_NAME)
+                .metadata(Map.of("valid_from", "2024-01-01", "valid_until", "2024-12-31"))
+                .build();
+            EcmsDocumentResponse ecmsResponse = createEcmsResponse();
+
+            when(masterTemplateDao.findByTypeAndVersion(TEMPLATE_TYPE, TEMPLATE_VERSION))
+                .thenReturn(Mono.just(template));
+            when(ecmsClient.uploadDocument(any(byte[].class), any()))
+                .thenReturn(Mono.just(ecmsResponse));
+            when(storageIndexDao.save(any()))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+            // When
+            StepVerifier.create(uploadService.uploadDocument(new byte[]{1, 2, 3}, request, USER_ID, REQUESTOR_TYPE_SYSTEM))
+                .expectNextCount(1)
+                .verifyComplete();
+
+            // Then
+            ArgumentCaptor<StorageIndexDto> captor = ArgumentCaptor.forClass(StorageIndexDto.class);
+            verify(storageIndexDao).save(captor.capture());
+            StorageIndexDto saved = captor.getValue();
+            assertTrue(saved.getValidityNormalized());
+            assertEquals(LocalDate.of(2024, 1, 1), saved.getValidFrom());
+            assertEquals(LocalDate.of(2024, 12, 31), saved.getValidUntil());
+        }
     }
 
     // ========================================================================
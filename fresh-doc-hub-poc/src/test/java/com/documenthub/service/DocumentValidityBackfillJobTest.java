@@ -0,0 +1,79 @@
+package com.documenthub.service;
+
+import com.documenthub.dao.StorageIndexCriteriaDao;
+import com.documenthub.dto.StorageIndexDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DocumentValidityBackfillJob.
+ * Tests walking not yet normalized documents in batches and storing their validity dates.
+ */
+@ExtendWith(MockitoExtension.class)
+public class DocumentValidityBackfillJobTest {
+
+    @Mock
+    private StorageIndexCriteriaDao criteriaDao;
+
+    private DocumentValidityBackfillJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new DocumentValidityBackfillJob(criteriaDao, new DocumentValidityService(new ObjectMapper()));
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Should normalize every batch until a batch is not full")
+    void shouldNormalizeAllBatches() {
+        // Given - a full batch of two documents, then one more
+        StorageIndexDto first = document("{\"valid_until\":\"2024-01-31\"}");
+        StorageIndexDto second = document(null);
+        StorageIndexDto third = document("{\"valid_from\":\"2024-02-01\"}");
+
+        when(criteriaDao.findValidityBackfillBatch(isNull(), eq(2)))
+            .thenReturn(Flux.just(first, second));
+        when(criteriaDao.findValidityBackfillBatch(eq(second.getStorageIndexId()), eq(2)))
+            .thenReturn(Flux.just(third));
+        when(criteriaDao.updateValidity(any())).thenReturn(Mono.just(1));
+
+        // When / Then
+        StepVerifier.create(job.backfill())
+            .expectNext(3L)
+            .verifyComplete();
+
+        ArgumentCaptor<StorageIndexDto> updated = ArgumentCaptor.forClass(StorageIndexDto.class);
+        verify(criteriaDao, times(3)).updateValidity(updated.capture());
+        List<StorageIndexDto> docs = updated.getAllValues();
+        assertEquals(LocalDate.of(2024, 1, 31), docs.get(0).getValidUntil());
+        assertNull(docs.get(1).getValidFrom());
+        assertEquals(LocalDate.of(2024, 2, 1), docs.get(2).getValidFrom());
+        assertTrue(docs.stream().allMatch(StorageIndexDto::getValidityNormalized));
+    }
+
+    // Helper methods
+    private StorageIndexDto document(String metadata) {
+        StorageIndexDto doc = new StorageIndexDto();
+        doc.setStorageIndexId(UUID.randomUUID());
+        doc.setDocMetadata(metadata);
+        return doc;
+    }
+}
@@ -338,6 +338,56 @@ public class DocumentValidityServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("normalizeValidity Tests")
+    class NormalizeValidityTests {
+
+        @Test
+        @DisplayName("Should fill validity dates from any supported field and format")
+        void shouldNormalizeValidityDates() {
+            // Given
+            StorageIndexDto doc = createStorageEntity();
+            doc.setDocMetadata("{\"effectiveDate\":\"06/15/2024\",\"expiry_date\":\"2025-06-15\"}");
+
+            // When
+            validityService.normalizeValidity(doc);
+
+            // Then
+            assertEquals(LocalDate.of(2024, 6, 15), doc.getValidFrom());
+            assertEquals(LocalDate.of(2025, 6, 15), doc.getValidUntil());
+            assertTrue(doc.getValidityNormalized());
+        }
+
+        @Test
+        @DisplayName("Should mark documents without metadata as normalized without bounds")
+        void shouldNormalize_whenNoMetadata() {
+            // Given
+            StorageIndexDto doc = createStorageEntity();
+
+            // When
+            validityService.normalizeValidity(doc);
+
+            // Then
+            assertNull(doc.getValidFrom());
+            assertNull(doc.getValidUntil());
+            assertTrue(doc.getValidityNormalized());
+        }
+
+        @Test
+        @DisplayName("Should check normalized documents on their columns instead of metadata")
+        void shouldUseColumns_whenNormalized() {
+            // Given - metadata says valid, normalized columns say expired
+            LocalDate today = LocalDate.now();
+            StorageIndexDto doc = createDocumentWithValidity(
+                    today.minusDays(10).toString(), today.plusDays(10).toString());
+            doc.setValidUntil(today.minusDays(1));
+            doc.setValidityNormalized(true);
+
+            // When / Then
+            assertFalse(validityService.isDocumentValid(doc, today));
+        }
+    }
+
     // Helper methods
     private StorageIndexDto createStorageEntity() {
         StorageIndexDto entity = new StorageIndexDto();
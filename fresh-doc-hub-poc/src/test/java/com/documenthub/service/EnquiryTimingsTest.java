@@ -0,0 +1,117 @@
+package com.documenthub.service;
+
+import com.documenthub.service.EnquiryTimings.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EnquiryTimings.
+ * Tests stage timing through the Reactor context, the Server-Timing header,
+ * the stage timers and their template type limit.
+ */
+public class EnquiryTimingsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EnquiryTimings timings;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        timings = new EnquiryTimings();
+    }
+
+    @Nested
+    @DisplayName("Stage timing Tests")
+    class StageTimingTests {
+
+        @Test
+        @DisplayName("Should record each stage to the timer tagged by template type and matchMode")
+        void shouldRecordStageTimers() {
+            // Given
+            Mono<String> enquiry = EnquiryTimings.time(Stage.LOB_LOOKUP, Mono.just("CREDIT_CARD"))
+                .flatMap(lob -> EnquiryTimings.time(Stage.EXTRACTION, "Statement", "extracted", Mono.just(lob)))
+                .contextWrite(timings::writeTo);
+
+            // When
+            StepVerifier.create(enquiry).expectNext("CREDIT_CARD").verifyComplete();
+            timings.recordTo(meterRegistry);
+            timings.recordTo(meterRegistry);
+
+            // Then
+            Timer extraction = meterRegistry.find(EnquiryTimings.TIMER_NAME)
+                .tags("stage", "extraction", "templateType", "Statement", "matchMode", "extracted")
+                .timer();
+            assertNotNull(extraction);
+            assertEquals(1, extraction.count());
+            assertEquals(1, meterRegistry.find(EnquiryTimings.TIMER_NAME)
+                .tags("stage", "lob_lookup", "templateType", "none", "matchMode", "none")
+                .timer().count());
+        }
+
+        @Test
+        @DisplayName("Should sum stages in the Server-Timing header")
+        void shouldBuildServerTimingHeader() {
+            // Given
+            Mono<Void> enquiry = EnquiryTimings.time(Stage.EXTRACTION, "Statement", "none", Mono.just(1))
+                .then(EnquiryTimings.time(Stage.EXTRACTION, "Notice", "none", Mono.just(2)))
+                .then(EnquiryTimings.time(Stage.PAGINATION, Mono.just(3)))
+                .then()
+                .contextWrite(timings::writeTo);
+
+            // When
+            enquiry.block();
+
+            // Then
+            String header = timings.toServerTiming();
+            assertTrue(header.matches("extraction;dur=\\d+\\.\\d;desc=\"2x\", pagination;dur=\\d+\\.\\d;desc=\"1x\""),
+                header);
+        }
+
+        @Test
+        @DisplayName("Should run stages unmeasured without timings in the context")
+        void shouldRunStage_withoutTimings() {
+            // When / Then
+            StepVerifier.create(EnquiryTimings.time(Stage.PAGINATION, Mono.just("page")))
+                .expectNext("page")
+                .verifyComplete();
+            assertEquals("", timings.toServerTiming());
+        }
+    }
+
+    @Nested
+    @DisplayName("Template type limit Tests")
+    class TemplateTypeLimitTests {
+
+        @Test
+        @DisplayName("Should tag template types above the limit as other")
+        void shouldTagExtraTemplateTypesAsOther() {
+            // Given
+            meterRegistry.config().meterFilter(EnquiryTimings.templateTypeLimit(1));
+
+            // When
+            for (String templateType : List.of("Statement", "Notice")) {
+                EnquiryTimings.time(Stage.EXTRACTION, templateType, "none", Mono.empty())
+                    .contextWrite(timings::writeTo)
+                    .block();
+            }
+            EnquiryTimings.time(Stage.PAGINATION, Mono.empty()).contextWrite(timings::writeTo).block();
+            timings.recordTo(meterRegistry);
+
+            // Then
+            assertNotNull(meterRegistry.find(EnquiryTimings.TIMER_NAME).tag("templateType", "Statement").timer());
+            assertNotNull(meterRegistry.find(EnquiryTimings.TIMER_NAME).tag("templateType", "other").timer());
+            assertNull(meterRegistry.find(EnquiryTimings.TIMER_NAME).tag("templateType", "Notice").timer());
+            assertNotNull(meterRegistry.find(EnquiryTimings.TIMER_NAME).tag("templateType", "none").timer());
+        }
+    }
+}
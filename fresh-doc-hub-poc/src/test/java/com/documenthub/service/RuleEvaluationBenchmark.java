@@ -0,0 +1,270 @@
+package com.documenthub.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.documenthub.model.AccountMetadata;
+import com.documenthub.model.EligibilityCriteria;
+import com.documenthub.model.Rule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled {@link EligibilityPredicate} with the rule interpreter it replaced.
+ *
+ * Uses the criteria of the RuleEvaluationServiceTest scenarios: zipcode IN list, credit
+ * score threshold, multi-criteria AND, OR of promotional criteria and exclusion list.
+ * Each benchmark evaluates all of them for one account, as an enquiry does per template.
+ *
+ * Not run by the test suite. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.documenthub.service.RuleEvaluationBenchmark}
+ * or from the IDE through {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleEvaluationBenchmark {
+
+    private List<EligibilityCriteria> criteria;
+    private EligibilityPredicate[] predicates;
+    private AccountMetadata accountMetadata;
+    private Map<String, Object> requestContext;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        // The test classpath logs at DEBUG; measure with the production level
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        criteria = Arrays.asList(
+            // Scenario 1: zipcode IN list (extracted field)
+            criteria("AND", rule("zipcode", "IN",
+                Arrays.asList("94102", "94103", "94104", "94105", "94107", "94108", "94109", "94110"))),
+            // Scenario 2: credit score threshold
+            criteria("AND", rule("creditScore", "GREATER_THAN_OR_EQUAL", 750)),
+            // Scenario 4: multi-criteria AND
+            criteria("AND",
+                rule("accountType", "EQUALS", "credit_card"),
+                rule("customerSegment", "EQUALS", "VIP"),
+                rule("state", "IN", Arrays.asList("CA", "NY", "TX"))),
+            // Scenario 5: multi-criteria OR, only the last rule passes
+            criteria("OR",
+                rule("customerSegment", "EQUALS", "ENTERPRISE"),
+                rule("creditScore", "GREATER_THAN_OR_EQUAL", 800),
+                rule("state", "IN", Arrays.asList("CA", "WA"))),
+            // Scenario 10: exclusion list
+            criteria("AND", rule("state", "NOT_IN", Arrays.asList("NY", "NJ", "CT"))));
+
+        predicates = criteria.stream()
+            .map(EligibilityPredicate::compile)
+            .toArray(EligibilityPredicate[]::new);
+
+        accountMetadata = AccountMetadata.builder()
+            .accountId(UUID.randomUUID())
+            .accountType("credit_card")
+            .customerSegment("VIP")
+            .state("CA")
+            .region("US_WEST")
+            .build();
+
+        requestContext = new HashMap<>();
+        requestContext.put("zipcode", "94105");
+        requestContext.put("creditScore", 785);
+    }
+
+    @Benchmark
+    public void interpreter(Blackhole blackhole) {
+        for (EligibilityCriteria each : criteria) {
+            blackhole.consume(LegacyRuleInterpreter.evaluate(each, accountMetadata, requestContext));
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) {
+        for (EligibilityPredicate predicate : predicates) {
+            blackhole.consume(predicate.test(accountMetadata, requestContext));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RuleEvaluationBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+
+    // Helper methods
+    private static EligibilityCriteria criteria(String operator, Rule... rules) {
+        return EligibilityCriteria.builder()
+            .operator(operator)
+            .rules(Arrays.asList(rules))
+            .build();
+    }
+
+    private static Rule rule(String field, String operator, Object value) {
+        return Rule.builder()
+            .field(field)
+            .operator(operator)
+            .value(value)
+            .build();
+    }
+
+    /**
+     * The rule interpreter of RuleEvaluationService before criteria were compiled,
+     * kept as the baseline (logging removed).
+     */
+    static final class LegacyRuleInterpreter {
+
+        private LegacyRuleInterpreter() {
+        }
+
+        static boolean evaluate(
+            EligibilityCriteria criteria,
+            AccountMetadata accountMetadata,
+            Map<String, Object> requestContext
+        ) {
+            if (criteria == null || criteria.getRules() == null || criteria.getRules().isEmpty()) {
+                return true;
+            }
+
+            String operator = criteria.getOperator() != null ? criteria.getOperator() : "AND";
+
+            if ("OR".equalsIgnoreCase(operator)) {
+                for (Rule rule : criteria.getRules()) {
+                    if (evaluateRule(rule, accountMetadata, requestContext)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            for (Rule rule : criteria.getRules()) {
+                if (!evaluateRule(rule, accountMetadata, requestContext)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean evaluateRule(
+            Rule rule,
+            AccountMetadata accountMetadata,
+            Map<String, Object> requestContext
+        ) {
+            Object actualValue = getFieldValue(rule.getField(), accountMetadata, requestContext);
+            if (actualValue == null) {
+                return false;
+            }
+            return evaluateOperator(rule.getOperator(), actualValue, rule.getValue());
+        }
+
+        private static Object getFieldValue(
+            String field,
+            AccountMetadata accountMetadata,
+            Map<String, Object> requestContext
+        ) {
+            if (field.startsWith("$metadata.")) {
+                String metadataField = field.substring("$metadata.".length());
+                return requestContext != null ? requestContext.get(metadataField) : null;
+            }
+            if (field.startsWith("$request.")) {
+                String requestField = field.substring("$request.".length());
+                return requestContext != null ? requestContext.get(requestField) : null;
+            }
+
+            switch (field) {
+                case "accountType":
+                    return accountMetadata.getAccountType();
+                case "region":
+                    return accountMetadata.getRegion();
+                case "state":
+                    return accountMetadata.getState();
+                case "customerSegment":
+                    return accountMetadata.getCustomerSegment();
+                case "lineOfBusiness":
+                    return accountMetadata.getLineOfBusiness();
+                case "accountId":
+                    return accountMetadata.getAccountId() != null ?
+                        accountMetadata.getAccountId().toString() : null;
+                case "customerId":
+                    return accountMetadata.getCustomerId() != null ?
+                        accountMetadata.getCustomerId().toString() : null;
+                default:
+                    if (requestContext != null && requestContext.containsKey(field)) {
+                        return requestContext.get(field);
+                    }
+                    return null;
+            }
+        }
+
+        private static boolean evaluateOperator(String operator, Object actualValue, Object expectedValue) {
+            if (operator == null) {
+                operator = "EQUALS";
+            }
+
+            switch (operator.toUpperCase()) {
+                case "EQUALS":
+                    return actualValue.equals(expectedValue);
+                case "NOT_EQUALS":
+                    return !actualValue.equals(expectedValue);
+                case "IN":
+                    if (expectedValue instanceof List) {
+                        return ((List<?>) expectedValue).contains(actualValue);
+                    }
+                    return false;
+                case "NOT_IN":
+                    if (expectedValue instanceof List) {
+                        return !((List<?>) expectedValue).contains(actualValue);
+                    }
+                    return true;
+                case "GREATER_THAN":
+                    return compareNumeric(actualValue, expectedValue) > 0;
+                case "LESS_THAN":
+                    return compareNumeric(actualValue, expectedValue) < 0;
+                case "GREATER_THAN_OR_EQUAL":
+                    return compareNumeric(actualValue, expectedValue) >= 0;
+                case "LESS_THAN_OR_EQUAL":
+                    return compareNumeric(actualValue, expectedValue) <= 0;
+                case "CONTAINS":
+                    return actualValue.toString().contains(expectedValue.toString());
+                case "STARTS_WITH":
+                    return actualValue.toString().startsWith(expectedValue.toString());
+                case "ENDS_WITH":
+                    return actualValue.toString().endsWith(expectedValue.toString());
+                default:
+                    return false;
+            }
+        }
+
+        private static int compareNumeric(Object actual, Object expected) {
+            try {
+                double actualNum = Double.parseDouble(actual.toString());
+                double expectedNum = Double.parseDouble(expected.toString());
+                return Double.compare(actualNum, expectedNum);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.documenthub.service;
 
+import com.documenthub.dto.MasterTemplateDto;
 import com.documenthub.model.AccountMetadata;
 import com.documenthub.model.EligibilityCriteria;
 import com.documenthub.model.Rule;
@@ -1457,6 +1458,111 @@ public class RuleEvaluationServiceTest {
         }
     }
 
+    // ========================================================================
+    // SCENARIO 16: Template eligibility_criteria
+    // Use Case: Criteria are parsed once per template version and reused
+    // ========================================================================
+    @Nested
+    @DisplayName("Scenario 16: Template Eligibility Criteria")
+    class TemplateEligibilityTests {
+
+        @Test
+        @DisplayName("Should evaluate eligibility_criteria of a template")
+        void shouldEvaluateTemplateCriteria() {
+            // Given
+            MasterTemplateDto template = new MasterTemplateDto();
+            template.setEligibilityCriteria(
+                "{\"operator\":\"AND\",\"rules\":[{\"field\":\"region\",\"operator\":\"EQUALS\",\"value\":\"US_WEST\"}]}");
+            AccountMetadata accountMetadata = createDefaultAccountMetadata();
+
+            // When
+            boolean result = ruleEvaluationService.evaluateEligibility(
+                template, accountMetadata, new HashMap<>()
+            );
+
+            // Then
+            assertTrue(result);
+            assertNotNull(template.getCompiled(), "Parsed criteria should be attached to the template");
+            assertNotNull(template.getCompiled().getEligibilityCriteria());
+        }
+
+        @Test
+        @DisplayName("Should deny access when template eligibility_criteria is invalid JSON")
+        void shouldDeny_whenTemplateCriteriaInvalid() {
+            // Given
+            MasterTemplateDto template = new MasterTemplateDto();
+            template.setEligibilityCriteria("not json");
+
+            // When
+            boolean result = ruleEvaluationService.evaluateEligibility(
+                template, createDefaultAccountMetadata(), new HashMap<>()
+            );
+
+            // Then
+            assertFalse(result);
+        }
+    }
+
+    // ========================================================================
+    // SCENARIO 17: Compiled Predicate
+    // Use Case: eligibility_criteria is compiled once per template and reused per account
+    // ========================================================================
+    @Nested
+    @DisplayName("Scenario 17: Compiled Predicate")
+    class CompiledPredicateTests {
+
+        @Test
+        @DisplayName("Should compile template criteria once and reuse the predicate")
+        void shouldReuseCompiledPredicate() {
+            // Given
+            MasterTemplateDto template = new MasterTemplateDto();
+            template.setEligibilityCriteria(
+                "{\"operator\":\"OR\",\"rules\":["
+                    + "{\"field\":\"state\",\"operator\":\"in\",\"value\":[\"NY\",\"CA\"]},"
+                    + "{\"field\":\"creditScore\",\"operator\":\"GREATER_THAN\",\"value\":\"700\"}]}");
+            Map<String, Object> context = Map.of("creditScore", 650);
+
+            // When
+            boolean first = ruleEvaluationService.evaluateEligibility(template, createDefaultAccountMetadata(), context);
+            EligibilityPredicate predicate = template.getCompiled().getEligibilityPredicate();
+            AccountMetadata texan = createDefaultAccountMetadata();
+            texan.setState("TX");
+            boolean second = ruleEvaluationService.evaluateEligibility(template, texan, context);
+
+            // Then
+            assertTrue(first);
+            assertFalse(second);
+            assertSame(predicate, template.getCompiled().getEligibilityPredicate());
+        }
+
+        @Test
+        @DisplayName("Should compare typed and string numbers against a pre-parsed constant")
+        void shouldCompareNumbers_againstParsedConstant() {
+            // Given
+            EligibilityPredicate predicate = EligibilityPredicate.compile(EligibilityCriteria.builder()
+                .rules(List.of(Rule.builder().field("balance").operator("GREATER_THAN_OR_EQUAL").value(1000.5).build()))
+                .build());
+
+            // When / Then
+            assertTrue(predicate.test(createDefaultAccountMetadata(), Map.of("balance", 2000L)));
+            assertTrue(predicate.test(createDefaultAccountMetadata(), Map.of("balance", "1000.5")));
+            assertFalse(predicate.test(createDefaultAccountMetadata(), Map.of("balance", 999.99)));
+        }
+
+        @Test
+        @DisplayName("Should never pass rules with unknown operators")
+        void shouldFail_whenOperatorUnknown() {
+            // Given
+            EligibilityPredicate predicate = EligibilityPredicate.compile(EligibilityCriteria.builder()
+                .operator("OR")
+                .rules(List.of(Rule.builder().field("region").operator("MATCHES").value("US_WEST").build()))
+                .build());
+
+            // When / Then
+            assertFalse(predicate.test(createDefaultAccountMetadata(), new HashMap<>()));
+        }
+    }
+
     // ========================================================================
     // Helper Methods
     // ========================================================================
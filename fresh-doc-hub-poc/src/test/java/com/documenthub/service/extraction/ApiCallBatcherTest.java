@@ -0,0 +1,145 @@
+package com.documenthub.service.extraction;
+
+import com.documenthub.model.extraction.BatchEndpointConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ApiCallBatcher.
+ * Tests collecting ids into batch requests, splitting the batch response and
+ * cancelling batches no caller waits for anymore.
+ */
+public class ApiCallBatcherTest {
+
+    private static final String RESPONSE = "{\"results\":{"
+        + "\"a\":{\"status\":\"ACTIVE\"},\"b\":{\"status\":\"CLOSED\"},\"c\":{\"status\":\"ACTIVE\"}}}";
+
+    private final List<String> requestBodies = new ArrayList<>();
+    private ApiCallBatcher batcher;
+    private Function<String, Mono<String>> exchange;
+
+    @BeforeEach
+    void setUp() {
+        batcher = new ApiCallBatcher();
+        exchange = body -> {
+            requestBodies.add(body);
+            return Mono.just(RESPONSE);
+        };
+    }
+
+    @Test
+    @DisplayName("Should send a batch once it is full, without waiting for the window")
+    void shouldSendFullBatch_beforeWindowEnds() {
+        // Given
+        BatchEndpointConfig config = config(2, 60_000);
+
+        // When
+        Mono<List<String>> results = Mono.zip(
+                batcher.fetch("/batch", config, "a", exchange),
+                batcher.fetch("/batch", config, "a", exchange),
+                batcher.fetch("/batch", config, "b", exchange))
+            .map(t -> List.of(t.getT1(), t.getT2(), t.getT3()));
+
+        // Then
+        StepVerifier.create(results)
+            .expectNext(List.of("{\"status\":\"ACTIVE\"}", "{\"status\":\"ACTIVE\"}", "{\"status\":\"CLOSED\"}"))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+        assertEquals(List.of("{\"accountIds\":[\"a\",\"b\"]}"), requestBodies);
+        assertEquals(1, batcher.getBatchRequests());
+        assertEquals(2, batcher.getBatchedIds());
+    }
+
+    @Test
+    @DisplayName("Should fail the calls whose id is missing from the response")
+    void shouldFailCall_whenIdMissing() {
+        // Given
+        BatchEndpointConfig config = config(50, 1);
+
+        // When / Then
+        StepVerifier.create(batcher.fetch("/batch", config, "unknown", exchange))
+            .expectError(NoSuchElementException.class)
+            .verify(Duration.ofSeconds(5));
+        assertEquals(1, requestBodies.size());
+    }
+
+    @Test
+    @DisplayName("Should fail the calls when the batch response is empty")
+    void shouldFailCalls_whenResponseEmpty() {
+        // Given
+        BatchEndpointConfig config = config(50, 1);
+        Function<String, Mono<String>> emptyExchange = body -> Mono.empty();
+
+        // When / Then
+        StepVerifier.create(batcher.fetch("/batch", config, "a", emptyExchange))
+            .expectError(NoSuchElementException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should cancel the batch request once every caller has cancelled")
+    void shouldCancelRequest_whenAllCallersCancel() {
+        // Given - a full batch is sent at once, and its response never arrives
+        BatchEndpointConfig config = config(2, 60_000);
+        AtomicBoolean requestCancelled = new AtomicBoolean();
+        Function<String, Mono<String>> slowExchange = body -> {
+            requestBodies.add(body);
+            return Mono.<String>never().doOnCancel(() -> requestCancelled.set(true));
+        };
+
+        // When
+        Mono<String> first = batcher.fetch("/batch", config, "a", slowExchange);
+        Mono<String> second = batcher.fetch("/batch", config, "b", slowExchange);
+        Disposable firstCall = first.subscribe();
+        Disposable secondCall = second.subscribe();
+        firstCall.dispose();
+
+        // Then
+        assertEquals(1, requestBodies.size());
+        assertFalse(requestCancelled.get());
+        secondCall.dispose();
+        assertTrue(requestCancelled.get());
+    }
+
+    @Test
+    @DisplayName("Should not send a batch whose callers all cancelled during the window")
+    void shouldDropBatch_whenCallersCancelBeforeSend() {
+        // Given
+        BatchEndpointConfig config = config(50, 60_000);
+
+        // When
+        batcher.fetch("/batch", config, "a", exchange).subscribe().dispose();
+
+        // Then - a later call starts a new batch
+        StepVerifier.create(batcher.fetch("/batch", config(1, 60_000), "b", exchange))
+            .expectNext("{\"status\":\"CLOSED\"}")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+        assertEquals(List.of("{\"accountIds\":[\"b\"]}"), requestBodies);
+    }
+
+    // Helper methods
+    private BatchEndpointConfig config(int maxBatchSize, int windowMs) {
+        return BatchEndpointConfig.builder()
+            .url("/batch")
+            .idField("accountId")
+            .idsProperty("accountIds")
+            .responseKeyPath("$.results")
+            .maxBatchSize(maxBatchSize)
+            .windowMs(windowMs)
+            .build();
+    }
+}
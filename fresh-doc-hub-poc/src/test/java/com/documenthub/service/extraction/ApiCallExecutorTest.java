@@ -0,0 +1,601 @@
+package com.documenthub.service.extraction;
+
+import com.documenthub.model.extraction.BatchEndpointConfig;
+import com.documenthub.model.extraction.CacheConfig;
+import com.documenthub.model.extraction.DataExtractionConfig;
+import com.documenthub.model.extraction.DataSourceConfig;
+import com.documenthub.model.extraction.EndpointConfig;
+import com.documenthub.model.extraction.ExecutionStrategy;
+import com.documenthub.model.extraction.FieldSourceConfig;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ApiCallExecutor.
+ * Tests sharing of identical API calls within an extraction session
+ * the response cache of data sources with caching enabled, streaming
+ * extraction, dependency-driven (DAG) plan execution and batch endpoints.
+ */
+public class ApiCallExecutorTest {
+
+    private final List<String> requestedUrls = new ArrayList<>();
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private ApiCallExecutor apiCallExecutor;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> {
+                requestedUrls.add(request.url().toString());
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"account\":{\"status\":\"ACTIVE\",\"zipcode\":\"12345\"}}")
+                    .build());
+            })
+            .build();
+        apiCallExecutor = new ApiCallExecutor(webClient, new FieldExtractor(),
+            new ApiResponseCache(new SimpleMeterRegistry(), ticker, 100, 300, 30),
+            new InFlightApiCalls(new SimpleMeterRegistry()),
+            new DataSourceResilience(new SimpleMeterRegistry(), new ExtractionResilienceConfig()));
+    }
+
+    @Nested
+    @DisplayName("Extraction session Tests")
+    class ExtractionSessionTests {
+
+        @Test
+        @DisplayName("Should call the API once for identical calls in the same session")
+        void shouldShareIdenticalCalls_withinSession() {
+            // Given
+            ExtractionSession session = new ExtractionSession();
+            ExtractionPlan statusPlan = planFor("status", "$.account.status");
+            ExtractionPlan zipcodePlan = planFor("zipcode", "$.account.zipcode");
+
+            // When
+            Mono<Map<String, Object>> result = apiCallExecutor.executeDag(statusPlan, initialContext())
+                .zipWith(apiCallExecutor.executeDag(zipcodePlan, initialContext()), (first, second) -> {
+                    Map<String, Object> merged = new HashMap<>(first);
+                    merged.putAll(second);
+                    return merged;
+                })
+                .contextWrite(session::writeTo);
+
+            // Then
+            StepVerifier.create(result)
+                .assertNext(data -> {
+                    assertEquals("ACTIVE", data.get("status"));
+                    assertEquals("12345", data.get("zipcode"));
+                })
+                .verifyComplete();
+            assertEquals(1, requestedUrls.size());
+            assertEquals(2, session.getRequestedCalls());
+            assertEquals(1, session.getExecutedCalls());
+        }
+
+        @Test
+        @DisplayName("Should call the API for each distinct URL in the same session")
+        void shouldNotShareCalls_withDifferentUrls() {
+            // Given
+            ExtractionSession session = new ExtractionSession();
+            Map<String, Object> otherAccount = initialContext();
+            otherAccount.put("accountId", "acct-2");
+
+            // When
+            Mono<Map<String, Object>> result = apiCallExecutor
+                .executeDag(planFor("status", "$.account.status"), initialContext())
+                .then(apiCallExecutor.executeDag(planFor("status", "$.account.status"), otherAccount))
+                .contextWrite(session::writeTo);
+
+            // Then
+            StepVerifier.create(result)
+                .assertNext(data -> assertEquals("ACTIVE", data.get("status")))
+                .verifyComplete();
+            assertEquals(List.of("/accounts/acct-1", "/accounts/acct-2"), requestedUrls);
+            assertEquals(2, session.getExecutedCalls());
+        }
+
+        @Test
+        @DisplayName("Should call the API every time without a session")
+        void shouldCallApiEveryTime_withoutSession() {
+            // Given
+            ExtractionPlan plan = planFor("status", "$.account.status");
+
+            // When
+            apiCallExecutor.executeDag(plan, initialContext()).block();
+            apiCallExecutor.executeDag(plan, initialContext()).block();
+
+            // Then
+            assertEquals(2, requestedUrls.size());
+        }
+
+        @Test
+        @DisplayName("Should record executed and deduplicated call counts")
+        void shouldRecordDedupeStats() {
+            // Given
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            ExtractionSession session = new ExtractionSession();
+            ExtractionPlan plan = planFor("status", "$.account.status");
+            apiCallExecutor.executeDag(plan, initialContext())
+                .then(apiCallExecutor.executeDag(plan, initialContext()))
+                .then(apiCallExecutor.executeDag(plan, initialContext()))
+                .contextWrite(session::writeTo)
+                .block();
+
+            // When
+            session.recordStats(meterRegistry);
+
+            // Then
+            assertEquals(1.0, meterRegistry.counter("documenthub.extraction.calls", "result", "executed").count());
+            assertEquals(2.0, meterRegistry.counter("documenthub.extraction.calls", "result", "deduplicated").count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Response cache Tests")
+    class ResponseCacheTests {
+
+        @Test
+        @DisplayName("Should serve cached responses across enquiries within the TTL")
+        void shouldServeFromCache_withinTtl() {
+            // Given
+            ExtractionPlan plan = cachedPlanFor("account:${accountId}");
+
+            // When
+            apiCallExecutor.executeDag(plan, initialContext()).block();
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+            Map<String, Object> result = apiCallExecutor.executeDag(plan, initialContext()).block();
+
+            // Then
+            assertEquals("ACTIVE", result.get("status"));
+            assertEquals(1, requestedUrls.size());
+        }
+
+        @Test
+        @DisplayName("Should serve a stale response once expired and refresh it in the background")
+        void shouldServeStaleAndRevalidate_afterTtl() {
+            // Given
+            ExtractionPlan plan = cachedPlanFor("account:${accountId}");
+            apiCallExecutor.executeDag(plan, initialContext()).block();
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+            // When
+            Map<String, Object> first = apiCallExecutor.executeDag(plan, initialContext()).block();
+            Map<String, Object> second = apiCallExecutor.executeDag(plan, initialContext()).block();
+
+            // Then
+            assertEquals("ACTIVE", first.get("status"));
+            assertEquals("ACTIVE", second.get("status"));
+            assertEquals(2, requestedUrls.size());
+        }
+
+        @Test
+        @DisplayName("Should call the API again once the stale grace period has passed")
+        void shouldMiss_afterGracePeriod() {
+            // Given
+            ExtractionPlan plan = cachedPlanFor("account:${accountId}");
+            apiCallExecutor.executeDag(plan, initialContext()).block();
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(91));
+
+            // When
+            apiCallExecutor.executeDag(plan, initialContext()).block();
+
+            // Then
+            assertEquals(2, requestedUrls.size());
+        }
+
+        @Test
+        @DisplayName("Should bypass the cache when the key pattern cannot be resolved")
+        void shouldBypassCache_whenKeyUnresolved() {
+            // Given
+            ExtractionPlan plan = cachedPlanFor("account:${customerId}");
+
+            // When
+            apiCallExecutor.executeDag(plan, initialContext()).block();
+            apiCallExecutor.executeDag(plan, initialContext()).block();
+
+            // Then
+            assertEquals(2, requestedUrls.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming extraction Tests")
+    class StreamingExtractionTests {
+
+        @BeforeEach
+        void enableStreaming() {
+            ReflectionTestUtils.setField(apiCallExecutor, "streamingEnabled", true);
+        }
+
+        @Test
+        @DisplayName("Should extract fields from the streamed response")
+        void shouldExtractFields_whileStreaming() {
+            // When
+            Map<String, Object> result = apiCallExecutor
+                .executeDag(planFor("zipcode", "$.account.zipcode"), initialContext())
+                .block();
+
+            // Then
+            assertEquals("12345", result.get("zipcode"));
+            assertEquals(1, requestedUrls.size());
+        }
+
+        @Test
+        @DisplayName("Should share streamed calls extracting the same fields within a session")
+        void shouldShareStreamedCalls_withSameFields() {
+            // Given
+            ExtractionSession session = new ExtractionSession();
+            ExtractionPlan plan = planFor("status", "$.account.status");
+
+            // When
+            apiCallExecutor.executeDag(plan, initialContext())
+                .then(apiCallExecutor.executeDag(plan, initialContext()))
+                .contextWrite(session::writeTo)
+                .block();
+
+            // Then
+            assertEquals(1, requestedUrls.size());
+            assertEquals(1, session.getExecutedCalls());
+        }
+    }
+
+    @Nested
+    @DisplayName("DAG execution Tests")
+    class DagExecutionTests {
+
+        @Test
+        @DisplayName("Should plan a three-hop chain with two siblings per hop in three levels")
+        void shouldPlanChainInThreeLevels() {
+            // When
+            ExtractionPlan plan = new ExtractionPlanBuilder().buildPlan(chainConfig(), initialContext());
+
+            // Then
+            assertEquals(6, plan.size());
+            assertEquals(3, plan.getLevelCount());
+            Map<String, ApiCall> calls = new HashMap<>();
+            plan.getApiCalls().forEach(call -> calls.put(call.getApiId(), call));
+            assertEquals(Set.of(), calls.get("a1").getDependsOn());
+            assertEquals(Set.of("a1"), calls.get("b1").getDependsOn());
+            assertEquals(Set.of("b2"), calls.get("c2").getDependsOn());
+            assertEquals(2, calls.get("c1").getLevel());
+        }
+
+        @Test
+        @DisplayName("Should run a three-hop chain with two siblings per hop in three round trips")
+        void shouldRunChainInThreeRoundTrips() {
+            // Given - every call takes 100ms and echoes its path
+            ApiCallExecutor executor = chainExecutor(null, new ArrayList<>());
+            ExtractionPlan plan = new ExtractionPlanBuilder().buildPlan(chainConfig(), initialContext());
+
+            // When / Then
+            StepVerifier.withVirtualTime(() -> executor.executeDag(plan, initialContext()))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(299))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(context -> {
+                    assertEquals("c1-b1-a1-acct-1", context.get("c1Field"));
+                    assertEquals("c2-b2-a2-acct-1", context.get("c2Field"));
+                })
+                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should stop at the plan deadline and return a partial result")
+        void shouldReturnPartialResult_whenDeadlinePasses() {
+            // Given - the third hop would end at 300ms
+            ApiCallExecutor executor = chainExecutor(null, new ArrayList<>());
+            ExtractionPlan plan = new ExtractionPlanBuilder().buildPlan(chainConfig(), initialContext());
+            ExecutionStrategy strategy = ExecutionStrategy.builder().timeout(250).build();
+
+            // When / Then
+            StepVerifier.withVirtualTime(() -> executor.executeDag(plan, initialContext(), strategy))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(249))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(context -> {
+                    assertEquals(Boolean.TRUE, context.get(ApiCallExecutor.PARTIAL_RESULT_KEY));
+                    assertEquals("b1-a1-acct-1", context.get("b1Field"));
+                    assertFalse(context.containsKey("c1Field"));
+                })
+                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should cancel other calls on the first failure when continueOnError is false")
+        void shouldCancelSiblings_whenContinueOnErrorFalse() {
+            // Given - a1 fails after 50ms
+            List<String> requested = new ArrayList<>();
+            ApiCallExecutor executor = chainExecutor("a1", requested);
+            ExtractionPlan plan = new ExtractionPlanBuilder().buildPlan(chainConfig(), initialContext());
+            ExecutionStrategy strategy = ExecutionStrategy.builder().continueOnError(false).build();
+
+            // When / Then
+            StepVerifier.withVirtualTime(() -> executor.executeDag(plan, initialContext(), strategy))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(50))
+                .assertNext(context -> {
+                    assertEquals(Boolean.TRUE, context.get(ApiCallExecutor.PARTIAL_RESULT_KEY));
+                    assertFalse(context.containsKey("a2Field"));
+                })
+                .verifyComplete();
+            assertEquals(List.of("/a1/acct-1", "/a2/acct-1"), requested.stream().sorted().collect(Collectors.toList()));
+            assertEquals(List.of("/a2/acct-1"), cancelled);
+        }
+
+        @Test
+        @DisplayName("Should cancel shared exchanges still running at the plan deadline")
+        void shouldCancelSharedExchanges_whenDeadlinePasses() {
+            // Given - the third hop would end at 300ms
+            ApiCallExecutor executor = chainExecutor(null, new ArrayList<>());
+            ExtractionPlan plan = new ExtractionPlanBuilder().buildPlan(chainConfig(), initialContext());
+            ExecutionStrategy strategy = ExecutionStrategy.builder().timeout(250).build();
+
+            // When
+            StepVerifier.withVirtualTime(() -> executor.executeDag(plan, initialContext(), strategy)
+                    .contextWrite(new ExtractionSession()::writeTo))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(250))
+                .expectNextCount(1)
+                .verifyComplete();
+
+            // Then - the WebClient exchanges of the third hop were cancelled, not detached
+            assertEquals(List.of("/c1/b1-a1-acct-1", "/c2/b2-a2-acct-1"),
+                cancelled.stream().sorted().collect(Collectors.toList()));
+        }
+
+        @Test
+        @DisplayName("Should keep the shared exchange for other enquiries when one plan deadline passes")
+        void shouldNotApplyDeadline_toOtherEnquiriesJoiningCall() {
+            // Given - the first enquiry stops at 50ms, the second has no deadline
+            ApiCallExecutor executor = chainExecutor(null, new ArrayList<>());
+            ExtractionPlan plan = new ExtractionPlanBuilder().buildPlan(chainConfig(), initialContext());
+            ExecutionStrategy strategy = ExecutionStrategy.builder().timeout(50).build();
+
+            // When / Then
+            StepVerifier.withVirtualTime(() -> Mono.zip(
+                    executor.executeDag(plan, initialContext(), strategy),
+                    executor.executeDag(plan, initialContext())))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(300))
+                .assertNext(results -> {
+                    assertEquals(Boolean.TRUE, results.getT1().get(ApiCallExecutor.PARTIAL_RESULT_KEY));
+                    assertFalse(results.getT2().containsKey(ApiCallExecutor.PARTIAL_RESULT_KEY));
+                    assertEquals("c1-b1-a1-acct-1", results.getT2().get("c1Field"));
+                })
+                .verifyComplete();
+            assertTrue(cancelled.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should not record calls cut off by the plan deadline as data source latency")
+        void shouldNotRecordLatency_whenDeadlinePasses() {
+            // Given
+            ApiCallExecutor executor = chainExecutor(null, new ArrayList<>());
+            ExtractionPlan plan = new ExtractionPlanBuilder().buildPlan(chainConfig(), initialContext());
+            ExecutionStrategy strategy = ExecutionStrategy.builder().timeout(50).build();
+
+            // When
+            StepVerifier.withVirtualTime(() -> executor.executeDag(plan, initialContext(), strategy))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(50))
+                .expectNextCount(1)
+                .verifyComplete();
+
+            // Then - the exchanges were cancelled, not timed out by the data source
+            assertEquals(List.of("/a1/acct-1", "/a2/acct-1"),
+                cancelled.stream().sorted().collect(Collectors.toList()));
+            assertEquals(0, resilienceRegistry.timer("documenthub.extraction.latency", "dataSource", "a1").count());
+        }
+
+        /** Paths of the exchanges that were cancelled. */
+        private final List<String> cancelled = new ArrayList<>();
+
+        /** Meters of the data source resilience of the chain executor. */
+        private final SimpleMeterRegistry resilienceRegistry = new SimpleMeterRegistry();
+
+        /**
+         * Executor whose calls take 100ms and echo their path; failingApi fails after 50ms.
+         */
+        private ApiCallExecutor chainExecutor(String failingApi, List<String> requested) {
+            WebClient slowWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    String path = request.url().getPath();
+                    requested.add(path);
+                    if (failingApi != null && path.startsWith("/" + failingApi + "/")) {
+                        return Mono.delay(Duration.ofMillis(50))
+                            .thenReturn(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                    }
+                    return Mono.delay(Duration.ofMillis(100))
+                        .doOnCancel(() -> cancelled.add(path))
+                        .thenReturn(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"value\":\"" + path.substring(1).replace('/', '-') + "\"}")
+                            .build());
+                })
+                .build();
+            return new ApiCallExecutor(slowWebClient, new FieldExtractor(),
+                new ApiResponseCache(new SimpleMeterRegistry(), ticker, 100, 300, 30),
+                new InFlightApiCalls(new SimpleMeterRegistry()),
+                new DataSourceResilience(resilienceRegistry, new ExtractionResilienceConfig()));
+        }
+
+        private DataExtractionConfig chainConfig() {
+            Map<String, FieldSourceConfig> fieldSources = new HashMap<>();
+            Map<String, DataSourceConfig> dataSources = new HashMap<>();
+            addChainApi("a1", "accountId", fieldSources, dataSources);
+            addChainApi("a2", "accountId", fieldSources, dataSources);
+            addChainApi("b1", "a1Field", fieldSources, dataSources);
+            addChainApi("b2", "a2Field", fieldSources, dataSources);
+            addChainApi("c1", "b1Field", fieldSources, dataSources);
+            addChainApi("c2", "b2Field", fieldSources, dataSources);
+            return DataExtractionConfig.builder()
+                .fieldsToExtract(List.of("c1Field", "c2Field", "b1Field", "b2Field", "a1Field", "a2Field"))
+                .fieldSources(fieldSources)
+                .dataSources(dataSources)
+                .build();
+        }
+
+        private void addChainApi(
+                String apiId,
+                String input,
+                Map<String, FieldSourceConfig> fieldSources,
+                Map<String, DataSourceConfig> dataSources) {
+            fieldSources.put(apiId + "Field", FieldSourceConfig.builder()
+                .sourceApi(apiId)
+                .extractionPath("$.value")
+                .requiredInputs(List.of(input))
+                .build());
+            dataSources.put(apiId, DataSourceConfig.builder()
+                .endpoint(EndpointConfig.builder()
+                    .url("/" + apiId + "/${" + input + "}")
+                    .method("GET")
+                    .build())
+                .providesFields(List.of(apiId + "Field"))
+                .build());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch endpoint Tests")
+    class BatchEndpointTests {
+
+        private final List<String> batchUrls = new ArrayList<>();
+        private ApiCallExecutor batchExecutor;
+
+        @BeforeEach
+        void setUp() {
+            WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    batchUrls.add(request.method() + " " + request.url());
+                    String body = request.url().getPath().endsWith(":batch")
+                        ? "{\"results\":{\"acct-1\":{\"account\":{\"status\":\"ACTIVE\"}},"
+                            + "\"acct-2\":{\"account\":{\"status\":\"CLOSED\"}}}}"
+                        : "{\"account\":{\"status\":\"SINGLE\"}}";
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build());
+                })
+                .build();
+            batchExecutor = new ApiCallExecutor(webClient, new FieldExtractor(),
+                new ApiResponseCache(new SimpleMeterRegistry(), ticker, 100, 300, 30),
+                new InFlightApiCalls(new SimpleMeterRegistry()),
+                new DataSourceResilience(new SimpleMeterRegistry(), new ExtractionResilienceConfig()));
+        }
+
+        @Test
+        @DisplayName("Should send one batch request for the accounts of an enquiry")
+        void shouldBatchCalls_withinSession() {
+            // Given
+            ExtractionSession session = new ExtractionSession();
+            ExtractionPlan plan = batchPlan();
+            Map<String, Object> otherAccount = initialContext();
+            otherAccount.put("accountId", "acct-2");
+
+            // When
+            Mono<List<Object>> statuses = Mono.zip(
+                    batchExecutor.executeDag(plan, initialContext()),
+                    batchExecutor.executeDag(plan, otherAccount))
+                .map(results -> List.of(results.getT1().get("status"), results.getT2().get("status")))
+                .contextWrite(session::writeTo);
+
+            // Then
+            StepVerifier.create(statuses)
+                .expectNext(List.of("ACTIVE", "CLOSED"))
+                .verifyComplete();
+            assertEquals(List.of("POST /accounts/details:batch"), batchUrls);
+        }
+
+        @Test
+        @DisplayName("Should call the single endpoint without a session")
+        void shouldCallSingleEndpoint_withoutSession() {
+            // When / Then
+            StepVerifier.create(batchExecutor.executeDag(batchPlan(), initialContext()))
+                .assertNext(context -> assertEquals("SINGLE", context.get("status")))
+                .verifyComplete();
+            assertEquals(List.of("GET /accounts/acct-1"), batchUrls);
+        }
+
+        private ExtractionPlan batchPlan() {
+            DataSourceConfig dataSource = DataSourceConfig.builder()
+                .endpoint(EndpointConfig.builder()
+                    .url("/accounts/${accountId}")
+                    .method("GET")
+                    .build())
+                .batch(BatchEndpointConfig.builder()
+                    .url("/accounts/details:batch")
+                    .idField("accountId")
+                    .responseKeyPath("$.results")
+                    .build())
+                .providesFields(List.of("status"))
+                .build();
+            ExtractionPlan plan = new ExtractionPlan();
+            plan.addApiCall("account-api", dataSource, Map.of("status", FieldSourceConfig.builder()
+                .sourceApi("account-api")
+                .extractionPath("$.account.status")
+                .build()));
+            return plan;
+        }
+    }
+
+    // Helper methods
+    private ExtractionPlan planFor(String field, String extractionPath) {
+        return planFor(field, extractionPath, null);
+    }
+
+    private ExtractionPlan cachedPlanFor(String keyPattern) {
+        return planFor("status", "$.account.status", CacheConfig.builder()
+            .enabled(true)
+            .ttlSeconds(60)
+            .keyPattern(keyPattern)
+            .build());
+    }
+
+    private ExtractionPlan planFor(String field, String extractionPath, CacheConfig cache) {
+        DataSourceConfig dataSource = DataSourceConfig.builder()
+            .endpoint(EndpointConfig.builder()
+                .url("/accounts/${accountId}")
+                .method("GET")
+                .build())
+            .cache(cache)
+            .providesFields(List.of(field))
+            .build();
+        ExtractionPlan plan = new ExtractionPlan();
+        plan.addApiCall("account-api", dataSource, Map.of(field, FieldSourceConfig.builder()
+            .sourceApi("account-api")
+            .extractionPath(extractionPath)
+            .build()));
+        return plan;
+    }
+
+    private Map<String, Object> initialContext() {
+        Map<String, Object> context = new HashMap<>();
+        context.put("accountId", "acct-1");
+        return context;
+    }
+}
@@ -0,0 +1,278 @@
+package com.documenthub.service.extraction;
+
+import com.documenthub.model.extraction.DataSourceConfig;
+import com.documenthub.model.extraction.RetryConfig;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DataSourceResilience.
+ * Tests the bulkhead, circuit breaker, retries and adaptive timeout of a data source.
+ */
+public class DataSourceResilienceTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger exchanges = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private ExtractionResilienceConfig config;
+    private DataSourceResilience resilience;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new ExtractionResilienceConfig();
+        config.setCircuitWindowSize(4);
+        config.setCircuitMinimumCalls(4);
+        config.setTimeoutMinimumSamples(5);
+        resilience = new DataSourceResilience(meterRegistry, config, nanos::get);
+    }
+
+    @Nested
+    @DisplayName("Circuit breaker Tests")
+    class CircuitBreakerTests {
+
+        @Test
+        @DisplayName("Should reject calls once the failure rate is reached")
+        void shouldOpenCircuit_whenFailureRateReached() {
+            // Given - 2 of 4 calls fail
+            ApiCall apiCall = apiCall(null);
+            succeed(apiCall);
+            succeed(apiCall);
+            fail(apiCall, HttpStatus.SERVICE_UNAVAILABLE);
+            fail(apiCall, HttpStatus.SERVICE_UNAVAILABLE);
+
+            // When / Then
+            StepVerifier.create(resilience.execute(apiCall, 5000, () -> exchange(Mono.just("{}"))))
+                .verifyError(DataSourceResilience.RejectedCallException.class);
+            assertEquals(4, exchanges.get());
+            assertEquals(1.0, meterRegistry.counter("documenthub.extraction.rejected",
+                "dataSource", "pricing-api", "reason", "circuit_open").count());
+        }
+
+        @Test
+        @DisplayName("Should not count client errors as failures")
+        void shouldIgnoreClientErrors() {
+            // Given
+            ApiCall apiCall = apiCall(null);
+            for (int i = 0; i < 4; i++) {
+                fail(apiCall, HttpStatus.NOT_FOUND);
+            }
+
+            // When / Then
+            succeed(apiCall);
+            assertEquals(5, exchanges.get());
+        }
+
+        @Test
+        @DisplayName("Should close the circuit after a successful trial call")
+        void shouldCloseCircuit_afterSuccessfulTrial() {
+            // Given - an open circuit
+            ApiCall apiCall = apiCall(null);
+            for (int i = 0; i < 4; i++) {
+                fail(apiCall, HttpStatus.BAD_GATEWAY);
+            }
+
+            // When
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(config.getCircuitOpenSeconds()));
+            succeed(apiCall);
+
+            // Then
+            succeed(apiCall);
+            assertEquals(6, exchanges.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulkhead Tests")
+    class BulkheadTests {
+
+        @Test
+        @DisplayName("Should reject calls above the concurrency limit")
+        void shouldRejectCalls_whenBulkheadFull() {
+            // Given
+            config.setMaxConcurrentCalls(1);
+            ApiCall apiCall = apiCall(null);
+            Sinks.One<String> upstream = Sinks.one();
+
+            // When
+            StepVerifier.create(resilience.execute(apiCall, 5000, () -> exchange(upstream.asMono())))
+                .then(() -> StepVerifier.create(resilience.execute(apiCall, 5000, () -> exchange(Mono.just("{}"))))
+                    .verifyError(DataSourceResilience.RejectedCallException.class))
+                .then(() -> upstream.tryEmitValue("{}"))
+                .expectNext("{}")
+                .verifyComplete();
+
+            // Then - the permit is released
+            succeed(apiCall);
+            assertEquals(2, exchanges.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Retry Tests")
+    class RetryTests {
+
+        @Test
+        @DisplayName("Should retry server errors up to maxAttempts times")
+        void shouldRetryServerErrors() {
+            // Given
+            ApiCall apiCall = apiCall(RetryConfig.builder().maxAttempts(2).delayMs(1).build());
+
+            // When / Then
+            StepVerifier.create(resilience.execute(apiCall, 5000,
+                    () -> exchange(Mono.error(error(HttpStatus.SERVICE_UNAVAILABLE)))))
+                .verifyError(WebClientResponseException.ServiceUnavailable.class);
+            assertEquals(3, exchanges.get());
+            assertEquals(2.0, meterRegistry.counter("documenthub.extraction.retries",
+                "dataSource", "pricing-api").count());
+        }
+
+        @Test
+        @DisplayName("Should not retry client errors")
+        void shouldNotRetryClientErrors() {
+            // Given
+            ApiCall apiCall = apiCall(RetryConfig.builder().maxAttempts(2).delayMs(1).build());
+
+            // When / Then
+            StepVerifier.create(resilience.execute(apiCall, 5000,
+                    () -> exchange(Mono.error(error(HttpStatus.BAD_REQUEST)))))
+                .verifyError(WebClientResponseException.BadRequest.class);
+            assertEquals(1, exchanges.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Adaptive timeout Tests")
+    class AdaptiveTimeoutTests {
+
+        @Test
+        @DisplayName("Should use the endpoint timeout until enough calls were observed")
+        void shouldUseEndpointTimeout_withoutSamples() {
+            // When
+            succeed(apiCall(null));
+
+            // Then
+            assertEquals(5000, resilience.currentTimeoutMs("pricing-api"));
+        }
+
+        @Test
+        @DisplayName("Should adapt the timeout to the observed p99 latency")
+        void shouldAdaptTimeout_toP99() {
+            // Given - calls taking 200ms
+            ApiCall apiCall = apiCall(null);
+            for (int i = 0; i < 5; i++) {
+                StepVerifier.create(resilience.execute(apiCall, 5000, () -> Mono.fromCallable(() -> {
+                    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+                    return "{}";
+                }))).expectNext("{}").verifyComplete();
+            }
+
+            // When
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            succeed(apiCall);
+
+            // Then - 2 x p99, within the histogram's precision
+            long timeout = resilience.currentTimeoutMs("pricing-api");
+            assertTrue(timeout >= 370 && timeout <= 430, "timeout was " + timeout);
+        }
+
+        @Test
+        @DisplayName("Should use the endpoint timeout again after an idle window")
+        void shouldUseEndpointTimeout_afterIdleWindow() {
+            // Given - calls taking 200ms on the registry's clock
+            MockClock clock = new MockClock();
+            resilience = new DataSourceResilience(
+                new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock), config, clock::monotonicTime);
+            ApiCall apiCall = apiCall(null);
+            for (int i = 0; i < 5; i++) {
+                StepVerifier.create(resilience.execute(apiCall, 5000, () -> Mono.fromCallable(() -> {
+                    clock.add(200, TimeUnit.MILLISECONDS);
+                    return "{}";
+                }))).expectNext("{}").verifyComplete();
+            }
+
+            // When - idle until the p99 window has emptied
+            clock.add(DataSourceResilience.LATENCY_WINDOW.multipliedBy(2));
+            succeed(apiCall);
+
+            // Then
+            assertEquals(5000, resilience.currentTimeoutMs("pricing-api"));
+        }
+
+        @Test
+        @DisplayName("Should count timed out calls at their timeout")
+        void shouldRaiseTimeout_whenCallsTimeOut() {
+            // Given - calls taking 10ms, the timeout is at the floor
+            config.setCircuitWindowSize(100);
+            config.setCircuitMinimumCalls(100);
+            ApiCall apiCall = apiCall(null);
+            for (int i = 0; i < 5; i++) {
+                StepVerifier.create(resilience.execute(apiCall, 5000, () -> Mono.fromCallable(() -> {
+                    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+                    return "{}";
+                }))).expectNext("{}").verifyComplete();
+            }
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            succeed(apiCall);
+            assertEquals(config.getTimeoutFloorMs(), resilience.currentTimeoutMs("pricing-api"));
+
+            // When - the upstream slows down and calls time out
+            for (int i = 0; i < 10; i++) {
+                StepVerifier.create(resilience.execute(apiCall, 5000,
+                        () -> exchange(Mono.<String>error(new TimeoutException()))))
+                    .verifyError(TimeoutException.class);
+            }
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            succeed(apiCall);
+
+            // Then - 2 x the floor, within the histogram's precision
+            long timeout = resilience.currentTimeoutMs("pricing-api");
+            assertTrue(timeout >= 185, "timeout was " + timeout);
+        }
+    }
+
+    // Helper methods
+    private ApiCall apiCall(RetryConfig retry) {
+        return new ApiCall("pricing-api", DataSourceConfig.builder().retry(retry).build(), Map.of());
+    }
+
+    private void succeed(ApiCall apiCall) {
+        StepVerifier.create(resilience.execute(apiCall, 5000, () -> exchange(Mono.just("{}"))))
+            .expectNext("{}")
+            .verifyComplete();
+    }
+
+    private void fail(ApiCall apiCall, HttpStatus status) {
+        StepVerifier.create(resilience.execute(apiCall, 5000, () -> exchange(Mono.<String>error(error(status)))))
+            .verifyError(WebClientResponseException.class);
+    }
+
+    private WebClientResponseException error(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null);
+    }
+
+    private Mono<String> exchange(Mono<String> response) {
+        return Mono.defer(() -> {
+            exchanges.incrementAndGet();
+            return response;
+        });
+    }
+}
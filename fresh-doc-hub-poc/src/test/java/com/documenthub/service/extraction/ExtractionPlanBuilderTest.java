@@ -0,0 +1,166 @@
+package com.documenthub.service.extraction;
+
+import com.documenthub.model.extraction.DataExtractionConfig;
+import com.documenthub.model.extraction.DataSourceConfig;
+import com.documenthub.model.extraction.EndpointConfig;
+import com.documenthub.model.extraction.FieldSourceConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ExtractionPlanBuilder.
+ * Tests plan caching and config validation.
+ */
+public class ExtractionPlanBuilderTest {
+
+    private ExtractionPlanBuilder planBuilder;
+    private Map<String, FieldSourceConfig> fieldSources;
+    private Map<String, DataSourceConfig> dataSources;
+
+    @BeforeEach
+    void setUp() {
+        planBuilder = new ExtractionPlanBuilder();
+        fieldSources = new HashMap<>();
+        dataSources = new HashMap<>();
+    }
+
+    @Nested
+    @DisplayName("buildPlan")
+    class BuildPlanTests {
+
+        @Test
+        @DisplayName("Should reuse the plan for the same config and context keys")
+        void shouldReusePlan_forSameContextKeys() {
+            // Given
+            addApi("account-api", "productCode", "accountId");
+            addApi("product-api", "productName", "productCode");
+            DataExtractionConfig config = config("productCode", "productName");
+
+            // When
+            ExtractionPlan first = planBuilder.buildPlan(config, Map.of("accountId", "A1"));
+            ExtractionPlan second = planBuilder.buildPlan(config, Map.of("accountId", "A2"));
+
+            // Then
+            assertSame(first, second);
+            assertEquals(2, first.size());
+            assertEquals(2, first.getLevelCount());
+        }
+
+        @Test
+        @DisplayName("Should plan again when the context holds other keys")
+        void shouldPlanAgain_forOtherContextKeys() {
+            // Given
+            addApi("account-api", "productCode", "accountId");
+            DataExtractionConfig config = config("productCode");
+
+            // When
+            ExtractionPlan withAccount = planBuilder.buildPlan(config, Map.of("accountId", "A1"));
+            ExtractionPlan withoutAccount = planBuilder.buildPlan(config, Map.of("customerId", "C1"));
+
+            // Then
+            assertEquals(1, withAccount.size());
+            assertTrue(withoutAccount.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should return a read-only plan")
+        void shouldReturnReadOnlyPlan() {
+            // Given
+            addApi("account-api", "productCode", "accountId");
+
+            // When
+            ExtractionPlan plan = planBuilder.buildPlan(config("productCode"), Map.of("accountId", "A1"));
+
+            // Then
+            assertThrows(UnsupportedOperationException.class, () -> plan.getApiCalls().clear());
+        }
+    }
+
+    @Nested
+    @DisplayName("validate")
+    class ValidateTests {
+
+        @Test
+        @DisplayName("Should accept a config whose fields can all be planned")
+        void shouldAcceptValidConfig() {
+            // Given
+            addApi("account-api", "productCode", "accountId");
+            addApi("product-api", "productName", "productCode");
+
+            // When
+            List<String> problems = ExtractionPlanBuilder.validate(
+                config("productCode", "productName"), Set.of("accountId"));
+
+            // Then
+            assertTrue(problems.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should report circular dependencies")
+        void shouldReportCycle() {
+            // Given
+            addApi("a-api", "aField", "bField");
+            addApi("b-api", "bField", "aField");
+
+            // When
+            List<String> problems = ExtractionPlanBuilder.validate(config("aField", "bField"), Set.of("accountId"));
+
+            // Then
+            assertEquals(2, problems.size());
+            assertTrue(problems.get(0).contains("'aField'"));
+            assertTrue(problems.get(0).contains("[bField]"));
+        }
+
+        @Test
+        @DisplayName("Should report missing source configs and data sources")
+        void shouldReportMissingSources() {
+            // Given
+            fieldSources.put("orphan", FieldSourceConfig.builder()
+                .sourceApi("unknown-api")
+                .extractionPath("$.value")
+                .build());
+
+            // When
+            List<String> problems = ExtractionPlanBuilder.validate(
+                config("orphan", "unconfigured"), Set.of("accountId"));
+
+            // Then
+            assertEquals(2, problems.size());
+            assertTrue(problems.contains("No source config for field 'unconfigured'"));
+            assertTrue(problems.contains("Data source 'unknown-api' of field 'orphan' is not defined"));
+        }
+    }
+
+    // Helper methods
+    private void addApi(String apiId, String field, String input) {
+        fieldSources.put(field, FieldSourceConfig.builder()
+            .sourceApi(apiId)
+            .extractionPath("$.value")
+            .requiredInputs(List.of(input))
+            .build());
+        dataSources.put(apiId, DataSourceConfig.builder()
+            .endpoint(EndpointConfig.builder()
+                .url("/" + apiId + "/${" + input + "}")
+                .method("GET")
+                .build())
+            .providesFields(List.of(field))
+            .build());
+    }
+
+    private DataExtractionConfig config(String... fields) {
+        return DataExtractionConfig.builder()
+            .fieldsToExtract(List.of(fields))
+            .fieldSources(fieldSources)
+            .dataSources(dataSources)
+            .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.documenthub.service.extraction;
+
+import com.documenthub.model.extraction.DataSourceConfig;
+import com.documenthub.model.extraction.FieldSourceConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FieldExtractor.
+ * Tests extraction of all fields of an API call from one parsed response,
+ * and streaming extraction from response buffers.
+ */
+public class FieldExtractorTest {
+
+    private static final String ARRANGEMENTS_RESPONSE = """
+        {
+          "accountId": "acct-1",
+          "content": [
+            { "domain": "PRICING", "domainId": "PRC-12345" },
+            { "domain": "REWARDS", "domainId": "RWD-VIP-001" }
+          ]
+        }
+        """;
+
+    private FieldExtractor fieldExtractor;
+
+    @BeforeEach
+    void setUp() {
+        fieldExtractor = new FieldExtractor();
+    }
+
+    @Test
+    @DisplayName("Should extract every field of the API call from the response")
+    void shouldExtractAllFields() {
+        // Given
+        ApiCall apiCall = apiCall(Map.of(
+            "accountId", field("$.accountId", null),
+            "pricingId", field("$.content[?(@.domain == 'PRICING')].domainId", null),
+            "domains", field("$.content[*].domain", null)));
+
+        // When
+        Map<String, Object> extracted = fieldExtractor.extractFields(ARRANGEMENTS_RESPONSE, apiCall);
+
+        // Then
+        assertEquals("acct-1", extracted.get("accountId"));
+        assertEquals("PRC-12345", extracted.get("pricingId"));
+        assertEquals(List.of("PRICING", "REWARDS"), extracted.get("domains"));
+    }
+
+    @Test
+    @DisplayName("Should reuse compiled paths across responses")
+    void shouldReuseCompiledPaths() {
+        // Given
+        ApiCall apiCall = apiCall(Map.of("accountId", field("$.accountId", null)));
+
+        // When
+        Map<String, Object> first = fieldExtractor.extractFields("{\"accountId\":\"a\"}", apiCall);
+        Map<String, Object> second = fieldExtractor.extractFields("{\"accountId\":\"b\"}", apiCall);
+
+        // Then
+        assertEquals("a", first.get("accountId"));
+        assertEquals("b", second.get("accountId"));
+    }
+
+    @Test
+    @DisplayName("Should use defaults for missing paths and invalid expressions")
+    void shouldUseDefaults_forMissingOrInvalidPaths() {
+        // Given
+        ApiCall apiCall = apiCall(Map.of(
+            "accountId", field("$.accountId", null),
+            "missing", field("$.notThere", "N/A"),
+            "invalid", field("$.[", "BAD")));
+
+        // When
+        Map<String, Object> extracted = fieldExtractor.extractFields(ARRANGEMENTS_RESPONSE, apiCall);
+
+        // Then
+        assertEquals("acct-1", extracted.get("accountId"));
+        assertEquals("N/A", extracted.get("missing"));
+        assertEquals("BAD", extracted.get("invalid"));
+    }
+
+    @Test
+    @DisplayName("Should use defaults for all fields when the response is not JSON")
+    void shouldUseDefaults_whenResponseNotJson() {
+        // Given
+        ApiCall apiCall = apiCall(Map.of(
+            "accountId", field("$.accountId", "UNKNOWN"),
+            "pricingId", field("$.pricingId", null)));
+
+        // When
+        Map<String, Object> extracted = fieldExtractor.extractFields("<html>Bad Gateway</html>", apiCall);
+
+        // Then
+        assertEquals(Map.of("accountId", "UNKNOWN"), extracted);
+    }
+
+    @Nested
+    @DisplayName("Streaming extraction Tests")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("Should support streaming only when all paths are simple")
+        void shouldSupportStreaming_onlyForSimplePaths() {
+            assertTrue(fieldExtractor.supportsStreaming(apiCall(Map.of(
+                "accountId", field("$.accountId", null),
+                "firstDomain", field("$.content[0]['domain']", null)))));
+            assertFalse(fieldExtractor.supportsStreaming(apiCall(Map.of(
+                "accountId", field("$.accountId", null),
+                "pricingId", field("$.content[?(@.domain == 'PRICING')].domainId", null)))));
+            assertFalse(fieldExtractor.supportsStreaming(apiCall(Map.of(
+                "domains", field("$..domain", null)))));
+        }
+
+        @Test
+        @DisplayName("Should extract the same values as the buffered extractor from small chunks")
+        void shouldMatchBufferedExtraction_acrossChunks() {
+            // Given
+            ApiCall apiCall = apiCall(Map.of(
+                "accountId", field("$.accountId", null),
+                "secondDomainId", field("$.content[1].domainId", null),
+                "firstItem", field("$.content[0]", null),
+                "content", field("$.content", null),
+                "missing", field("$.notThere", "N/A")));
+            Map<String, Object> buffered = fieldExtractor.extractFields(ARRANGEMENTS_RESPONSE, apiCall);
+
+            // When / Then
+            StepVerifier.create(fieldExtractor.extractFields(chunks(ARRANGEMENTS_RESPONSE, 7, null), apiCall))
+                .assertNext(streamed -> {
+                    assertEquals(buffered, streamed);
+                    assertEquals("RWD-VIP-001", streamed.get("secondDomainId"));
+                    assertEquals(Map.of("domain", "PRICING", "domainId", "PRC-12345"), streamed.get("firstItem"));
+                    assertEquals("N/A", streamed.get("missing"));
+                })
+                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should stop reading once all fields are found")
+        void shouldStopReading_whenAllFieldsFound() {
+            // Given
+            String body = "{\"status\":\"ACTIVE\",\"history\":[" + "{\"x\":1},".repeat(1000) + "{\"x\":1}]}";
+            AtomicInteger emitted = new AtomicInteger();
+            ApiCall apiCall = apiCall(Map.of("status", field("$.status", null)));
+
+            // When / Then
+            StepVerifier.create(fieldExtractor.extractFields(chunks(body, 16, emitted), apiCall))
+                .assertNext(streamed -> assertEquals("ACTIVE", streamed.get("status")))
+                .verifyComplete();
+            assertTrue(emitted.get() < 5, "read " + emitted.get() + " chunks");
+        }
+
+        @Test
+        @DisplayName("Should fail when the response is not JSON")
+        void shouldFail_whenResponseNotJson() {
+            // Given
+            ApiCall apiCall = apiCall(Map.of("accountId", field("$.accountId", "UNKNOWN")));
+
+            // When / Then
+            StepVerifier.create(fieldExtractor.extractFields(chunks("<html>Bad Gateway</html>", 8, null), apiCall))
+                .expectError()
+                .verify();
+        }
+
+        private Flux<DataBuffer> chunks(String body, int size, AtomicInteger emitted) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            List<DataBuffer> buffers = new ArrayList<>();
+            for (int start = 0; start < bytes.length; start += size) {
+                byte[] chunk = new byte[Math.min(size, bytes.length - start)];
+                System.arraycopy(bytes, start, chunk, 0, chunk.length);
+                buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+            }
+            return Flux.fromIterable(buffers).doOnNext(buffer -> {
+                if (emitted != null) {
+                    emitted.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    // Helper methods
+    private ApiCall apiCall(Map<String, FieldSourceConfig> fieldSources) {
+        DataSourceConfig dataSource = DataSourceConfig.builder()
+            .providesFields(List.copyOf(fieldSources.keySet()))
+            .build();
+        return new ApiCall("arrangements-api", dataSource, new HashMap<>(fieldSources));
+    }
+
+    private FieldSourceConfig field(String extractionPath, Object defaultValue) {
+        return FieldSourceConfig.builder()
+            .sourceApi("arrangements-api")
+            .extractionPath(extractionPath)
+            .defaultValue(defaultValue)
+            .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.documenthub.service.extraction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InFlightApiCalls.
+ * Tests single-flight coalescing of identical concurrent API calls.
+ */
+public class InFlightApiCallsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InFlightApiCalls inFlightCalls;
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inFlightCalls = new InFlightApiCalls(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should share one exchange between concurrent identical calls")
+    void shouldShareExchange_forConcurrentCalls() {
+        // Given
+        Sinks.One<String> upstream = Sinks.one();
+
+        // When
+        Mono<String> first = inFlightCalls.execute("GET /prices/P1", () -> exchange(upstream.asMono()));
+        Mono<String> second = inFlightCalls.execute("GET /prices/P1", () -> exchange(upstream.asMono()));
+
+        // Then
+        StepVerifier.create(Mono.zip(first, second))
+            .then(() -> upstream.tryEmitValue("{\"price\":10}"))
+            .assertNext(both -> assertEquals(both.getT1(), both.getT2()))
+            .verifyComplete();
+        assertEquals(1, exchanges.get());
+        assertEquals(1.0, meterRegistry.counter("documenthub.extraction.coalesced").count());
+        assertEquals(0, inFlightCalls.size());
+    }
+
+    @Test
+    @DisplayName("Should start a new exchange once the previous one completed")
+    void shouldStartNewExchange_afterCompletion() {
+        // When
+        inFlightCalls.execute("GET /products/X", () -> exchange(Mono.just("{}"))).block();
+        inFlightCalls.execute("GET /products/X", () -> exchange(Mono.just("{}"))).block();
+
+        // Then
+        assertEquals(2, exchanges.get());
+    }
+
+    @Test
+    @DisplayName("Should not keep errors for later calls")
+    void shouldNotCacheErrors() {
+        // Given
+        StepVerifier.create(inFlightCalls.execute("GET /products/X",
+                () -> exchange(Mono.error(new IllegalStateException("upstream down")))))
+            .verifyError(IllegalStateException.class);
+
+        // When / Then
+        StepVerifier.create(inFlightCalls.execute("GET /products/X", () -> exchange(Mono.just("{}"))))
+            .expectNext("{}")
+            .verifyComplete();
+        assertEquals(2, exchanges.get());
+    }
+
+    @Test
+    @DisplayName("Should not share exchanges between different requests")
+    void shouldNotShare_forDifferentKeys() {
+        // Given
+        Sinks.One<String> upstream = Sinks.one();
+
+        // When
+        Mono<String> first = inFlightCalls.execute("GET /prices/P1", () -> exchange(upstream.asMono()));
+        Mono<String> second = inFlightCalls.execute("GET /prices/P2", () -> exchange(upstream.asMono()));
+
+        // Then
+        StepVerifier.create(Mono.zip(first, second))
+            .then(() -> upstream.tryEmitValue("{}"))
+            .expectNextCount(1)
+            .verifyComplete();
+        assertEquals(2, exchanges.get());
+    }
+
+    @Test
+    @DisplayName("Should cancel the exchange once every caller cancelled")
+    void shouldCancelExchange_whenAllCallersCancel() {
+        // Given
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger cancelled = new AtomicInteger();
+        Mono<String> exchange = upstream.asMono().doOnCancel(cancelled::incrementAndGet);
+
+        // When - the first caller cancels while the second is still waiting
+        Disposable first = inFlightCalls.execute("GET /prices/P1", () -> exchange(exchange)).subscribe();
+        Disposable second = inFlightCalls.execute("GET /prices/P1", () -> exchange(exchange)).subscribe();
+        first.dispose();
+
+        // Then
+        assertEquals(0, cancelled.get());
+        second.dispose();
+        assertEquals(1, cancelled.get());
+        assertEquals(0, inFlightCalls.size());
+    }
+
+    // Helper methods
+    private Mono<String> exchange(Mono<String> response) {
+        return Mono.defer(() -> {
+            exchanges.incrementAndGet();
+            return response;
+        });
+    }
+}
@@ -0,0 +1,202 @@
+package com.documenthub.placeholder;
+
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A string with ${name} placeholders, compiled once into literal and variable segments.
+ *
+ * <p><b>What:</b> Renders URLs, header values, request bodies and cache keys from a
+ * context map, and reports the variables that were missing. Used by the data extraction
+ * of fresh-doc-hub-poc and the CustomRuleEngine of document-hub-service.</p>
+ *
+ * <p><b>Why:</b> The same endpoint strings are resolved for every API call. Scanning
+ * them with a regex each time, then scanning the result again for leftover
+ * placeholders, is repeated work.</p>
+ *
+ * <p><b>How:</b> {@link #compile(String)} splits the string once. {@link #render(Map)}
+ * appends the segments into a single StringBuilder sized from the literal length, and
+ * records missing variables as it goes. A missing variable is left in the output as
+ * ${name}. {@link #renderUrl(Map)} additionally URL-encodes values.</p>
+ *
+ * <p><b>Example:</b>
+ * <pre>
+ * Template: "/api/accounts/${accountId}/details"
+ * Context: {accountId: "12345"}
+ * Result: "/api/accounts/12345/details"
+ * </pre>
+ * </p>
+ */
+public final class PlaceholderTemplate {
+
+    private static final String START = "${";
+    private static final String END = "}";
+
+    /** Estimated length of a rendered variable, used to size the output. */
+    private static final int VARIABLE_LENGTH_ESTIMATE = 16;
+
+    private final String template;
+    private final List<String> segments;
+    /** True for variable segments; all other segments are literals. */
+    private final boolean[] variable;
+    private final List<String> variables;
+    private final int literalLength;
+
+    private PlaceholderTemplate(String template, List<String> segments, boolean[] variable) {
+        this.template = template;
+        this.segments = segments;
+        this.variable = variable;
+
+        List<String> names = new ArrayList<>();
+        int length = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (variable[i]) {
+                names.add(segments.get(i));
+            } else {
+                length += segments.get(i).length();
+            }
+        }
+        this.variables = Collections.unmodifiableList(names);
+        this.literalLength = length;
+    }
+
+    /**
+     * Split a string into literal and variable segments.
+     *
+     * @param template String with ${name} placeholders
+     * @return The compiled template
+     */
+    public static PlaceholderTemplate compile(String template) {
+        List<String> segments = new ArrayList<>();
+        List<Boolean> kinds = new ArrayList<>();
+
+        int position = 0;
+        while (position < template.length()) {
+            int start = template.indexOf(START, position);
+            int end = start < 0 ? -1 : template.indexOf(END, start + START.length());
+            if (start < 0 || end < 0 || end == start + START.length()) {
+                // No (complete, non-empty) placeholder left: the rest is literal
+                int literalEnd = start >= 0 && end == start + START.length() ? end + 1 : template.length();
+                addLiteral(segments, kinds, template.substring(position, literalEnd));
+                position = literalEnd;
+                continue;
+            }
+            if (start > position) {
+                addLiteral(segments, kinds, template.substring(position, start));
+            }
+            segments.add(template.substring(start + START.length(), end));
+            kinds.add(Boolean.TRUE);
+            position = end + END.length();
+        }
+
+        boolean[] variable = new boolean[kinds.size()];
+        for (int i = 0; i < variable.length; i++) {
+            variable[i] = kinds.get(i);
+        }
+        return new PlaceholderTemplate(template, Collections.unmodifiableList(segments), variable);
+    }
+
+    private static void addLiteral(List<String> segments, List<Boolean> kinds, String literal) {
+        int last = segments.size() - 1;
+        if (last >= 0 && !kinds.get(last)) {
+            segments.set(last, segments.get(last) + literal);
+        } else {
+            segments.add(literal);
+            kinds.add(Boolean.FALSE);
+        }
+    }
+
+    /**
+     * Names of the variables in the template, in order of appearance.
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Render the template with values inserted as they are.
+     */
+    public Rendered render(Map<String, ?> context) {
+        return render(context, false);
+    }
+
+    /**
+     * Render a URL template, URL-encoding the inserted values.
+     *
+     * <p>Values are encoded as URI components, so a value containing "/", "?" or "&amp;"
+     * stays a single path segment or query value. A variable at the very start of the
+     * template holds a base URL and is inserted as is.</p>
+     */
+    public Rendered renderUrl(Map<String, ?> context) {
+        return render(context, true);
+    }
+
+    private Rendered render(Map<String, ?> context, boolean encode) {
+        StringBuilder result = new StringBuilder(literalLength + VARIABLE_LENGTH_ESTIMATE * variables.size());
+        List<String> missing = null;
+
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (!variable[i]) {
+                result.append(segment);
+                continue;
+            }
+
+            Object value = context.get(segment);
+            if (value == null) {
+                if (missing == null) {
+                    missing = new ArrayList<>(2);
+                }
+                missing.add(segment);
+                result.append(START).append(segment).append(END);
+            } else if (encode && i > 0) {
+                result.append(UriUtils.encode(value.toString(), StandardCharsets.UTF_8));
+            } else {
+                result.append(value);
+            }
+        }
+
+        return new Rendered(result.toString(), missing != null ? missing : Collections.emptyList());
+    }
+
+    /**
+     * Result of rendering a template.
+     */
+    public static final class Rendered {
+
+        private final String value;
+        private final List<String> missing;
+
+        Rendered(String value, List<String> missing) {
+            this.value = value;
+            this.missing = missing;
+        }
+
+        /**
+         * The rendered string; missing variables are left as ${name}.
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Variables that had no value in the context.
+         */
+        public List<String> getMissing() {
+            return missing;
+        }
+
+        public boolean isComplete() {
+            return missing.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.documenthub.placeholder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PlaceholderTemplate.
+ * Tests compiling ${name} templates and rendering them from a context map.
+ */
+public class PlaceholderTemplateTest {
+
+    @Nested
+    @DisplayName("compile")
+    class CompileTests {
+
+        @Test
+        @DisplayName("Should list variables in order of appearance")
+        void shouldListVariables() {
+            // When
+            PlaceholderTemplate template = PlaceholderTemplate.compile("/accounts/${accountId}/cards/${cardId}");
+
+            // Then
+            assertEquals(List.of("accountId", "cardId"), template.getVariables());
+        }
+
+        @Test
+        @DisplayName("Should treat empty and unterminated placeholders as literals")
+        void shouldTreatIncompletePlaceholdersAsLiterals() {
+            // When
+            PlaceholderTemplate template = PlaceholderTemplate.compile("a${}b${open");
+
+            // Then
+            assertTrue(template.getVariables().isEmpty());
+            assertEquals("a${}b${open", template.render(Map.of()).getValue());
+        }
+    }
+
+    @Nested
+    @DisplayName("render")
+    class RenderTests {
+
+        @Test
+        @DisplayName("Should insert values, including adjacent variables")
+        void shouldInsertValues() {
+            // Given
+            PlaceholderTemplate template = PlaceholderTemplate.compile("${type}${id}-${id}");
+
+            // When
+            PlaceholderTemplate.Rendered rendered = template.render(Map.of("type", "ACC", "id", 42));
+
+            // Then
+            assertEquals("ACC42-42", rendered.getValue());
+            assertTrue(rendered.isComplete());
+        }
+
+        @Test
+        @DisplayName("Should return literal-only templates unchanged")
+        void shouldReturnLiteralTemplate() {
+            // When
+            PlaceholderTemplate.Rendered rendered = PlaceholderTemplate.compile("{\"all\":true}").render(Map.of());
+
+            // Then
+            assertEquals("{\"all\":true}", rendered.getValue());
+            assertTrue(rendered.isComplete());
+        }
+
+        @Test
+        @DisplayName("Should keep missing variables and report them")
+        void shouldReportMissingVariables() {
+            // When
+            PlaceholderTemplate.Rendered rendered = PlaceholderTemplate.compile("/accounts/${accountId}/${region}")
+                .render(Map.of("region", "WEST"));
+
+            // Then
+            assertEquals("/accounts/${accountId}/WEST", rendered.getValue());
+            assertFalse(rendered.isComplete());
+            assertEquals(List.of("accountId"), rendered.getMissing());
+        }
+
+        @Test
+        @DisplayName("Should not re-interpret placeholders inside values")
+        void shouldNotExpandValues() {
+            // When
+            PlaceholderTemplate.Rendered rendered = PlaceholderTemplate.compile("id=${id}")
+                .render(Map.of("id", "${other}$1"));
+
+            // Then
+            assertEquals("id=${other}$1", rendered.getValue());
+        }
+    }
+
+    @Nested
+    @DisplayName("renderUrl")
+    class RenderUrlTests {
+
+        @Test
+        @DisplayName("Should URL-encode inserted values")
+        void shouldEncodeValues() {
+            // When
+            PlaceholderTemplate.Rendered rendered = PlaceholderTemplate.compile("http://host/products/${code}?q=${q}")
+                .renderUrl(Map.of("code", "a/b c", "q", "x&y=é"));
+
+            // Then
+            assertEquals("http://host/products/a%2Fb%20c?q=x%26y%3D%C3%A9", rendered.getValue());
+        }
+
+        @Test
+        @DisplayName("Should insert a leading base URL variable as is")
+        void shouldNotEncodeBaseUrl() {
+            // When
+            PlaceholderTemplate.Rendered rendered = PlaceholderTemplate.compile("${baseUrl}/accounts/${accountId}")
+                .renderUrl(Map.of("baseUrl", "http://localhost:8080/api", "accountId", "A 1"));
+
+            // Then
+            assertEquals("http://localhost:8080/api/accounts/A%201", rendered.getValue());
+        }
+    }
+}